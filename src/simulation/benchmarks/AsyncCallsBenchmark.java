@@ -0,0 +1,108 @@
+package simulation.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.controller.ControllerSetting;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>AsyncCallsBenchmark</code> compares the latency of a
+* snapshot of the household read with sequential blocking calls and with
+* composed asynchronous calls.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* A snapshot needs eight calls through the outbound ports of the controller
+* (consumption, two productions and five device states). Each call is
+* simulated by a wait of a fixed duration standing for a round-trip to a
+* remote component: 0 (same JVM), 0.5 ms and 2 ms. The sequential variant
+* makes the eight calls one after the other, as the controller did; the
+* parallel variant issues them through <code>AsyncCalls</code> on an executor
+* of <code>ControllerSetting.OUT_PORT_THREADS</code> threads and waits for all
+* of them, as <code>Controller.takeSnapshotAsync</code> does.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class AsyncCallsBenchmark {
+
+	/** number of calls needed for a snapshot. */
+	protected static final int CALLS = 8;
+	/** number of snapshots done before measuring. */
+	protected static final int WARMUP = 200;
+	/** number of measured snapshots. */
+	protected static final int RUNS = 500;
+
+	protected static double remoteCall(long latency) throws Exception {
+		if (latency > 0) {
+			LockSupport.parkNanos(latency);
+		}
+		return 1.0;
+	}
+
+	protected static double sequential(long latency) throws Exception {
+		double sum = 0.0;
+		for (int i = 0; i < CALLS; i++) {
+			sum += remoteCall(latency);
+		}
+		return sum;
+	}
+
+	protected static double parallel(long latency, ExecutorService executor) {
+		List<CompletableFuture<Double>> calls = new ArrayList<>(CALLS);
+		for (int i = 0; i < CALLS; i++) {
+			calls.add(AsyncCalls.supply(() -> remoteCall(latency), executor));
+		}
+		CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[CALLS])).join();
+		double sum = 0.0;
+		for (CompletableFuture<Double> c : calls) {
+			sum += c.join();
+		}
+		return sum;
+	}
+
+	public static void main(String[] args) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(ControllerSetting.OUT_PORT_THREADS);
+		long[] latencies = { 0L, 500000L, 2000000L };
+		try {
+			for (long latency : latencies) {
+				double checksum = 0.0;
+				for (int i = 0; i < WARMUP; i++) {
+					checksum += sequential(latency) + parallel(latency, executor);
+				}
+
+				long start = System.nanoTime();
+				for (int i = 0; i < RUNS; i++) {
+					checksum += sequential(latency);
+				}
+				double seq = (System.nanoTime() - start) / (double) RUNS / 1e3;
+
+				start = System.nanoTime();
+				for (int i = 0; i < RUNS; i++) {
+					checksum += parallel(latency, executor);
+				}
+				double par = (System.nanoTime() - start) / (double) RUNS / 1e3;
+
+				System.out.println(String.format(
+						"call latency %6.1f us: sequential %9.1f us  parallel %9.1f us  speedup %5.2f  (%.0f)",
+						latency / 1e3, seq, par, seq / par, checksum));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
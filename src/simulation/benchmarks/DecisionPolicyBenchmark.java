@@ -0,0 +1,111 @@
+package simulation.benchmarks;
+
+import java.util.Random;
+
+import simulation.tools.controller.Decision;
+import simulation.tools.controller.DecisionPolicy;
+import simulation.tools.enginegenerator.EngineGeneratorState;
+import simulation.tools.fridge.FridgeConsumption;
+import simulation.tools.washingmachine.WashingMachineState;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>DecisionPolicyBenchmark</code> measures the throughput of
+* the <code>DecisionPolicy</code> used by the controller model.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* The policy is filled with 3, 30 and 300 devices, cycling over the rules of
+* the engine generator, the fridge and the washing machine used by
+* <code>ControllerModel</code>. Each evaluation takes a decision for every
+* device, so the reported number of decisions per second is the number of
+* evaluations per second times the number of devices.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class DecisionPolicyBenchmark {
+
+	/** number of evaluations done before measuring. */
+	protected static final int WARMUP = 200000;
+	/** number of measured evaluations. */
+	protected static final int RUNS = 2000000;
+
+	/**
+	 * create a policy controlling <code>nbDevices</code> devices.
+	 *
+	 * @param nbDevices	number of controlled devices.
+	 * @return			the compiled policy.
+	 */
+	public static DecisionPolicy createPolicy(int nbDevices) {
+		DecisionPolicy p = new DecisionPolicy();
+		for (int i = 0; i < nbDevices; i++) {
+			if (i % 3 == 0) {
+				int d = p.addDevice("engine-generator-" + i, EngineGeneratorState.values().length);
+				p.whenAbove(d, EngineGeneratorState.ON.ordinal(), 0.0, Decision.STOP_ENGINE,
+						EngineGeneratorState.OFF.ordinal());
+				p.whenAtMost(d, EngineGeneratorState.OFF.ordinal(), -20.0, Decision.START_ENGINE,
+						EngineGeneratorState.ON.ordinal());
+			} else if (i % 3 == 1) {
+				int d = p.addDevice("fridge-" + i, FridgeConsumption.values().length);
+				p.whenAbove(d, FridgeConsumption.SUSPENDED.ordinal(), 0.0, Decision.RESUME_FRIDGE,
+						FridgeConsumption.RESUMED.ordinal());
+				p.whenAtMost(d, FridgeConsumption.RESUMED.ordinal(), 0.0, Decision.SUSPEND_FRIDGE,
+						FridgeConsumption.SUSPENDED.ordinal());
+			} else {
+				int d = p.addDevice("washing-machine-" + i, WashingMachineState.values().length);
+				p.whenAtMost(d, WashingMachineState.ON.ordinal(), 0.0, Decision.STOP_WASHING,
+						WashingMachineState.OFF.ordinal());
+				p.whenAtMost(d, WashingMachineState.WORKING.ordinal(), 0.0, Decision.STOP_WASHING,
+						WashingMachineState.OFF.ordinal());
+				p.whenAbove(d, WashingMachineState.OFF.ordinal(), 20.0, Decision.START_WASHING,
+						WashingMachineState.ON.ordinal());
+			}
+		}
+		return p.compile();
+	}
+
+	/**
+	 * run the evaluations and return a checksum to prevent dead code
+	 * elimination.
+	 */
+	protected static long run(DecisionPolicy p, double[] productions, double consumption, int runs) {
+		long fired = 0;
+		int mask = productions.length - 1;
+		for (int i = 0; i < runs; i++) {
+			fired += p.evaluate(productions[i & mask], consumption);
+		}
+		return fired;
+	}
+
+	public static void main(String[] args) {
+		Random rand = new Random(42);
+		double[] productions = new double[1 << 12];
+		for (int i = 0; i < productions.length; i++) {
+			productions[i] = 1000.0 + rand.nextGaussian() * 60.0;
+		}
+
+		int[] sizes = { 3, 30, 300 };
+		for (int n : sizes) {
+			DecisionPolicy p = createPolicy(n);
+			int runs = Math.max(RUNS / n, 10000);
+			long checksum = run(p, productions, 1000.0, WARMUP / Math.max(n / 3, 1));
+
+			long start = System.nanoTime();
+			checksum += run(p, productions, 1000.0, runs);
+			long elapsed = System.nanoTime() - start;
+
+			double evaluationsPerSecond = runs / (elapsed / 1e9);
+			System.out.println(String.format("%4d devices: %,14.0f evaluations/s  %,16.0f decisions/s  (%,d fired)",
+					n, evaluationsPerSecond, evaluationsPerSecond * n, checksum));
+		}
+	}
+}
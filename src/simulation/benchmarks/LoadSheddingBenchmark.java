@@ -0,0 +1,93 @@
+package simulation.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import wattwatt.tools.controller.LoadSheddingEngine;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>LoadSheddingBenchmark</code> measures the latency of a
+* shedding decision followed by the restoring of the shed devices.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* The devices are suspendable devices with random priorities, comfort costs
+* and draws, whose commands are only counted by the actuator; the deficit is
+* chosen so that about ten devices are shed. The latency should grow with the logarithm of the number of
+* devices only.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class LoadSheddingBenchmark {
+
+	/** number of decisions done before measuring. */
+	protected static final int WARMUP = 20000;
+	/** number of measured decisions. */
+	protected static final int RUNS = 20000;
+
+	/** number of commands sent by the actuator. */
+	protected static long switches;
+
+	/**
+	 * actuator counting the commands and sending all of them.
+	 *
+	 * @param device	index of the device.
+	 * @param restore	true to restore the device.
+	 * @return			true.
+	 */
+	protected static boolean actuate(int device, boolean restore) {
+		switches++;
+		return true;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Random rand = new Random(42);
+		int[] nbDevices = { 24, 1000, 100000 };
+
+		for (int n : nbDevices) {
+			LoadSheddingEngine engine = new LoadSheddingEngine();
+			double total = 0.0;
+			for (int i = 0; i < n; i++) {
+				int d = engine.addSuspendable(rand.nextInt(5), rand.nextDouble());
+				double power = 10.0 + rand.nextInt(90);
+				engine.updateDraw(d, power);
+				total += power;
+			}
+			double deficit = 10 * total / n;
+
+			double checksum = 0.0;
+			for (int i = 0; i < WARMUP; i++) {
+				checksum += engine.shed(deficit, LoadSheddingBenchmark::actuate)
+						- engine.restore(Double.POSITIVE_INFINITY, LoadSheddingBenchmark::actuate);
+			}
+			long[] latencies = new long[RUNS];
+			int shed = 0;
+			for (int i = 0; i < RUNS; i++) {
+				long start = System.nanoTime();
+				checksum += engine.shed(deficit, LoadSheddingBenchmark::actuate);
+				shed = engine.getShedCount();
+				checksum -= engine.restore(Double.POSITIVE_INFINITY, LoadSheddingBenchmark::actuate);
+				latencies[i] = System.nanoTime() - start;
+			}
+			Arrays.sort(latencies);
+			long sum = 0;
+			for (long l : latencies) {
+				sum += l;
+			}
+			System.out.println(String.format(
+					"%6d devices, %2d shed: mean %8.3f us  p99 %8.3f us  max %8.3f us  (checksum %.1f, %d commands)", n,
+					shed, sum / (double) RUNS / 1e3, latencies[RUNS * 99 / 100] / 1e3, latencies[RUNS - 1] / 1e3,
+					checksum, switches));
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package simulation.benchmarks;
+
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
+import wattwatt.tools.metrics.PortMetrics;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>PortInterceptorBenchmark</code> measures the overhead of the
+* interceptors of the ports on a call.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* Each operation is a call to a getter of a double, as the calls of the
+* controller to its outbound ports, made directly, through the empty chain
+* of interceptors and through a chain recording the port metrics. The
+* connector is left out so that only the overhead of the chain is measured;
+* give the index of a path as argument to measure it alone in the virtual
+* machine.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class PortInterceptorBenchmark {
+
+	/** number of operations done before measuring. */
+	protected static final int WARMUP = 5_000_000;
+	/** number of measured operations. */
+	protected static final int RUNS = 20_000_000;
+	/** number of measured rounds of each path. */
+	protected static final int ROUNDS = 5;
+
+	/** the intercepted method. */
+	protected static final PortMethod GET_CONSO = new PortMethod("getConso");
+
+	/**
+	 * A port made of one getter.
+	 */
+	protected static class Port {
+		protected PortInterceptorChain interceptors;
+		protected double conso = 3.0;
+
+		protected Port(PortInterceptorChain interceptors) {
+			this.interceptors = interceptors;
+		}
+
+		protected double directConso() throws Exception {
+			return this.conso;
+		}
+
+		protected double getConso() throws Exception {
+			return this.interceptors.call(GET_CONSO, () -> this.directConso());
+		}
+	}
+
+	@FunctionalInterface
+	protected static interface Operation {
+		public double run() throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Port direct = new Port(PortInterceptorChain.NONE);
+		Port none = new Port(PortInterceptorChain.NONE);
+		PortMetrics recorded = new PortMetrics();
+		Port metrics = new Port(PortInterceptorChain.of(recorded));
+
+		Operation[] paths = { direct::directConso, none::getConso, metrics::getConso };
+		String[] names = { "direct", "empty chain", "port metrics" };
+
+		if (args.length > 0) {
+			int p = Integer.parseInt(args[0]);
+			measure(names[p], paths[p]);
+		} else {
+			for (int p = 0; p < paths.length; p++) {
+				measure(names[p], paths[p]);
+			}
+		}
+		System.out.println(recorded.snapshot());
+	}
+
+	/**
+	 * measure a path.
+	 *
+	 * @param name	name of the path.
+	 * @param path	the operation.
+	 * @throws Exception	<i>todo.</i>
+	 */
+	protected static void measure(String name, Operation path) throws Exception {
+		double checksum = 0.0;
+		for (int i = 0; i < WARMUP; i++) {
+			checksum += path.run();
+		}
+		long best = Long.MAX_VALUE;
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				checksum += path.run();
+			}
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.println(String.format("%-14s: %6.2f ns/op  (checksum %.1f)", name, best / (double) RUNS, checksum));
+	}
+}
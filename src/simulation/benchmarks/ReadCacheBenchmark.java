@@ -0,0 +1,166 @@
+package simulation.benchmarks;
+
+import java.util.Random;
+
+import wattwatt.ports.devices.suspendable.fridge.FridgeOutPort;
+import wattwatt.ports.energyproviders.occasional.enginegenerator.EngineGeneratorOutPort;
+import wattwatt.ports.energyproviders.random.windturbine.WindTurbineOutPort;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+import wattwatt.tools.cache.ReadThroughCache;
+import wattwatt.tools.controller.ControllerSetting;
+import wattwatt.tools.fridge.FridgeStatus;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>ReadCacheBenchmark</code> counts the hits and misses of the
+* caches of the states read by the controller over a simulated day.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* The devices are replaced by their fields: at each step of one simulated
+* second, the wind turbine and the engine generator change their production
+* and fuel, the fridge its consumption, each device is switched with a small
+* probability, then the
+* controller takes a snapshot like its model in SIL. The caches are replayed
+* with the states dropped at each step of the devices, then with the
+* statuses kept for a simulated time to live and only the switches dropping
+* them. The age of a production read is the number of
+* steps since the wind turbine produced it.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class ReadCacheBenchmark {
+
+	/** number of steps of one simulated second replayed. */
+	protected static final int STEPS = 86400;
+	/** probability for a device to be switched at each step. */
+	protected static final double EVENT_PROBABILITY = 0.01;
+
+	protected static boolean fridgeOn;
+	protected static boolean fridgeWorking;
+	protected static boolean windTurbineOn;
+	protected static boolean engineGeneratorOn;
+	protected static double fridgeConsumption;
+	/** production of the wind turbine and step at which it was produced. */
+	protected static double[] windProduction;
+	protected static double engineProduction;
+	protected static double fuel;
+	/** simulated time of the replay, in seconds. */
+	protected static double simulatedTime;
+
+	/** number of requests reaching the devices. */
+	protected static long requests;
+
+	/**
+	 * replay a simulated day.
+	 *
+	 * @param perStep	true to drop the states at each step of the devices.
+	 */
+	protected static void replay(boolean perStep) throws Exception {
+		Random rand = new Random(42);
+		fridgeOn = true;
+		fridgeWorking = true;
+		windTurbineOn = true;
+		engineGeneratorOn = false;
+		fridgeConsumption = 0.0;
+		windProduction = new double[] { 0.0, 0.0 };
+		engineProduction = 0.0;
+		fuel = 100.0;
+		simulatedTime = 0.0;
+		requests = 0;
+
+		double ttl = ControllerSetting.READ_CACHE_TTL;
+		ReadThroughCache fridge = new ReadThroughCache(ReadThroughCache.WALL_CLOCK);
+		ReadThroughCache windTurbine = new ReadThroughCache(ReadThroughCache.WALL_CLOCK);
+		ReadThroughCache engineGenerator = new ReadThroughCache(ReadThroughCache.WALL_CLOCK);
+		if (perStep) {
+			fridge.setTtl(FridgeOutPort.READ_STATUS, ttl);
+			windTurbine.setTtl(WindTurbineOutPort.READ_STATUS, ttl);
+			engineGenerator.setTtl(EngineGeneratorOutPort.READ_STATUS, ttl);
+		} else {
+			double sampleTtl = ControllerSetting.READ_SAMPLE_TTL;
+			fridge.setTtl(FridgeOutPort.READ_STATUS, sampleTtl, () -> simulatedTime);
+			windTurbine.setTtl(WindTurbineOutPort.READ_STATUS, sampleTtl, () -> simulatedTime);
+			engineGenerator.setTtl(EngineGeneratorOutPort.READ_STATUS, sampleTtl, () -> simulatedTime);
+		}
+
+		long staleSnapshots = 0;
+		double oldest = 0.0;
+		for (int step = 0; step < STEPS; step++) {
+			simulatedTime = step;
+
+			// the steps of the devices
+			if (rand.nextDouble() < EVENT_PROBABILITY) {
+				windTurbineOn = !windTurbineOn;
+				windTurbine.invalidate();
+			}
+			windProduction = new double[] { windTurbineOn ? 10.0 * rand.nextDouble() : 0.0, step };
+			if (rand.nextDouble() < EVENT_PROBABILITY) {
+				engineGeneratorOn = !engineGeneratorOn;
+				engineGenerator.invalidate();
+			}
+			if (engineGeneratorOn) {
+				engineProduction += 1.0;
+				fuel = fuel <= 1.0 ? 100.0 : fuel - 1.0;
+			}
+			if (rand.nextDouble() < EVENT_PROBABILITY) {
+				fridgeWorking = !fridgeWorking;
+				fridge.invalidate();
+			}
+			fridgeConsumption = fridgeWorking ? 5.0 + rand.nextDouble() : 0.0;
+			if (perStep) {
+				fridge.invalidate();
+				windTurbine.invalidate();
+				engineGenerator.invalidate();
+			}
+
+			// the snapshot of the controller
+			double[] production = windTurbine.read(WindTurbineOutPort.READ_STATUS, () -> {
+				requests++;
+				return windProduction;
+			});
+			EngineGeneratorStatus status = engineGenerator.read(EngineGeneratorOutPort.READ_STATUS, () -> {
+				requests++;
+				return new EngineGeneratorStatus(engineGeneratorOn, engineProduction, fuel);
+			});
+			FridgeStatus fridgeStatus = fridge.read(FridgeOutPort.READ_STATUS, () -> {
+				requests++;
+				return new FridgeStatus(fridgeOn, fridgeWorking, fridgeConsumption, 0.0, 0.0);
+			});
+			if (production != windProduction || status.isOn() != engineGeneratorOn
+					|| status.getProduction() != engineProduction || fridgeStatus.isOn() != fridgeOn
+					|| fridgeStatus.isWorking() != fridgeWorking) {
+				staleSnapshots++;
+			}
+			oldest = Math.max(oldest, step - production[1]);
+		}
+
+		System.out.println(perStep ? "states dropped at each step:" : "statuses kept for a simulated time to live:");
+		for (ReadThroughCache.MethodSnapshot s : fridge.snapshot()) {
+			System.out.println("  fridge cache " + s);
+		}
+		for (ReadThroughCache.MethodSnapshot s : windTurbine.snapshot()) {
+			System.out.println("  wind turbine cache " + s);
+		}
+		for (ReadThroughCache.MethodSnapshot s : engineGenerator.snapshot()) {
+			System.out.println("  engine generator cache " + s);
+		}
+		System.out.println(String.format(
+				"  %d requests to the devices for %d snapshots, %d with an old production, oldest %.0f step(s)",
+				requests, STEPS, staleSnapshots, oldest));
+	}
+
+	public static void main(String[] args) throws Exception {
+		replay(true);
+		replay(false);
+	}
+}
@@ -0,0 +1,92 @@
+package simulation.benchmarks;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import wattwatt.tools.controller.ControllerSetting;
+import wattwatt.tools.controller.LoadForecaster;
+import wattwatt.tools.controller.ScheduleOptimizer;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>ScheduleOptimizerBenchmark</code> measures the latency of a
+* planning decision of the controller over a 24 hour horizon.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* A decision is one forecast of the surplus over the horizon followed by one
+* placement of the schedulable devices, as done by
+* <code>Controller.scheduleWashingMachine</code>. It is measured with slots of
+* one minute and of ten seconds, placing 1 and 10 devices; the target is a
+* decision under one millisecond.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class ScheduleOptimizerBenchmark {
+
+	/** number of decisions done before measuring. */
+	protected static final int WARMUP = 20000;
+	/** number of measured decisions. */
+	protected static final int RUNS = 20000;
+
+	protected static double decide(LoadForecaster f, ScheduleOptimizer o, double[] surplus, int nbDevices,
+			int slotsPerWashing) {
+		f.forecastSurplus(surplus);
+		o.clear();
+		for (int d = 0; d < nbDevices; d++) {
+			o.addDevice(slotsPerWashing, 30.0 + 5 * d, 0, surplus.length - slotsPerWashing);
+		}
+		return o.optimize(surplus);
+	}
+
+	public static void main(String[] args) {
+		Random rand = new Random(42);
+		int[] slotWidths = { ControllerSetting.SCHEDULING_SLOT, 10 };
+		int[] nbDevices = { 1, 10 };
+
+		for (int width : slotWidths) {
+			LoadForecaster f = new LoadForecaster(ControllerSetting.SCHEDULING_HORIZON, width,
+					ControllerSetting.FORECAST_SMOOTHING);
+			for (int t = 0; t < 3 * ControllerSetting.SCHEDULING_HORIZON; t += width) {
+				double hour = (t % ControllerSetting.SCHEDULING_HORIZON) / 3600.0;
+				f.observe(t, 60.0 + 40.0 * Math.sin(hour / 24.0 * 2 * Math.PI) + rand.nextGaussian() * 10.0,
+						40.0 + rand.nextGaussian() * 5.0);
+			}
+			double[] surplus = new double[f.getNumberOfSlots()];
+			// a washing lasts 50 minutes
+			int slotsPerWashing = 3000 / width;
+
+			for (int n : nbDevices) {
+				ScheduleOptimizer o = new ScheduleOptimizer(f.getNumberOfSlots(), n);
+				double checksum = 0.0;
+				for (int i = 0; i < WARMUP; i++) {
+					checksum += decide(f, o, surplus, n, slotsPerWashing);
+				}
+				long[] latencies = new long[RUNS];
+				for (int i = 0; i < RUNS; i++) {
+					long start = System.nanoTime();
+					checksum += decide(f, o, surplus, n, slotsPerWashing);
+					latencies[i] = System.nanoTime() - start;
+				}
+				Arrays.sort(latencies);
+				long sum = 0;
+				for (long l : latencies) {
+					sum += l;
+				}
+				System.out.println(String.format(
+						"%5d slots, %2d devices: mean %8.1f us  p99 %8.1f us  max %8.1f us  (checksum %.1f)",
+						f.getNumberOfSlots(), n, sum / (double) RUNS / 1e3, latencies[RUNS * 99 / 100] / 1e3,
+						latencies[RUNS - 1] / 1e3, checksum));
+			}
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package simulation.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
+import simulation.tools.fridge.FridgeConsumption;
+import simulation.tools.fridge.FridgeDoor;
+import wattwatt.tools.fridge.FridgeStateKey;
+import wattwatt.tools.state.StateTable;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>StateAccessBenchmark</code> compares the string-keyed access
+* of the models to the state of their component with the access through a
+* <code>StateTable</code>.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* Each operation is the access done by the fridge model at each transition in
+* SIL: it reads the door, the state, the temperature and the consumption of the
+* component, then writes back the temperature and the consumption. It is done
+* through the former chain of <code>name.equals</code> boxing the doubles,
+* through the string-keyed access delegating to the table, and through the
+* typed access of the table. The benchmark reports the time and the bytes
+* allocated per operation; give the index of a path as argument to measure it
+* alone in the virtual machine.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class StateAccessBenchmark {
+
+	/** number of operations done before measuring. */
+	protected static final int WARMUP = 5_000_000;
+	/** number of measured operations. */
+	protected static final int RUNS = 20_000_000;
+	/** number of measured rounds of each path. */
+	protected static final int ROUNDS = 5;
+
+	/**
+	 * The state of a fridge component, accessed as the component did before
+	 * its table.
+	 */
+	protected static class LegacyFridge implements EmbeddingComponentAccessI {
+		protected FridgeConsumption consumptionState = FridgeConsumption.RESUMED;
+		protected FridgeDoor currentDoorState = FridgeDoor.CLOSED;
+		protected double temperature = 4.0;
+		protected double conso = 3.0;
+
+		@Override
+		public Object getEmbeddingComponentStateValue(String name) throws Exception {
+			if (name.equals("door")) {
+				return this.currentDoorState;
+			} else if (name.equals("consumption")) {
+				return Double.valueOf(this.conso);
+			} else if (name.equals("temperature")) {
+				return Double.valueOf(this.temperature);
+			} else {
+				assert name.equals("state");
+				return this.consumptionState;
+			}
+		}
+
+		@Override
+		public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
+			if (name.equals("close")) {
+				this.currentDoorState = FridgeDoor.CLOSED;
+			} else if (name.equals("open")) {
+				this.currentDoorState = FridgeDoor.OPENED;
+			} else if (name.equals("temperature")) {
+				this.temperature = (double) value;
+			} else {
+				assert name.equals("consumption");
+				this.conso = (double) value;
+			}
+		}
+	}
+
+	/**
+	 * The same state accessed through a table, as the fridge component does.
+	 */
+	protected static class TableFridge extends LegacyFridge {
+		protected final StateTable<FridgeStateKey> stateTable;
+
+		protected TableFridge() {
+			this.stateTable = new StateTable<>(FridgeStateKey.class);
+			this.stateTable.putValue(FridgeStateKey.DOOR, () -> this.currentDoorState, null);
+			this.stateTable.putValue(FridgeStateKey.STATE, () -> this.consumptionState, null);
+			this.stateTable.putDouble(FridgeStateKey.TEMPERATURE, () -> this.temperature, v -> this.temperature = v);
+			this.stateTable.putDouble(FridgeStateKey.CONSUMPTION, () -> this.conso, v -> this.conso = v);
+		}
+
+		@Override
+		public Object getEmbeddingComponentStateValue(String name) throws Exception {
+			return this.stateTable.getValue(name);
+		}
+
+		@Override
+		public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
+			this.stateTable.setValue(name, value);
+		}
+	}
+
+	@FunctionalInterface
+	protected static interface Transition {
+		public double run(int i) throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		LegacyFridge legacy = new LegacyFridge();
+		TableFridge named = new TableFridge();
+		StateTable<FridgeStateKey> typed = StateTable.of(new TableFridge(), FridgeStateKey.class);
+
+		Transition[] paths = { i -> {
+			FridgeDoor door = (FridgeDoor) legacy.getEmbeddingComponentStateValue("door");
+			FridgeConsumption state = (FridgeConsumption) legacy.getEmbeddingComponentStateValue("state");
+			double t = (Double) legacy.getEmbeddingComponentStateValue("temperature");
+			double c = (Double) legacy.getEmbeddingComponentStateValue("consumption");
+			legacy.setEmbeddingComponentStateValue("temperature", t + (i & 1) - 0.5);
+			legacy.setEmbeddingComponentStateValue("consumption", c);
+			return door.ordinal() + state.ordinal() + t;
+		}, i -> {
+			FridgeDoor door = (FridgeDoor) named.getEmbeddingComponentStateValue("door");
+			FridgeConsumption state = (FridgeConsumption) named.getEmbeddingComponentStateValue("state");
+			double t = (Double) named.getEmbeddingComponentStateValue("temperature");
+			double c = (Double) named.getEmbeddingComponentStateValue("consumption");
+			named.setEmbeddingComponentStateValue("temperature", t + (i & 1) - 0.5);
+			named.setEmbeddingComponentStateValue("consumption", c);
+			return door.ordinal() + state.ordinal() + t;
+		}, i -> {
+			FridgeDoor door = (FridgeDoor) typed.getValue(FridgeStateKey.DOOR);
+			FridgeConsumption state = (FridgeConsumption) typed.getValue(FridgeStateKey.STATE);
+			double t = typed.getDouble(FridgeStateKey.TEMPERATURE);
+			double c = typed.getDouble(FridgeStateKey.CONSUMPTION);
+			typed.setDouble(FridgeStateKey.TEMPERATURE, t + (i & 1) - 0.5);
+			typed.setDouble(FridgeStateKey.CONSUMPTION, c);
+			return door.ordinal() + state.ordinal() + t;
+		} };
+		String[] names = { "string-keyed, equals chain", "string-keyed, table", "typed, table" };
+
+		// a path given as argument is measured alone, on a profile that the
+		// other paths do not pollute
+		if (args.length > 0) {
+			int p = Integer.parseInt(args[0]);
+			measure(names[p], paths[p]);
+		} else {
+			for (int p = 0; p < paths.length; p++) {
+				measure(names[p], paths[p]);
+			}
+		}
+	}
+
+	/**
+	 * measure a path.
+	 *
+	 * @param name	name of the path.
+	 * @param path	the operation.
+	 * @throws Exception	<i>todo.</i>
+	 */
+	protected static void measure(String name, Transition path) throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		double checksum = 0.0;
+		for (int i = 0; i < WARMUP; i++) {
+			checksum += path.run(i);
+		}
+		long best = Long.MAX_VALUE;
+		long bytes = 0;
+		for (int r = 0; r < ROUNDS; r++) {
+			long allocated = threads.getThreadAllocatedBytes(thread);
+			long start = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				checksum += path.run(i);
+			}
+			best = Math.min(best, System.nanoTime() - start);
+			bytes = threads.getThreadAllocatedBytes(thread) - allocated;
+		}
+		System.out.println(String.format("%-28s: %6.2f ns/op  %6.2f bytes/op  (checksum %.1f)", name,
+				best / (double) RUNS, bytes / (double) RUNS, checksum));
+	}
+}
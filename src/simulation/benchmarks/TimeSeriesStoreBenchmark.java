@@ -0,0 +1,100 @@
+package simulation.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import simulation.tools.timeseries.TimeSeries;
+import simulation.tools.timeseries.TimeSeriesStore;
+
+//-----------------------------------------------------------------------------
+/**
+* The class <code>TimeSeriesStoreBenchmark</code> measures the cost of keeping
+* the readings of a long run in a <code>TimeSeriesStore</code>.
+*
+* <p><strong>Description</strong></p>
+*
+* <p>
+* A month of readings every ten seconds is appended to a series, the values
+* being a consumption changing at random times between a few levels, as
+* produced by the electric meter model. The benchmark reports the append
+* rate, the number of bytes per point, the scan rate of the whole month and
+* the latency of the aggregation of a day, an hour and a minute.
+* </p>
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class TimeSeriesStoreBenchmark {
+
+	/** time between two readings, in seconds. */
+	protected static final double PERIOD = 10.0;
+	/** number of readings, a month of readings. */
+	protected static final int POINTS = (int) (30 * 24 * 3600 / PERIOD);
+	/** number of aggregations done before measuring. */
+	protected static final int WARMUP = 20000;
+	/** number of measured aggregations. */
+	protected static final int RUNS = 20000;
+
+	public static void main(String[] args) throws Exception {
+		Path directory = Files.createTempDirectory("time-series");
+		TimeSeriesStore store = new TimeSeriesStore(directory.toString());
+		TimeSeries series = store.getSeries("electric-meter:consumption");
+		Random rand = new Random(42);
+		double[] levels = { 0.0, 80.0, 1200.0, 1280.0, 2000.0, 2080.0 };
+
+		long start = System.nanoTime();
+		double value = 0.0;
+		for (int i = 0; i < POINTS; i++) {
+			if (rand.nextInt(20) == 0) {
+				value = levels[rand.nextInt(levels.length)];
+			}
+			series.append(i * PERIOD, value);
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.println(String.format("append: %d points, %8.1f ns/point, %.2f bytes/point", POINTS,
+				elapsed / (double) POINTS, series.getStoredBytes() / (double) POINTS));
+
+		double[] sum = { 0.0 };
+		TimeSeries.PointConsumer consumer = (t, v) -> sum[0] += v;
+		for (int i = 0; i < 5; i++) {
+			series.scan(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, consumer);
+		}
+		start = System.nanoTime();
+		long n = series.scan(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, consumer);
+		elapsed = System.nanoTime() - start;
+		System.out.println(String.format("scan: %d points, %8.1f ns/point  (checksum %.1f)", n,
+				elapsed / (double) n, sum[0]));
+
+		TimeSeries.Aggregate aggregate = new TimeSeries.Aggregate();
+		double[] widths = { 24 * 3600.0, 3600.0, 60.0 };
+		String[] names = { "day", "hour", "minute" };
+		double end = POINTS * PERIOD;
+		for (int w = 0; w < widths.length; w++) {
+			double checksum = 0.0;
+			for (int i = 0; i < WARMUP; i++) {
+				double from = rand.nextDouble() * (end - widths[w]);
+				checksum += series.aggregate(from, from + widths[w], aggregate).sum;
+			}
+			long total = 0;
+			long max = 0;
+			for (int i = 0; i < RUNS; i++) {
+				double from = rand.nextDouble() * (end - widths[w]);
+				long s = System.nanoTime();
+				checksum += series.aggregate(from, from + widths[w], aggregate).sum;
+				long l = System.nanoTime() - s;
+				total += l;
+				max = Math.max(max, l);
+			}
+			System.out.println(String.format("aggregate a %-6s: mean %8.1f us  max %8.1f us  (checksum %.1f)",
+					names[w], total / (double) RUNS / 1e3, max / 1e3, checksum));
+		}
+		store.close();
+	}
+}
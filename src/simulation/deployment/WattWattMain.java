@@ -34,6 +34,7 @@ import simulation.events.controller.StartWashingMachineEvent;
 import simulation.events.controller.StopEngineGeneratorEvent;
 import simulation.events.controller.StopWashingMachineEvent;
 import simulation.events.controller.SuspendFridgeEvent;
+import simulation.events.electricmeter.AnomalyEvent;
 import simulation.events.electricmeter.ConsumptionEvent;
 import simulation.events.enginegenerator.EngineGeneratorProductionEvent;
 import simulation.events.enginegenerator.RefillEvent;
@@ -459,6 +460,9 @@ public class WattWattMain {
 			EventSource from611 = new EventSource(TicModel.URI + "-6", TicEvent.class);
 			EventSink[] to611 = new EventSink[] { new EventSink(ElectricMeterModel.URI, TicEvent.class) };
 			connections.put(from611, to611);
+			EventSource from612 = new EventSource(ElectricMeterModel.URI, AnomalyEvent.class);
+			EventSink[] to612 = new EventSink[] { new EventSink(ControllerModel.URI, AnomalyEvent.class) };
+			connections.put(from612, to612);
 
 			coupledModelDescriptors.put(WattWattModel.URI,
 					new CoupledModelDescriptor(WattWattModel.class, WattWattModel.URI, submodels, null, null,
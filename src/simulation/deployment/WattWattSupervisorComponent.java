@@ -26,6 +26,7 @@ import simulation.events.controller.StartWashingMachineEvent;
 import simulation.events.controller.StopEngineGeneratorEvent;
 import simulation.events.controller.StopWashingMachineEvent;
 import simulation.events.controller.SuspendFridgeEvent;
+import simulation.events.electricmeter.AnomalyEvent;
 import simulation.events.electricmeter.ConsumptionEvent;
 import simulation.events.enginegenerator.EngineGeneratorProductionEvent;
 import simulation.events.fridge.FridgeConsumptionEvent;
@@ -186,7 +187,8 @@ public class WattWattSupervisorComponent extends AbstractComponent {
 						},
 						(Class<? extends EventI>[])
 						new Class<?>[]{
-						ConsumptionEvent.class
+						ConsumptionEvent.class,
+						AnomalyEvent.class
 						},
 						TimeUnit.SECONDS,
 						modelURIs2componentURIs.get(ElectricMeterModel.URI))) ;
@@ -201,6 +203,7 @@ public class WattWattSupervisorComponent extends AbstractComponent {
 						(Class<? extends EventI>[])
 						new Class<?>[]{
 							ConsumptionEvent.class,
+							AnomalyEvent.class,
 							EngineGeneratorProductionEvent.class,
 							WindTurbineProductionEvent.class
 						},
@@ -437,6 +440,16 @@ public class WattWattSupervisorComponent extends AbstractComponent {
 								WashingMachineCoupledModel.URI,
 								StopWashingMachineEvent.class)} ;
 		connections.put(from12, to12) ;
+		EventSource from13 =
+				new EventSource(
+						ElectricMeterModel.URI,
+						AnomalyEvent.class) ;
+		EventSink[] to13 =
+				new EventSink[] {
+						new EventSink(
+								ControllerModel.URI,
+								AnomalyEvent.class)} ;
+		connections.put(from13, to13) ;
 		
 
 		
@@ -0,0 +1,100 @@
+package simulation.events.electricmeter;
+
+import fr.sorbonne_u.devs_simulation.models.AtomicModel;
+import fr.sorbonne_u.devs_simulation.models.events.EventInformationI;
+import fr.sorbonne_u.devs_simulation.models.time.Time;
+import simulation.models.controller.ControllerModel;
+import simulation.tools.electricmeter.AnomalyKind;
+
+//----------------------------------------------------------------------------
+/**
+* The class <code>AnomalyEvent</code> define an event sent by the electric meter
+* to flag an abnormal behaviour of a device
+*
+*
+* <p>
+* Created on : 2020-01-27
+* </p>
+*
+* @author
+*         <p>
+*         Bah Thierno, Zheng Pascal
+*         </p>
+*/
+public class AnomalyEvent extends AbstractElectricMeterEvent {
+
+	/**
+	 * The class <code>Alert</code> implements the flagged behaviour as an
+	 * event content.
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * <p><strong>Invariant</strong></p>
+	 *
+	 * <pre>
+	 * invariant		device != null &amp;&amp; kind != null
+	 * </pre>
+	 *
+	* <p>Created on : 2020-01-27</p>
+	*
+	* @author	<p>Bah Thierno, Zheng Pascal</p>
+	*/
+	public static class		Alert
+	implements EventInformationI
+	{
+		private static final long serialVersionUID = 1L;
+		/** URI of the device */
+		public final String device ;
+		/** kind of anomaly */
+		public final AnomalyKind kind ;
+		/** value which made the meter flag the device: length of the run or power */
+		public final double	value ;
+
+		public			Alert(String device, AnomalyKind kind, double value)
+		{
+			super();
+			assert device != null && kind != null ;
+			this.device = device;
+			this.kind = kind;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() {
+			return this.device + " " + this.kind + " (" + this.value + ")";
+		}
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Create an AnomalyEvent sent by the electric meter
+	 *
+	 *
+	 * @param timeOfOccurrence	time of occurrence of the event.
+	 * @param content			content of the event.
+	 */
+	public AnomalyEvent(Time timeOfOccurrence, EventInformationI content) {
+		super(timeOfOccurrence, content);
+	}
+
+	@Override
+	public String eventAsString() {
+		return "Electric meter anomaly(" + this.eventContentAsString() + ")";
+	}
+
+	@Override
+	public String eventContentAsString() {
+		return	"time = " + this.getTimeOfOccurrence() + ", " +
+				"alert = " + this.getEventInformation();
+	}
+
+	@Override
+	public void	executeOn(AtomicModel model)
+	{
+		assert	model instanceof ControllerModel ;
+
+		ControllerModel m = (ControllerModel)model ;
+		m.anomalyDetected((Alert)this.getEventInformation());
+	}
+}
@@ -1,9 +1,13 @@
 package simulation.models.controller;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Vector;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
@@ -24,16 +28,33 @@ import simulation.events.controller.StartWashingMachineEvent;
 import simulation.events.controller.StopEngineGeneratorEvent;
 import simulation.events.controller.StopWashingMachineEvent;
 import simulation.events.controller.SuspendFridgeEvent;
+import simulation.events.electricmeter.AnomalyEvent;
 import simulation.events.electricmeter.ConsumptionEvent;
 import simulation.events.enginegenerator.EngineGeneratorProductionEvent;
 import simulation.events.windturbine.WindTurbineProductionEvent;
+import simulation.tools.controller.ActuationGovernor;
 import simulation.tools.controller.Decision;
+import simulation.tools.controller.DecisionPolicy;
+import simulation.tools.controller.DecisionTimeline;
 import simulation.tools.enginegenerator.EngineGeneratorState;
 import simulation.tools.fridge.FridgeConsumption;
+import simulation.tools.timeseries.TimeSeries;
+import simulation.tools.timeseries.TimeSeriesStore;
 import simulation.tools.washingmachine.WashingMachineState;
 import wattwatt.tools.URIS;
+import wattwatt.tools.controller.CommandBatch;
+import wattwatt.tools.controller.ControllerSetting;
+import wattwatt.tools.controller.ControllerStateKey;
+import wattwatt.tools.controller.HouseholdSnapshot;
+import wattwatt.tools.controller.LoadSheddingEngine;
+import wattwatt.tools.fridge.FridgeSetting;
+import wattwatt.tools.metrics.ControlLoopMetrics;
+import wattwatt.tools.metrics.LatencyHistogram;
+import wattwatt.tools.state.StateTable;
+import wattwatt.tools.washingmachine.WashingMachineSetting;
 
 @ModelExternalEvents(imported = { ConsumptionEvent.class, 
+								  AnomalyEvent.class,
 								  EngineGeneratorProductionEvent.class,
 								  WindTurbineProductionEvent.class },
 					 exported = { StartEngineGeneratorEvent.class,
@@ -78,48 +99,6 @@ public class ControllerModel extends AtomicModel {
 	// Inner classes
 	// -------------------------------------------------------------------------
 
-	/**
-	 * The class <code>DecisionPiece</code> implements a piece in a piecewise
-	 * representation of the observed decision function.
-	 *
-	 * <p><strong>Description</strong></p>
-	 * 
-	 * <p><strong>Invariant</strong></p>
-	 * 
-	 * <pre>
-	 * invariant		true	// TODO
-	 * </pre>
-	 * 
- 	 * <p>
- 	 * Created on : 2020-01-27
-	 * </p>
-	 * 
-	 * @author
-	 *         <p>
-	 *         Bah Thierno, Zheng Pascal
-	 *         </p>
-	 */
-	public static class DecisionPiece {
-		public final double first;
-		public final double last;
-		public final Decision d;
-
-		public DecisionPiece(double first, double last, Decision d) {
-			super();
-			this.first = first;
-			this.last = last;
-			this.d = d;
-		}
-
-		/**
-		 * @see java.lang.Object#toString()
-		 */
-		@Override
-		public String toString() {
-			return "(" + this.first + ", " + this.last + ", " + this.d + ")";
-		}
-	}
-
 	/**
 	 * The class <code>ControllerModelReport</code> implements the simulation
 	 * report of the controller model.
@@ -144,8 +123,55 @@ public class ControllerModel extends AtomicModel {
 	public static class ControllerModelReport extends AbstractSimulationReport {
 		private static final long serialVersionUID = 1L;
 
-		public ControllerModelReport(String modelURI) {
+		/** simulated time during which each decision held. */
+		protected final Map<Decision, Double> decisionDurations;
+		/** number of commands let through by the actuation governor. */
+		protected final long permittedCommands;
+		/** number of commands suppressed by the actuation governor. */
+		protected final long suppressedCommands;
+		/** number of transitions saved by the actuation governor. */
+		protected final long suppressedTransitions;
+		/** latencies of each hop of the control loop, wall-clock in
+		 *  nanoseconds and simulated in microseconds. */
+		protected final Map<String, LatencyHistogram.Summary> latencies;
+		/** number of alerts received from the electric meter, by device and
+		 *  kind of anomaly. */
+		protected final Map<String, Long> anomalies;
+
+		public ControllerModelReport(String modelURI, Map<Decision, Double> decisionDurations, long permittedCommands,
+				long suppressedCommands, long suppressedTransitions, Map<String, LatencyHistogram.Summary> latencies,
+				Map<String, Long> anomalies) {
 			super(modelURI);
+			this.decisionDurations = decisionDurations;
+			this.permittedCommands = permittedCommands;
+			this.suppressedCommands = suppressedCommands;
+			this.suppressedTransitions = suppressedTransitions;
+			this.latencies = latencies;
+			this.anomalies = anomalies;
+		}
+
+		public Map<Decision, Double> getDecisionDurations() {
+			return this.decisionDurations;
+		}
+
+		public long getPermittedCommands() {
+			return this.permittedCommands;
+		}
+
+		public long getSuppressedCommands() {
+			return this.suppressedCommands;
+		}
+
+		public long getSuppressedTransitions() {
+			return this.suppressedTransitions;
+		}
+
+		public Map<String, LatencyHistogram.Summary> getLatencies() {
+			return this.latencies;
+		}
+
+		public Map<String, Long> getAnomalies() {
+			return this.anomalies;
 		}
 
 		/**
@@ -153,7 +179,10 @@ public class ControllerModel extends AtomicModel {
 		 */
 		@Override
 		public String toString() {
-			return "ControllerModel(" + this.getModelURI() + ")";
+			return "ControllerModel(" + this.getModelURI() + ", " + this.decisionDurations + ", commands sent: "
+					+ this.permittedCommands + ", commands suppressed: " + this.suppressedCommands
+					+ ", transitions suppressed: " + this.suppressedTransitions + ", latencies: " + this.latencies
+					+ ", anomalies: " + this.anomalies + ")";
 		}
 	}
 
@@ -187,6 +216,67 @@ public class ControllerModel extends AtomicModel {
 	private static final String CONTROLLER_STUB = "controller-stub";
 	public static final String CONTROLLER_STUB_SERIES = "controller-stub-series";
 
+	/** name of the run parameter giving the number of decision segments
+	 *  kept in memory for each device. */
+	public static final String DECISION_TIMELINE_CAPACITY_PARAM = "decision-timeline-capacity";
+	/** name of the run parameter giving the directory in which the oldest
+	 *  decision segments are spilled; they are dropped when absent. */
+	public static final String DECISION_SPILL_DIRECTORY_PARAM = "decision-spill-directory";
+
+	/** index of the engine generator in the decision policy. */
+	public static final int ENGINE_GENERATOR_INDEX = 0;
+	/** index of the fridge in the decision policy. */
+	public static final int FRIDGE_INDEX = 1;
+	/** index of the washing machine in the decision policy. */
+	public static final int WASHING_MACHINE_INDEX = 2;
+
+	/** index of the fridge in the load shedding engine. */
+	public static final int FRIDGE_SHEDDING_INDEX = 0;
+	/** index of the washing machine in the load shedding engine. */
+	public static final int WASHING_MACHINE_SHEDDING_INDEX = 1;
+	/** index in the decision policy of the devices of the load shedding
+	 *  engine, by index in the engine. */
+	protected static final int[] SHEDDING_DEVICES = { FRIDGE_INDEX, WASHING_MACHINE_INDEX };
+
+	/** name of the run parameter giving the deficit (in Watt) above which
+	 *  the engine generator is started. */
+	public static final String ENGINE_START_DEFICIT_PARAM = "engine-start-deficit";
+	/** name of the run parameter giving the surplus (in Watt) above which
+	 *  the washing machine is started. */
+	public static final String WASHING_START_SURPLUS_PARAM = "washing-start-surplus";
+	/** name of the run parameter giving the deficit (in Watt) from which the
+	 *  devices are shed. */
+	public static final String SHEDDING_DEFICIT_PARAM = "shedding-deficit";
+	/** name of the run parameter giving the surplus (in Watt) kept when the
+	 *  shed devices are restored. */
+	public static final String RESTORING_SURPLUS_PARAM = "restoring-surplus";
+	/** name of the run parameter giving the minimum time a device stays on;
+	 *  it is prefixed by the name of the device. */
+	public static final String MIN_ON_DWELL_PARAM = "min-on-dwell";
+	/** name of the run parameter giving the minimum time a device stays off;
+	 *  it is prefixed by the name of the device. */
+	public static final String MIN_OFF_DWELL_PARAM = "min-off-dwell";
+	/** name of the run parameter giving the number of commands that can be
+	 *  sent in a burst. */
+	public static final String COMMAND_BUDGET_CAPACITY_PARAM = "command-budget-capacity";
+	/** name of the run parameter giving the number of commands that can be
+	 *  sent per second. */
+	public static final String COMMAND_BUDGET_RATE_PARAM = "command-budget-rate";
+
+	/** deficit (in Watt) above which the engine generator is started in MIL. */
+	protected static final double ENGINE_START_DEFICIT_MIL = 15.0;
+	/** deficit (in Watt) above which the engine generator is started in SIL. */
+	protected static final double ENGINE_START_DEFICIT_SIL = 20.0;
+	/** surplus (in Watt) above which the washing machine is started. */
+	protected static final double WASHING_START_SURPLUS = 20.0;
+	/** default minimum time (in seconds) a device stays on or off; by
+	 *  default, the actuation governor lets every command through. */
+	protected static final double MIN_DWELL = 0.0;
+	/** default number of commands that can be sent in a burst. */
+	protected static final double COMMAND_BUDGET_CAPACITY = Double.POSITIVE_INFINITY;
+	/** default number of commands that can be sent per second. */
+	protected static final double COMMAND_BUDGET_RATE = 0.0;
+
 	/**
 	 * energy consumption (in Watt) retrieved from the electric meter
 	 */
@@ -205,17 +295,60 @@ public class ControllerModel extends AtomicModel {
 	protected double productionWindTurbine;
 
 	/**
-	 * state of the engine generator
+	 * compiled decision rules; it also holds the state of every controlled
+	 * device, indexed by <code>ENGINE_GENERATOR_INDEX</code>,
+	 * <code>FRIDGE_INDEX</code> and <code>WASHING_MACHINE_INDEX</code>
+	 */
+	protected DecisionPolicy decisionPolicy;
+	/**
+	 * state of every controlled device before the last evaluation of the
+	 * decision policy
+	 */
+	protected final int[] previousStates;
+	/**
+	 * true for every device whose decision has been triggered since the last
+	 * output, indexed as the decision policy
+	 */
+	protected final boolean[] triggered;
+
+	/** deficit (in Watt) above which the engine generator is started */
+	protected double engineStartDeficit;
+	/** surplus (in Watt) above which the washing machine is started */
+	protected double washingStartSurplus;
+	/** deficit (in Watt) from which the devices are shed */
+	protected double sheddingDeficit;
+	/** surplus (in Watt) kept when the shed devices are restored */
+	protected double restoringSurplus;
+
+	/**
+	 * choice of the devices to shed on a deficit and to restore on a
+	 * surplus; its commands go through the decision policy and the actuation
+	 * governor as the ones of the rules
 	 */
-	protected EngineGeneratorState EGState;
+	protected LoadSheddingEngine loadShedding;
+	/** current draw (in Watt) of the fridge when it works */
+	protected double drawFridge;
+	/** current draw (in Watt) of the washing machine when it is on */
+	protected double drawWashingMachine;
+
 	/**
-	 * state of the fridge
+	 * filter applying the dwell times and the command budget to the
+	 * decisions before they are sent
 	 */
-	protected FridgeConsumption FridgeState;
+	protected ActuationGovernor actuationGovernor;
+	/** minimum time each device stays on, indexed as the decision policy */
+	protected final double[] minOnDwell;
+	/** minimum time each device stays off, indexed as the decision policy */
+	protected final double[] minOffDwell;
+	/** number of commands that can be sent in a burst */
+	protected double commandBudgetCapacity;
+	/** number of commands that can be sent per second */
+	protected double commandBudgetRate;
 	/**
-	 * state of the washing machine
+	 * time at which the decisions suppressed by the actuation governor are
+	 * evaluated again, infinite when none is pending
 	 */
-	protected WashingMachineState WMState;
+	protected double retryTime;
 
 	/**
 	 * next decision to be sent to the engine generator
@@ -230,9 +363,9 @@ public class ControllerModel extends AtomicModel {
 	 */
 	protected double lastDecisionTimeEngineGenerator;
 	/**
-	 * every decision sent to the engine generator are stored in this variable
+	 * decisions sent to the engine generator, run-length encoded over time
 	 */
-	protected final Vector<DecisionPiece> decisionFunctionEngineGenerator;
+	protected DecisionTimeline decisionFunctionEngineGenerator;
 
 	/**
 	 * next decision to be sent to the fridge
@@ -247,9 +380,9 @@ public class ControllerModel extends AtomicModel {
 	 */
 	protected double lastDecisionTimeFridge;
 	/**
-	 * every decision sent to the fridge are stored in this variable
+	 * decisions sent to the fridge, run-length encoded over time
 	 */
-	protected final Vector<DecisionPiece> decisionFunctionFridge;
+	protected DecisionTimeline decisionFunctionFridge;
 	
 	/**
 	 * next decision to be sent to the washing machine
@@ -264,9 +397,35 @@ public class ControllerModel extends AtomicModel {
 	 */
 	protected double lastDecisionTimeWashingMachine;
 	/**
-	 * every decision sent to the washing machine are stored in this variable
+	 * decisions sent to the washing machine, run-length encoded over time
+	 */
+	protected DecisionTimeline decisionFunctionWashingMachine;
+
+	/**
+	 * simulated time during which each decision held, computed at the end of
+	 * the simulation
+	 */
+	protected final Map<Decision, Double> decisionDurations;
+	/**
+	 * number of alerts received from the electric meter, by device and kind
+	 * of anomaly
 	 */
-	protected final Vector<DecisionPiece> decisionFunctionWashingMachine;
+	protected final Map<String, Long> anomalies;
+
+	/**
+	 * latencies of the control loop; in SIL, they are shared with the
+	 * component, which records the dispatch of the commands to the devices
+	 */
+	protected ControlLoopMetrics controlLoopMetrics;
+	/**
+	 * value of <code>System.nanoTime()</code> when the last decision to be
+	 * sent was taken
+	 */
+	protected long decisionWallClock;
+	/**
+	 * simulated time at which the last decision to be sent was taken
+	 */
+	protected double decisionTime;
 
 	/**
 	 * plotter for the production level over time
@@ -278,10 +437,31 @@ public class ControllerModel extends AtomicModel {
 	 */
 	protected final Map<String, XYPlotter> modelsPlotter;
 
+	/**
+	 * store of the time series of the run, null if the run keeps none
+	 */
+	protected TimeSeriesStore store;
+	/**
+	 * time series of the production seen by the controller
+	 */
+	protected TimeSeries productionSeries;
+	/**
+	 * time series of the consumption seen by the controller
+	 */
+	protected TimeSeries consumptionSeries;
+
+	/**
+	 * last snapshot of the household taken in SIL, shared by all the
+	 * computations of a transition
+	 */
+	protected HouseholdSnapshot snapshot;
+
 	/** reference on the object representing the component that holds the
 	 *  model; enables the model to access the state of this component
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<ControllerStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -311,10 +491,23 @@ public class ControllerModel extends AtomicModel {
 	public ControllerModel(String uri, TimeUnit simulatedTimeUnit, SimulatorI simulationEngine) throws Exception {
 		super(uri, simulatedTimeUnit, simulationEngine);
 
-		this.decisionFunctionEngineGenerator = new Vector<>();
-		this.decisionFunctionFridge = new Vector<>();
-		this.decisionFunctionWashingMachine = new Vector<>();
+		this.decisionFunctionEngineGenerator = new DecisionTimeline(DecisionTimeline.DEFAULT_CAPACITY);
+		this.decisionFunctionFridge = new DecisionTimeline(DecisionTimeline.DEFAULT_CAPACITY);
+		this.decisionFunctionWashingMachine = new DecisionTimeline(DecisionTimeline.DEFAULT_CAPACITY);
+		this.decisionDurations = new EnumMap<>(Decision.class);
+		this.anomalies = new TreeMap<>();
+		this.previousStates = new int[3];
+		this.triggered = new boolean[3];
+		this.engineStartDeficit = ENGINE_START_DEFICIT_MIL;
+		this.washingStartSurplus = WASHING_START_SURPLUS;
+		this.sheddingDeficit = ControllerSetting.SHEDDING_DEFICIT;
+		this.restoringSurplus = ControllerSetting.RESTORING_SURPLUS;
+		this.minOnDwell = new double[] { MIN_DWELL, MIN_DWELL, MIN_DWELL };
+		this.minOffDwell = new double[] { MIN_DWELL, MIN_DWELL, MIN_DWELL };
+		this.commandBudgetCapacity = COMMAND_BUDGET_CAPACITY;
+		this.commandBudgetRate = COMMAND_BUDGET_RATE;
 		this.modelsPlotter = new HashMap<String, XYPlotter>();
+		this.controlLoopMetrics = new ControlLoopMetrics();
 
 		// this.setLogger(new StandardLogger());
 	}
@@ -359,8 +552,68 @@ public class ControllerModel extends AtomicModel {
 			this.modelsPlotter.get(ControllerModel.WASHING_MACHINE).createSeries(ControllerModel.WASHING_MACHINE);
 		}
 
+		vname = this.getURI() + ":" + ControllerModel.DECISION_TIMELINE_CAPACITY_PARAM;
+		int capacity = simParams.containsKey(vname) ? (int) simParams.get(vname) : DecisionTimeline.DEFAULT_CAPACITY;
+		vname = this.getURI() + ":" + ControllerModel.DECISION_SPILL_DIRECTORY_PARAM;
+		String spillDirectory = (String) simParams.get(vname);
+		this.decisionFunctionEngineGenerator.close();
+		this.decisionFunctionFridge.close();
+		this.decisionFunctionWashingMachine.close();
+		if (spillDirectory == null) {
+			this.decisionFunctionEngineGenerator = new DecisionTimeline(capacity);
+			this.decisionFunctionFridge = new DecisionTimeline(capacity);
+			this.decisionFunctionWashingMachine = new DecisionTimeline(capacity);
+		} else {
+			this.decisionFunctionEngineGenerator = new DecisionTimeline(capacity,
+					Paths.get(spillDirectory, this.getURI() + "-" + ControllerModel.ENGINE_GENERATOR + ".timeline"));
+			this.decisionFunctionFridge = new DecisionTimeline(capacity,
+					Paths.get(spillDirectory, this.getURI() + "-" + ControllerModel.FRIDGE + ".timeline"));
+			this.decisionFunctionWashingMachine = new DecisionTimeline(capacity,
+					Paths.get(spillDirectory, this.getURI() + "-" + ControllerModel.WASHING_MACHINE + ".timeline"));
+		}
+
+		// The store of the time series, when the run keeps them
+		vname = this.getURI() + ":" + TimeSeriesStore.DIRECTORY_PARAM_NAME;
+		if (this.store != null) {
+			this.store.close();
+			this.store = null;
+		}
+		if (simParams.containsKey(vname)) {
+			// each run starts its series again from its start time
+			this.store = new TimeSeriesStore((String) simParams.get(vname), true);
+			this.productionSeries = this.store.getSeries(this.getURI() + ":" + ControllerModel.PRODUCTION);
+			this.consumptionSeries = this.store.getSeries(this.getURI() + ":consumption");
+		}
+
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.CONTROLLER_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, ControllerStateKey.class);
+			this.controlLoopMetrics = (ControlLoopMetrics) this.componentState
+					.getValue(ControllerStateKey.CONTROL_LOOP_METRICS);
+		}
+
+		// deadbands, dwell times and command budget, all optional
+		this.engineStartDeficit = this.getParameter(simParams, ControllerModel.ENGINE_START_DEFICIT_PARAM,
+				this.componentRef == null ? ControllerModel.ENGINE_START_DEFICIT_MIL
+						: ControllerModel.ENGINE_START_DEFICIT_SIL);
+		this.washingStartSurplus = this.getParameter(simParams, ControllerModel.WASHING_START_SURPLUS_PARAM,
+				ControllerModel.WASHING_START_SURPLUS);
+		this.sheddingDeficit = this.getParameter(simParams, ControllerModel.SHEDDING_DEFICIT_PARAM,
+				ControllerSetting.SHEDDING_DEFICIT);
+		this.restoringSurplus = this.getParameter(simParams, ControllerModel.RESTORING_SURPLUS_PARAM,
+				ControllerSetting.RESTORING_SURPLUS);
+		String[] devices = { ControllerModel.ENGINE_GENERATOR, ControllerModel.FRIDGE, ControllerModel.WASHING_MACHINE };
+		for (int d = 0; d < devices.length; d++) {
+			this.minOnDwell[d] = this.getParameter(simParams, devices[d] + ":" + ControllerModel.MIN_ON_DWELL_PARAM,
+					ControllerModel.MIN_DWELL);
+			this.minOffDwell[d] = this.getParameter(simParams, devices[d] + ":" + ControllerModel.MIN_OFF_DWELL_PARAM,
+					ControllerModel.MIN_DWELL);
+		}
+		this.commandBudgetCapacity = this.getParameter(simParams, ControllerModel.COMMAND_BUDGET_CAPACITY_PARAM,
+				ControllerModel.COMMAND_BUDGET_CAPACITY);
+		this.commandBudgetRate = this.getParameter(simParams, ControllerModel.COMMAND_BUDGET_RATE_PARAM,
+				ControllerModel.COMMAND_BUDGET_RATE);
 	}
 
 	/**
@@ -371,23 +624,26 @@ public class ControllerModel extends AtomicModel {
 		super.initialiseState(initialTime);
 
 		this.mustTransmitDecision = false;
+		Arrays.fill(this.triggered, false);
+		this.retryTime = Double.POSITIVE_INFINITY;
+		this.decisionPolicy = this.createDecisionPolicy();
+		this.actuationGovernor = this.createActuationGovernor();
+		this.loadShedding = ControllerModel.createLoadSheddingEngine();
 
 		if (this.componentRef == null) {
 			this.consumption = 0.0;
 			this.productionEngineGenerator = 0.0;
 			this.productionWindTurbine = 0.0;
-			this.EGState = EngineGeneratorState.OFF;
-			this.FridgeState = FridgeConsumption.RESUMED;
-			this.WMState = WashingMachineState.OFF;
+			// the models of the devices do not give their draw in MIL
+			this.drawFridge = FridgeSetting.ACTIVE_CONSUMPTION;
+			this.drawWashingMachine = WashingMachineSetting.CONSO_ECO_MODE_SIM;
+			this.decisionPolicy.setState(ControllerModel.ENGINE_GENERATOR_INDEX, EngineGeneratorState.OFF.ordinal());
+			this.decisionPolicy.setState(ControllerModel.FRIDGE_INDEX, FridgeConsumption.RESUMED.ordinal());
+			this.decisionPolicy.setState(ControllerModel.WASHING_MACHINE_INDEX, WashingMachineState.OFF.ordinal());
 		} else {
 			try {
-				this.consumption = (double) this.componentRef.getEmbeddingComponentStateValue("consumption");
-				this.productionEngineGenerator = (double) this.componentRef
-						.getEmbeddingComponentStateValue("productionEG");
-				this.productionWindTurbine = (double) this.componentRef.getEmbeddingComponentStateValue("productionWT");
-				this.EGState = (EngineGeneratorState) this.componentRef.getEmbeddingComponentStateValue("stateEG");
-				this.FridgeState = (FridgeConsumption) this.componentRef.getEmbeddingComponentStateValue("stateFridge");
-				this.WMState = (WashingMachineState) this.componentRef.getEmbeddingComponentStateValue("stateWM");
+				this.componentState.setDouble(ControllerStateKey.SIMULATED_TIME, initialTime.getSimulatedTime());
+				this.readSnapshot();
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -401,12 +657,17 @@ public class ControllerModel extends AtomicModel {
 		this.triggeredDecisionFridge = Decision.RESUME_FRIDGE;
 		this.lastDecisionFridge = Decision.RESUME_FRIDGE;
 		this.lastDecisionTimeFridge = initialTime.getSimulatedTime();
-		decisionFunctionFridge.clear();
+		this.decisionFunctionFridge.clear();
 		
 		this.triggeredDecisionWashingMachine = Decision.STOP_WASHING;
 		this.lastDecisionWashingMachine = Decision.STOP_WASHING;
 		this.lastDecisionTimeWashingMachine = initialTime.getSimulatedTime();
-		decisionFunctionWashingMachine.clear();
+		this.decisionFunctionWashingMachine.clear();
+		this.anomalies.clear();
+
+		this.actuationGovernor.initialise(initialTime.getSimulatedTime(),
+				this.isOn(ControllerModel.ENGINE_GENERATOR_INDEX), this.isOn(ControllerModel.FRIDGE_INDEX),
+				this.isOn(ControllerModel.WASHING_MACHINE_INDEX));
 
 		if (this.productionPlotter != null) {
 			this.productionPlotter.initialise();
@@ -446,91 +707,45 @@ public class ControllerModel extends AtomicModel {
 	 */
 	@Override
 	public ArrayList<EventI> output() {
+		if (!this.mustTransmitDecision) {
+			// internal transition evaluating the suppressed decisions again
+			return null;
+		}
 		if (componentRef == null) {
 
-			ArrayList<EventI> ret = null;
-			ret = new ArrayList<EventI>(1);
-
-			assert ret != null;
-
-			if (this.triggeredDecisionEngineGenerator == Decision.START_ENGINE) {
-				ret.add(new StartEngineGeneratorEvent(this.getCurrentStateTime()));
-			} else if (this.triggeredDecisionEngineGenerator == Decision.STOP_ENGINE) {
-				ret.add(new StopEngineGeneratorEvent(this.getCurrentStateTime()));
-			} else if (this.triggeredDecisionFridge == Decision.SUSPEND_FRIDGE) {
-				ret.add(new SuspendFridgeEvent(this.getCurrentStateTime()));
-			} else if (this.triggeredDecisionFridge == Decision.RESUME_FRIDGE) {
-				ret.add(new ResumeFridgeEvent(this.getCurrentStateTime()));
-			}
-			else if (this.triggeredDecisionWashingMachine == Decision.START_WASHING) {
-				ret.add(new StartWashingMachineEvent(this.getCurrentStateTime()));
-			} else if (this.triggeredDecisionWashingMachine == Decision.STOP_WASHING) {
-				ret.add(new StopWashingMachineEvent(this.getCurrentStateTime()));
+			// one event for every device whose decision has been triggered
+			ArrayList<EventI> ret = new ArrayList<EventI>(this.triggered.length);
+			for (int d = 0; d < this.triggered.length; d++) {
+				if (this.triggered[d]) {
+					ret.add(this.createDecisionEvent(d));
+				}
 			}
 
-			this.decisionFunctionEngineGenerator.add(new DecisionPiece(this.lastDecisionTimeEngineGenerator,
-					this.getCurrentStateTime().getSimulatedTime(), this.lastDecisionEngineGenerator));
-
-			this.decisionFunctionFridge.add(new DecisionPiece(this.lastDecisionTimeFridge,
-					this.getCurrentStateTime().getSimulatedTime(), this.lastDecisionFridge));
-			
-			this.decisionFunctionWashingMachine.add(new DecisionPiece(this.lastDecisionTimeWashingMachine,
-					this.getCurrentStateTime().getSimulatedTime(), this.lastDecisionWashingMachine));
-
-			this.lastDecisionEngineGenerator = this.triggeredDecisionEngineGenerator;
-			this.lastDecisionTimeEngineGenerator = this.getCurrentStateTime().getSimulatedTime();
-
-			this.lastDecisionFridge = this.triggeredDecisionFridge;
-			this.lastDecisionTimeFridge = this.getCurrentStateTime().getSimulatedTime();
-			
-			this.lastDecisionWashingMachine = this.triggeredDecisionWashingMachine;
-			this.lastDecisionTimeWashingMachine = this.getCurrentStateTime().getSimulatedTime();
+			this.recordDecisions();
+			this.recordPortCall();
 
+			Arrays.fill(this.triggered, false);
 			this.mustTransmitDecision = false;
 			return ret;
 		} else {
-			try {
-				if (this.triggeredDecisionEngineGenerator != this.lastDecisionEngineGenerator) {
-					if (this.triggeredDecisionEngineGenerator == Decision.START_ENGINE) {
-						this.componentRef.setEmbeddingComponentStateValue("startEngine", null);
-					} else if (this.triggeredDecisionEngineGenerator == Decision.STOP_ENGINE) {
-						this.componentRef.setEmbeddingComponentStateValue("stopEngine", null);
-					}
-				} else if (this.triggeredDecisionFridge != this.lastDecisionFridge) {
-					if (this.triggeredDecisionFridge == Decision.SUSPEND_FRIDGE) {
-						this.componentRef.setEmbeddingComponentStateValue("suspendFridge", null);
-					} else if (this.triggeredDecisionFridge == Decision.RESUME_FRIDGE) {
-						this.componentRef.setEmbeddingComponentStateValue("resumeFridge", null);
-					}
+			// every changed decision is sent in a single call to the component
+			CommandBatch batch = new CommandBatch(
+					this.triggeredDecisionEngineGenerator != this.lastDecisionEngineGenerator
+							? this.triggeredDecisionEngineGenerator : null,
+					this.triggeredDecisionFridge != this.lastDecisionFridge ? this.triggeredDecisionFridge : null,
+					this.triggeredDecisionWashingMachine != this.lastDecisionWashingMachine
+							? this.triggeredDecisionWashingMachine : null);
+			if (!batch.isEmpty()) {
+				try {
+					this.componentState.setValue(ControllerStateKey.COMMAND_BATCH, batch);
+				} catch (Exception e) {
+					e.printStackTrace();
 				}
-				 else if (this.triggeredDecisionWashingMachine != this.lastDecisionWashingMachine) {
-						if (this.triggeredDecisionWashingMachine == Decision.START_WASHING) {
-							this.componentRef.setEmbeddingComponentStateValue("startWM", null);
-						} else if (this.triggeredDecisionWashingMachine == Decision.STOP_WASHING) {
-							this.componentRef.setEmbeddingComponentStateValue("stopWM", null);
-						}
-					}
-			} catch (Exception e) {
-				e.printStackTrace();
 			}
-			this.decisionFunctionEngineGenerator.add(new DecisionPiece(this.lastDecisionTimeEngineGenerator,
-					this.getCurrentStateTime().getSimulatedTime(), this.lastDecisionEngineGenerator));
-
-			this.decisionFunctionFridge.add(new DecisionPiece(this.lastDecisionTimeFridge,
-					this.getCurrentStateTime().getSimulatedTime(), this.lastDecisionFridge));
-			
-			this.decisionFunctionWashingMachine.add(new DecisionPiece(this.lastDecisionTimeWashingMachine,
-					this.getCurrentStateTime().getSimulatedTime(), this.lastDecisionWashingMachine));
-
-			this.lastDecisionEngineGenerator = this.triggeredDecisionEngineGenerator;
-			this.lastDecisionTimeEngineGenerator = this.getCurrentStateTime().getSimulatedTime();
-
-			this.lastDecisionFridge = this.triggeredDecisionFridge;
-			this.lastDecisionTimeFridge = this.getCurrentStateTime().getSimulatedTime();
-			
-			this.lastDecisionWashingMachine = this.triggeredDecisionWashingMachine;
-			this.lastDecisionTimeWashingMachine = this.getCurrentStateTime().getSimulatedTime();
+			this.recordDecisions();
+			this.recordPortCall();
 			
+			Arrays.fill(this.triggered, false);
 			this.mustTransmitDecision = false;
 			return null;
 		}
@@ -543,208 +758,143 @@ public class ControllerModel extends AtomicModel {
 	public Duration timeAdvance() {
 		if (this.mustTransmitDecision) {
 			return Duration.zero(this.getSimulatedTimeUnit());
+		} else if (this.retryTime < Double.POSITIVE_INFINITY) {
+			return new Duration(Math.max(0.0, this.retryTime - this.getCurrentStateTime().getSimulatedTime()),
+					this.getSimulatedTimeUnit());
 		} else {
 			return Duration.INFINITY;
 		}
 	}
 
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedInternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
+	 */
+	@Override
+	public void userDefinedInternalTransition(Duration elapsedTime) {
+		super.userDefinedInternalTransition(elapsedTime);
+		if (this.getCurrentStateTime().getSimulatedTime() < this.retryTime) {
+			return;
+		}
+		// the dwell time or the command budget of a suppressed decision has
+		// expired: the decisions are evaluated again on the latest readings
+		this.retryTime = Double.POSITIVE_INFINITY;
+		if (componentRef != null) {
+			try {
+				this.componentState.setDouble(ControllerStateKey.SIMULATED_TIME,
+						this.getCurrentStateTime().getSimulatedTime());
+				this.readSnapshot();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		this.decide();
+	}
+
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#userDefinedExternalTransition(fr.sorbonne_u.devs_simulation.models.time.Duration)
 	 */
 	@Override
 	public void userDefinedExternalTransition(Duration elapsedTime) {
+		long receipt = System.nanoTime();
+		ArrayList<EventI> current = this.getStoredEventAndReset();
 		if (componentRef == null) {
-
-			ArrayList<EventI> current = this.getStoredEventAndReset();
-			
-			Event ce = (Event) current.get(0);
-			ce.executeOn(this);
-			
-			double production = this.productionEngineGenerator + this.productionWindTurbine;
-
-			if (this.EGState == EngineGeneratorState.ON) {
-				if (production > this.consumption) {
-					// on l'eteint
-					this.triggeredDecisionEngineGenerator = Decision.STOP_ENGINE;
-					this.EGState = EngineGeneratorState.OFF;
-
-					this.mustTransmitDecision = true;
-				}
-			} else {
-				assert this.EGState == EngineGeneratorState.OFF;
-				if (production <= this.consumption) {
-					// on l'allume
-					if (production <= this.consumption - 15) {
-						this.triggeredDecisionEngineGenerator = Decision.START_ENGINE;
-						this.EGState = EngineGeneratorState.ON;
-						this.mustTransmitDecision = true;
-					}
-
-				}
-			}
-			if (this.FridgeState == FridgeConsumption.SUSPENDED) {
-				if (production > this.consumption) {
-					this.triggeredDecisionFridge = Decision.RESUME_FRIDGE;
-					this.FridgeState = FridgeConsumption.RESUMED;
-
-					this.mustTransmitDecision = true;
-				}
-			} else {
-				assert this.FridgeState == FridgeConsumption.RESUMED;
-				if (production <= this.consumption) {
-					this.triggeredDecisionFridge = Decision.SUSPEND_FRIDGE;
-					this.FridgeState = FridgeConsumption.SUSPENDED;
-					this.mustTransmitDecision = true;
-				}
-			}
-			
-			if (this.WMState == WashingMachineState.ON) {
-				if (production <= this.consumption) {
-					this.triggeredDecisionWashingMachine = Decision.STOP_WASHING;
-					this.WMState = WashingMachineState.OFF;
-
-					this.mustTransmitDecision = true;
-				}
-			} else if(this.WMState == WashingMachineState.WORKING) {
-				if (production <= this.consumption) {
-					this.triggeredDecisionWashingMachine = Decision.STOP_WASHING;
-					this.WMState = WashingMachineState.OFF;
-
-					this.mustTransmitDecision = true;
-				}
+			// all the simultaneous readings are applied before taking the
+			// decisions once
+			for (EventI e : current) {
+				((Event) e).executeOn(this);
+				this.controlLoopMetrics.recordSimulated(ControlLoopMetrics.Hop.RECEIPT,
+						this.getCurrentStateTime().getSimulatedTime() - e.getTimeOfOccurrence().getSimulatedTime());
 			}
-			else {
-				assert this.WMState == WashingMachineState.OFF;
-				if (production > this.consumption + 20) {
-					this.triggeredDecisionWashingMachine = Decision.START_WASHING;
-					this.WMState = WashingMachineState.ON;
-
-					this.mustTransmitDecision = true;
-				}
-			}
-
-
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), production);
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), production);
-
-			for (Map.Entry<String, XYPlotter> elt : modelsPlotter.entrySet()) {
-				String URI = elt.getKey();
-				XYPlotter plotter = elt.getValue();
-				if (plotter != null) {
-					if (URI == ControllerModel.ENGINE_GENERATOR) {
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionEngineGenerator));
-					} else if (URI == ControllerModel.FRIDGE) {
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionFridge));
-					}else if (URI == ControllerModel.WASHING_MACHINE) {
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionWashingMachine));
-					}  
-					else {
-						assert URI.equals(ControllerModel.CONTROLLER_STUB);
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionEngineGenerator));
-					}
+			this.controlLoopMetrics.recordWallClock(ControlLoopMetrics.Hop.RECEIPT, System.nanoTime() - receipt);
+		} else {
+			// the readings come from the snapshot, but the alerts of the
+			// electric meter still come as events
+			for (EventI e : current) {
+				if (e instanceof AnomalyEvent) {
+					((Event) e).executeOn(this);
 				}
 			}
-
-		} else {
 			try {
-				this.consumption = (double) this.componentRef.getEmbeddingComponentStateValue("consumption");
-				this.productionEngineGenerator = (double) this.componentRef.getEmbeddingComponentStateValue("productionEG");
-				this.productionWindTurbine = (double) this.componentRef.getEmbeddingComponentStateValue("productionWT");
-				this.EGState = (EngineGeneratorState) this.componentRef.getEmbeddingComponentStateValue("stateEG");
-				this.FridgeState = (FridgeConsumption) this.componentRef.getEmbeddingComponentStateValue("stateFridge");
-				this.WMState = (WashingMachineState) this.componentRef.getEmbeddingComponentStateValue("stateWM");
+				// the simulated time is the clock of the productions cached by the component
+				this.componentState.setDouble(ControllerStateKey.SIMULATED_TIME,
+						this.getCurrentStateTime().getSimulatedTime());
+				this.readSnapshot();
+				this.controlLoopMetrics.recordWallClock(ControlLoopMetrics.Hop.RECEIPT, System.nanoTime() - receipt);
+				this.componentState.setValue(ControllerStateKey.SCHEDULE_WM, new double[] {
+						this.getCurrentStateTime().getSimulatedTime(), this.productionWindTurbine, this.consumption });
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
-			double production = this.productionEngineGenerator + this.productionWindTurbine;
-
-			if (this.EGState == EngineGeneratorState.ON) {
-				if (production > this.consumption) {
-					// on l'eteint
-					this.triggeredDecisionEngineGenerator = Decision.STOP_ENGINE;
-					this.EGState = EngineGeneratorState.OFF;
-
-					this.mustTransmitDecision = true;
-				}
-			} else {
-				assert this.EGState == EngineGeneratorState.OFF;
-				if (production <= this.consumption) {
-					// on l'allume
-					if (production <= this.consumption - 20) {
-						this.triggeredDecisionEngineGenerator = Decision.START_ENGINE;
-						this.EGState = EngineGeneratorState.ON;
-						this.mustTransmitDecision = true;
-					}
-
-				}
-			}
-			if (this.FridgeState == FridgeConsumption.SUSPENDED) {
-				if (production > this.consumption) {
-					this.triggeredDecisionFridge = Decision.RESUME_FRIDGE;
-					this.FridgeState = FridgeConsumption.RESUMED;
-					this.mustTransmitDecision = true;
-				}
-			} else {
-				assert this.FridgeState == FridgeConsumption.RESUMED;
-				if (production <= this.consumption) {
-					this.triggeredDecisionFridge = Decision.SUSPEND_FRIDGE;
-					this.FridgeState = FridgeConsumption.SUSPENDED;
-					this.mustTransmitDecision = true;
-					
-				}
-			}
-			if (this.WMState == WashingMachineState.ON) {
-				if (production <= this.consumption) {
-					this.triggeredDecisionWashingMachine = Decision.STOP_WASHING;
-					this.WMState = WashingMachineState.OFF;
+		}
+		double production = this.decide();
 
-					this.mustTransmitDecision = true;
-				}
-			}else if(this.WMState == WashingMachineState.WORKING) {
-				if (production <= this.consumption) {
-					this.triggeredDecisionWashingMachine = Decision.STOP_WASHING;
-					this.WMState = WashingMachineState.OFF;
-					this.mustTransmitDecision = true;
-				}
-			} else {
-				assert this.WMState == WashingMachineState.OFF;
-				if (production > this.consumption + 20) {
-					this.triggeredDecisionWashingMachine = Decision.START_WASHING;
-					this.WMState = WashingMachineState.ON;
+		this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), production);
+		this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), production);
+		this.storeReadings(this.getCurrentStateTime().getSimulatedTime(), production);
 
-					this.mustTransmitDecision = true;
+		for (Map.Entry<String, XYPlotter> elt : modelsPlotter.entrySet()) {
+			String URI = elt.getKey();
+			XYPlotter plotter = elt.getValue();
+			if (plotter != null) {
+				if (URI == ControllerModel.ENGINE_GENERATOR) {
+					plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
+							this.decisionToInteger(this.lastDecisionEngineGenerator));
+				} else if (URI == ControllerModel.FRIDGE) {
+					plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
+							this.decisionToInteger(this.lastDecisionFridge));
+				}else if (URI == ControllerModel.WASHING_MACHINE) {
+					plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
+							this.decisionToInteger(this.lastDecisionWashingMachine));
+				}  
+				else {
+					assert URI.equals(ControllerModel.CONTROLLER_STUB);
+					plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
+							this.decisionToInteger(this.lastDecisionEngineGenerator));
 				}
 			}
+		}
+	}
 
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), production);
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), production);
-
-			for (Map.Entry<String, XYPlotter> elt : modelsPlotter.entrySet()) {
-				String URI = elt.getKey();
-				XYPlotter plotter = elt.getValue();
-				if (plotter != null) {
-					if (URI == ControllerModel.ENGINE_GENERATOR) {
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionEngineGenerator));
-					} else if (URI == ControllerModel.FRIDGE) {
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionFridge));
-					}else if (URI == ControllerModel.WASHING_MACHINE) {
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionWashingMachine));
-					}  
-					else {
-						assert URI.equals(ControllerModel.CONTROLLER_STUB);
-						plotter.addData(URI, this.getCurrentStateTime().getSimulatedTime(),
-								this.decisionToInteger(this.lastDecisionEngineGenerator));
-					}
-				}
+	/**
+	 * evaluate the decisions on the current readings and submit the fired
+	 * ones to the actuation governor; the decisions it permits are sent at
+	 * the next output, and the ones it suppresses are evaluated again once
+	 * they would be permitted.
+	 *
+	 * @return	the production seen by the evaluation.
+	 */
+	protected double decide() {
+		double production = this.productionEngineGenerator + this.productionWindTurbine;
+		long evaluation = System.nanoTime();
+
+		// every device is handled in one pass over the compiled dispatch table,
+		// then the load shedding engine sheds or restores devices; all the
+		// fired decisions go through the actuation governor
+		for (int d = 0; d < this.previousStates.length; d++) {
+			this.previousStates[d] = this.decisionPolicy.getState(d);
+			this.actuationGovernor.observe(d, this.isOn(d), this.getCurrentStateTime().getSimulatedTime());
+		}
+		long permittedBefore = this.actuationGovernor.getPermittedCount();
+		long suppressedBefore = this.actuationGovernor.getSuppressedCommandCount();
+		this.decisionPolicy.evaluate(production, this.consumption);
+		for (int d = 0; d < this.previousStates.length; d++) {
+			if (this.govern(d)) {
+				this.trigger(d);
 			}
 		}
+		ControllerModel.observeShedding(this.loadShedding, this.decisionPolicy, this.drawFridge,
+				this.drawWashingMachine);
+		this.loadShedding.balance(production - this.consumption, this.sheddingDeficit, this.restoringSurplus,
+				this::actuateShedding);
+		if (this.actuationGovernor.getPermittedCount() > permittedBefore) {
+			this.mustTransmitDecision = true;
+			this.decisionTime = this.getCurrentStateTime().getSimulatedTime();
+			this.decisionWallClock = System.nanoTime();
+		} else if (this.actuationGovernor.getSuppressedCommandCount() > suppressedBefore) {
+			this.actuationGovernor.transitionSuppressed();
+		}
+		this.controlLoopMetrics.recordWallClock(ControlLoopMetrics.Hop.DECISION, System.nanoTime() - evaluation);
+		return production;
 	}
 
 	/**
@@ -778,21 +928,424 @@ public class ControllerModel extends AtomicModel {
 				}
 			}
 		}
+
+		this.recordDecisions();
+		double end = this.getCurrentStateTime().getSimulatedTime();
+		this.decisionDurations.clear();
+		for (DecisionTimeline t : new DecisionTimeline[] { this.decisionFunctionEngineGenerator,
+				this.decisionFunctionFridge, this.decisionFunctionWashingMachine }) {
+			t.query(Double.NEGATIVE_INFINITY, end,
+					(first, last, d) -> this.decisionDurations.merge(d, Math.min(last, end) - first, Double::sum));
+			t.close();
+		}
+		this.storeReadings(end, this.productionEngineGenerator + this.productionWindTurbine);
+		if (this.store != null) {
+			this.store.close();
+			this.store = null;
+		}
 		super.endSimulation(endTime);
 	}
 
+	/**
+	 * append the production and the consumption seen by the controller to
+	 * their time series, if the run keeps them.
+	 *
+	 * @param time			current simulated time.
+	 * @param production	current production.
+	 */
+	protected void storeReadings(double time, double production) {
+		if (this.store != null) {
+			try {
+				this.productionSeries.append(time, production);
+				this.consumptionSeries.append(time, this.consumption);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.Model#getFinalReport()
 	 */
 	@Override
 	public SimulationReportI getFinalReport() throws Exception {
-		return new ControllerModelReport(this.getURI());
+		return new ControllerModelReport(this.getURI(), new EnumMap<>(this.decisionDurations),
+				this.actuationGovernor.getPermittedCount(), this.actuationGovernor.getSuppressedCommandCount(),
+				this.actuationGovernor.getSuppressedTransitionCount(), this.controlLoopMetrics.summarise(),
+				new TreeMap<>(this.anomalies));
 	}
 	
 	// ------------------------------------------------------------------------
 	// Model-specific methods
 	// ------------------------------------------------------------------------
 
+	/**
+	 * create and compile the decision rules of the controller; subclasses can
+	 * redefine this method to control other devices or to change the rules.
+	 * 
+	 * <p>
+	 * <strong>Contract</strong>
+	 * </p>
+	 * 
+	 * <pre>
+	 * pre	true			// no precondition.
+	 * post	ret.isCompiled()
+	 * </pre>
+	 *
+	 * @return the compiled decision policy.
+	 */
+	protected DecisionPolicy createDecisionPolicy() {
+		return ControllerModel.compileDecisionPolicy(this.engineStartDeficit, this.washingStartSurplus);
+	}
+
+	/**
+	 * create and compile the decision rules of the controller for the given
+	 * deadbands; the devices are indexed by
+	 * <code>ENGINE_GENERATOR_INDEX</code>, <code>FRIDGE_INDEX</code> and
+	 * <code>WASHING_MACHINE_INDEX</code>. The fridge and the washing machine
+	 * are shed and restored by the load shedding engine, so the only rule
+	 * left for them starts the washing machine on a surplus.
+	 * 
+	 * <p>
+	 * <strong>Contract</strong>
+	 * </p>
+	 * 
+	 * <pre>
+	 * pre	true			// no precondition.
+	 * post	ret.isCompiled()
+	 * </pre>
+	 *
+	 * @param engineStartDeficit	deficit above which the engine generator is started.
+	 * @param washingStartSurplus	surplus above which the washing machine is started.
+	 * @return the compiled decision policy.
+	 */
+	public static DecisionPolicy compileDecisionPolicy(double engineStartDeficit, double washingStartSurplus) {
+		DecisionPolicy p = new DecisionPolicy();
+
+		int eg = p.addDevice(ControllerModel.ENGINE_GENERATOR, EngineGeneratorState.values().length);
+		assert eg == ControllerModel.ENGINE_GENERATOR_INDEX;
+		p.whenAbove(eg, EngineGeneratorState.ON.ordinal(), 0.0, Decision.STOP_ENGINE,
+				EngineGeneratorState.OFF.ordinal());
+		p.whenAtMost(eg, EngineGeneratorState.OFF.ordinal(), -engineStartDeficit, Decision.START_ENGINE,
+				EngineGeneratorState.ON.ordinal());
+
+		int fridge = p.addDevice(ControllerModel.FRIDGE, FridgeConsumption.values().length);
+		assert fridge == ControllerModel.FRIDGE_INDEX;
+
+		int wm = p.addDevice(ControllerModel.WASHING_MACHINE, WashingMachineState.values().length);
+		assert wm == ControllerModel.WASHING_MACHINE_INDEX;
+		p.whenAbove(wm, WashingMachineState.OFF.ordinal(), washingStartSurplus,
+				Decision.START_WASHING, WashingMachineState.ON.ordinal());
+
+		return p.compile();
+	}
+
+	/**
+	 * create the actuation governor from the dwell times and the command
+	 * budget given in the run parameters; subclasses can redefine this method
+	 * to govern other devices.
+	 * 
+	 * <p>
+	 * <strong>Contract</strong>
+	 * </p>
+	 * 
+	 * <pre>
+	 * pre	true			// no precondition.
+	 * post	ret.getNumberOfDevices() == decisionPolicy.getNumberOfDevices()
+	 * </pre>
+	 *
+	 * @return the actuation governor.
+	 */
+	protected ActuationGovernor createActuationGovernor() {
+		ActuationGovernor g = new ActuationGovernor();
+		for (int d = 0; d < this.minOnDwell.length; d++) {
+			g.addDevice(this.minOnDwell[d], this.minOffDwell[d]);
+		}
+		g.setCommandBudget(this.commandBudgetCapacity, this.commandBudgetRate);
+		return g;
+	}
+
+	/**
+	 * submit the decision fired for the device at the last evaluation to the
+	 * actuation governor; when it is suppressed, the device gets back its
+	 * state in the decision policy and the decisions are evaluated again
+	 * once the governor would permit it.
+	 * 
+	 * <p>
+	 * <strong>Contract</strong>
+	 * </p>
+	 * 
+	 * <pre>
+	 * pre	true			// no precondition.
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param device	index of the device in the decision policy.
+	 * @return			true if a decision fired and can be sent.
+	 */
+	protected boolean govern(int device) {
+		if (!this.decisionPolicy.hasFired(device)) {
+			return false;
+		}
+		double now = this.getCurrentStateTime().getSimulatedTime();
+		if (this.actuationGovernor.permit(device, this.isOn(device), now)) {
+			return true;
+		}
+		this.retryTime = Math.min(this.retryTime, this.actuationGovernor.getReleaseTime(device, this.isOn(device), now));
+		this.decisionPolicy.setState(device, this.previousStates[device]);
+		return false;
+	}
+
+	/**
+	 * set the decision to be sent to the device to the one triggered in the
+	 * decision policy.
+	 *
+	 * @param device	index of the device in the decision policy.
+	 */
+	protected void trigger(int device) {
+		Decision d = this.decisionPolicy.getTriggeredDecision(device);
+		this.triggered[device] = true;
+		if (device == ControllerModel.ENGINE_GENERATOR_INDEX) {
+			this.triggeredDecisionEngineGenerator = d;
+		} else if (device == ControllerModel.FRIDGE_INDEX) {
+			this.triggeredDecisionFridge = d;
+		} else {
+			assert device == ControllerModel.WASHING_MACHINE_INDEX;
+			this.triggeredDecisionWashingMachine = d;
+		}
+	}
+
+	/**
+	 * create the event sending its triggered decision to the device.
+	 *
+	 * @param device	index of the device in the decision policy.
+	 * @return			the event carrying the decision.
+	 */
+	protected EventI createDecisionEvent(int device) {
+		if (device == ControllerModel.ENGINE_GENERATOR_INDEX) {
+			return this.triggeredDecisionEngineGenerator == Decision.START_ENGINE
+					? new StartEngineGeneratorEvent(this.getCurrentStateTime())
+					: new StopEngineGeneratorEvent(this.getCurrentStateTime());
+		} else if (device == ControllerModel.FRIDGE_INDEX) {
+			return this.triggeredDecisionFridge == Decision.SUSPEND_FRIDGE
+					? new SuspendFridgeEvent(this.getCurrentStateTime())
+					: new ResumeFridgeEvent(this.getCurrentStateTime());
+		} else {
+			assert device == ControllerModel.WASHING_MACHINE_INDEX;
+			return this.triggeredDecisionWashingMachine == Decision.START_WASHING
+					? new StartWashingMachineEvent(this.getCurrentStateTime())
+					: new StopWashingMachineEvent(this.getCurrentStateTime());
+		}
+	}
+
+	/**
+	 * actuator of the load shedding engine: the decision shedding or
+	 * restoring the device is fired in the decision policy and submitted to
+	 * the actuation governor, as the decisions of the rules.
+	 *
+	 * @param sheddingIndex	index of the device in the load shedding engine.
+	 * @param restore		true to restore the device, false to shed it.
+	 * @return				true if the decision can be sent.
+	 */
+	protected boolean actuateShedding(int sheddingIndex, boolean restore) {
+		int device = ControllerModel.SHEDDING_DEVICES[sheddingIndex];
+		if (!ControllerModel.fireShedding(this.decisionPolicy, sheddingIndex, restore) || !this.govern(device)) {
+			return false;
+		}
+		this.trigger(device);
+		return true;
+	}
+
+	/**
+	 * create the load shedding engine of the fridge and the washing machine,
+	 * with the priorities and comfort costs of <code>ControllerSetting</code>.
+	 *
+	 * @return the load shedding engine.
+	 */
+	public static LoadSheddingEngine createLoadSheddingEngine() {
+		LoadSheddingEngine e = new LoadSheddingEngine();
+		int fridge = e.addSuspendable(ControllerSetting.FRIDGE_SHEDDING_PRIORITY,
+				ControllerSetting.FRIDGE_COMFORT_COST);
+		assert fridge == ControllerModel.FRIDGE_SHEDDING_INDEX;
+		int wm = e.addSchedulable(ControllerSetting.WASHING_MACHINE_SHEDDING_PRIORITY,
+				ControllerSetting.WASHING_MACHINE_COMFORT_COST);
+		assert wm == ControllerModel.WASHING_MACHINE_SHEDDING_INDEX;
+		return e;
+	}
+
+	/**
+	 * update the load shedding engine from the states of the devices in the
+	 * decision policy: a shed device found on again, switched by a rule or by
+	 * its user, is released, and the others draw their current draw when
+	 * they are on and nothing otherwise.
+	 *
+	 * @param e						the load shedding engine.
+	 * @param p						the decision policy.
+	 * @param drawFridge			current draw of the fridge when it works.
+	 * @param drawWashingMachine	current draw of the washing machine when it is on.
+	 */
+	public static void observeShedding(LoadSheddingEngine e, DecisionPolicy p, double drawFridge,
+			double drawWashingMachine) {
+		for (int i = 0; i < ControllerModel.SHEDDING_DEVICES.length; i++) {
+			boolean on = ControllerModel.isOn(p, ControllerModel.SHEDDING_DEVICES[i]);
+			if (e.isShed(i)) {
+				if (on) {
+					e.release(i);
+				}
+			} else if (on) {
+				e.updateDraw(i, i == ControllerModel.FRIDGE_SHEDDING_INDEX ? drawFridge : drawWashingMachine);
+			} else {
+				e.updateDraw(i, 0.0);
+			}
+		}
+	}
+
+	/**
+	 * fire in the decision policy the decision shedding or restoring a device
+	 * of the load shedding engine, unless a rule already fired for it at the
+	 * last evaluation: the fridge is suspended or resumed, the washing machine
+	 * stopped or started.
+	 *
+	 * @param p				the decision policy.
+	 * @param sheddingIndex	index of the device in the load shedding engine.
+	 * @param restore		true to restore the device, false to shed it.
+	 * @return				true if the decision is fired.
+	 */
+	public static boolean fireShedding(DecisionPolicy p, int sheddingIndex, boolean restore) {
+		int device = ControllerModel.SHEDDING_DEVICES[sheddingIndex];
+		if (p.hasFired(device)) {
+			return false;
+		}
+		if (device == ControllerModel.FRIDGE_INDEX) {
+			p.fire(device, restore ? Decision.RESUME_FRIDGE : Decision.SUSPEND_FRIDGE,
+					(restore ? FridgeConsumption.RESUMED : FridgeConsumption.SUSPENDED).ordinal());
+		} else {
+			p.fire(device, restore ? Decision.START_WASHING : Decision.STOP_WASHING,
+					(restore ? WashingMachineState.ON : WashingMachineState.OFF).ordinal());
+		}
+		return true;
+	}
+
+	/**
+	 * record the latency between the last decision and the end of the
+	 * sending of the resulting commands, i.e. the events in MIL and the call
+	 * to the component in SIL.
+	 */
+	protected void recordPortCall() {
+		this.controlLoopMetrics.recordSimulated(ControlLoopMetrics.Hop.PORT_CALL,
+				this.getCurrentStateTime().getSimulatedTime() - this.decisionTime);
+		this.controlLoopMetrics.recordWallClock(ControlLoopMetrics.Hop.PORT_CALL,
+				System.nanoTime() - this.decisionWallClock);
+	}
+
+	/**
+	 * return true if the device is on according to its state in the
+	 * decision policy.
+	 *
+	 * @param device	index of the device in the decision policy.
+	 * @return			true if the device is on.
+	 */
+	protected boolean isOn(int device) {
+		return ControllerModel.isOn(this.decisionPolicy, device);
+	}
+
+	/**
+	 * return true if the device is on according to its state in a decision
+	 * policy compiled by <code>compileDecisionPolicy</code>.
+	 *
+	 * @param p			the decision policy.
+	 * @param device	index of the device in the decision policy.
+	 * @return			true if the device is on.
+	 */
+	public static boolean isOn(DecisionPolicy p, int device) {
+		int state = p.getState(device);
+		if (device == ControllerModel.ENGINE_GENERATOR_INDEX) {
+			return state == EngineGeneratorState.ON.ordinal();
+		} else if (device == ControllerModel.FRIDGE_INDEX) {
+			return state == FridgeConsumption.RESUMED.ordinal();
+		} else {
+			assert device == ControllerModel.WASHING_MACHINE_INDEX;
+			return state != WashingMachineState.OFF.ordinal();
+		}
+	}
+
+	/**
+	 * return the value of an optional run parameter of this model.
+	 *
+	 * @param simParams		run parameters.
+	 * @param name			name of the parameter, without the model URI.
+	 * @param defaultValue	value used when the parameter is absent.
+	 * @return				the value of the parameter.
+	 * @throws Exception	<i>todo.</i>
+	 */
+	protected double getParameter(Map<String, Object> simParams, String name, double defaultValue)
+			throws Exception {
+		Object v = simParams.get(this.getURI() + ":" + name);
+		return v == null ? defaultValue : ((Number) v).doubleValue();
+	}
+
+	/**
+	 * close the current piece of the decision function of every device and
+	 * start new ones with the triggered decisions.
+	 * 
+	 * <p>
+	 * <strong>Contract</strong>
+	 * </p>
+	 * 
+	 * <pre>
+	 * pre	true			// no precondition.
+	 * post	true			// no postcondition.
+	 * </pre>
+	 */
+	protected void recordDecisions() {
+		double now = this.getCurrentStateTime().getSimulatedTime();
+
+		this.decisionFunctionEngineGenerator.append(this.lastDecisionTimeEngineGenerator, now,
+				this.lastDecisionEngineGenerator);
+		this.decisionFunctionFridge.append(this.lastDecisionTimeFridge, now, this.lastDecisionFridge);
+		this.decisionFunctionWashingMachine.append(this.lastDecisionTimeWashingMachine, now,
+				this.lastDecisionWashingMachine);
+
+		this.lastDecisionEngineGenerator = this.triggeredDecisionEngineGenerator;
+		this.lastDecisionTimeEngineGenerator = now;
+		this.lastDecisionFridge = this.triggeredDecisionFridge;
+		this.lastDecisionTimeFridge = now;
+		this.lastDecisionWashingMachine = this.triggeredDecisionWashingMachine;
+		this.lastDecisionTimeWashingMachine = now;
+	}
+
+	/**
+	 * take a snapshot of the household through the embedding component and
+	 * update the consumption, the productions and the states of the
+	 * controlled devices from it.
+	 * 
+	 * <p>
+	 * <strong>Contract</strong>
+	 * </p>
+	 * 
+	 * <pre>
+	 * pre	this.componentRef != null
+	 * post	this.snapshot != null
+	 * </pre>
+	 *
+	 * @throws Exception	<i>todo.</i>
+	 */
+	protected void readSnapshot() throws Exception {
+		assert this.componentRef != null;
+
+		this.snapshot = (HouseholdSnapshot) this.componentState.getValue(ControllerStateKey.SNAPSHOT);
+		this.consumption = this.snapshot.getConsumption();
+		this.productionEngineGenerator = this.snapshot.getProductionEngineGenerator();
+		this.productionWindTurbine = this.snapshot.getProductionWindTurbine();
+		this.decisionPolicy.setState(ControllerModel.ENGINE_GENERATOR_INDEX,
+				this.snapshot.getEngineGeneratorState().ordinal());
+		this.decisionPolicy.setState(ControllerModel.FRIDGE_INDEX, this.snapshot.getFridgeState().ordinal());
+		this.decisionPolicy.setState(ControllerModel.WASHING_MACHINE_INDEX,
+				this.snapshot.getWashingMachineState().ordinal());
+		this.drawFridge = this.snapshot.getConsumptionFridge();
+		this.drawWashingMachine = this.snapshot.getConsumptionWashingMachine();
+	}
+
 	/**
 	 * return an integer representation to ease the plotting.
 	 * 
@@ -835,6 +1388,24 @@ public class ControllerModel extends AtomicModel {
 	public void setConsumption(double consumption) {
 		this.consumption = consumption;
 	}
+
+	/**
+	 * receive an alert of the electric meter on an abnormal behaviour of a
+	 * device; it is counted for the report and, in SIL, passed to the
+	 * component.
+	 *
+	 * @param alert	the alert.
+	 */
+	public void anomalyDetected(AnomalyEvent.Alert alert) {
+		this.anomalies.merge(alert.device + ":" + alert.kind, 1L, Long::sum);
+		if (this.componentRef != null) {
+			try {
+				this.componentState.setValue(ControllerStateKey.ANOMALY, alert);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
 	
 	public void setProductionWindTurbine(double prod) {
 		this.productionWindTurbine = prod;
@@ -843,4 +1414,4 @@ public class ControllerModel extends AtomicModel {
 	public void setProductionEngineGenerator(double prod) {
 		this.productionEngineGenerator = prod;
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package simulation.models.electricmeter;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -17,17 +19,36 @@ import fr.sorbonne_u.devs_simulation.simulators.interfaces.SimulatorI;
 import fr.sorbonne_u.devs_simulation.utils.AbstractSimulationReport;
 import fr.sorbonne_u.utils.PlotterDescription;
 import fr.sorbonne_u.utils.XYPlotter;
+import simulation.events.electricmeter.AnomalyEvent;
 import simulation.events.electricmeter.ConsumptionEvent;
 import simulation.events.fridge.FridgeConsumptionEvent;
 import simulation.events.hairdryer.HairDryerConsumptionEvent;
 import simulation.events.washingmachine.WashingMachineConsumptionEvent;
+import simulation.tools.downsampling.DownsamplingSink;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
+import simulation.models.fridge.FridgeModel;
+import simulation.tools.electricmeter.AnomalyDetector;
+import simulation.tools.electricmeter.AnomalyKind;
+import simulation.tools.electricmeter.CostIntegrator;
+import simulation.tools.electricmeter.DemandTracker;
+import simulation.tools.electricmeter.EnergyIntegrator;
+import simulation.tools.electricmeter.EnergySummary;
+import simulation.tools.electricmeter.TariffSchedule;
+import simulation.tools.timeseries.TimeSeries;
+import simulation.tools.timeseries.TimeSeriesStore;
+import simulation.tools.washingmachine.WashingMachineUserBehaviour;
 import wattwatt.tools.URIS;
+import wattwatt.tools.electricmeter.ConsumptionRegistry;
+import wattwatt.tools.electricmeter.ElectricMeterStateKey;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(imported = { HairDryerConsumptionEvent.class, 
 								  WashingMachineConsumptionEvent.class,
 								  FridgeConsumptionEvent.class, 
 								  TicEvent.class }, 
-					 exported = { ConsumptionEvent.class })
+					 exported = { ConsumptionEvent.class,
+							 	  AnomalyEvent.class })
 //-----------------------------------------------------------------------------
 /**
 * The class <code>ElectricMeterModel</code> implements a simplified model of 
@@ -43,6 +64,12 @@ import wattwatt.tools.URIS;
 * controller and electric meter components (in SIL).
 * </p>
 * 
+* <p>
+* The consumption of each device also feeds a streaming detector which flags
+* its abnormal behaviours, such as a fridge that never stops cooling; the
+* alerts are sent to the controller model as anomaly events.
+* </p>
+* 
 * <p><strong>Invariant</strong></p>
 * 
 * <pre>
@@ -88,8 +115,31 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	public static class ElectricMeterModelReport extends AbstractSimulationReport {
 		private static final long serialVersionUID = 1L;
 
-		public ElectricMeterModelReport(String modelURI) {
+		/** energy consumed at the end of the simulation. */
+		protected final EnergySummary energy;
+		/** peak and percentiles of the power drawn each day. */
+		protected final List<DemandStatistics> demand;
+		/** cost of the energy consumed under the tariff. */
+		protected final double cost;
+
+		public ElectricMeterModelReport(String modelURI, EnergySummary energy, List<DemandStatistics> demand,
+				double cost) {
 			super(modelURI);
+			this.energy = energy;
+			this.demand = demand;
+			this.cost = cost;
+		}
+
+		public EnergySummary getEnergy() {
+			return this.energy;
+		}
+
+		public List<DemandStatistics> getDemand() {
+			return this.demand;
+		}
+
+		public double getCost() {
+			return this.cost;
 		}
 
 		/**
@@ -97,7 +147,8 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 		 */
 		@Override
 		public String toString() {
-			return "ElectricMeterModelReport(" + this.getModelURI() + ")";
+			return "ElectricMeterModelReport(" + this.getModelURI() + ", " + this.energy + ", " + this.demand + ", "
+					+ this.cost + ")";
 		}
 	}
 
@@ -116,22 +167,77 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	public static final String CONSUMPTION_SERIES = "consumption-series";
 
 	/**
-	 * total energy consumption (in Watt)
+	 * length (in seconds) over which an active run of each device is always
+	 * abnormal: a few full cooling cycles of the fridge, a few mean usages of
+	 * the hair dryer and of the premium program of the washing machine.
+	 */
+	public static final double FRIDGE_MAX_RUN = 3600.0;
+	public static final double HAIR_DRYER_MAX_RUN = 600.0;
+	public static final double WASHING_MACHINE_MAX_RUN = 4 * WashingMachineUserBehaviour.MEAN_TIME_WORKING_PREMIUM;
+
+	/**
+	 * energy consumption (in Watt) of every device, with the total kept
+	 * incrementally; in SIL, it is the registry of the component
+	 */
+	protected ConsumptionRegistry consumptions;
+	/**
+	 * slot of the hair dryer in the registry
+	 */
+	protected int hairDryerSlot;
+	/**
+	 * slot of the fridge in the registry
+	 */
+	protected int fridgeSlot;
+	/**
+	 * slot of the washing machine in the registry
 	 */
-	protected double totalConsumption;
+	protected int washingMachineSlot;
 
 	/**
-	 * energy consumption (in Watt) of the hair dryer
+	 * energy consumed since the start and over the last minute, hour and day,
+	 * integrated over simulated time
 	 */
-	protected double hairDryerConsumption;
+	protected final EnergyIntegrator energy;
 	/**
-	 * energy consumption (in Watt) of the fridge
+	 * energy consumed at the end of the last simulation run
 	 */
-	protected double fridgeConsumption;
+	protected EnergySummary finalEnergy;
 	/**
-	 * energy consumption (in Watt) of washing machine
+	 * distribution of the overall power drawn during each day
 	 */
-	protected double washingMachineConsumption;
+	protected final DemandTracker demand;
+	/**
+	 * statistics of the power drawn each day at the end of the last
+	 * simulation run
+	 */
+	protected List<DemandStatistics> finalDemand;
+	/**
+	 * cost of the energy consumed under the time-of-use tariff
+	 */
+	protected CostIntegrator cost;
+	/**
+	 * time of the week (in seconds) at the start of the simulation
+	 */
+	protected double tariffStart;
+	/**
+	 * price per kWh at the last transition, notified to the component when
+	 * it changes
+	 */
+	protected double marginalPrice;
+	/**
+	 * cost of the energy consumed at the end of the last simulation run
+	 */
+	protected double finalCost;
+
+	/**
+	 * detector of the abnormal behaviours of each device, by slot in the
+	 * registry; null for the slots of unknown devices
+	 */
+	protected AnomalyDetector[] detectors;
+	/**
+	 * alerts raised since the last output
+	 */
+	protected final ArrayList<AnomalyEvent.Alert> pendingAlerts;
 
 	/** 
 	 * true when a external event triggered a reading.					
@@ -140,12 +246,20 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 
 	/** plotter for the consumption level over time. */
 	protected XYPlotter consumptionPlotter;
+	/** downsampling of the points of the consumption level before plotting. */
+	protected DownsamplingSink consumptionSink;
+	/** store of the time series of the run, null if the run keeps none. */
+	protected TimeSeriesStore store;
+	/** time series of the total consumption. */
+	protected TimeSeries consumptionSeries;
 
 	/**
 	 * reference on the object representing the component that holds the model;
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<ElectricMeterStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -175,6 +289,12 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	 */
 	public ElectricMeterModel(String uri, TimeUnit simulatedTimeUnit, SimulatorI simulationEngine) throws Exception {
 		super(uri, simulatedTimeUnit, simulationEngine);
+		this.pendingAlerts = new ArrayList<>();
+		this.energy = new EnergyIntegrator(simulatedTimeUnit.toNanos(1) / 1e9);
+		this.demand = new DemandTracker(TimeUnit.DAYS.toNanos(1) / (double) simulatedTimeUnit.toNanos(1));
+		this.cost = new CostIntegrator(TariffSchedule.parse(TariffSchedule.DEFAULT_SCHEDULE),
+				simulatedTimeUnit.toNanos(1) / 1e9);
+		this.setConsumptionRegistry(new ConsumptionRegistry());
 	}
 
 	// ------------------------------------------------------------------------
@@ -192,9 +312,34 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 		PlotterDescription pd = (PlotterDescription) simParams.get(vname);
 		this.consumptionPlotter = new XYPlotter(pd);
 		this.consumptionPlotter.createSeries(SERIES);
+		this.consumptionSink = DownsamplingSink.create(this.consumptionPlotter::addData, this.getURI(), simParams, SERIES);
+
+		// The store of the time series, when the run keeps them
+		String dname = this.getURI() + ":" + TimeSeriesStore.DIRECTORY_PARAM_NAME;
+		if (simParams.containsKey(dname)) {
+			// each run starts its series again from its start time
+			this.store = new TimeSeriesStore((String) simParams.get(dname), true);
+			this.consumptionSeries = this.store.getSeries(this.getURI() + ":" + SERIES);
+		}
+
+		// The tariff, the default one unless the run gives a file of rules
+		String tname = this.getURI() + ":" + TariffSchedule.SCHEDULE_PARAM_NAME;
+		if (simParams.containsKey(tname)) {
+			this.cost = new CostIntegrator(TariffSchedule.load((String) simParams.get(tname)),
+					this.getSimulatedTimeUnit().toNanos(1) / 1e9);
+		}
+		String sname = this.getURI() + ":" + TariffSchedule.START_PARAM_NAME;
+		if (simParams.containsKey(sname)) {
+			this.tariffStart = ((Number) simParams.get(sname)).doubleValue();
+		}
 
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.ELECTRIC_METER_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, ElectricMeterStateKey.class);
+			this.setConsumptionRegistry(
+					(ConsumptionRegistry) this.componentState.getValue(ElectricMeterStateKey.CONSUMPTION_REGISTRY));
+		}
 	}
 
 	/**
@@ -219,23 +364,29 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 
 		// first data in the plotter to start the plot.
 		
+		// in SIL, the registry is shared with the component and already holds
+		// the current consumptions
 		if(componentRef == null) {
-			this.hairDryerConsumption = 0.0;
-			this.washingMachineConsumption = 0.0;
-			this.fridgeConsumption = 0.0;
-			this.totalConsumption = 0.0;
-			
-		} else {
-			try {
-				this.hairDryerConsumption = (Double)this.componentRef.getEmbeddingComponentStateValue("hairDryerConsumption");
-				this.washingMachineConsumption = (Double)this.componentRef.getEmbeddingComponentStateValue("washingMachineConsumption");
-				this.fridgeConsumption = (Double)this.componentRef.getEmbeddingComponentStateValue("fridgeConsumption");
-				this.totalConsumption = (Double)this.componentRef.getEmbeddingComponentStateValue("totalConsumption");
-			} catch (Exception e) {
-				e.printStackTrace();
+			this.consumptions.reset();
+		}
+		this.energy.start(startTime.getSimulatedTime());
+		this.demand.start(startTime.getSimulatedTime(), this.getConsumption());
+		double weekTime = (this.tariffStart
+				+ startTime.getSimulatedTime() * this.getSimulatedTimeUnit().toNanos(1) / 1e9) % TariffSchedule.WEEK;
+		this.cost.start(startTime.getSimulatedTime(), weekTime, this.getConsumption());
+		this.marginalPrice = Double.NaN;
+		this.checkMarginalPrice();
+		for (AnomalyDetector detector : this.detectors) {
+			if (detector != null) {
+				detector.reset();
 			}
 		}
-		this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.getConsumption());
+		this.pendingAlerts.clear();
+		for (int slot : new int[] { this.fridgeSlot, this.hairDryerSlot, this.washingMachineSlot }) {
+			this.energy.update(slot, this.consumptions.get(slot), startTime.getSimulatedTime());
+		}
+		this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.getConsumption());
+		this.storeConsumption(startTime.getSimulatedTime());
 		this.triggerReading = false;
 		super.initialiseVariables(startTime);
 	}
@@ -245,13 +396,19 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public ArrayList<EventI> output() {
-		if (this.triggerReading) {
-			double reading = this.getConsumption(); // Watt
-			ArrayList<EventI> ret = new ArrayList<EventI>(1);
+		if (this.triggerReading || !this.pendingAlerts.isEmpty()) {
+			ArrayList<EventI> ret = new ArrayList<EventI>(1 + this.pendingAlerts.size());
 			Time currentTime = this.getCurrentStateTime().add(this.getNextTimeAdvance());
-			ConsumptionEvent consumption = new ConsumptionEvent(currentTime, reading);
-			ret.add(consumption);
-			this.triggerReading = false;
+			if (this.triggerReading) {
+				double reading = this.getConsumption(); // Watt
+				ConsumptionEvent consumption = new ConsumptionEvent(currentTime, reading);
+				ret.add(consumption);
+				this.triggerReading = false;
+			}
+			for (AnomalyEvent.Alert alert : this.pendingAlerts) {
+				ret.add(new AnomalyEvent(currentTime, alert));
+			}
+			this.pendingAlerts.clear();
 			return ret;
 		} else {
 			return null;
@@ -263,7 +420,7 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public Duration timeAdvance() {
-		if (!this.triggerReading) {
+		if (!this.triggerReading && this.pendingAlerts.isEmpty()) {
 			return Duration.INFINITY;
 		} else {
 			return Duration.zero(this.getSimulatedTimeUnit());
@@ -276,19 +433,7 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	@Override
 	public void userDefinedInternalTransition(Duration elapsedTime) {
 		if (this.componentRef != null) {
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
-					this.getConsumption());
-			try {
-				this.fridgeConsumption = (double) componentRef.getEmbeddingComponentStateValue("fridgeConsumption");
-				this.hairDryerConsumption = (double) componentRef
-						.getEmbeddingComponentStateValue("hairDryerConsumption");
-				this.washingMachineConsumption = (double) componentRef
-						.getEmbeddingComponentStateValue("washingMachineConsumption");
-				this.totalConsumption = (Double)this.componentRef.getEmbeddingComponentStateValue("totalConsumption");
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
 					this.getConsumption());
 		}
 	}
@@ -299,58 +444,32 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	@Override
 	public void userDefinedExternalTransition(Duration elapsedTime) {
 		super.userDefinedExternalTransition(elapsedTime);
-		if (this.componentRef == null) {
-			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
+		ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 
-			assert currentEvents != null ;
+		assert currentEvents != null;
 
-			Event ce = (Event) currentEvents.get(0);
+		this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
+				this.getConsumption());
 
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
-					this.getConsumption());
-
-			if (ce instanceof TicEvent) {
+		// all the simultaneous events are applied before the new total is
+		// recorded, plotted and, in SIL, pushed by the component
+		boolean changed = false;
+		for (EventI e : currentEvents) {
+			if (e instanceof TicEvent) {
 				this.triggerReading = true;
 			} else {
-				ce.executeOn(this);
-			}
-
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
-					this.getConsumption());
-
-			
-
-		} else {
-			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
-
-			assert currentEvents != null;
-
-			Event ce = (Event) currentEvents.get(0);
-			
-			if(ce instanceof TicEvent) {
-				this.triggerReading = true;
-			}
-
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
-					this.getConsumption());
-			try {
-				ce.executeOn(this);
-				if (ce instanceof FridgeConsumptionEvent) {
-					componentRef.getEmbeddingComponentStateValue("setFridgeConsumption");
-				} else if (ce instanceof HairDryerConsumptionEvent) {
-					componentRef.getEmbeddingComponentStateValue("setHairDryerConsumption");
-				} else if (ce instanceof WashingMachineConsumptionEvent) {
-					componentRef.getEmbeddingComponentStateValue("setWashingMachineConsumption");
-				}
-			} catch (Exception e) {
-				e.printStackTrace();
+				((Event) e).executeOn(this);
+				changed = true;
 			}
+		}
 
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
+		if (changed) {
+			this.consumptionChanged();
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
 					this.getConsumption());
-
-
 		}
+		this.checkMarginalPrice();
+		this.checkAnomalies();
 	}
 
 	/**
@@ -358,7 +477,16 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public void endSimulation(Time endTime) throws Exception {
-		this.consumptionPlotter.addData(SERIES, endTime.getSimulatedTime(), this.getConsumption());
+		this.consumptionSink.addData(SERIES, endTime.getSimulatedTime(), this.getConsumption());
+		this.consumptionSink.flush();
+		this.finalEnergy = this.energy.summarise(endTime.getSimulatedTime());
+		this.finalDemand = this.demand.summariseDays(endTime.getSimulatedTime());
+		this.finalCost = this.cost.getCost(endTime.getSimulatedTime());
+		this.storeConsumption(endTime.getSimulatedTime());
+		if (this.store != null) {
+			this.store.close();
+			this.store = null;
+		}
 
 		super.endSimulation(endTime);
 	}
@@ -368,42 +496,209 @@ public class ElectricMeterModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public SimulationReportI getFinalReport() throws Exception {
-		return new ElectricMeterModelReport(this.getURI());
+		return new ElectricMeterModelReport(this.getURI(), this.finalEnergy, this.finalDemand, this.finalCost);
 	}
 
 	// ------------------------------------------------------------------------
 	// Model-specific methods
 	// ------------------------------------------------------------------------
 
+	/**
+	 * use the given registry to store the consumptions, registering the
+	 * devices known by the model.
+	 *
+	 * @param registry	the registry of the consumptions.
+	 */
+	protected void setConsumptionRegistry(ConsumptionRegistry registry) {
+		this.consumptions = registry;
+		this.fridgeSlot = registry.register(URIS.FRIDGE_URI);
+		this.hairDryerSlot = registry.register(URIS.HAIR_DRYER_URI);
+		this.washingMachineSlot = registry.register(URIS.WASHING_MACHINE_URI);
+		this.energy.addDevice(this.fridgeSlot, URIS.FRIDGE_URI);
+		this.energy.addDevice(this.hairDryerSlot, URIS.HAIR_DRYER_URI);
+		this.energy.addDevice(this.washingMachineSlot, URIS.WASHING_MACHINE_URI);
+		this.detectors = new AnomalyDetector[1
+				+ Math.max(this.fridgeSlot, Math.max(this.hairDryerSlot, this.washingMachineSlot))];
+		double second = 1e9 / this.getSimulatedTimeUnit().toNanos(1);
+		this.detectors[this.fridgeSlot] = new AnomalyDetector(URIS.FRIDGE_URI, FridgeModel.PASSIVE_POWER,
+				FRIDGE_MAX_RUN * second);
+		this.detectors[this.hairDryerSlot] = new AnomalyDetector(URIS.HAIR_DRYER_URI, 0.0,
+				HAIR_DRYER_MAX_RUN * second);
+		this.detectors[this.washingMachineSlot] = new AnomalyDetector(URIS.WASHING_MACHINE_URI, 0.0,
+				WASHING_MACHINE_MAX_RUN * second);
+	}
+
+	/**
+	 * return the energy consumed up to the current time of the model.
+	 *
+	 * @return	the summary of the energy consumed.
+	 */
+	public EnergySummary getEnergySummary() {
+		return this.energy.summarise(this.getCurrentStateTime().getSimulatedTime());
+	}
+
+	/**
+	 * return the peak and percentiles of the power drawn during the current
+	 * day up to the current time of the model.
+	 *
+	 * @return	the statistics of the current day.
+	 */
+	public DemandStatistics getDemandStatistics() {
+		return this.demand.summarise(this.getCurrentStateTime().getSimulatedTime());
+	}
+
+	/**
+	 * return a copy of the sketch of the power drawn during the current day,
+	 * to be merged with the sketches of other households.
+	 *
+	 * @return	the sketch of the current day.
+	 */
+	public DemandSketch getDemandSketch() {
+		return this.demand.getSketch(this.getCurrentStateTime().getSimulatedTime());
+	}
+
+	/**
+	 * return the cost of the energy consumed up to the current time of the
+	 * model under the tariff.
+	 *
+	 * @return	the cost since the start.
+	 */
+	public double getAccruedCost() {
+		return this.cost.getCost(this.getCurrentStateTime().getSimulatedTime());
+	}
+
+	/**
+	 * return the price of one more kWh drawn at the current time of the
+	 * model.
+	 *
+	 * @return	the price per kWh.
+	 */
+	public double getMarginalPrice() {
+		return this.cost.getMarginalPrice(this.getCurrentStateTime().getSimulatedTime());
+	}
+
+	/**
+	 * set the consumption of a device and integrate its previous consumption
+	 * up to the current time.
+	 *
+	 * @param slot	slot of the device in the registry.
+	 * @param p		consumption of the device (in Watt).
+	 */
+	protected void setDeviceConsumption(int slot, double p) {
+		this.consumptions.update(slot, p);
+		this.energy.update(slot, p, this.getCurrentStateTime().getSimulatedTime());
+		AnomalyKind kind = this.detectors[slot].update(p, this.getCurrentStateTime().getSimulatedTime());
+		if (kind != null) {
+			this.raiseAlert(this.detectors[slot], kind);
+		}
+	}
+
+	/**
+	 * check whether a device has been active for too long; called at each
+	 * transition, so a device is flagged at the latest at the next tic.
+	 */
+	protected void checkAnomalies() {
+		for (AnomalyDetector detector : this.detectors) {
+			if (detector != null) {
+				AnomalyKind kind = detector.check(this.getCurrentStateTime().getSimulatedTime());
+				if (kind != null) {
+					this.raiseAlert(detector, kind);
+				}
+			}
+		}
+	}
+
+	/**
+	 * queue an alert to be sent to the controller at the next output.
+	 *
+	 * @param detector	detector which flagged the device.
+	 * @param kind		kind of anomaly.
+	 */
+	protected void raiseAlert(AnomalyDetector detector, AnomalyKind kind) {
+		this.pendingAlerts.add(new AnomalyEvent.Alert(detector.getDevice(), kind, detector.getFlaggedValue()));
+	}
+
+	/**
+	 * record the new total consumption once the consumptions of the devices
+	 * have been updated and, in SIL, let the component push it to its
+	 * subscribers.
+	 */
+	protected void consumptionChanged() {
+		this.demand.update(this.getConsumption(), this.getCurrentStateTime().getSimulatedTime());
+		this.cost.update(this.getConsumption(), this.getCurrentStateTime().getSimulatedTime());
+		this.storeConsumption(this.getCurrentStateTime().getSimulatedTime());
+		if (this.componentRef != null) {
+			try {
+				this.componentState.run(ElectricMeterStateKey.TOTAL_CONSUMPTION);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * check whether the price of the tariff changed since the last
+	 * transition and, in SIL, let the component push the new price to its
+	 * subscribers; the price is thus pushed at the first transition, e.g. a
+	 * tic, after the start of a new period.
+	 */
+	protected void checkMarginalPrice() {
+		double price = this.cost.getMarginalPrice(this.getCurrentStateTime().getSimulatedTime());
+		if (price != this.marginalPrice) {
+			this.marginalPrice = price;
+			if (this.componentRef != null) {
+				try {
+					this.componentState.setDouble(ElectricMeterStateKey.MARGINAL_PRICE, price);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * append the total consumption to its time series, if the run keeps it.
+	 *
+	 * @param time	current simulated time.
+	 */
+	protected void storeConsumption(double time) {
+		if (this.consumptionSeries != null) {
+			try {
+				this.consumptionSeries.append(time, this.getConsumption());
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	public ConsumptionRegistry getConsumptionRegistry() {
+		return this.consumptions;
+	}
+
 	public double getConsumption() {
-		this.totalConsumption = this.fridgeConsumption + this.hairDryerConsumption + this.washingMachineConsumption;
-		return this.totalConsumption;
+		return this.consumptions.getTotal();
 	}
 
 	public void setHairDryerConsumption(double p) {
-		this.hairDryerConsumption = p;
+		this.setDeviceConsumption(this.hairDryerSlot, p);
 	}
 
 	public void setWashingMachineConsumption(double p) {
-		this.washingMachineConsumption = p;
+		this.setDeviceConsumption(this.washingMachineSlot, p);
 	}
 
 	public void setFridgeConsumption(double p) {
-		this.fridgeConsumption = p;
+		this.setDeviceConsumption(this.fridgeSlot, p);
 	}
 	public double getHairDryerConsumption() {
-		return this.hairDryerConsumption;
+		return this.consumptions.get(this.hairDryerSlot);
 	}
 
 	public double getWashingMachineConsumption() {
-		return this.washingMachineConsumption;
+		return this.consumptions.get(this.washingMachineSlot);
 	}
 
 	public double getFridgeConsumption() {
-		return this.fridgeConsumption;
-	}
-	
-	public void setConsumption(double p) {
-		this.totalConsumption = p;
+		return this.consumptions.get(this.fridgeSlot);
 	}
 }
@@ -1,5 +1,6 @@
 package simulation.models.enginegenerator;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -25,9 +26,14 @@ import simulation.events.enginegenerator.EngineGeneratorProductionEvent;
 import simulation.events.enginegenerator.RefillEvent;
 import simulation.events.enginegenerator.StartEngineEvent;
 import simulation.events.enginegenerator.StopEngineEvent;
+import simulation.tools.downsampling.DownsamplingSink;
 import simulation.tools.enginegenerator.EngineGeneratorState;
+import simulation.tools.timeseries.TimeSeries;
+import simulation.tools.timeseries.TimeSeriesStore;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStateKey;
 import wattwatt.tools.URIS;
 import wattwatt.tools.EngineGenerator.EngineGeneratorSetting;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(imported = { RefillEvent.class, 
 								  StartEngineEvent.class, 
@@ -147,15 +153,28 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 
 	/** plotter for the production level over time. */
 	protected XYPlotter productionPlotter;
+	/** downsampling of the points of the production level before plotting. */
+	protected DownsamplingSink productionSink;
 
 	/** plotter for the fuel quantity over time. */
 	protected XYPlotter fuelQuantityPlotter;
+	/** downsampling of the points of the fuel quantity before plotting. */
+	protected DownsamplingSink fuelQuantitySink;
+
+	/** store of the time series of the run, null if the run keeps none. */
+	protected TimeSeriesStore store;
+	/** time series of the production level. */
+	protected TimeSeries productionSeries;
+	/** time series of the fuel quantity. */
+	protected TimeSeries fuelQuantitySeries;
 
 	/**
 	 * reference on the object representing the component that holds the model;
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<EngineGeneratorStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -200,15 +219,29 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 		PlotterDescription pdProduction = (PlotterDescription) simParams.get(vname);
 		this.productionPlotter = new XYPlotter(pdProduction);
 		this.productionPlotter.createSeries(EngineGeneratorModel.PRODUCTION);
+		this.productionSink = DownsamplingSink.create(this.productionPlotter::addData, this.getURI(), simParams, EngineGeneratorModel.PRODUCTION);
 
 		vname = this.getURI() + ":" + EngineGeneratorModel.FUEL_QUANTITY_SERIES + ":"
 				+ PlotterDescription.PLOTTING_PARAM_NAME;
 		PlotterDescription pdFuelQuantity = (PlotterDescription) simParams.get(vname);
 		this.fuelQuantityPlotter = new XYPlotter(pdFuelQuantity);
 		this.fuelQuantityPlotter.createSeries(FUEL_QUANTITY);
+		this.fuelQuantitySink = DownsamplingSink.create(this.fuelQuantityPlotter::addData, this.getURI(), simParams, FUEL_QUANTITY);
+
+		// The store of the time series, when the run keeps them
+		String dname = this.getURI() + ":" + TimeSeriesStore.DIRECTORY_PARAM_NAME;
+		if (simParams.containsKey(dname)) {
+			// each run starts its series again from its start time
+			this.store = new TimeSeriesStore((String) simParams.get(dname), true);
+			this.productionSeries = this.store.getSeries(this.getURI() + ":" + PRODUCTION);
+			this.fuelQuantitySeries = this.store.getSeries(this.getURI() + ":" + FUEL_QUANTITY);
+		}
 
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.ENGINE_GENERATOR_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, EngineGeneratorStateKey.class);
+		}
 	}
 
 	/**
@@ -221,7 +254,7 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 			this.state = EngineGeneratorState.OFF;
 		} else {
 			try {
-				this.state = (EngineGeneratorState) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.state = (EngineGeneratorState) this.componentState.getValue(EngineGeneratorStateKey.STATE);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -254,13 +287,13 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 			this.fuelCapacity = EngineGeneratorSetting.FULL_CAPACITY;
 		} else {
 			try {
-				this.production = (Double) this.componentRef.getEmbeddingComponentStateValue("production");
-				this.fuelCapacity = (Double) this.componentRef.getEmbeddingComponentStateValue("capacity");
+				this.production = this.componentState.getDouble(EngineGeneratorStateKey.PRODUCTION);
+				this.fuelCapacity = this.componentState.getDouble(EngineGeneratorStateKey.CAPACITY);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 		}
-
+		this.storeState(startTime.getSimulatedTime());
 	}
 	
 	/**
@@ -302,25 +335,26 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 		if (this.componentRef != null) {
 
 			if (this.productionPlotter != null) {
-				this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(),
+				this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(),
 						this.production);
 			}
 
 			if (this.fuelQuantityPlotter != null) {
-				this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
+				this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
 						this.fuelCapacity);
 			}
 			this.updateState();
 
 			if (this.productionPlotter != null) {
-				this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(),
+				this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(),
 						this.production);
 			}
 
 			if (this.fuelQuantityPlotter != null) {
-				this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
+				this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
 						this.fuelCapacity);
 			}
+			this.storeState(this.getCurrentStateTime().getSimulatedTime());
 		}
 
 	}
@@ -335,52 +369,54 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
 
-			Event ce = (Event) currentEvents.get(0);
-
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
-			this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
+			this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+			this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
 					this.fuelCapacity);
 
-			if (ce instanceof TicEvent) {
-				this.triggerReading = true;
-			} else {
-				assert ce instanceof AbstractEngineGeneratorEvent || ce instanceof AbstractControllerEvent;
-				ce.executeOn(this);
+			// all the simultaneous events are applied before plotting
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				} else {
+					assert e instanceof AbstractEngineGeneratorEvent || e instanceof AbstractControllerEvent;
+					((Event) e).executeOn(this);
+				}
 			}
 
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
-			this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
+			this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+			this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
 					this.fuelCapacity);
-
-			
+			this.storeState(this.getCurrentStateTime().getSimulatedTime());
 
 		} else {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
 
-			Event ce = (Event) currentEvents.get(0);
-
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
-			this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),this.fuelCapacity);
+			this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+			this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),this.fuelCapacity);
 
-			if (ce instanceof TicEvent) {
-				this.triggerReading = true;
-			} 
+			// the state is read and updated once whatever the number of
+			// simultaneous events
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				}
+			}
 			try {
-				this.state = (EngineGeneratorState) this.componentRef.getEmbeddingComponentStateValue("state");
-				this.fuelCapacity = (double) this.componentRef.getEmbeddingComponentStateValue("capacity");
+				this.state = (EngineGeneratorState) this.componentState.getValue(EngineGeneratorStateKey.STATE);
+				this.fuelCapacity = this.componentState.getDouble(EngineGeneratorStateKey.CAPACITY);
 				this.updateState();
-				this.componentRef.setEmbeddingComponentStateValue("capacity",new Double(this.fuelCapacity));
-				this.componentRef.setEmbeddingComponentStateValue("production",new Double(this.production));
-				this.componentRef.setEmbeddingComponentStateValue("state", this.state);
+				this.componentState.setDouble(EngineGeneratorStateKey.CAPACITY, this.fuelCapacity);
+				this.componentState.setDouble(EngineGeneratorStateKey.PRODUCTION, this.production);
+				this.componentState.setValue(EngineGeneratorStateKey.STATE, this.state);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
-			this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
+			this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+			this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
 					this.fuelCapacity);
-
+			this.storeState(this.getCurrentStateTime().getSimulatedTime());
 		}
 	}
 
@@ -389,11 +425,35 @@ public class EngineGeneratorModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public void endSimulation(Time endTime) throws Exception {
-		this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
-		this.fuelQuantityPlotter.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
+		this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+		this.fuelQuantitySink.addData(FUEL_QUANTITY, this.getCurrentStateTime().getSimulatedTime(),
 				this.fuelCapacity);
+		this.storeState(endTime.getSimulatedTime());
+		if (this.store != null) {
+			this.store.close();
+			this.store = null;
+		}
+		this.productionSink.flush();
+		this.fuelQuantitySink.flush();
 		super.endSimulation(endTime);
 	}
+
+	/**
+	 * append the current production and fuel quantity to their time series,
+	 * if the run keeps them.
+	 *
+	 * @param time	current simulated time.
+	 */
+	protected void storeState(double time) {
+		if (this.store != null) {
+			try {
+				this.productionSeries.append(time, this.production);
+				this.fuelQuantitySeries.append(time, this.fuelCapacity);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
 	
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.Model#getFinalReport()
@@ -21,7 +21,9 @@ import simulation.events.enginegenerator.RefillEvent;
 import simulation.events.enginegenerator.StartEngineEvent;
 import simulation.events.enginegenerator.StopEngineEvent;
 import simulation.tools.enginegenerator.EngineGeneratorUserAction;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStateKey;
 import wattwatt.tools.URIS;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(exported = { StartEngineEvent.class, 
 								  RefillEvent.class,
@@ -166,6 +168,8 @@ public class EngineGeneratorUserModel extends AtomicES_Model {
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<EngineGeneratorStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -230,6 +234,9 @@ public class EngineGeneratorUserModel extends AtomicES_Model {
 		
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.ENGINE_GENERATOR_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, EngineGeneratorStateKey.class);
+		}
 	}
 	
 	/**
@@ -353,7 +360,7 @@ public class EngineGeneratorUserModel extends AtomicES_Model {
 								actionToInteger(EngineGeneratorUserAction.START));
 					}
 					
-					this.componentRef.setEmbeddingComponentStateValue("start", null);
+					this.componentState.run(EngineGeneratorStateKey.START);
 					
 				} else if (this.nextEvent.equals(StopEngineEvent.class)) {
 					
@@ -367,7 +374,7 @@ public class EngineGeneratorUserModel extends AtomicES_Model {
 								actionToInteger(EngineGeneratorUserAction.REFILL));
 					}
 					
-					this.componentRef.setEmbeddingComponentStateValue("stop", null);
+					this.componentState.run(EngineGeneratorStateKey.STOP);
 					
 				} else if (this.nextEvent.equals(RefillEvent.class)) {
 					
@@ -381,7 +388,7 @@ public class EngineGeneratorUserModel extends AtomicES_Model {
 								actionToInteger(EngineGeneratorUserAction.STOP));
 					}
 					
-					this.componentRef.setEmbeddingComponentStateValue("refill", null);
+					this.componentState.run(EngineGeneratorStateKey.REFILL);
 					
 				}
 			} catch (Exception e) {
@@ -28,10 +28,13 @@ import simulation.events.fridge.FridgeConsumptionEvent;
 import simulation.events.fridge.OpenEvent;
 import simulation.events.fridge.ResumeEvent;
 import simulation.events.fridge.SuspendEvent;
+import simulation.tools.downsampling.DownsamplingSink;
 import simulation.tools.fridge.FridgeConsumption;
 import simulation.tools.fridge.FridgeDoor;
 import wattwatt.tools.URIS;
 import wattwatt.tools.fridge.FridgeSetting;
+import wattwatt.tools.fridge.FridgeStateKey;
+import wattwatt.tools.state.StateTable;
 
 
 @ModelExternalEvents(imported = { CloseEvent.class, 
@@ -135,6 +138,8 @@ extends AtomicHIOAwithEquations
 	public static final String	URI = URIS.FRIDGE_MODEL_URI ;
 	/** nominal tension (in Volts) of the fridge.							*/
 	protected static final double TENSION = 220.0; // Volts
+	/** consumption (in Watt) of the suspended fridge, door closed.			*/
+	public static final double PASSIVE_POWER = TENSION * FridgeSetting.PASSIVE_CONSUMPTION / 100;
 	/** indicates the quantity of degree the internal temperature
 	 * of the fridge change each step. This variable can be added 
 	 * or substracted to the current temperature depending on the
@@ -177,11 +182,17 @@ extends AtomicHIOAwithEquations
 
 	/** Frame used to plot the temperature during the simulation.			*/
 	protected XYPlotter					temperaturePlotter ;
+	/** downsampling of the points of the temperature before plotting. */
+	protected DownsamplingSink temperatureSink;
 	/** Frame used to plot the consumption during the simulation.			*/
 	protected XYPlotter					consumptionPlotter ;
+	/** downsampling of the points of the consumption before plotting. */
+	protected DownsamplingSink consumptionSink;
 	/** reference on the object representing the component that holds the
 	 *  model; enables the model to access the state of this component.		*/
 	protected EmbeddingComponentAccessI componentRef ;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<FridgeStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// HIOA model variables
@@ -260,13 +271,18 @@ extends AtomicHIOAwithEquations
 		PlotterDescription pdTemperature = (PlotterDescription) simParams.get(vname) ;
 		this.temperaturePlotter = new XYPlotter(pdTemperature) ;
 		this.temperaturePlotter.createSeries(TEMPERATURE_SERIES) ;
+		this.temperatureSink = DownsamplingSink.create(this.temperaturePlotter::addData, this.getURI(), simParams, TEMPERATURE_SERIES);
 		vname = this.getURI() + ":" + FridgeModel.CONSUMPTION + ":"+ PlotterDescription.PLOTTING_PARAM_NAME ;
 		PlotterDescription pdIntensity = (PlotterDescription) simParams.get(vname) ;
 		this.consumptionPlotter = new XYPlotter(pdIntensity) ;
 		this.consumptionPlotter.createSeries(CONSUMPTION_SERIES) ;
+		this.consumptionSink = DownsamplingSink.create(this.consumptionPlotter::addData, this.getURI(), simParams, CONSUMPTION_SERIES);
 		
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.FRIDGE_URI) ;
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, FridgeStateKey.class);
+		}
 	}
 
 	/**
@@ -284,8 +300,8 @@ extends AtomicHIOAwithEquations
 			this.currentState = FridgeConsumption.SUSPENDED;
 		} else {
 			try {
-				this.currentDoorState = (FridgeDoor) this.componentRef.getEmbeddingComponentStateValue("door");
-				this.currentState = (FridgeConsumption) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.currentDoorState = (FridgeDoor) this.componentState.getValue(FridgeStateKey.DOOR);
+				this.currentState = (FridgeConsumption) this.componentState.getValue(FridgeStateKey.STATE);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -328,8 +344,8 @@ extends AtomicHIOAwithEquations
 		}
 		else {
 			try {
-				this.temperature.v = (Double)this.componentRef.getEmbeddingComponentStateValue("temperature") ;
-				this.consumption = (Double)this.componentRef.getEmbeddingComponentStateValue("consumption");
+				this.temperature.v = this.componentState.getDouble(FridgeStateKey.TEMPERATURE) ;
+				this.consumption = this.componentState.getDouble(FridgeStateKey.CONSUMPTION);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -378,13 +394,13 @@ extends AtomicHIOAwithEquations
 	{
 		if(this.componentRef != null) {
 			if (this.temperaturePlotter != null) {
-				this.temperaturePlotter.addData(
+				this.temperatureSink.addData(
 						TEMPERATURE_SERIES,
 						this.getCurrentStateTime().getSimulatedTime(),
 						this.temperature.v) ;
 			}
 			if (this.consumptionPlotter != null) {
-				this.consumptionPlotter.addData(
+				this.consumptionSink.addData(
 					CONSUMPTION_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.consumption) ;
@@ -394,13 +410,13 @@ extends AtomicHIOAwithEquations
 			this.temperature.time = this.getCurrentStateTime() ;
 		
 			if (this.temperaturePlotter != null) {
-				this.temperaturePlotter.addData(
+				this.temperatureSink.addData(
 						TEMPERATURE_SERIES,
 						this.getCurrentStateTime().getSimulatedTime(),
 						this.temperature.v) ;
 			}
 			if (this.consumptionPlotter != null) {
-				this.consumptionPlotter.addData(
+				this.consumptionSink.addData(
 					CONSUMPTION_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.consumption) ;
@@ -422,34 +438,37 @@ extends AtomicHIOAwithEquations
 			assert	currentEvents != null;
 
 			if (this.temperaturePlotter != null) {
-				this.temperaturePlotter.addData(
+				this.temperatureSink.addData(
 					TEMPERATURE_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.temperature.v) ;
 			}
 			
 			if (this.consumptionPlotter != null) {
-				this.consumptionPlotter.addData(
+				this.consumptionSink.addData(
 					CONSUMPTION_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.consumption) ;
 			}
 				
-			Event ce =(Event) currentEvents.get(0);
-			if (ce instanceof TicEvent) {
-				triggerReading = true;
-			} else {
-				ce.executeOn(this);
+			// all the simultaneous events are applied before computing the
+			// next state once
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					triggerReading = true;
+				} else {
+					((Event) e).executeOn(this);
+				}
 			}
 			this.computeNextState();
 			if (this.temperaturePlotter != null) {
-				this.temperaturePlotter.addData(
+				this.temperatureSink.addData(
 						TEMPERATURE_SERIES,
 						this.getCurrentStateTime().getSimulatedTime(),
 						this.temperature.v) ;
 			}
 			if (this.consumptionPlotter != null) {
-				this.consumptionPlotter.addData(
+				this.consumptionSink.addData(
 					CONSUMPTION_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.consumption) ;
@@ -459,40 +478,41 @@ extends AtomicHIOAwithEquations
 			assert	currentEvents != null  ;
 
 			if (this.temperaturePlotter != null) {
-				this.temperaturePlotter.addData(
+				this.temperatureSink.addData(
 					TEMPERATURE_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.temperature.v) ;
 			}
 			
 			if (this.consumptionPlotter != null) {
-				this.consumptionPlotter.addData(
+				this.consumptionSink.addData(
 					CONSUMPTION_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.consumption) ;
 			}
 				
-			Event ce = (Event) currentEvents.get(0);
-			if (ce instanceof TicEvent) {
-				triggerReading = true;
-			} 
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					triggerReading = true;
+				}
+			}
 			try {
-				this.currentDoorState = (FridgeDoor) this.componentRef.getEmbeddingComponentStateValue("door");
-				this.currentState = (FridgeConsumption) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.currentDoorState = (FridgeDoor) this.componentState.getValue(FridgeStateKey.DOOR);
+				this.currentState = (FridgeConsumption) this.componentState.getValue(FridgeStateKey.STATE);
 				this.computeNextState();
-				this.componentRef.setEmbeddingComponentStateValue("temperature", this.temperature.v) ;
-				this.componentRef.setEmbeddingComponentStateValue("consumption", this.consumption);
+				this.componentState.setDouble(FridgeStateKey.TEMPERATURE, this.temperature.v) ;
+				this.componentState.setDouble(FridgeStateKey.CONSUMPTION, this.consumption);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 			if (this.temperaturePlotter != null) {
-				this.temperaturePlotter.addData(
+				this.temperatureSink.addData(
 						TEMPERATURE_SERIES,
 						this.getCurrentStateTime().getSimulatedTime(),
 						this.temperature.v) ;
 			}
 			if (this.consumptionPlotter != null) {
-				this.consumptionPlotter.addData(
+				this.consumptionSink.addData(
 					CONSUMPTION_SERIES,
 					this.getCurrentStateTime().getSimulatedTime(), 
 					this.consumption) ;
@@ -502,6 +522,16 @@ extends AtomicHIOAwithEquations
 	}
 	
 
+	/**
+	 * @see fr.sorbonne_u.devs_simulation.models.AtomicModel#endSimulation(fr.sorbonne_u.devs_simulation.models.time.Time)
+	 */
+	@Override
+	public void	endSimulation(Time endTime) throws Exception
+	{
+		this.temperatureSink.flush();
+		this.consumptionSink.flush();
+		super.endSimulation(endTime) ;
+	}
 
 
 	/**
@@ -578,4 +608,4 @@ extends AtomicHIOAwithEquations
 	public double getIntensity() {
 		return this.consumption;
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -21,6 +21,8 @@ import fr.sorbonne_u.utils.XYPlotter;
 import simulation.events.fridge.ResumeEvent;
 import simulation.events.fridge.SuspendEvent;
 import wattwatt.tools.URIS;
+import wattwatt.tools.fridge.FridgeStateKey;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(imported = { TicEvent.class }, 
 					 exported = { ResumeEvent.class, 
@@ -133,6 +135,8 @@ public class FridgeSensorModel extends AtomicHIOAwithEquations {
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<FridgeStateKey> componentState;
 	// -------------------------------------------------------------------------
 	// HIOA model variables
 	// -------------------------------------------------------------------------
@@ -195,6 +199,9 @@ public class FridgeSensorModel extends AtomicHIOAwithEquations {
 
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.FRIDGE_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, FridgeStateKey.class);
+		}
 	}
 
 	/**
@@ -240,9 +247,9 @@ public class FridgeSensorModel extends AtomicHIOAwithEquations {
 				
 				try {
 					if (this.temperature.v <= this.minTemperature) {
-						this.componentRef.setEmbeddingComponentStateValue("suspend", null);
+						this.componentState.run(FridgeStateKey.SUSPEND);
 					} else if (this.temperature.v >= this.maxTemperature) {
-						this.componentRef.setEmbeddingComponentStateValue("resume", null);
+						this.componentState.run(FridgeStateKey.RESUME);
 					} 
 				}
 				catch (Exception e) {
@@ -316,4 +323,4 @@ public class FridgeSensorModel extends AtomicHIOAwithEquations {
 	public SimulationReportI getFinalReport() throws Exception {
 		return new FridgeSensorModelReport(this.getURI());
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -21,6 +21,8 @@ import simulation.events.fridge.CloseEvent;
 import simulation.events.fridge.OpenEvent;
 import simulation.tools.fridge.FridgeDoor;
 import wattwatt.tools.URIS;
+import wattwatt.tools.fridge.FridgeStateKey;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(exported = { CloseEvent.class, 
 								  OpenEvent.class})
@@ -136,6 +138,8 @@ extends		AtomicES_Model
 	/** reference on the object representing the component that holds the
 	 *  model; enables the model to access the state of this component.		*/
 	protected EmbeddingComponentAccessI componentRef ;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<FridgeStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -202,6 +206,9 @@ extends		AtomicES_Model
 		
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.FRIDGE_URI) ;
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, FridgeStateKey.class);
+		}
 	}
 
 	/**
@@ -238,7 +245,7 @@ extends		AtomicES_Model
 		}
 		else {
 			try {
-				this.currentState = (FridgeDoor) this.componentRef.getEmbeddingComponentStateValue("door");
+				this.currentState = (FridgeDoor) this.componentState.getValue(FridgeStateKey.DOOR);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -326,14 +333,14 @@ extends		AtomicES_Model
 			}
 		}else {
 			try {
-				this.currentState = (FridgeDoor) this.componentRef.getEmbeddingComponentStateValue("door");
+				this.currentState = (FridgeDoor) this.componentState.getValue(FridgeStateKey.DOOR);
 				
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 			if (this.currentState == FridgeDoor.OPENED) {
 				try {
-					this.componentRef.setEmbeddingComponentStateValue("close", null);
+					this.componentState.run(FridgeStateKey.CLOSE);
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
@@ -356,7 +363,7 @@ extends		AtomicES_Model
 			} else {
 				assert	this.currentState == FridgeDoor.CLOSED ;
 				try {
-					this.componentRef.setEmbeddingComponentStateValue("open", null);
+					this.componentState.run(FridgeStateKey.OPEN);
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
@@ -417,4 +424,4 @@ extends		AtomicES_Model
 	}
 
 
-}
\ No newline at end of file
+}
\ No newline at end of file
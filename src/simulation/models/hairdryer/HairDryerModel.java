@@ -24,11 +24,14 @@ import simulation.events.hairdryer.IncreasePowerEvent;
 import simulation.events.hairdryer.SwitchModeEvent;
 import simulation.events.hairdryer.SwitchOffEvent;
 import simulation.events.hairdryer.SwitchOnEvent;
+import simulation.tools.downsampling.DownsamplingSink;
 import simulation.tools.hairdryer.HairDryerPowerLevel;
 import simulation.tools.hairdryer.HairDryerState;
 import wattwatt.tools.URIS;
 import wattwatt.tools.hairdryer.HairDryerMode;
 import wattwatt.tools.hairdryer.HairDryerSetting;
+import wattwatt.tools.hairdryer.HairDryerStateKey;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(imported = { SwitchOnEvent.class, 
 								  SwitchOffEvent.class, 
@@ -145,12 +148,16 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 	
 	/** plotter for the intensity level over time. */
 	protected XYPlotter consumptionPlotter;
+	/** downsampling of the points of the intensity level before plotting. */
+	protected DownsamplingSink consumptionSink;
 
 	/**
 	 * reference on the object representing the component that holds the model;
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<HairDryerStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -196,10 +203,14 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 		PlotterDescription pd = (PlotterDescription) simParams.get(vname) ;
 		this.consumptionPlotter = new XYPlotter(pd) ;
 		this.consumptionPlotter.createSeries(SERIES) ;
+		this.consumptionSink = DownsamplingSink.create(this.consumptionPlotter::addData, this.getURI(), simParams, SERIES);
 		
 		// The reference to the embedding component
 		this.componentRef =
 			(EmbeddingComponentAccessI) simParams.get(URIS.HAIR_DRYER_URI) ;
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, HairDryerStateKey.class);
+		}
 	}
 
 	/**
@@ -213,9 +224,9 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 			this.state = HairDryerState.OFF;
 		} else {
 			try {
-				this.mode = (HairDryerMode)this.componentRef.getEmbeddingComponentStateValue("mode");
-				this.powerLvl = (HairDryerPowerLevel)this.componentRef.getEmbeddingComponentStateValue("powerLevel");
-				this.state = (HairDryerState)this.componentRef.getEmbeddingComponentStateValue("isOn");
+				this.mode = (HairDryerMode) this.componentState.getValue(HairDryerStateKey.MODE);
+				this.powerLvl = (HairDryerPowerLevel) this.componentState.getValue(HairDryerStateKey.POWER_LEVEL);
+				this.state = (HairDryerState) this.componentState.getValue(HairDryerStateKey.IS_ON);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -242,14 +253,14 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 			this.currentConsumption = 0.0;
 		} else {
 			try {
-				this.currentConsumption =  (Double)this.componentRef.getEmbeddingComponentStateValue("consumption");;
+				this.currentConsumption =  this.componentState.getDouble(HairDryerStateKey.CONSUMPTION);;
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 		}
 
 		// first data in the plotter to start the plot.
-		this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.getIntensity());
+		this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.getIntensity());
 
 		super.initialiseVariables(startTime);
 	}
@@ -294,12 +305,12 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 	public void userDefinedInternalTransition(Duration elapsedTime) {
 
 		if(this.componentRef != null) {
-			this.consumptionPlotter.addData(
+			this.consumptionSink.addData(
 					SERIES,
 					this.getCurrentStateTime().getSimulatedTime(),
 					this.currentConsumption);
 			updateIntensity();
-			this.consumptionPlotter.addData(
+			this.consumptionSink.addData(
 					SERIES,
 					this.getCurrentStateTime().getSimulatedTime(),
 					this.currentConsumption);
@@ -317,31 +328,32 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
 	
-			Event ce = (Event) currentEvents.get(0);
-			
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 	
-			if (ce instanceof TicEvent) {
-				this.triggerReading = true;
-			} else {
-				assert ce instanceof AbstractHairDryerEvent;
-				ce.executeOn(this);
+			// all the simultaneous events are applied before plotting
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				} else {
+					assert e instanceof AbstractHairDryerEvent;
+					((Event) e).executeOn(this);
+				}
 			}
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 	
 		} else {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
 	
-			Event ce = (Event) currentEvents.get(0);
-			
-			assert ce instanceof TicEvent;
+			for (EventI e : currentEvents) {
+				assert e instanceof TicEvent;
+			}
 			this.triggerReading = true;
 			
 			try {
-				this.state = (HairDryerState) this.componentRef.getEmbeddingComponentStateValue("isOn");
-				this.mode = (HairDryerMode)this.componentRef.getEmbeddingComponentStateValue("mode");
-				this.powerLvl = (HairDryerPowerLevel)this.componentRef.getEmbeddingComponentStateValue("powerLevel");
+				this.state = (HairDryerState) this.componentState.getValue(HairDryerStateKey.IS_ON);
+				this.mode = (HairDryerMode) this.componentState.getValue(HairDryerStateKey.MODE);
+				this.powerLvl = (HairDryerPowerLevel) this.componentState.getValue(HairDryerStateKey.POWER_LEVEL);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -353,7 +365,8 @@ public class HairDryerModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public void endSimulation(Time endTime) throws Exception {
-		this.consumptionPlotter.addData(SERIES, endTime.getSimulatedTime(), this.currentConsumption);
+		this.consumptionSink.addData(SERIES, endTime.getSimulatedTime(), this.currentConsumption);
+		this.consumptionSink.flush();
 		super.endSimulation(endTime);
 	}
 
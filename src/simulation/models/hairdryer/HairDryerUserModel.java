@@ -22,6 +22,8 @@ import simulation.events.hairdryer.SwitchOffEvent;
 import simulation.events.hairdryer.SwitchOnEvent;
 import wattwatt.tools.URIS;
 import wattwatt.tools.hairdryer.HairDryerMode;
+import wattwatt.tools.hairdryer.HairDryerStateKey;
+import wattwatt.tools.state.StateTable;
 
 @ModelExternalEvents(exported = { SwitchOnEvent.class, 
 								  SwitchOffEvent.class, 
@@ -141,6 +143,8 @@ public class HairDryerUserModel extends AtomicES_Model {
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<HairDryerStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -189,6 +193,9 @@ public class HairDryerUserModel extends AtomicES_Model {
 
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.HAIR_DRYER_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, HairDryerStateKey.class);
+		}
 
 	}
 
@@ -310,30 +317,30 @@ public class HairDryerUserModel extends AtomicES_Model {
 			Duration d;
 			try {
 				if (this.nextEvent.equals(SwitchOnEvent.class)) {
-					this.componentRef.setEmbeddingComponentStateValue("switchOn", null);
+					this.componentState.run(HairDryerStateKey.SWITCH_ON);
 
 					d = new Duration(2.0 * this.rg.nextBeta(1.75, 1.75), this.getSimulatedTimeUnit());
 					this.scheduleEvent(new SwitchModeEvent(this.getCurrentStateTime().add(d)));
 					
 				} else if (this.nextEvent.equals(SwitchModeEvent.class)) {
-					this.componentRef.setEmbeddingComponentStateValue("switchMode",null);
+					this.componentState.run(HairDryerStateKey.SWITCH_MODE);
 					d = new Duration(2.0 * this.meanTimeAtHigh * this.rg.nextBeta(1.75, 1.75),
 							this.getSimulatedTimeUnit());
 					this.scheduleEvent(new IncreasePowerEvent(this.getCurrentStateTime().add(d)));
 				} else if (this.nextEvent.equals(IncreasePowerEvent.class)) {
-					this.componentRef.setEmbeddingComponentStateValue("increasePower",null);
+					this.componentState.run(HairDryerStateKey.INCREASE_POWER);
 
 					d = new Duration(2.0 * this.meanTimeAtHigh * this.rg.nextBeta(1.75, 1.75),
 							this.getSimulatedTimeUnit());
 					this.scheduleEvent(new DecreasePowerEvent(this.getCurrentStateTime().add(d)));
 				} else if (this.nextEvent.equals(DecreasePowerEvent.class)) {
-					this.componentRef.setEmbeddingComponentStateValue("decreasePower",null);
+					this.componentState.run(HairDryerStateKey.DECREASE_POWER);
 
 					d = new Duration(2.0 * this.meanTimeAtLow * this.rg.nextBeta(1.75, 1.75),
 							this.getSimulatedTimeUnit());
 					this.scheduleEvent(new SwitchOffEvent(this.getCurrentStateTime().add(d)));
 				} else if (this.nextEvent.equals(SwitchOffEvent.class)) {
-					this.componentRef.setEmbeddingComponentStateValue("switchOff",null);
+					this.componentState.run(HairDryerStateKey.SWITCH_OFF);
 
 					d = new Duration(this.interdayDelay, this.getSimulatedTimeUnit());
 					this.scheduleEvent(new SwitchOnEvent(this.getCurrentStateTime().add(d)));
@@ -352,4 +359,4 @@ public class HairDryerUserModel extends AtomicES_Model {
 	public SimulationReportI getFinalReport() throws Exception {
 		return new HairDryerUserModelReport(this.getURI());
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
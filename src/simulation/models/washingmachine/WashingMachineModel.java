@@ -25,10 +25,13 @@ import simulation.events.washingmachine.EcoModeEvent;
 import simulation.events.washingmachine.PremiumModeEvent;
 import simulation.events.washingmachine.StartWashingEvent;
 import simulation.events.washingmachine.WashingMachineConsumptionEvent;
+import simulation.tools.downsampling.DownsamplingSink;
 import simulation.tools.washingmachine.WashingMachineState;
 import wattwatt.tools.URIS;
+import wattwatt.tools.state.StateTable;
 import wattwatt.tools.washingmachine.WashingMachineMode;
 import wattwatt.tools.washingmachine.WashingMachineSetting;
+import wattwatt.tools.washingmachine.WashingMachineStateKey;
 
 @ModelExternalEvents(imported = { EcoModeEvent.class, 
 								  PremiumModeEvent.class, 
@@ -151,12 +154,16 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 
 	/** plotter for the intensity level over time. */
 	protected XYPlotter consumptionPlotter;
+	/** downsampling of the points of the intensity level before plotting. */
+	protected DownsamplingSink consumptionSink;
 	
 	/**
 	 * reference on the object representing the component that holds the model;
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<WashingMachineStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -210,10 +217,14 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 		PlotterDescription pdTemperature = (PlotterDescription) simParams.get(vname) ;
 		this.consumptionPlotter = new XYPlotter(pdTemperature) ;
 		this.consumptionPlotter.createSeries(WashingMachineModel.SERIES) ;
+		this.consumptionSink = DownsamplingSink.create(this.consumptionPlotter::addData, this.getURI(), simParams, WashingMachineModel.SERIES);
 		
 		// The reference to the embedding component
 		this.componentRef =
 			(EmbeddingComponentAccessI) simParams.get(URIS.WASHING_MACHINE_URI) ;
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, WashingMachineStateKey.class);
+		}
 	}
 
 	/**
@@ -226,8 +237,8 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 			this.state = WashingMachineState.OFF;
 		} else {
 			try {
-				this.washingMode = (WashingMachineMode) this.componentRef.getEmbeddingComponentStateValue("mode");
-				this.state = (WashingMachineState) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.washingMode = (WashingMachineMode) this.componentState.getValue(WashingMachineStateKey.MODE);
+				this.state = (WashingMachineState) this.componentState.getValue(WashingMachineStateKey.STATE);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -249,12 +260,12 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 			this.currentConsumption = 0.0;
 		} else {
 			try {
-				this.currentConsumption =  (Double)this.componentRef.getEmbeddingComponentStateValue("consumption");
+				this.currentConsumption =  this.componentState.getDouble(WashingMachineStateKey.CONSUMPTION);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 		}
-		this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+		this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 
 		super.initialiseVariables(startTime);
 	}
@@ -297,10 +308,10 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 	@Override
 	public void userDefinedInternalTransition(Duration elapsedTime) {
 			if (this.componentRef != null) {
-				this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
+				this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
 						this.currentConsumption);
 				this.updateState();
-				this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
+				this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(),
 						this.currentConsumption);
 			}
 	}
@@ -315,39 +326,42 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
 	
-			Event ce = (Event) currentEvents.get(0);
-	
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 
-			if (ce instanceof TicEvent) {
-				this.triggerReading = true;
-			} else {
-				
-				assert ce instanceof AbstractWashingMachineEvent || ce instanceof AbstractControllerEvent;
-				ce.executeOn(this);
+			// all the simultaneous events are applied before plotting
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				} else {
+					assert e instanceof AbstractWashingMachineEvent || e instanceof AbstractControllerEvent;
+					((Event) e).executeOn(this);
+				}
 			}
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 	
 		} else {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
-			Event ce = (Event) currentEvents.get(0);
 			
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 			
-			if(ce instanceof TicEvent) {
-				this.triggerReading = true;
+			// the state is read and updated once whatever the number of
+			// simultaneous events
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				}
 			}
 			try {
-				this.state = (WashingMachineState) this.componentRef.getEmbeddingComponentStateValue("state");
-				this.washingMode = (WashingMachineMode)this.componentRef.getEmbeddingComponentStateValue("mode");
+				this.state = (WashingMachineState) this.componentState.getValue(WashingMachineStateKey.STATE);
+				this.washingMode = (WashingMachineMode) this.componentState.getValue(WashingMachineStateKey.MODE);
 				this.updateState();
-				this.componentRef.setEmbeddingComponentStateValue("consumption", this.currentConsumption);
+				this.componentState.setDouble(WashingMachineStateKey.CONSUMPTION, this.currentConsumption);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 			
-			this.consumptionPlotter.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
+			this.consumptionSink.addData(SERIES, this.getCurrentStateTime().getSimulatedTime(), this.currentConsumption);
 		}
 	}
 
@@ -356,7 +370,8 @@ public class WashingMachineModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public void endSimulation(Time endTime) throws Exception {
-		this.consumptionPlotter.addData(SERIES, endTime.getSimulatedTime(), this.currentConsumption);
+		this.consumptionSink.addData(SERIES, endTime.getSimulatedTime(), this.currentConsumption);
+		this.consumptionSink.flush();
 		super.endSimulation(endTime);
 	}
 
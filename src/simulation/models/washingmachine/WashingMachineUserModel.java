@@ -24,6 +24,8 @@ import simulation.events.washingmachine.PremiumModeEvent;
 import simulation.events.washingmachine.StartWashingEvent;
 import simulation.tools.washingmachine.WashingMachineUserBehaviour;
 import wattwatt.tools.URIS;
+import wattwatt.tools.state.StateTable;
+import wattwatt.tools.washingmachine.WashingMachineStateKey;
 
 @ModelExternalEvents(exported = { StartWashingEvent.class, 
 								  EcoModeEvent.class,
@@ -155,6 +157,8 @@ public class WashingMachineUserModel extends AtomicES_Model {
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<WashingMachineStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -217,6 +221,9 @@ public class WashingMachineUserModel extends AtomicES_Model {
 
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.WASHING_MACHINE_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, WashingMachineStateKey.class);
+		}
 	}
 
 	/**
@@ -343,7 +350,7 @@ public class WashingMachineUserModel extends AtomicES_Model {
 			Duration d;
 			if (this.nextEvent.equals(StartWashingEvent.class)) {
 				try {
-					this.componentRef.setEmbeddingComponentStateValue("start", null);
+					this.componentState.run(WashingMachineStateKey.START);
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
@@ -371,7 +378,7 @@ public class WashingMachineUserModel extends AtomicES_Model {
 				}
 			} else if (this.nextEvent.equals(PremiumModeEvent.class)) {
 				try {
-					this.componentRef.setEmbeddingComponentStateValue("premiumMode", null);
+					this.componentState.run(WashingMachineStateKey.PREMIUM_MODE);
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
@@ -391,7 +398,7 @@ public class WashingMachineUserModel extends AtomicES_Model {
 
 			} else if (this.nextEvent.equals(EcoModeEvent.class)) {
 				try {
-					this.componentRef.setEmbeddingComponentStateValue("ecoMode", null);
+					this.componentState.run(WashingMachineStateKey.ECO_MODE);
 				} catch (Exception e) {
 					e.printStackTrace();
 				}
@@ -1,5 +1,6 @@
 package simulation.models.windturbine;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -22,8 +23,13 @@ import simulation.events.windturbine.SwitchOffEvent;
 import simulation.events.windturbine.SwitchOnEvent;
 import simulation.events.windturbine.WindReadingEvent;
 import simulation.events.windturbine.WindTurbineProductionEvent;
+import simulation.tools.downsampling.DownsamplingSink;
+import simulation.tools.timeseries.TimeSeries;
+import simulation.tools.timeseries.TimeSeriesStore;
 import simulation.tools.windturbine.WindTurbineState;
 import wattwatt.tools.URIS;
+import wattwatt.tools.state.StateTable;
+import wattwatt.tools.windturbine.WindTurbineStateKey;
 
 @ModelExternalEvents(imported = { WindReadingEvent.class, 
 								  SwitchOffEvent.class, 
@@ -136,12 +142,20 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 
 	/** plotter for the production level over time. */
 	protected XYPlotter productionPlotter;
+	/** downsampling of the points of the production level before plotting. */
+	protected DownsamplingSink productionSink;
+	/** store of the time series of the run, null if the run keeps none. */
+	protected TimeSeriesStore store;
+	/** time series of the production level. */
+	protected TimeSeries productionSeries;
 
 	/**
 	 * reference on the object representing the component that holds the model;
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<WindTurbineStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -186,9 +200,21 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 		PlotterDescription pd =(PlotterDescription) simParams.get(vname) ;
 		this.productionPlotter = new XYPlotter(pd);
 		this.productionPlotter.createSeries(PRODUCTION);
+		this.productionSink = DownsamplingSink.create(this.productionPlotter::addData, this.getURI(), simParams, PRODUCTION);
+
+		// The store of the time series, when the run keeps them
+		String dname = this.getURI() + ":" + TimeSeriesStore.DIRECTORY_PARAM_NAME;
+		if (simParams.containsKey(dname)) {
+			// each run starts its series again from its start time
+			this.store = new TimeSeriesStore((String) simParams.get(dname), true);
+			this.productionSeries = this.store.getSeries(this.getURI() + ":" + PRODUCTION);
+		}
 		
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.WIND_TURBINE_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, WindTurbineStateKey.class);
+		}
 	}
 
 	/**
@@ -202,7 +228,7 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 			this.state = WindTurbineState.OFF;
 		}else {
 			try {
-				this.state = (WindTurbineState) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.state = (WindTurbineState) this.componentState.getValue(WindTurbineStateKey.STATE);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -234,14 +260,15 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 			this.production = 0.0;
 		} else {
 			try {
-				this.production =  (Double)this.componentRef.getEmbeddingComponentStateValue("production");;
+				this.production =  this.componentState.getDouble(WindTurbineStateKey.PRODUCTION);;
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 		}
 		
 		// first data in the plotter to start the plot.
-		this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+		this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.production);
+		this.storeProduction(this.getCurrentStateTime().getSimulatedTime());
 
 		super.initialiseVariables(startTime);
 	}
@@ -285,7 +312,8 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 	public void userDefinedInternalTransition(Duration elapsedTime) {
 		if (this.componentRef != null) {
 			try {
-				this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.getProduction());
+				this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.getProduction());
+				this.storeProduction(this.getCurrentStateTime().getSimulatedTime());
 			} catch (Exception e) {
 				throw new RuntimeException(e);
 			}
@@ -303,31 +331,37 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 	
 			assert currentEvents != null ;
 	
-			Event ce = (Event) currentEvents.get(0);
-	
-			if (ce instanceof TicEvent) {
-				this.triggerReading = true;
-			} else {
-				assert ce instanceof AbstractWindTurbineEvent;
-				ce.executeOn(this);
+			// all the simultaneous events are applied before plotting
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				} else {
+					assert e instanceof AbstractWindTurbineEvent;
+					((Event) e).executeOn(this);
+				}
 			}
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.getProduction());
+			this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.getProduction());
+			this.storeProduction(this.getCurrentStateTime().getSimulatedTime());
 			
 		} else {
 			ArrayList<EventI> currentEvents = this.getStoredEventAndReset();
 			assert currentEvents != null;
-			Event ce = (Event) currentEvents.get(0);
-			if (ce instanceof TicEvent) {
-				this.triggerReading = true;
-			} 
+			// the state is read once from the component whatever the number
+			// of simultaneous events
+			for (EventI e : currentEvents) {
+				if (e instanceof TicEvent) {
+					this.triggerReading = true;
+				}
+			}
 			try {
-				this.production = (double) this.componentRef.getEmbeddingComponentStateValue("production");
-				this.state = (WindTurbineState) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.production = this.componentState.getDouble(WindTurbineStateKey.PRODUCTION);
+				this.state = (WindTurbineState) this.componentState.getValue(WindTurbineStateKey.STATE);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 			
-			this.productionPlotter.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.getProduction());
+			this.productionSink.addData(PRODUCTION, this.getCurrentStateTime().getSimulatedTime(), this.getProduction());
+			this.storeProduction(this.getCurrentStateTime().getSimulatedTime());
 	
 			super.userDefinedExternalTransition(elapsedTime);
 		}
@@ -338,10 +372,31 @@ public class WindTurbineModel extends AtomicHIOAwithEquations {
 	 */
 	@Override
 	public void endSimulation(Time endTime) throws Exception {
-		this.productionPlotter.addData(PRODUCTION, endTime.getSimulatedTime(), this.getProduction());
+		this.productionSink.addData(PRODUCTION, endTime.getSimulatedTime(), this.getProduction());
+		this.storeProduction(endTime.getSimulatedTime());
+		if (this.store != null) {
+			this.store.close();
+			this.store = null;
+		}
+		this.productionSink.flush();
 		super.endSimulation(endTime);
 	}
 
+	/**
+	 * append the current production to its time series, if the run keeps it.
+	 *
+	 * @param time	current simulated time.
+	 */
+	protected void storeProduction(double time) {
+		if (this.productionSeries != null) {
+			try {
+				this.productionSeries.append(time, this.getProduction());
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
 	/**
 	 * @see fr.sorbonne_u.devs_simulation.models.Model#getFinalReport()
 	 */
@@ -21,6 +21,8 @@ import simulation.events.windturbine.SwitchOnEvent;
 import simulation.events.windturbine.WindReadingEvent;
 import simulation.tools.windturbine.WindTurbineState;
 import wattwatt.tools.URIS;
+import wattwatt.tools.state.StateTable;
+import wattwatt.tools.windturbine.WindTurbineStateKey;
 
 @ModelExternalEvents(exported = { WindReadingEvent.class, 
 								  SwitchOffEvent.class, 
@@ -142,6 +144,8 @@ public class WindTurbineSensorModel extends AtomicES_Model {
 	 * enables the model to access the state of this component.
 	 */
 	protected EmbeddingComponentAccessI componentRef;
+	/** the accessors to the state of the embedding component, null in MIL. */
+	protected StateTable<WindTurbineStateKey> componentState;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -187,6 +191,9 @@ public class WindTurbineSensorModel extends AtomicES_Model {
 
 		// The reference to the embedding component
 		this.componentRef = (EmbeddingComponentAccessI) simParams.get(URIS.WIND_TURBINE_URI);
+		if (this.componentRef != null) {
+			this.componentState = StateTable.of(this.componentRef, WindTurbineStateKey.class);
+		}
 	}
 
 	/**
@@ -198,7 +205,7 @@ public class WindTurbineSensorModel extends AtomicES_Model {
 			this.state = WindTurbineState.OFF;
 		} else {
 			try {
-				this.state = (WindTurbineState) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.state = (WindTurbineState) this.componentState.getValue(WindTurbineStateKey.STATE);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
@@ -294,7 +301,7 @@ public class WindTurbineSensorModel extends AtomicES_Model {
 			try {
 				Duration d;
 
-				this.state = (WindTurbineState) this.componentRef.getEmbeddingComponentStateValue("state");
+				this.state = (WindTurbineState) this.componentState.getValue(WindTurbineStateKey.STATE);
 
 				d = new Duration(2.0 * this.rg.nextBeta(2.5, 2.5), this.getSimulatedTimeUnit());
 
@@ -314,28 +321,28 @@ public class WindTurbineSensorModel extends AtomicES_Model {
 						
 						this.scheduleEvent(new SwitchOffEvent(t));
 						this.state = WindTurbineState.OFF;
-						this.componentRef.setEmbeddingComponentStateValue("stop", null);
+						this.componentState.run(WindTurbineStateKey.STOP);
 					}
 				} else if (this.currentWind < WindTurbineSensorModel.MIN_WIND) {
 					if (this.state.equals(WindTurbineState.ON)) {
 						
 						this.scheduleEvent(new SwitchOffEvent(t));
 						this.state = WindTurbineState.OFF;
-						this.componentRef.setEmbeddingComponentStateValue("stop", null);
+						this.componentState.run(WindTurbineStateKey.STOP);
 					}
 				} else {
 					if (this.state.equals(WindTurbineState.OFF)) {
 						
 						this.scheduleEvent(new SwitchOnEvent(t));
 						this.state = WindTurbineState.ON;
-						this.componentRef.setEmbeddingComponentStateValue("start", null);
+						this.componentState.run(WindTurbineStateKey.START);
 					}
 				}
 				
 				d = new Duration( this.interdayDelay, this.getSimulatedTimeUnit());
 				
 				this.scheduleEvent(new WindReadingEvent(this.getCurrentStateTime().add(d), this.currentWind));
-				this.componentRef.setEmbeddingComponentStateValue("production", new Double(this.currentWind));
+				this.componentState.setDouble(WindTurbineStateKey.PRODUCTION, this.currentWind);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
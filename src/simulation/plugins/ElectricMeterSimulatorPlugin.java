@@ -65,7 +65,17 @@ public class ElectricMeterSimulatorPlugin extends AtomicSimulatorPlugin {
 		// link between names and values.
 		ElectricMeterModel model = (ElectricMeterModel) m;
 
-		if (name.equals("fridgeConsumption")) {
+		if (name.equals("energySummary")) {
+			return model.getEnergySummary();
+		} else if (name.equals("demandStatistics")) {
+			return model.getDemandStatistics();
+		} else if (name.equals("demandSketch")) {
+			return model.getDemandSketch();
+		} else if (name.equals("accruedCost")) {
+			return model.getAccruedCost();
+		} else if (name.equals("marginalPrice")) {
+			return model.getMarginalPrice();
+		} else if (name.equals("fridgeConsumption")) {
 			return model.getFridgeConsumption();
 		} else if (name.equals("hairDryerConsumption")) {
 			return model.getHairDryerConsumption();
@@ -0,0 +1,272 @@
+package simulation.tools.controller;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>ActuationGovernor</code> filters the commands decided by
+ * the controller before they are sent to the devices.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * Each governed device has a minimum dwell time in the on state and in the
+ * off state: a command switching a device that has not stayed long enough in
+ * its current state is suppressed. All the devices also share a command
+ * budget implemented as a token bucket: each permitted command takes one
+ * token, tokens come back at a fixed rate up to the capacity of the bucket,
+ * and a command arriving when the bucket is empty is suppressed. The
+ * governor counts the permitted and suppressed commands, and the evaluations
+ * of which every command was suppressed, i.e. the transitions saved.
+ * </p>
+ *
+ * <p>
+ * A suppressed command is not kept by the governor: the caller asks for the
+ * time from which it would be permitted and submits it again then.
+ * </p>
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		0 &lt;= tokens &lt;= capacity
+ * </pre>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ActuationGovernor {
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** number of governed devices. */
+	protected int nbDevices;
+	/** minimum time each device stays on. */
+	protected double[] minOn;
+	/** minimum time each device stays off. */
+	protected double[] minOff;
+	/** current state of each device, true when on. */
+	protected boolean[] on;
+	/** time of the last permitted command of each device. */
+	protected double[] lastChange;
+
+	/** maximum number of tokens of the command budget. */
+	protected double capacity;
+	/** number of tokens given back per time unit. */
+	protected double refillRate;
+	/** tokens currently available. */
+	protected double tokens;
+	/** time at which the tokens were last given back. */
+	protected double lastRefill;
+
+	/** number of permitted commands. */
+	protected long permitted;
+	/** number of commands suppressed because of a dwell time. */
+	protected long suppressedByDwell;
+	/** number of commands suppressed because of the command budget. */
+	protected long suppressedByBudget;
+	/** number of evaluations whose commands were all suppressed. */
+	protected long suppressedTransitions;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a governor with an unlimited command budget.
+	 */
+	public ActuationGovernor() {
+		this.minOn = new double[4];
+		this.minOff = new double[4];
+		this.on = new boolean[4];
+		this.lastChange = new double[4];
+		this.setCommandBudget(Double.POSITIVE_INFINITY, 0.0);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * declare a governed device.
+	 *
+	 * <pre>
+	 * pre	minOnDwell &gt;= 0 &amp;&amp; minOffDwell &gt;= 0
+	 * </pre>
+	 *
+	 * @param minOnDwell	minimum time the device stays on.
+	 * @param minOffDwell	minimum time the device stays off.
+	 * @return				the index of the device.
+	 */
+	public int addDevice(double minOnDwell, double minOffDwell) {
+		assert minOnDwell >= 0 && minOffDwell >= 0;
+
+		if (this.nbDevices == this.minOn.length) {
+			int n = 2 * this.nbDevices;
+			this.minOn = Arrays.copyOf(this.minOn, n);
+			this.minOff = Arrays.copyOf(this.minOff, n);
+			this.on = Arrays.copyOf(this.on, n);
+			this.lastChange = Arrays.copyOf(this.lastChange, n);
+		}
+		int d = this.nbDevices++;
+		this.minOn[d] = minOnDwell;
+		this.minOff[d] = minOffDwell;
+		return d;
+	}
+
+	/**
+	 * set the command budget shared by all the devices.
+	 *
+	 * <pre>
+	 * pre	capacity &gt;= 1 &amp;&amp; refillRate &gt;= 0
+	 * </pre>
+	 *
+	 * @param capacity		maximum number of commands sent in a burst.
+	 * @param refillRate	number of commands allowed per time unit.
+	 */
+	public void setCommandBudget(double capacity, double refillRate) {
+		assert capacity >= 1 && refillRate >= 0;
+
+		this.capacity = capacity;
+		this.refillRate = refillRate;
+		this.tokens = capacity;
+	}
+
+	/**
+	 * restart the governor at the given time with the given device states,
+	 * considering that every device has just changed of state.
+	 *
+	 * @param time		current time.
+	 * @param states	state of each device, true when on.
+	 */
+	public void initialise(double time, boolean... states) {
+		assert states.length == this.nbDevices;
+
+		for (int d = 0; d < this.nbDevices; d++) {
+			this.on[d] = states[d];
+			this.lastChange[d] = time;
+		}
+		this.tokens = this.capacity;
+		this.lastRefill = time;
+		this.permitted = 0;
+		this.suppressedByDwell = 0;
+		this.suppressedByBudget = 0;
+		this.suppressedTransitions = 0;
+	}
+
+	/**
+	 * set the state of a device observed outside the governor, e.g. a device
+	 * switched by its user; the dwell time restarts when the state changes.
+	 *
+	 * @param device	index of the device.
+	 * @param isOn		true if the device is on.
+	 * @param time		current time.
+	 */
+	public void observe(int device, boolean isOn, double time) {
+		if (this.on[device] != isOn) {
+			this.on[device] = isOn;
+			this.lastChange[device] = time;
+		}
+	}
+
+	/**
+	 * return true if the command switching the device on or off can be sent
+	 * at the given time; if so, the command is accounted for.
+	 *
+	 * @param device	index of the device.
+	 * @param turnOn	true if the command switches the device on.
+	 * @param time		current time.
+	 * @return			true if the command can be sent.
+	 */
+	public boolean permit(int device, boolean turnOn, double time) {
+		if (this.on[device] != turnOn) {
+			double dwell = this.on[device] ? this.minOn[device] : this.minOff[device];
+			if (time - this.lastChange[device] < dwell) {
+				this.suppressedByDwell++;
+				return false;
+			}
+		}
+		if (this.refillRate > 0.0 && this.tokens < this.capacity) {
+			this.tokens = Math.min(this.capacity, this.tokens + (time - this.lastRefill) * this.refillRate);
+		}
+		this.lastRefill = time;
+		if (this.tokens < 1.0) {
+			this.suppressedByBudget++;
+			return false;
+		}
+		this.tokens -= 1.0;
+		this.permitted++;
+		if (this.on[device] != turnOn) {
+			this.on[device] = turnOn;
+			this.lastChange[device] = time;
+		}
+		return true;
+	}
+
+	/**
+	 * return the earliest time from which the command switching the device
+	 * on or off would be permitted, given the dwell time of the device and
+	 * the command budget; the result is not after <code>time</code> when the
+	 * command can be sent now, and is infinite when the budget is exhausted
+	 * for good.
+	 *
+	 * @param device	index of the device.
+	 * @param turnOn	true if the command switches the device on.
+	 * @param time		current time.
+	 * @return			the time from which the command would be permitted.
+	 */
+	public double getReleaseTime(int device, boolean turnOn, double time) {
+		double ret = time;
+		if (this.on[device] != turnOn) {
+			ret = Math.max(ret, this.lastChange[device] + (this.on[device] ? this.minOn[device] : this.minOff[device]));
+		}
+		if (this.tokens < 1.0) {
+			ret = Math.max(ret, this.refillRate > 0.0
+					? this.lastRefill + (1.0 - this.tokens) / this.refillRate
+					: Double.POSITIVE_INFINITY);
+		}
+		return ret;
+	}
+
+	/**
+	 * record that all the commands of an evaluation were suppressed, so no
+	 * transition is needed to send them.
+	 */
+	public void transitionSuppressed() {
+		this.suppressedTransitions++;
+	}
+
+	public int getNumberOfDevices() {
+		return this.nbDevices;
+	}
+
+	public boolean isOn(int device) {
+		return this.on[device];
+	}
+
+	public long getPermittedCount() {
+		return this.permitted;
+	}
+
+	public long getSuppressedByDwellCount() {
+		return this.suppressedByDwell;
+	}
+
+	public long getSuppressedByBudgetCount() {
+		return this.suppressedByBudget;
+	}
+
+	/**
+	 * return the number of suppressed commands, each one being a component
+	 * call (SIL) or an event (MIL) saved.
+	 *
+	 * @return	the number of suppressed commands.
+	 */
+	public long getSuppressedCommandCount() {
+		return this.suppressedByDwell + this.suppressedByBudget;
+	}
+
+	public long getSuppressedTransitionCount() {
+		return this.suppressedTransitions;
+	}
+}
@@ -0,0 +1,385 @@
+package simulation.tools.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * The class <code>DecisionPolicy</code> implements a table-driven decision
+ * engine for the controller.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * Each controlled device is declared with a number of states and a set of
+ * rules of the form (state, band of the energy margin) -&gt; (decision, next
+ * state), where the margin is <code>production - consumption</code>. A rule
+ * either fires when the margin is strictly above a threshold or when it is
+ * lower or equal to a threshold. Once all the rules are declared, the policy
+ * is compiled into flat primitive arrays: for each device the sorted
+ * thresholds delimiting its bands, and for each (device, state, band) the
+ * decision code and the next state. An evaluation is then a single pass over
+ * the devices, so adding devices only costs array work.
+ * </p>
+ *
+ * <p>
+ * States are small integers, typically the ordinal of the enumeration used
+ * to represent the state of the device (<code>EngineGeneratorState</code>,
+ * <code>FridgeConsumption</code>, ...). Decision codes are the ordinals of
+ * <code>Decision</code>.
+ * </p>
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		!isCompiled() implies no evaluation can be done
+ * </pre>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class DecisionPolicy {
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** code used in the tables when no decision has to be taken. */
+	public static final byte NO_DECISION = -1;
+
+	/** decisions indexed by their code. */
+	protected static final Decision[] DECISIONS = Decision.values();
+
+	/** names of the declared devices. */
+	protected final ArrayList<String> deviceNames;
+	/** number of states of each declared device. */
+	protected final ArrayList<Integer> deviceNbStates;
+	/** rules declared before the compilation. */
+	protected final ArrayList<Rule> rules;
+
+	/** true when the tables have been built. */
+	protected boolean compiled;
+
+	/** number of controlled devices. */
+	protected int nbDevices;
+	/** index of the first threshold of each device in <code>thresholds</code>. */
+	protected int[] thresholdOffset;
+	/** number of thresholds of each device. */
+	protected int[] nbThresholds;
+	/** sorted thresholds of all devices, one slice per device. */
+	protected double[] thresholds;
+	/** index of the first entry of each device in the dispatch tables. */
+	protected int[] tableOffset;
+	/** number of bands of each device i.e. its number of thresholds + 1. */
+	protected int[] nbBands;
+	/** decision code for each (device, state, band). */
+	protected byte[] decisionTable;
+	/** next state for each (device, state, band). */
+	protected byte[] nextStateTable;
+
+	/** current state of each device. */
+	protected byte[] states;
+	/** last decision triggered for each device, NO_DECISION if none yet. */
+	protected byte[] triggered;
+	/** true for the devices whose decision changed at the last evaluation. */
+	protected boolean[] changed;
+
+	// -------------------------------------------------------------------------
+	// Inner classes
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The class <code>Rule</code> records a rule before the compilation.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	protected static class Rule {
+		public final int device;
+		public final int state;
+		public final double threshold;
+		public final boolean above;
+		public final Decision decision;
+		public final int nextState;
+
+		public Rule(int device, int state, double threshold, boolean above, Decision decision, int nextState) {
+			this.device = device;
+			this.state = state;
+			this.threshold = threshold;
+			this.above = above;
+			this.decision = decision;
+			this.nextState = nextState;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create an empty decision policy.
+	 */
+	public DecisionPolicy() {
+		this.deviceNames = new ArrayList<>();
+		this.deviceNbStates = new ArrayList<>();
+		this.rules = new ArrayList<>();
+		this.compiled = false;
+	}
+
+	// -------------------------------------------------------------------------
+	// Declaration methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * declare a new controlled device.
+	 *
+	 * <pre>
+	 * pre	!isCompiled()
+	 * pre	nbStates &gt; 0 &amp;&amp; nbStates &lt;= Byte.MAX_VALUE
+	 * </pre>
+	 *
+	 * @param name			name of the device.
+	 * @param nbStates		number of states of the device.
+	 * @return				the index of the device in the policy.
+	 */
+	public int addDevice(String name, int nbStates) {
+		assert !this.compiled;
+		assert nbStates > 0 && nbStates <= Byte.MAX_VALUE;
+
+		this.deviceNames.add(name);
+		this.deviceNbStates.add(nbStates);
+		return this.deviceNames.size() - 1;
+	}
+
+	/**
+	 * add a rule firing when the margin is strictly above the threshold.
+	 *
+	 * @param device		index of the device.
+	 * @param state			state in which the rule applies.
+	 * @param threshold		threshold on the margin (production - consumption).
+	 * @param decision		decision to take.
+	 * @param nextState		state of the device after the decision.
+	 * @return				this policy.
+	 */
+	public DecisionPolicy whenAbove(int device, int state, double threshold, Decision decision, int nextState) {
+		return this.addRule(new Rule(device, state, threshold, true, decision, nextState));
+	}
+
+	/**
+	 * add a rule firing when the margin is lower or equal to the threshold.
+	 *
+	 * @param device		index of the device.
+	 * @param state			state in which the rule applies.
+	 * @param threshold		threshold on the margin (production - consumption).
+	 * @param decision		decision to take.
+	 * @param nextState		state of the device after the decision.
+	 * @return				this policy.
+	 */
+	public DecisionPolicy whenAtMost(int device, int state, double threshold, Decision decision, int nextState) {
+		return this.addRule(new Rule(device, state, threshold, false, decision, nextState));
+	}
+
+	protected DecisionPolicy addRule(Rule r) {
+		assert !this.compiled;
+		assert r.device >= 0 && r.device < this.deviceNames.size();
+		assert r.state >= 0 && r.state < this.deviceNbStates.get(r.device);
+		assert r.nextState >= 0 && r.nextState < this.deviceNbStates.get(r.device);
+		assert r.decision != null;
+
+		this.rules.add(r);
+		return this;
+	}
+
+	/**
+	 * build the dispatch tables from the declared rules; when several rules
+	 * cover the same (device, state, band), the first declared one wins.
+	 *
+	 * <pre>
+	 * pre	!isCompiled()
+	 * post	isCompiled()
+	 * </pre>
+	 *
+	 * @return	this policy.
+	 */
+	public DecisionPolicy compile() {
+		assert !this.compiled;
+
+		this.nbDevices = this.deviceNames.size();
+		this.thresholdOffset = new int[this.nbDevices];
+		this.nbThresholds = new int[this.nbDevices];
+		this.tableOffset = new int[this.nbDevices];
+		this.nbBands = new int[this.nbDevices];
+
+		// collect the distinct thresholds of each device
+		ArrayList<double[]> sorted = new ArrayList<>(this.nbDevices);
+		int totalThresholds = 0;
+		int totalEntries = 0;
+		for (int d = 0; d < this.nbDevices; d++) {
+			TreeSet<Double> ts = new TreeSet<>();
+			for (Rule r : this.rules) {
+				if (r.device == d) {
+					ts.add(r.threshold);
+				}
+			}
+			double[] t = new double[ts.size()];
+			int i = 0;
+			for (Double v : ts) {
+				t[i++] = v;
+			}
+			sorted.add(t);
+			this.thresholdOffset[d] = totalThresholds;
+			this.nbThresholds[d] = t.length;
+			this.nbBands[d] = t.length + 1;
+			this.tableOffset[d] = totalEntries;
+			totalThresholds += t.length;
+			totalEntries += this.deviceNbStates.get(d) * this.nbBands[d];
+		}
+
+		this.thresholds = new double[totalThresholds];
+		for (int d = 0; d < this.nbDevices; d++) {
+			System.arraycopy(sorted.get(d), 0, this.thresholds, this.thresholdOffset[d], this.nbThresholds[d]);
+		}
+
+		this.decisionTable = new byte[totalEntries];
+		this.nextStateTable = new byte[totalEntries];
+		Arrays.fill(this.decisionTable, NO_DECISION);
+
+		// band b gathers the margins m such that t[b-1] < m <= t[b]
+		for (Rule r : this.rules) {
+			int d = r.device;
+			int k = Arrays.binarySearch(sorted.get(d), r.threshold);
+			int base = this.tableOffset[d] + r.state * this.nbBands[d];
+			int from = r.above ? k + 1 : 0;
+			int to = r.above ? this.nbBands[d] - 1 : k;
+			for (int b = from; b <= to; b++) {
+				if (this.decisionTable[base + b] == NO_DECISION) {
+					this.decisionTable[base + b] = (byte) r.decision.ordinal();
+					this.nextStateTable[base + b] = (byte) r.nextState;
+				}
+			}
+		}
+
+		this.states = new byte[this.nbDevices];
+		this.triggered = new byte[this.nbDevices];
+		this.changed = new boolean[this.nbDevices];
+		Arrays.fill(this.triggered, NO_DECISION);
+		this.compiled = true;
+		return this;
+	}
+
+	// -------------------------------------------------------------------------
+	// Evaluation methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * evaluate the rules of all the devices in one pass given the current
+	 * production and consumption; the states of the devices for which a rule
+	 * fired are updated.
+	 *
+	 * <pre>
+	 * pre	isCompiled()
+	 * post	true			// no postcondition.
+	 * </pre>
+	 *
+	 * @param production	overall energy production (in Watt).
+	 * @param consumption	overall energy consumption (in Watt).
+	 * @return				the number of devices for which a rule fired.
+	 */
+	public int evaluate(double production, double consumption) {
+		assert this.compiled;
+
+		final double margin = production - consumption;
+		final double[] t = this.thresholds;
+		int fired = 0;
+		for (int d = 0; d < this.nbDevices; d++) {
+			int first = this.thresholdOffset[d];
+			int last = first + this.nbThresholds[d];
+			int b = 0;
+			while (first + b < last && margin > t[first + b]) {
+				b++;
+			}
+			int e = this.tableOffset[d] + this.states[d] * this.nbBands[d] + b;
+			byte code = this.decisionTable[e];
+			if (code != NO_DECISION) {
+				this.triggered[d] = code;
+				this.states[d] = this.nextStateTable[e];
+				this.changed[d] = true;
+				fired++;
+			} else {
+				this.changed[d] = false;
+			}
+		}
+		return fired;
+	}
+
+	/**
+	 * trigger a decision taken outside the rules, e.g. by the load shedding;
+	 * until the next evaluation, it is seen as a rule fired for the device.
+	 *
+	 * <pre>
+	 * pre	isCompiled()
+	 * pre	decision != null
+	 * pre	nextState &gt;= 0 &amp;&amp; nextState &lt; number of states of the device
+	 * </pre>
+	 *
+	 * @param device		index of the device.
+	 * @param decision		decision to take.
+	 * @param nextState		state of the device after the decision.
+	 */
+	public void fire(int device, Decision decision, int nextState) {
+		assert this.compiled;
+		assert decision != null;
+		assert nextState >= 0 && nextState < this.deviceNbStates.get(device);
+
+		this.triggered[device] = (byte) decision.ordinal();
+		this.states[device] = (byte) nextState;
+		this.changed[device] = true;
+	}
+
+	// -------------------------------------------------------------------------
+	// Accessors
+	// -------------------------------------------------------------------------
+
+	public boolean isCompiled() {
+		return this.compiled;
+	}
+
+	public int getNumberOfDevices() {
+		return this.compiled ? this.nbDevices : this.deviceNames.size();
+	}
+
+	public String getDeviceName(int device) {
+		return this.deviceNames.get(device);
+	}
+
+	public int getState(int device) {
+		return this.states[device];
+	}
+
+	public void setState(int device, int state) {
+		assert state >= 0 && state < this.deviceNbStates.get(device);
+		this.states[device] = (byte) state;
+	}
+
+	/**
+	 * return true if a rule fired for the device at the last evaluation.
+	 *
+	 * @param device	index of the device.
+	 * @return			true if a rule fired for the device at the last evaluation.
+	 */
+	public boolean hasFired(int device) {
+		return this.changed[device];
+	}
+
+	/**
+	 * return the last decision triggered for the device.
+	 *
+	 * @param device	index of the device.
+	 * @return			the last decision triggered or null if none yet.
+	 */
+	public Decision getTriggeredDecision(int device) {
+		byte code = this.triggered[device];
+		return code == NO_DECISION ? null : DECISIONS[code];
+	}
+}
@@ -0,0 +1,369 @@
+package simulation.tools.controller;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * The class <code>DecisionTimeline</code> implements a bounded, run-length
+ * encoded representation of the decision function observed by the
+ * controller for one device.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * A segment is a time interval [start, end] during which the same decision
+ * held. Segments are kept in a ring buffer made of parallel primitive arrays
+ * (<code>double[]</code> start and end times, <code>byte[]</code> decision
+ * codes). Appending a segment that continues the last one with the same
+ * decision only extends the last segment, so a long period without changes
+ * costs one segment. When the ring buffer is full, the oldest segment is
+ * either dropped or, when a spill file has been given, written to a
+ * memory-mapped file from which it remains reachable by the range queries.
+ * </p>
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		size() &lt;= getCapacity()
+ * invariant		segments are ordered by increasing times
+ * </pre>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class DecisionTimeline {
+	// -------------------------------------------------------------------------
+	// Inner types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>SegmentConsumer</code> is used to receive the
+	 * segments returned by a range query without allocating objects.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	@FunctionalInterface
+	public static interface SegmentConsumer {
+		public void accept(double start, double end, Decision d);
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** default number of segments kept in memory. */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/** size in bytes of a spilled segment: start, end and decision code. */
+	protected static final int RECORD_SIZE = 8 + 8 + 1;
+	/** number of spilled segments held by each mapped region of the file. */
+	protected static final int RECORDS_PER_REGION = 1 << 16;
+
+	/** decisions indexed by their code. */
+	protected static final Decision[] DECISIONS = Decision.values();
+
+	/** start time of the segments in memory. */
+	protected final double[] starts;
+	/** end time of the segments in memory. */
+	protected final double[] ends;
+	/** decision code of the segments in memory. */
+	protected final byte[] codes;
+	/** index of the oldest segment in the ring buffer. */
+	protected int head;
+	/** number of segments in the ring buffer. */
+	protected int count;
+	/** number of segments evicted without being spilled. */
+	protected long dropped;
+
+	/** file receiving the evicted segments or null if they are dropped. */
+	protected final Path spillFile;
+	/** channel on the spill file. */
+	protected FileChannel spillChannel;
+	/** mapped regions of the spill file. */
+	protected final ArrayList<MappedByteBuffer> regions;
+	/** number of segments written in the spill file. */
+	protected long spilled;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a timeline keeping at most <code>capacity</code> segments in
+	 * memory and dropping the older ones.
+	 *
+	 * @param capacity	maximum number of segments kept in memory.
+	 */
+	public DecisionTimeline(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * create a timeline keeping at most <code>capacity</code> segments in
+	 * memory and spilling the older ones to <code>spillFile</code> if it is
+	 * not null.
+	 *
+	 * <pre>
+	 * pre	capacity &gt; 0
+	 * </pre>
+	 *
+	 * @param capacity	maximum number of segments kept in memory.
+	 * @param spillFile	file receiving the evicted segments, or null.
+	 */
+	public DecisionTimeline(int capacity, Path spillFile) {
+		assert capacity > 0;
+
+		this.starts = new double[capacity];
+		this.ends = new double[capacity];
+		this.codes = new byte[capacity];
+		this.spillFile = spillFile;
+		this.regions = new ArrayList<>();
+		this.clear();
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	/**
+	 * remove all the segments, including the spilled ones: the mapped
+	 * regions are released and the spill file, closed, is truncated when the
+	 * next segment is spilled.
+	 */
+	public void clear() {
+		this.head = 0;
+		this.count = 0;
+		this.dropped = 0;
+		try {
+			this.releaseSpill();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * append a segment; if it continues the last segment with the same
+	 * decision, the last segment is extended instead.
+	 *
+	 * <pre>
+	 * pre	d != null
+	 * pre	start &lt;= end
+	 * </pre>
+	 *
+	 * @param start		start time of the segment.
+	 * @param end		end time of the segment.
+	 * @param d			decision holding during the segment.
+	 */
+	public void append(double start, double end, Decision d) {
+		assert d != null;
+		assert start <= end;
+
+		byte code = (byte) d.ordinal();
+		if (this.count > 0) {
+			int last = this.index(this.count - 1);
+			if (this.codes[last] == code && this.ends[last] >= start) {
+				if (end > this.ends[last]) {
+					this.ends[last] = end;
+				}
+				return;
+			}
+		}
+		if (this.count == this.starts.length) {
+			this.evictOldest();
+		}
+		int i = this.index(this.count);
+		this.starts[i] = start;
+		this.ends[i] = end;
+		this.codes[i] = code;
+		this.count++;
+	}
+
+	/**
+	 * pass to the consumer, in chronological order, every segment that
+	 * intersects the time interval [from, to], including the spilled ones.
+	 *
+	 * @param from		start of the time interval.
+	 * @param to		end of the time interval.
+	 * @param c			consumer receiving the segments.
+	 * @return			the number of segments passed to the consumer.
+	 * @throws IOException	if the spill file cannot be read.
+	 */
+	public int query(double from, double to, SegmentConsumer c) throws IOException {
+		int n = 0;
+		if (this.spilled > 0) {
+			// the spilled segments are sorted by time: binary search the first
+			// one ending after from
+			long lo = 0;
+			long hi = this.spilled;
+			while (lo < hi) {
+				long mid = (lo + hi) >>> 1;
+				if (this.spilledEnd(mid) < from) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			for (long k = lo; k < this.spilled; k++) {
+				MappedByteBuffer r = this.regions.get((int) (k / RECORDS_PER_REGION));
+				int p = (int) (k % RECORDS_PER_REGION) * RECORD_SIZE;
+				double s = r.getDouble(p);
+				if (s > to) {
+					return n;
+				}
+				c.accept(s, r.getDouble(p + 8), DECISIONS[r.get(p + 16)]);
+				n++;
+			}
+		}
+
+		int lo = 0;
+		int hi = this.count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (this.ends[this.index(mid)] < from) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		for (int k = lo; k < this.count; k++) {
+			int i = this.index(k);
+			if (this.starts[i] > to) {
+				break;
+			}
+			c.accept(this.starts[i], this.ends[i], DECISIONS[this.codes[i]]);
+			n++;
+		}
+		return n;
+	}
+
+	/**
+	 * return the total duration during which <code>d</code> held within the
+	 * time interval [from, to].
+	 *
+	 * @param from		start of the time interval.
+	 * @param to		end of the time interval.
+	 * @param d			decision to look for.
+	 * @return			the total duration during which <code>d</code> held.
+	 * @throws IOException	if the spill file cannot be read.
+	 */
+	public double durationOf(double from, double to, Decision d) throws IOException {
+		double[] total = new double[1];
+		this.query(from, to, (s, e, x) -> {
+			if (x == d) {
+				total[0] += Math.min(e, to) - Math.max(s, from);
+			}
+		});
+		return total[0];
+	}
+
+	/**
+	 * release the spill file; the spilled segments are no longer reachable
+	 * and the segments in memory are kept. A segment spilled afterwards
+	 * truncates the file and starts it again.
+	 *
+	 * @throws IOException	if the spill file cannot be closed.
+	 */
+	public void close() throws IOException {
+		this.releaseSpill();
+	}
+
+	/**
+	 * return the number of segments in memory.
+	 *
+	 * @return	the number of segments in memory.
+	 */
+	public int size() {
+		return this.count;
+	}
+
+	public int getCapacity() {
+		return this.starts.length;
+	}
+
+	public long getSpilledCount() {
+		return this.spilled;
+	}
+
+	public long getDroppedCount() {
+		return this.dropped;
+	}
+
+	/**
+	 * return the decision of the most recent segment.
+	 *
+	 * @return	the decision of the most recent segment, or null if none.
+	 */
+	public Decision getLastDecision() {
+		return this.count == 0 ? null : DECISIONS[this.codes[this.index(this.count - 1)]];
+	}
+
+	// -------------------------------------------------------------------------
+	// Internal methods
+	// -------------------------------------------------------------------------
+
+	protected int index(int k) {
+		int i = this.head + k;
+		return i >= this.starts.length ? i - this.starts.length : i;
+	}
+
+	protected void evictOldest() {
+		if (this.spillFile != null) {
+			try {
+				this.spill(this.starts[this.head], this.ends[this.head], this.codes[this.head]);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		} else {
+			this.dropped++;
+		}
+		this.head = this.index(1);
+		this.count--;
+	}
+
+	/**
+	 * forget the spilled segments, drop the mapped regions so that none is
+	 * reused by the next spills, and close the spill channel.
+	 *
+	 * @throws IOException	if the spill file cannot be closed.
+	 */
+	protected void releaseSpill() throws IOException {
+		this.regions.clear();
+		this.spilled = 0;
+		if (this.spillChannel != null) {
+			FileChannel channel = this.spillChannel;
+			this.spillChannel = null;
+			channel.close();
+		}
+	}
+
+	protected void spill(double start, double end, byte code) throws IOException {
+		if (this.spillChannel == null) {
+			this.spillChannel = FileChannel.open(this.spillFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		int region = (int) (this.spilled / RECORDS_PER_REGION);
+		if (region == this.regions.size()) {
+			long regionSize = (long) RECORDS_PER_REGION * RECORD_SIZE;
+			this.regions.add(
+					this.spillChannel.map(FileChannel.MapMode.READ_WRITE, region * regionSize, regionSize));
+		}
+		MappedByteBuffer r = this.regions.get(region);
+		int p = (int) (this.spilled % RECORDS_PER_REGION) * RECORD_SIZE;
+		r.putDouble(p, start);
+		r.putDouble(p + 8, end);
+		r.put(p + 16, code);
+		this.spilled++;
+	}
+
+	protected double spilledEnd(long k) {
+		MappedByteBuffer r = this.regions.get((int) (k / RECORDS_PER_REGION));
+		return r.getDouble((int) (k % RECORDS_PER_REGION) * RECORD_SIZE + 8);
+	}
+}
@@ -0,0 +1,60 @@
+package simulation.tools.downsampling;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The class <code>CsvSeriesSink</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Sink writing the points of the series to a CSV file, one line
+ * <code>series,x,y</code> per point.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class CsvSeriesSink implements SeriesSink {
+
+	/** header of the file */
+	public static final String HEADER = "series,x,y";
+
+	protected final Path file;
+	protected final BufferedWriter out;
+
+	public CsvSeriesSink(Path file) throws IOException {
+		this.file = file;
+		this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+		this.out.write(HEADER);
+		this.out.newLine();
+	}
+
+	public Path getFile() {
+		return this.file;
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.SeriesSink#addData(java.lang.String, double, double)
+	 */
+	@Override
+	public synchronized void addData(String series, double x, double y) {
+		try {
+			this.out.write(series);
+			this.out.write(',');
+			this.out.write(Double.toString(x));
+			this.out.write(',');
+			this.out.write(Double.toString(y));
+			this.out.newLine();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public synchronized void close() throws IOException {
+		this.out.close();
+	}
+}
@@ -0,0 +1,103 @@
+package simulation.tools.downsampling;
+
+/**
+ * The class <code>Downsampler</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Reduce the points of one series to a bounded number per bucket of the
+ * abscissa before passing them to a sink, so that the cost of plotting or
+ * exporting a series depends on its length divided by the width of the
+ * buckets rather than on the number of simulated events. A bucket is
+ * emitted when a point falls in a later bucket, or on a flush at the end
+ * of the series.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public abstract class Downsampler {
+
+	/** name of the method keeping the first, smallest, greatest and last
+	 *  point of each bucket */
+	public static final String MIN_MAX = "min-max";
+	/** name of the method keeping the point of each bucket forming the
+	 *  largest triangle with its neighbours */
+	public static final String LTTB = "lttb";
+
+	/** name of the series */
+	protected final String series;
+	/** width of a bucket */
+	protected final double bucketWidth;
+	/** sink receiving the kept points */
+	protected final SeriesSink sink;
+
+	/**
+	 * create a downsampler.
+	 *
+	 * <pre>
+	 * pre	bucketWidth &gt; 0
+	 * </pre>
+	 *
+	 * @param series		name of the series.
+	 * @param bucketWidth	width of a bucket.
+	 * @param sink			sink receiving the kept points.
+	 */
+	protected Downsampler(String series, double bucketWidth, SeriesSink sink) {
+		assert bucketWidth > 0;
+		assert sink != null;
+
+		this.series = series;
+		this.bucketWidth = bucketWidth;
+		this.sink = sink;
+	}
+
+	/**
+	 * create a downsampler of the given method.
+	 *
+	 * @param method		<code>MIN_MAX</code> or <code>LTTB</code>.
+	 * @param series		name of the series.
+	 * @param bucketWidth	width of a bucket.
+	 * @param sink			sink receiving the kept points.
+	 * @return				the downsampler.
+	 */
+	public static Downsampler create(String method, String series, double bucketWidth, SeriesSink sink) {
+		if (LTTB.equals(method)) {
+			return new LttbDownsampler(series, bucketWidth, sink);
+		} else {
+			assert MIN_MAX.equals(method);
+			return new MinMaxDownsampler(series, bucketWidth, sink);
+		}
+	}
+
+	public String getSeries() {
+		return this.series;
+	}
+
+	public double getBucketWidth() {
+		return this.bucketWidth;
+	}
+
+	/**
+	 * return the index of the bucket of an abscissa.
+	 *
+	 * @param x	the abscissa.
+	 * @return	the index of its bucket.
+	 */
+	protected long bucketOf(double x) {
+		return (long) Math.floor(x / this.bucketWidth);
+	}
+
+	/**
+	 * add a point to the series.
+	 *
+	 * @param x	abscissa of the point, not less than the previous one.
+	 * @param y	value of the point.
+	 */
+	public abstract void add(double x, double y);
+
+	/**
+	 * pass the points kept from the pending buckets to the sink.
+	 */
+	public abstract void flush();
+}
@@ -0,0 +1,160 @@
+package simulation.tools.downsampling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The class <code>DownsamplingSink</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Stage between the models and a sink, e.g. a plotter, a CSV file or a
+ * time-series store, reducing each series with its own downsampler before
+ * passing it on. The width of the buckets is set per series, and a series
+ * with no width is passed on untouched, so a model routes all its plots
+ * through this stage and the run parameters choose what is reduced.
+ *
+ * <p>
+ * The run parameters are keyed by the URI of the model:
+ * <code>uri + ":" + BUCKET_WIDTH_PARAM_NAME</code> sets the width of all
+ * the series of the model, <code>uri + ":" + series + ":" +
+ * BUCKET_WIDTH_PARAM_NAME</code> the width of one series, and
+ * <code>uri + ":" + METHOD_PARAM_NAME</code> the method, min-max by default.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class DownsamplingSink implements SeriesSink {
+
+	/** name of the run parameter of the width of the buckets, in the unit
+	 *  of the abscissa */
+	public static final String BUCKET_WIDTH_PARAM_NAME = "bucket-width";
+	/** name of the run parameter of the method */
+	public static final String METHOD_PARAM_NAME = "downsampling";
+
+	/** the sink receiving the kept points */
+	protected final SeriesSink sink;
+	/** the method of the downsamplers */
+	protected String method;
+	/** width of the buckets of the series with no width of their own, 0 to
+	 *  pass them on untouched */
+	protected double defaultWidth;
+	/** width of the buckets by series */
+	protected final Map<String, Double> widths;
+	/** the downsampler of each series, null for the ones passed on */
+	protected final Map<String, Downsampler> downsamplers;
+
+	/**
+	 * create a stage passing all the series on untouched until widths are
+	 * set.
+	 *
+	 * @param sink	the sink receiving the kept points.
+	 */
+	public DownsamplingSink(SeriesSink sink) {
+		assert sink != null;
+
+		this.sink = sink;
+		this.method = Downsampler.MIN_MAX;
+		this.defaultWidth = 0.0;
+		this.widths = new HashMap<>();
+		this.downsamplers = new HashMap<>();
+	}
+
+	/**
+	 * create a stage set by the run parameters of a model.
+	 *
+	 * @param sink			the sink receiving the kept points.
+	 * @param modelURI		URI of the model.
+	 * @param simParams		the run parameters.
+	 * @param series		names of the series of the model.
+	 * @return				the stage.
+	 */
+	public static DownsamplingSink create(SeriesSink sink, String modelURI, Map<String, Object> simParams,
+			String... series) {
+		DownsamplingSink ret = new DownsamplingSink(sink);
+		String prefix = modelURI + ":";
+		if (simParams.containsKey(prefix + METHOD_PARAM_NAME)) {
+			ret.setMethod((String) simParams.get(prefix + METHOD_PARAM_NAME));
+		}
+		if (simParams.containsKey(prefix + BUCKET_WIDTH_PARAM_NAME)) {
+			ret.setDefaultWidth((double) simParams.get(prefix + BUCKET_WIDTH_PARAM_NAME));
+		}
+		for (String s : series) {
+			String name = prefix + s + ":" + BUCKET_WIDTH_PARAM_NAME;
+			if (simParams.containsKey(name)) {
+				ret.setWidth(s, (double) simParams.get(name));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * set the method of the series not yet received.
+	 *
+	 * @param method	<code>Downsampler.MIN_MAX</code> or <code>Downsampler.LTTB</code>.
+	 */
+	public synchronized void setMethod(String method) {
+		assert Downsampler.MIN_MAX.equals(method) || Downsampler.LTTB.equals(method);
+		this.method = method;
+	}
+
+	/**
+	 * set the width of the buckets of the series with no width of their own
+	 * and not yet received.
+	 *
+	 * @param width	width of the buckets, 0 to pass the series on untouched.
+	 */
+	public synchronized void setDefaultWidth(double width) {
+		assert width >= 0.0;
+		this.defaultWidth = width;
+	}
+
+	/**
+	 * set the width of the buckets of a series not yet received.
+	 *
+	 * @param series	name of the series.
+	 * @param width		width of the buckets, 0 to pass the series on untouched.
+	 */
+	public synchronized void setWidth(String series, double width) {
+		assert width >= 0.0;
+		this.widths.put(series, width);
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.SeriesSink#addData(java.lang.String, double, double)
+	 */
+	@Override
+	public synchronized void addData(String series, double x, double y) {
+		Downsampler d = this.downsamplers.get(series);
+		if (d == null) {
+			if (this.downsamplers.containsKey(series)) {
+				this.sink.addData(series, x, y);
+				return;
+			}
+			double width = this.widths.getOrDefault(series, this.defaultWidth);
+			if (width > 0.0) {
+				d = Downsampler.create(this.method, series, width, this.sink);
+			}
+			this.downsamplers.put(series, d);
+			if (d == null) {
+				this.sink.addData(series, x, y);
+				return;
+			}
+		}
+		d.add(x, y);
+	}
+
+	/**
+	 * pass the points kept from the pending buckets of all the series to the
+	 * sink, e.g. at the end of the simulation.
+	 */
+	public synchronized void flush() {
+		for (Downsampler d : this.downsamplers.values()) {
+			if (d != null) {
+				d.flush();
+			}
+		}
+	}
+}
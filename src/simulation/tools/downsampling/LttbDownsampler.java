@@ -0,0 +1,163 @@
+package simulation.tools.downsampling;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>LttbDownsampler</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Keep one point per bucket with the largest-triangle-three-buckets method:
+ * the point kept in a bucket is the one forming the largest triangle with
+ * the point kept in the previous bucket and the mean of the points of the
+ * next bucket, which follows the visual shape of the series better than a
+ * mean or a decimation. The first and the last points of the series are
+ * always kept.
+ *
+ * <p>
+ * The buckets have a fixed width, so the method runs on a stream: a bucket
+ * is reduced as soon as the next one is complete, and only the points of
+ * these two buckets are buffered.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class LttbDownsampler extends Downsampler {
+
+	/** whether the first point of the series was passed to the sink */
+	protected boolean started;
+	/** the last point passed to the sink */
+	protected double keptX, keptY;
+
+	/** the points of the bucket waiting for the next one to be complete */
+	protected Bucket pending;
+	/** the points of the current bucket */
+	protected Bucket current;
+
+	public LttbDownsampler(String series, double bucketWidth, SeriesSink sink) {
+		super(series, bucketWidth, sink);
+		this.pending = new Bucket();
+		this.current = new Bucket();
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.Downsampler#add(double, double)
+	 */
+	@Override
+	public void add(double x, double y) {
+		if (!this.started) {
+			this.keep(x, y);
+			this.started = true;
+			return;
+		}
+		long b = this.bucketOf(x);
+		if (this.current.size > 0 && b != this.current.index) {
+			// the current bucket is complete, so the pending one can be reduced
+			if (this.pending.size > 0) {
+				this.reduce(this.pending, this.current.meanX(), this.current.meanY());
+			}
+			Bucket tmp = this.pending;
+			this.pending = this.current;
+			this.current = tmp;
+			this.current.clear();
+		}
+		this.current.index = b;
+		this.current.add(x, y);
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.Downsampler#flush()
+	 */
+	@Override
+	public void flush() {
+		if (this.pending.size > 0) {
+			if (this.current.size > 0) {
+				this.reduce(this.pending, this.current.meanX(), this.current.meanY());
+			} else {
+				this.keep(this.pending.lastX(), this.pending.lastY());
+			}
+		}
+		if (this.current.size > 0) {
+			this.keep(this.current.lastX(), this.current.lastY());
+		}
+		this.pending.clear();
+		this.current.clear();
+	}
+
+	/**
+	 * keep the point of a bucket forming the largest triangle with the last
+	 * kept point and the mean of the next bucket.
+	 *
+	 * @param bucket	the bucket to reduce.
+	 * @param nextX		mean abscissa of the next bucket.
+	 * @param nextY		mean value of the next bucket.
+	 */
+	protected void reduce(Bucket bucket, double nextX, double nextY) {
+		int best = 0;
+		double bestArea = -1.0;
+		for (int i = 0; i < bucket.size; i++) {
+			// twice the area, which does not change the largest one
+			double area = Math.abs((this.keptX - nextX) * (bucket.ys[i] - this.keptY)
+					- (this.keptX - bucket.xs[i]) * (nextY - this.keptY));
+			if (area > bestArea) {
+				bestArea = area;
+				best = i;
+			}
+		}
+		this.keep(bucket.xs[best], bucket.ys[best]);
+	}
+
+	protected void keep(double x, double y) {
+		this.keptX = x;
+		this.keptY = y;
+		this.sink.addData(this.series, x, y);
+	}
+
+	/**
+	 * The class <code>Bucket</code> buffers the points of a bucket in arrays
+	 * reused from a bucket to the next.
+	 */
+	protected static class Bucket {
+		protected long index;
+		protected int size;
+		protected double[] xs = new double[16];
+		protected double[] ys = new double[16];
+		protected double sumX, sumY;
+
+		protected void add(double x, double y) {
+			if (this.size == this.xs.length) {
+				this.xs = Arrays.copyOf(this.xs, 2 * this.size);
+				this.ys = Arrays.copyOf(this.ys, 2 * this.size);
+			}
+			this.xs[this.size] = x;
+			this.ys[this.size] = y;
+			this.size++;
+			this.sumX += x;
+			this.sumY += y;
+		}
+
+		protected void clear() {
+			this.size = 0;
+			this.sumX = 0.0;
+			this.sumY = 0.0;
+		}
+
+		protected double meanX() {
+			return this.sumX / this.size;
+		}
+
+		protected double meanY() {
+			return this.sumY / this.size;
+		}
+
+		protected double lastX() {
+			return this.xs[this.size - 1];
+		}
+
+		protected double lastY() {
+			return this.ys[this.size - 1];
+		}
+	}
+}
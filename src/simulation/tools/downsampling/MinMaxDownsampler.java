@@ -0,0 +1,93 @@
+package simulation.tools.downsampling;
+
+/**
+ * The class <code>MinMaxDownsampler</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Keep at most four points of each bucket: the first, the smallest, the
+ * greatest and the last one, passed to the sink by increasing abscissa.
+ * The extremes of the series and the values at the edges of the buckets
+ * are thus exact, so a plot keeps every peak and every step at the
+ * resolution of the buckets. It runs in O(1) time and memory per point.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class MinMaxDownsampler extends Downsampler {
+
+	/** index of the current bucket */
+	protected long bucket;
+	/** number of points of the current bucket */
+	protected int count;
+	/** first point of the current bucket */
+	protected double firstX, firstY;
+	/** smallest point of the current bucket */
+	protected double minX, minY;
+	/** greatest point of the current bucket */
+	protected double maxX, maxY;
+	/** last point of the current bucket */
+	protected double lastX, lastY;
+
+	public MinMaxDownsampler(String series, double bucketWidth, SeriesSink sink) {
+		super(series, bucketWidth, sink);
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.Downsampler#add(double, double)
+	 */
+	@Override
+	public void add(double x, double y) {
+		long b = this.bucketOf(x);
+		if (this.count > 0 && b != this.bucket) {
+			this.flush();
+		}
+		if (this.count == 0) {
+			this.bucket = b;
+			this.firstX = this.minX = this.maxX = x;
+			this.firstY = this.minY = this.maxY = y;
+		} else if (y < this.minY) {
+			this.minX = x;
+			this.minY = y;
+		} else if (y > this.maxY) {
+			this.maxX = x;
+			this.maxY = y;
+		}
+		this.lastX = x;
+		this.lastY = y;
+		this.count++;
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.Downsampler#flush()
+	 */
+	@Override
+	public void flush() {
+		if (this.count == 0) {
+			return;
+		}
+		this.sink.addData(this.series, this.firstX, this.firstY);
+		if (this.count > 1) {
+			// the extremes, by increasing abscissa, unless they are the first
+			// or the last point
+			boolean min = this.minX != this.firstX || this.minY != this.firstY;
+			min = min && (this.minX != this.lastX || this.minY != this.lastY);
+			boolean max = this.maxX != this.firstX || this.maxY != this.firstY;
+			max = max && (this.maxX != this.lastX || this.maxY != this.lastY);
+			if (min && max && this.maxX < this.minX) {
+				this.sink.addData(this.series, this.maxX, this.maxY);
+				this.sink.addData(this.series, this.minX, this.minY);
+			} else {
+				if (min) {
+					this.sink.addData(this.series, this.minX, this.minY);
+				}
+				if (max) {
+					this.sink.addData(this.series, this.maxX, this.maxY);
+				}
+			}
+			this.sink.addData(this.series, this.lastX, this.lastY);
+		}
+		this.count = 0;
+	}
+}
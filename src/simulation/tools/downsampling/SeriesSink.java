@@ -0,0 +1,27 @@
+package simulation.tools.downsampling;
+
+/**
+ * The interface <code>SeriesSink</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Receiver of the points of named series, e.g. a plotter, a CSV file or a
+ * time-series store; <code>XYPlotter::addData</code> is such a sink.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+@FunctionalInterface
+public interface SeriesSink {
+
+	/**
+	 * receive a point of a series; the points of a series come by
+	 * non-decreasing x.
+	 *
+	 * @param series	name of the series.
+	 * @param x			abscissa of the point, usually the simulated time.
+	 * @param y			value of the point.
+	 */
+	public void addData(String series, double x, double y);
+}
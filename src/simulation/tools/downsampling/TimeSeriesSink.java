@@ -0,0 +1,43 @@
+package simulation.tools.downsampling;
+
+import java.io.IOException;
+
+import simulation.tools.timeseries.TimeSeriesStore;
+
+/**
+ * The class <code>TimeSeriesSink</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Sink appending the points of each series to the series of the same name
+ * of a time-series store.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class TimeSeriesSink implements SeriesSink {
+
+	protected final TimeSeriesStore store;
+
+	public TimeSeriesSink(TimeSeriesStore store) {
+		assert store != null;
+		this.store = store;
+	}
+
+	public TimeSeriesStore getStore() {
+		return this.store;
+	}
+
+	/**
+	 * @see simulation.tools.downsampling.SeriesSink#addData(java.lang.String, double, double)
+	 */
+	@Override
+	public void addData(String series, double x, double y) {
+		try {
+			this.store.getSeries(series).append(x, y);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package simulation.tools.electricmeter;
+
+/**
+ * The class <code>AnomalyDetector</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Streaming detector of the abnormal behaviours of a device, fed with the
+ * successive powers it draws. The device is idle up to its idle power (zero
+ * for most devices, the passive power for the fridge) and active above it;
+ * the detector keeps, in constant memory:
+ * <ul>
+ * <li>the exponentially weighted mean and variance of the length of the
+ * active runs, the current run being flagged as a
+ * <code>CONTINUOUS_DRAW</code> once it lasts more than
+ * <code>RUN_THRESHOLD</code> deviations over the mean, or once it lasts
+ * more than the maximum run length of the device;</li>
+ * <li>the exponentially weighted mean and variance of the active power and
+ * a one-sided CUSUM of its standardised deviations, flagged as a
+ * <code>LEVEL_SHIFT</code> when it goes over <code>CUSUM_LIMIT</code>.</li>
+ * </ul>
+ * Nothing but a run over the maximum run length is flagged before
+ * <code>WARMUP</code> samples have been seen, so that a device drawing
+ * continuously from its first run is still flagged; and
+ * a deviation is never less than <code>MIN_RELATIVE_DEVIATION</code> of its
+ * mean so that a very regular device is not flagged for a tiny change.
+ * Each update and each check costs O(1).
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class AnomalyDetector {
+
+	/** weight of a new sample in the means and variances */
+	public static final double SMOOTHING = 0.1;
+	/** number of samples needed before flagging */
+	public static final int WARMUP = 5;
+	/** number of deviations over the mean after which a run is abnormal */
+	public static final double RUN_THRESHOLD = 4.0;
+	/** deviation of the power allowed by the CUSUM, in deviations */
+	public static final double CUSUM_SLACK = 0.5;
+	/** value of the CUSUM over which the power has shifted, in deviations */
+	public static final double CUSUM_LIMIT = 5.0;
+	/** smallest deviation, relative to its mean */
+	public static final double MIN_RELATIVE_DEVIATION = 0.1;
+	/** power (in Watt) over the idle power under which the device is idle */
+	public static final double ACTIVE_MARGIN = 0.5;
+
+	/** URI of the device */
+	protected final String device;
+	/** power (in Watt) drawn by the idle device */
+	protected final double idle;
+	/** length over which an active run is abnormal, whatever the past runs */
+	protected final double maxRun;
+
+	/** current power */
+	protected double power;
+	/** true while the device is active */
+	protected boolean active;
+	/** time at which the current active run started */
+	protected double runStart;
+
+	/** number of completed active runs */
+	protected long nbRuns;
+	/** weighted mean of the length of the active runs */
+	protected double runMean;
+	/** weighted variance of the length of the active runs */
+	protected double runVariance;
+	/** true when the current run has been flagged */
+	protected boolean runFlagged;
+
+	/** number of active powers seen */
+	protected long nbLevels;
+	/** weighted mean of the active power */
+	protected double levelMean;
+	/** weighted variance of the active power */
+	protected double levelVariance;
+	/** one-sided CUSUM of the standardised deviations of the active power */
+	protected double cusum;
+
+	/** value which made the detector flag, e.g. the length of the run */
+	protected double flaggedValue;
+
+	/**
+	 * create a detector.
+	 *
+	 * <pre>
+	 * pre	idle &gt;= 0
+	 * pre	maxRun &gt; 0
+	 * </pre>
+	 *
+	 * @param device	URI of the device.
+	 * @param idle		power (in Watt) drawn by the idle device.
+	 * @param maxRun	length over which an active run is always abnormal.
+	 */
+	public AnomalyDetector(String device, double idle, double maxRun) {
+		assert idle >= 0;
+		assert maxRun > 0;
+
+		this.device = device;
+		this.idle = idle;
+		this.maxRun = maxRun;
+		this.reset();
+	}
+
+	public String getDevice() {
+		return this.device;
+	}
+
+	public void reset() {
+		this.power = 0.0;
+		this.active = false;
+		this.nbRuns = 0;
+		this.runMean = 0.0;
+		this.runVariance = 0.0;
+		this.runFlagged = false;
+		this.nbLevels = 0;
+		this.levelMean = 0.0;
+		this.levelVariance = 0.0;
+		this.cusum = 0.0;
+	}
+
+	/**
+	 * return the deviation of a weighted variance, floored relatively to its
+	 * mean.
+	 *
+	 * @param mean		the weighted mean.
+	 * @param variance	the weighted variance.
+	 * @return			the deviation to use.
+	 */
+	protected static double deviation(double mean, double variance) {
+		return Math.max(Math.sqrt(variance), MIN_RELATIVE_DEVIATION * Math.abs(mean));
+	}
+
+	/**
+	 * feed the detector with the new power of the device.
+	 *
+	 * @param power	power drawn by the device (in Watt).
+	 * @param time	time of the update.
+	 * @return		the kind of anomaly flagged by the update, null if none.
+	 */
+	public AnomalyKind update(double power, double time) {
+		this.power = power;
+		boolean active = power > this.idle + ACTIVE_MARGIN;
+		if (active && !this.active) {
+			this.runStart = time;
+			this.runFlagged = false;
+		} else if (!active && this.active) {
+			double length = time - this.runStart;
+			if (this.nbRuns == 0) {
+				this.runMean = length;
+			} else {
+				double diff = length - this.runMean;
+				double increment = SMOOTHING * diff;
+				this.runMean += increment;
+				this.runVariance = (1 - SMOOTHING) * (this.runVariance + diff * increment);
+			}
+			this.nbRuns++;
+		}
+		this.active = active;
+		if (!active) {
+			return null;
+		}
+
+		AnomalyKind ret = null;
+		if (this.nbLevels >= WARMUP) {
+			double z = (power - this.levelMean) / deviation(this.levelMean, this.levelVariance);
+			this.cusum = Math.max(0.0, this.cusum + z - CUSUM_SLACK);
+			if (this.cusum > CUSUM_LIMIT) {
+				this.cusum = 0.0;
+				this.flaggedValue = power;
+				ret = AnomalyKind.LEVEL_SHIFT;
+			}
+		}
+		if (this.nbLevels == 0) {
+			this.levelMean = power;
+		} else {
+			double diff = power - this.levelMean;
+			double increment = SMOOTHING * diff;
+			this.levelMean += increment;
+			this.levelVariance = (1 - SMOOTHING) * (this.levelVariance + diff * increment);
+		}
+		this.nbLevels++;
+		return ret;
+	}
+
+	/**
+	 * check whether the current active run has become abnormally long, i.e.
+	 * longer than the maximum run length or, after the warm-up, too long
+	 * compared to the past runs; a run is flagged once.
+	 *
+	 * @param time	current time.
+	 * @return		<code>CONTINUOUS_DRAW</code> if the run is flagged by this
+	 * 				check, null otherwise.
+	 */
+	public AnomalyKind check(double time) {
+		if (this.active && !this.runFlagged) {
+			double length = time - this.runStart;
+			if (length > this.maxRun || (this.nbRuns >= WARMUP
+					&& length > this.runMean + RUN_THRESHOLD * deviation(this.runMean, this.runVariance))) {
+				this.runFlagged = true;
+				this.flaggedValue = length;
+				return AnomalyKind.CONTINUOUS_DRAW;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * return the value which made the detector flag last: the length of the
+	 * run for a <code>CONTINUOUS_DRAW</code>, the power for a
+	 * <code>LEVEL_SHIFT</code>.
+	 *
+	 * @return	the flagged value.
+	 */
+	public double getFlaggedValue() {
+		return this.flaggedValue;
+	}
+
+	public double getMaxRun() {
+		return this.maxRun;
+	}
+
+	public double getRunMean() {
+		return this.runMean;
+	}
+
+	public double getLevelMean() {
+		return this.levelMean;
+	}
+}
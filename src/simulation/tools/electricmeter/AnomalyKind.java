@@ -0,0 +1,22 @@
+package simulation.tools.electricmeter;
+
+/**
+ * The enumeration <code>AnomalyKind</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Kinds of abnormal behaviour of a device flagged by the electric meter.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum AnomalyKind {
+	/** the device has been drawing more than its idle power for much longer
+	 *  than it usually does, e.g. a fridge that never stops cooling or a
+	 *  washing machine that never drops to zero */
+	CONTINUOUS_DRAW,
+	/** the power drawn by the active device has drifted above its usual
+	 *  level */
+	LEVEL_SHIFT
+}
@@ -0,0 +1,162 @@
+package simulation.tools.electricmeter;
+
+/**
+ * The class <code>CostIntegrator</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Integrate over simulated time the cost of the power drawn by the
+ * household under a time-of-use tariff. The power is constant between two
+ * updates and the price is constant within a period of the tariff, so the
+ * cost accrued over an interval is its energy times the rate of the period;
+ * the rates and the lengths of the periods are computed once in simulated
+ * time units, and the end of the current period is kept so that an update
+ * only crosses the boundaries passed since the previous one, without
+ * searching the schedule. Costs are given in the currency of the tariff,
+ * powers in Watt.
+ *
+ * <p>
+ * The integrator is updated by the simulation thread and may be read by the
+ * threads of the component, hence its synchronised methods.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class CostIntegrator {
+
+	/** the tariff */
+	protected final TariffSchedule tariff;
+	/** number of seconds in a simulated time unit */
+	protected final double secondsPerTimeUnit;
+	/** cost of drawing one Watt during one simulated time unit in each period */
+	protected final double[] rates;
+	/** length of each period, in simulated time units */
+	protected final double[] lengths;
+
+	/** current period */
+	protected int period;
+	/** time at which the current period ends */
+	protected double periodEnd;
+	/** current overall power */
+	protected double power;
+	/** cost accrued up to the last update */
+	protected double cost;
+	/** time of the last update */
+	protected double lastUpdate;
+
+	/**
+	 * create an integrator.
+	 *
+	 * <pre>
+	 * pre	tariff != null
+	 * pre	secondsPerTimeUnit &gt; 0
+	 * </pre>
+	 *
+	 * @param tariff				the tariff.
+	 * @param secondsPerTimeUnit	number of seconds in a simulated time unit.
+	 */
+	public CostIntegrator(TariffSchedule tariff, double secondsPerTimeUnit) {
+		assert tariff != null;
+		assert secondsPerTimeUnit > 0;
+
+		this.tariff = tariff;
+		this.secondsPerTimeUnit = secondsPerTimeUnit;
+		int n = tariff.getNbPeriods();
+		this.rates = new double[n];
+		this.lengths = new double[n];
+		for (int i = 0; i < n; i++) {
+			// price per kWh to price per Watt and time unit
+			this.rates[i] = tariff.getPrice(i) * secondsPerTimeUnit / 3.6e6;
+			this.lengths[i] = (tariff.getEnd(i) - tariff.getStart(i)) / secondsPerTimeUnit;
+		}
+	}
+
+	public TariffSchedule getTariff() {
+		return this.tariff;
+	}
+
+	/**
+	 * restart the integration at the given time, the current period being
+	 * found in the schedule.
+	 *
+	 * <pre>
+	 * pre	0 &lt;= weekTime &lt; TariffSchedule.WEEK
+	 * </pre>
+	 *
+	 * @param time		start time.
+	 * @param weekTime	time of the week (in seconds) at the start time.
+	 * @param power		overall power at the start.
+	 */
+	public synchronized void start(double time, double weekTime, double power) {
+		this.period = this.tariff.periodOf(weekTime);
+		this.periodEnd = time + (this.tariff.getEnd(this.period) - weekTime) / this.secondsPerTimeUnit;
+		this.power = power;
+		this.cost = 0.0;
+		this.lastUpdate = time;
+	}
+
+	/**
+	 * set the overall power at the given time.
+	 *
+	 * @param power	new overall power (in Watt).
+	 * @param time	time of the update.
+	 */
+	public synchronized void update(double power, double time) {
+		this.advance(time);
+		this.power = power;
+	}
+
+	/**
+	 * accrue the cost of the current power up to the given time, moving to
+	 * the periods started before it.
+	 *
+	 * @param time	current time.
+	 */
+	protected void advance(double time) {
+		while (time >= this.periodEnd) {
+			this.cost += this.power * (this.periodEnd - this.lastUpdate) * this.rates[this.period];
+			this.lastUpdate = this.periodEnd;
+			this.period = (this.period + 1) % this.rates.length;
+			this.periodEnd += this.lengths[this.period];
+		}
+		if (time > this.lastUpdate) {
+			this.cost += this.power * (time - this.lastUpdate) * this.rates[this.period];
+			this.lastUpdate = time;
+		}
+	}
+
+	/**
+	 * return the cost accrued up to the given time.
+	 *
+	 * @param time	current time.
+	 * @return		the cost since the start.
+	 */
+	public synchronized double getCost(double time) {
+		this.advance(time);
+		return this.cost;
+	}
+
+	/**
+	 * return the price of one more kWh drawn at the given time.
+	 *
+	 * @param time	current time.
+	 * @return		the price per kWh of the period of the time.
+	 */
+	public synchronized double getMarginalPrice(double time) {
+		this.advance(time);
+		return this.tariff.getPrice(this.period);
+	}
+
+	/**
+	 * return the time at which the price may change next.
+	 *
+	 * @param time	current time.
+	 * @return		the end of the period of the time.
+	 */
+	public synchronized double getPeriodEnd(double time) {
+		this.advance(time);
+		return this.periodEnd;
+	}
+}
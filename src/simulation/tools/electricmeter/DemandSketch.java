@@ -0,0 +1,176 @@
+package simulation.tools.electricmeter;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The class <code>DemandSketch</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Streaming sketch of the distribution of the power drawn by a household,
+ * each sample being weighted by the time during which the power was drawn.
+ * The powers are counted in buckets growing geometrically, so that any
+ * quantile is given within <code>RELATIVE_ACCURACY</code> of the exact one
+ * with a fixed number of buckets; the powers under <code>MIN_POWER</code>
+ * share the first bucket and the powers over <code>MAX_POWER</code> the
+ * last one. The peak and the mean are kept exactly.
+ *
+ * <p>
+ * All the sketches have the same buckets, so two sketches, e.g. of two
+ * households or of two days, are merged by adding their buckets; the merged
+ * sketch gives the quantiles of the union of their samples.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class DemandSketch implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/** relative accuracy of the quantiles */
+	public static final double RELATIVE_ACCURACY = 0.01;
+	/** smallest power (in Watt) distinguished from no power */
+	public static final double MIN_POWER = 1.0;
+	/** greatest power (in Watt) counted in its own bucket */
+	public static final double MAX_POWER = 1e6;
+
+	/** ratio between the bounds of a bucket */
+	protected static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+	/** logarithm of the ratio between the bounds of a bucket */
+	protected static final double LOG_GAMMA = Math.log(GAMMA);
+	/** number of buckets */
+	public static final int NB_BUCKETS = 2 + (int) Math.ceil(Math.log(MAX_POWER / MIN_POWER) / LOG_GAMMA);
+
+	/** time during which the power of each bucket was drawn */
+	protected final double[] weights;
+	/** time covered by the samples */
+	protected double totalWeight;
+	/** energy of the samples, i.e. the sum of the powers times their weights */
+	protected double weightedSum;
+	/** greatest power of the samples */
+	protected double peak;
+
+	public DemandSketch() {
+		this.weights = new double[NB_BUCKETS];
+	}
+
+	/**
+	 * return the bucket of a power; bucket 0 holds the powers under
+	 * <code>MIN_POWER</code> and bucket <code>i &gt; 0</code> the powers in
+	 * (MIN_POWER * GAMMA^(i-2), MIN_POWER * GAMMA^(i-1)].
+	 *
+	 * @param power	the power.
+	 * @return		the index of its bucket.
+	 */
+	public static int bucketOf(double power) {
+		if (power < MIN_POWER) {
+			return 0;
+		}
+		int i = 1 + (int) Math.ceil(Math.log(power / MIN_POWER) / LOG_GAMMA);
+		return Math.min(i, NB_BUCKETS - 1);
+	}
+
+	/**
+	 * return the power representing a bucket, within
+	 * <code>RELATIVE_ACCURACY</code> of all the powers of the bucket.
+	 *
+	 * @param bucket	index of the bucket.
+	 * @return			the power representing the bucket.
+	 */
+	public static double valueOf(int bucket) {
+		if (bucket == 0) {
+			return 0.0;
+		}
+		return MIN_POWER * 2 * Math.pow(GAMMA, bucket - 1) / (GAMMA + 1);
+	}
+
+	/**
+	 * add a power drawn during the given time.
+	 *
+	 * <pre>
+	 * pre	weight &gt;= 0
+	 * </pre>
+	 *
+	 * @param power		power drawn (in Watt).
+	 * @param weight	time during which it was drawn.
+	 */
+	public void add(double power, double weight) {
+		assert weight >= 0;
+
+		if (weight > 0) {
+			this.weights[bucketOf(power)] += weight;
+			this.totalWeight += weight;
+			this.weightedSum += power * weight;
+			this.peak = Math.max(this.peak, power);
+		}
+	}
+
+	/**
+	 * add the samples of another sketch to this one.
+	 *
+	 * @param other	the other sketch.
+	 */
+	public void merge(DemandSketch other) {
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			this.weights[i] += other.weights[i];
+		}
+		this.totalWeight += other.totalWeight;
+		this.weightedSum += other.weightedSum;
+		this.peak = Math.max(this.peak, other.peak);
+	}
+
+	/**
+	 * return the power under which the household stayed during the given
+	 * fraction of the time, e.g. the p95 for 0.95.
+	 *
+	 * <pre>
+	 * pre	0 &lt;= q &lt;= 1
+	 * </pre>
+	 *
+	 * @param q	the fraction of the time.
+	 * @return	the quantile of the power, 0 if the sketch is empty.
+	 */
+	public double getQuantile(double q) {
+		assert 0 <= q && q <= 1;
+
+		if (this.totalWeight == 0 || q == 1) {
+			return this.peak;
+		}
+		double rank = q * this.totalWeight;
+		double cumulated = 0.0;
+		for (int i = 0; i < NB_BUCKETS; i++) {
+			cumulated += this.weights[i];
+			if (cumulated > rank) {
+				return Math.min(valueOf(i), this.peak);
+			}
+		}
+		return this.peak;
+	}
+
+	public double getPeak() {
+		return this.peak;
+	}
+
+	public double getMean() {
+		return this.totalWeight == 0 ? 0.0 : this.weightedSum / this.totalWeight;
+	}
+
+	public double getTotalWeight() {
+		return this.totalWeight;
+	}
+
+	public void reset() {
+		Arrays.fill(this.weights, 0.0);
+		this.totalWeight = 0.0;
+		this.weightedSum = 0.0;
+		this.peak = 0.0;
+	}
+
+	public DemandSketch copy() {
+		DemandSketch ret = new DemandSketch();
+		ret.merge(this);
+		return ret;
+	}
+}
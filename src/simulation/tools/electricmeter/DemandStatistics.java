@@ -0,0 +1,88 @@
+package simulation.tools.electricmeter;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>DemandStatistics</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable statistics of the power drawn by the household during a day:
+ * its peak, its 95th and 99th percentiles over time and its mean, in Watt.
+ * The last day of a simulation may be partial, its duration telling the
+ * time it covers.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class DemandStatistics implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/** index of the day since the start of the simulation */
+	protected final int day;
+	/** time covered by the statistics, in simulated time units */
+	protected final double duration;
+	/** greatest power drawn */
+	protected final double peak;
+	/** power under which the household stayed 95% of the time */
+	protected final double p95;
+	/** power under which the household stayed 99% of the time */
+	protected final double p99;
+	/** mean power drawn */
+	protected final double mean;
+
+	public DemandStatistics(int day, double duration, double peak, double p95, double p99, double mean) {
+		this.day = day;
+		this.duration = duration;
+		this.peak = peak;
+		this.p95 = p95;
+		this.p99 = p99;
+		this.mean = mean;
+	}
+
+	/**
+	 * compute the statistics of a sketch.
+	 *
+	 * @param day		index of the day.
+	 * @param sketch	sketch of the power drawn during the day.
+	 * @return			the statistics of the day.
+	 */
+	public static DemandStatistics of(int day, DemandSketch sketch) {
+		return new DemandStatistics(day, sketch.getTotalWeight(), sketch.getPeak(), sketch.getQuantile(0.95),
+				sketch.getQuantile(0.99), sketch.getMean());
+	}
+
+	public int getDay() {
+		return this.day;
+	}
+
+	public double getDuration() {
+		return this.duration;
+	}
+
+	public double getPeak() {
+		return this.peak;
+	}
+
+	public double getP95() {
+		return this.p95;
+	}
+
+	public double getP99() {
+		return this.p99;
+	}
+
+	public double getMean() {
+		return this.mean;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("day %d: peak %.1f W, p95 %.1f W, p99 %.1f W, mean %.1f W", this.day, this.peak,
+				this.p95, this.p99, this.mean);
+	}
+}
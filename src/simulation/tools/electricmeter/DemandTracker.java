@@ -0,0 +1,147 @@
+package simulation.tools.electricmeter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class <code>DemandTracker</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Track the distribution of the overall power of the household day by day.
+ * The power is constant between two updates, so at each update the previous
+ * power is added to the sketch of the current day weighted by the time it
+ * was drawn, split at the day boundaries; when a day ends, its statistics
+ * are kept and its sketch is reset. The days are counted from the start of
+ * the tracking. An update costs O(1), the memory is bounded by the size of
+ * a sketch plus the statistics of the past days.
+ *
+ * <p>
+ * The tracker is updated by the simulation thread and may be read by the
+ * threads of the component, hence its synchronised methods.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class DemandTracker {
+
+	/** length of a day, in simulated time units */
+	protected final double dayLength;
+	/** sketch of the current day */
+	protected final DemandSketch today;
+	/** statistics of the past days */
+	protected final ArrayList<DemandStatistics> days;
+	/** index of the current day */
+	protected int day;
+	/** time at which the current day ends */
+	protected double dayEnd;
+	/** current overall power */
+	protected double power;
+	/** time up to which the power has been added to the sketch */
+	protected double lastUpdate;
+
+	/**
+	 * create a tracker.
+	 *
+	 * <pre>
+	 * pre	dayLength &gt; 0
+	 * </pre>
+	 *
+	 * @param dayLength	length of a day, in simulated time units.
+	 */
+	public DemandTracker(double dayLength) {
+		assert dayLength > 0;
+
+		this.dayLength = dayLength;
+		this.today = new DemandSketch();
+		this.days = new ArrayList<>();
+	}
+
+	/**
+	 * restart the tracking at the given time.
+	 *
+	 * @param time	start time.
+	 * @param power	overall power at the start.
+	 */
+	public synchronized void start(double time, double power) {
+		this.today.reset();
+		this.days.clear();
+		this.day = 0;
+		this.dayEnd = time + this.dayLength;
+		this.power = power;
+		this.lastUpdate = time;
+	}
+
+	/**
+	 * set the overall power at the given time.
+	 *
+	 * @param power	new overall power (in Watt).
+	 * @param time	time of the update.
+	 */
+	public synchronized void update(double power, double time) {
+		this.advance(time);
+		this.power = power;
+	}
+
+	/**
+	 * add the current power up to the given time, closing the days ended
+	 * before it.
+	 *
+	 * @param time	current time.
+	 */
+	protected void advance(double time) {
+		while (time >= this.dayEnd) {
+			this.today.add(this.power, this.dayEnd - this.lastUpdate);
+			this.days.add(DemandStatistics.of(this.day, this.today));
+			this.today.reset();
+			this.lastUpdate = this.dayEnd;
+			this.dayEnd += this.dayLength;
+			this.day++;
+		}
+		if (time > this.lastUpdate) {
+			this.today.add(this.power, time - this.lastUpdate);
+			this.lastUpdate = time;
+		}
+	}
+
+	/**
+	 * return the statistics of the current day up to the given time.
+	 *
+	 * @param time	current time.
+	 * @return		the statistics of the current day.
+	 */
+	public synchronized DemandStatistics summarise(double time) {
+		this.advance(time);
+		return DemandStatistics.of(this.day, this.today);
+	}
+
+	/**
+	 * return a copy of the sketch of the current day up to the given time,
+	 * e.g. to merge it with the sketches of other households.
+	 *
+	 * @param time	current time.
+	 * @return		the sketch of the current day.
+	 */
+	public synchronized DemandSketch getSketch(double time) {
+		this.advance(time);
+		return this.today.copy();
+	}
+
+	/**
+	 * return the statistics of every day up to the given time, the current
+	 * day being the last one.
+	 *
+	 * @param time	current time.
+	 * @return		the statistics of the days.
+	 */
+	public synchronized List<DemandStatistics> summariseDays(double time) {
+		this.advance(time);
+		ArrayList<DemandStatistics> ret = new ArrayList<>(this.days);
+		if (this.today.getTotalWeight() > 0) {
+			ret.add(DemandStatistics.of(this.day, this.today));
+		}
+		return ret;
+	}
+}
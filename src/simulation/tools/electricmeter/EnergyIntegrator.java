@@ -0,0 +1,229 @@
+package simulation.tools.electricmeter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class <code>EnergyIntegrator</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Integrate exactly over simulated time the power drawn by the devices of
+ * the household, the power of each device being constant between two of
+ * its updates. Each device keeps its energy since the start and the time of
+ * its last update, so an update costs O(1) whatever the number of devices;
+ * the overall power is integrated the same way into the total energy and
+ * into rolling windows of one minute, one hour and one day. Energies are
+ * given in Watt-hour, powers in Watt.
+ *
+ * <p>
+ * The integrator is updated by the simulation thread and may be read by the
+ * threads of the component, hence its synchronised methods.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class EnergyIntegrator {
+
+	/** number of buckets of each rolling window */
+	public static final int WINDOW_BUCKETS = 60;
+
+	/** number of hours in a simulated time unit */
+	protected final double hoursPerTimeUnit;
+
+	/** number of devices */
+	protected int nbDevices;
+	/** name of each device */
+	protected String[] names;
+	/** current power of each device */
+	protected double[] power;
+	/** energy of each device up to its last update */
+	protected double[] energy;
+	/** time of the last update of each device */
+	protected double[] lastUpdate;
+
+	/** current overall power */
+	protected double totalPower;
+	/** overall energy up to the last update */
+	protected double totalEnergy;
+	/** time of the last update of the overall power */
+	protected double lastTotalUpdate;
+	/** time of the start of the integration */
+	protected double startTime;
+
+	/** energy of the last minute */
+	protected final RollingEnergyWindow minute;
+	/** energy of the last hour */
+	protected final RollingEnergyWindow hour;
+	/** energy of the last day */
+	protected final RollingEnergyWindow day;
+
+	/**
+	 * create an integrator.
+	 *
+	 * <pre>
+	 * pre	secondsPerTimeUnit &gt; 0
+	 * </pre>
+	 *
+	 * @param secondsPerTimeUnit	number of seconds in a simulated time unit.
+	 */
+	public EnergyIntegrator(double secondsPerTimeUnit) {
+		assert secondsPerTimeUnit > 0;
+
+		this.hoursPerTimeUnit = secondsPerTimeUnit / 3600.0;
+		this.names = new String[8];
+		this.power = new double[8];
+		this.energy = new double[8];
+		this.lastUpdate = new double[8];
+		this.minute = new RollingEnergyWindow(60.0 / secondsPerTimeUnit, WINDOW_BUCKETS);
+		this.hour = new RollingEnergyWindow(3600.0 / secondsPerTimeUnit, WINDOW_BUCKETS);
+		this.day = new RollingEnergyWindow(86400.0 / secondsPerTimeUnit, WINDOW_BUCKETS);
+	}
+
+	/**
+	 * restart the integration at the given time, every device drawing no
+	 * power; the declared devices are kept.
+	 *
+	 * @param time	start time.
+	 */
+	public synchronized void start(double time) {
+		Arrays.fill(this.power, 0.0);
+		Arrays.fill(this.energy, 0.0);
+		Arrays.fill(this.lastUpdate, time);
+		this.totalPower = 0.0;
+		this.totalEnergy = 0.0;
+		this.lastTotalUpdate = time;
+		this.startTime = time;
+		this.minute.reset(time);
+		this.hour.reset(time);
+		this.day.reset(time);
+	}
+
+	/**
+	 * declare a device under the given index, drawing no power; the indexes
+	 * are typically the slots of a consumption registry.
+	 *
+	 * @param device	index of the device.
+	 * @param name		name of the device.
+	 */
+	public synchronized void addDevice(int device, String name) {
+		assert device >= 0;
+
+		if (device >= this.names.length) {
+			int n = Math.max(2 * this.names.length, device + 1);
+			this.names = Arrays.copyOf(this.names, n);
+			this.power = Arrays.copyOf(this.power, n);
+			this.energy = Arrays.copyOf(this.energy, n);
+			int old = this.lastUpdate.length;
+			this.lastUpdate = Arrays.copyOf(this.lastUpdate, n);
+			Arrays.fill(this.lastUpdate, old, n, this.lastTotalUpdate);
+		}
+		this.names[device] = name;
+		this.nbDevices = Math.max(this.nbDevices, device + 1);
+	}
+
+	/**
+	 * set the power drawn by a device from the given time on.
+	 *
+	 * <pre>
+	 * pre	the device is declared
+	 * pre	time is not before the last update
+	 * </pre>
+	 *
+	 * @param device	index of the device.
+	 * @param power		power drawn by the device (in Watt).
+	 * @param time		time of the change.
+	 */
+	public synchronized void update(int device, double power, double time) {
+		assert device < this.nbDevices && this.names[device] != null;
+
+		this.energy[device] += this.power[device] * (time - this.lastUpdate[device]) * this.hoursPerTimeUnit;
+		this.lastUpdate[device] = time;
+		this.advance(time);
+		this.totalPower += power - this.power[device];
+		this.power[device] = power;
+	}
+
+	/**
+	 * integrate the overall power up to the given time.
+	 *
+	 * @param time	current time.
+	 */
+	protected void advance(double time) {
+		if (time > this.lastTotalUpdate) {
+			double p = this.totalPower * this.hoursPerTimeUnit;
+			this.totalEnergy += p * (time - this.lastTotalUpdate);
+			this.minute.add(this.lastTotalUpdate, time, p);
+			this.hour.add(this.lastTotalUpdate, time, p);
+			this.day.add(this.lastTotalUpdate, time, p);
+			this.lastTotalUpdate = time;
+		}
+	}
+
+	/**
+	 * return the energy consumed by a device since the start.
+	 *
+	 * @param device	index of the device.
+	 * @param time		current time.
+	 * @return			the energy of the device (in Watt-hour).
+	 */
+	public synchronized double getDeviceEnergy(int device, double time) {
+		return this.energy[device] + this.power[device] * (time - this.lastUpdate[device]) * this.hoursPerTimeUnit;
+	}
+
+	/**
+	 * return the energy consumed by all the devices since the start.
+	 *
+	 * @param time	current time.
+	 * @return		the overall energy (in Watt-hour).
+	 */
+	public synchronized double getTotalEnergy(double time) {
+		this.advance(time);
+		return this.totalEnergy;
+	}
+
+	/**
+	 * return the energy consumed during the last minute, hour or day.
+	 *
+	 * @param time		current time.
+	 * @param window	0 for the minute, 1 for the hour, 2 for the day.
+	 * @return			the energy of the window (in Watt-hour).
+	 */
+	protected double getWindowEnergy(double time, int window) {
+		this.advance(time);
+		RollingEnergyWindow w = window == 0 ? this.minute : (window == 1 ? this.hour : this.day);
+		return w.getEnergy(Math.max(time, this.lastTotalUpdate));
+	}
+
+	public synchronized double getLastMinuteEnergy(double time) {
+		return this.getWindowEnergy(time, 0);
+	}
+
+	public synchronized double getLastHourEnergy(double time) {
+		return this.getWindowEnergy(time, 1);
+	}
+
+	public synchronized double getLastDayEnergy(double time) {
+		return this.getWindowEnergy(time, 2);
+	}
+
+	/**
+	 * return an immutable summary of the energies at the given time.
+	 *
+	 * @param time	current time.
+	 * @return		the summary of the energies.
+	 */
+	public synchronized EnergySummary summarise(double time) {
+		Map<String, Double> devices = new LinkedHashMap<>();
+		for (int d = 0; d < this.nbDevices; d++) {
+			if (this.names[d] != null) {
+				devices.put(this.names[d], this.getDeviceEnergy(d, time));
+			}
+		}
+		return new EnergySummary(time, this.getTotalEnergy(time), this.getLastMinuteEnergy(time),
+				this.getLastHourEnergy(time), this.getLastDayEnergy(time), devices);
+	}
+}
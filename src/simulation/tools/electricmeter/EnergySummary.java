@@ -0,0 +1,81 @@
+package simulation.tools.electricmeter;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * The class <code>EnergySummary</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable summary of the energy consumed in the household at a given
+ * time: since the start of the simulation, over the last minute, hour and
+ * day, and since the start for each device. Energies are in Watt-hour.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class EnergySummary implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/** time of the summary, in simulated time units */
+	protected final double time;
+	/** energy consumed since the start */
+	protected final double total;
+	/** energy consumed during the last minute */
+	protected final double lastMinute;
+	/** energy consumed during the last hour */
+	protected final double lastHour;
+	/** energy consumed during the last day */
+	protected final double lastDay;
+	/** energy consumed since the start by each device */
+	protected final Map<String, Double> devices;
+
+	public EnergySummary(double time, double total, double lastMinute, double lastHour, double lastDay,
+			Map<String, Double> devices) {
+		this.time = time;
+		this.total = total;
+		this.lastMinute = lastMinute;
+		this.lastHour = lastHour;
+		this.lastDay = lastDay;
+		this.devices = devices;
+	}
+
+	public double getTime() {
+		return this.time;
+	}
+
+	public double getTotal() {
+		return this.total;
+	}
+
+	public double getTotalKWh() {
+		return this.total / 1000.0;
+	}
+
+	public double getLastMinute() {
+		return this.lastMinute;
+	}
+
+	public double getLastHour() {
+		return this.lastHour;
+	}
+
+	public double getLastDay() {
+		return this.lastDay;
+	}
+
+	public Map<String, Double> getDevices() {
+		return this.devices;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("total %.3f kWh, last minute %.3f Wh, last hour %.3f Wh, last day %.3f Wh, devices %s",
+				this.getTotalKWh(), this.lastMinute, this.lastHour, this.lastDay, this.devices);
+	}
+}
@@ -0,0 +1,142 @@
+package simulation.tools.electricmeter;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>RollingEnergyWindow</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Energy consumed during a window of fixed length ending at the current
+ * time, e.g. the last hour. The window is cut into buckets of equal width
+ * kept in a ring with their running sum, so the sum is read in constant time
+ * and the window slides in time amortised constant per bucket crossed. The
+ * ring holds one more bucket than the window, the part of the oldest one
+ * still in the window being counted pro rata, which is exact for a power
+ * constant over the bucket. The running sum is
+ * recomputed from the buckets at each turn of the ring so that rounding
+ * errors do not accumulate.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class RollingEnergyWindow {
+
+	/** width of a bucket, in time units */
+	protected final double bucketWidth;
+	/** energy of each bucket, one more than the buckets of the window */
+	protected final double[] buckets;
+	/** absolute index of the current bucket */
+	protected long current;
+	/** energy of all the buckets */
+	protected double sum;
+
+	/**
+	 * create a window.
+	 *
+	 * <pre>
+	 * pre	length &gt; 0 &amp;&amp; nbBuckets &gt; 0
+	 * </pre>
+	 *
+	 * @param length		length of the window, in time units.
+	 * @param nbBuckets		number of buckets of the window.
+	 */
+	public RollingEnergyWindow(double length, int nbBuckets) {
+		assert length > 0 && nbBuckets > 0;
+
+		this.bucketWidth = length / nbBuckets;
+		this.buckets = new double[nbBuckets + 1];
+	}
+
+	public double getLength() {
+		return this.bucketWidth * (this.buckets.length - 1);
+	}
+
+	/**
+	 * empty the window, its current bucket being the one of the given time.
+	 *
+	 * @param time	current time.
+	 */
+	public void reset(double time) {
+		Arrays.fill(this.buckets, 0.0);
+		this.sum = 0.0;
+		this.current = (long) Math.floor(time / this.bucketWidth);
+	}
+
+	/**
+	 * slide the window so that its current bucket is the one of the given
+	 * time.
+	 *
+	 * @param time	current time, not before the last one given.
+	 */
+	public void advance(double time) {
+		long k = (long) Math.floor(time / this.bucketWidth);
+		if (k <= this.current) {
+			return;
+		}
+		int n = this.buckets.length;
+		if (k - this.current >= n) {
+			Arrays.fill(this.buckets, 0.0);
+			this.sum = 0.0;
+		} else {
+			for (long i = this.current + 1; i <= k; i++) {
+				int b = (int) Math.floorMod(i, (long) n);
+				this.sum -= this.buckets[b];
+				this.buckets[b] = 0.0;
+				if (b == 0) {
+					this.sum = 0.0;
+					for (double e : this.buckets) {
+						this.sum += e;
+					}
+				}
+			}
+		}
+		this.current = k;
+	}
+
+	/**
+	 * add the energy of a constant power drawn between two times, spreading
+	 * it over the buckets it covers, and slide the window to the end time.
+	 *
+	 * <pre>
+	 * pre	from &lt;= to
+	 * </pre>
+	 *
+	 * @param from	start of the interval.
+	 * @param to	end of the interval.
+	 * @param power	power drawn, in energy units per time unit.
+	 */
+	public void add(double from, double to, double power) {
+		assert from <= to;
+
+		this.advance(to);
+		if (power == 0.0) {
+			return;
+		}
+		int n = this.buckets.length;
+		long first = Math.max((long) Math.floor(from / this.bucketWidth), this.current - n + 1);
+		for (long k = first; k <= this.current; k++) {
+			double start = Math.max(from, k * this.bucketWidth);
+			double end = Math.min(to, (k + 1) * this.bucketWidth);
+			if (end > start) {
+				double e = power * (end - start);
+				this.buckets[(int) Math.floorMod(k, (long) n)] += e;
+				this.sum += e;
+			}
+		}
+	}
+
+	/**
+	 * return the energy of the window ending at the given time.
+	 *
+	 * @param time	current time, not before the last one given.
+	 * @return		the energy of the window.
+	 */
+	public double getEnergy(double time) {
+		this.advance(time);
+		double expired = time / this.bucketWidth - this.current;
+		int oldest = (int) Math.floorMod(this.current + 1, (long) this.buckets.length);
+		return this.sum - this.buckets[oldest] * expired;
+	}
+}
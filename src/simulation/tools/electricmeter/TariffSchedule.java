@@ -0,0 +1,258 @@
+package simulation.tools.electricmeter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * The class <code>TariffSchedule</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Weekly time-of-use tariff: the week is cut into periods of constant price
+ * (per kWh), given by the sorted times (in seconds since Monday 00:00) at
+ * which each period starts, the first one starting at 0. The period of a
+ * time of the week is found by a binary search on these boundaries.
+ *
+ * <p>
+ * A schedule is read from a text made of one rule per line, the first rule
+ * matching a time of the week giving its price; empty lines and what follows
+ * a <code>#</code> are ignored:
+ * </p>
+ *
+ * <pre>
+ * # days     from   to     price
+ * MON-FRI    07:00  23:00  0.1841
+ * *          00:00  24:00  0.1470
+ * </pre>
+ *
+ * <p>
+ * The days are a day (<code>MON</code> ... <code>SUN</code>), a range of
+ * days or <code>*</code> for every day; a rule whose end is before its start
+ * goes over midnight. Every time of the week must be matched by a rule.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class TariffSchedule {
+
+	/** name of the run parameter giving the path of the file of the schedule */
+	public static final String SCHEDULE_PARAM_NAME = "tariff-schedule";
+	/** name of the run parameter giving the time of the week (in seconds) at
+	 *  which the simulation starts */
+	public static final String START_PARAM_NAME = "tariff-start";
+
+	/** number of seconds in a day */
+	public static final int DAY = 24 * 3600;
+	/** number of seconds in a week */
+	public static final int WEEK = 7 * DAY;
+
+	/** names of the days of the week, Monday first */
+	protected static final String[] DAYS = { "MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN" };
+
+	/** default schedule: peak hours on week days, off-peak hours otherwise */
+	public static final String DEFAULT_SCHEDULE = "MON-FRI 07:00 23:00 0.1841\n" + "* 00:00 24:00 0.1470\n";
+
+	/** time of the week at which each period starts, sorted, the first being 0 */
+	protected final int[] boundaries;
+	/** price (per kWh) of each period */
+	protected final double[] prices;
+
+	/**
+	 * create a schedule from its periods.
+	 *
+	 * <pre>
+	 * pre	boundaries.length == prices.length &amp;&amp; boundaries.length &gt; 0
+	 * pre	boundaries[0] == 0
+	 * pre	boundaries are increasing and under WEEK
+	 * </pre>
+	 *
+	 * @param boundaries	time of the week at which each period starts.
+	 * @param prices		price (per kWh) of each period.
+	 */
+	public TariffSchedule(int[] boundaries, double[] prices) {
+		assert boundaries.length == prices.length && boundaries.length > 0;
+		assert boundaries[0] == 0;
+		for (int i = 1; i < boundaries.length; i++) {
+			assert boundaries[i - 1] < boundaries[i] && boundaries[i] < WEEK;
+		}
+
+		this.boundaries = boundaries.clone();
+		this.prices = prices.clone();
+	}
+
+	/**
+	 * read a schedule from the text of its rules.
+	 *
+	 * @param text	the rules, one per line.
+	 * @return		the schedule.
+	 * @throws IllegalArgumentException	if a rule is malformed or a time of
+	 * 									the week is not matched.
+	 */
+	public static TariffSchedule parse(String text) {
+		ArrayList<int[]> ranges = new ArrayList<>();
+		ArrayList<Double> rates = new ArrayList<>();
+		TreeSet<Integer> cuts = new TreeSet<>();
+		cuts.add(0);
+		for (String line : text.split("\n")) {
+			int comment = line.indexOf('#');
+			String[] fields = (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+");
+			if (fields.length == 1 && fields[0].isEmpty()) {
+				continue;
+			}
+			if (fields.length != 4) {
+				throw new IllegalArgumentException("malformed tariff rule: " + line);
+			}
+			int firstDay = 0;
+			int lastDay = DAYS.length - 1;
+			if (!fields[0].equals("*")) {
+				int dash = fields[0].indexOf('-');
+				firstDay = dayOf(dash < 0 ? fields[0] : fields[0].substring(0, dash));
+				lastDay = dash < 0 ? firstDay : dayOf(fields[0].substring(dash + 1));
+			}
+			int from = timeOf(fields[1]);
+			int to = timeOf(fields[2]);
+			double price = Double.parseDouble(fields[3]);
+			for (int d = firstDay;; d = (d + 1) % DAYS.length) {
+				int start = d * DAY + from;
+				int end = d * DAY + (to > from ? to : to + DAY);
+				// a range going past Sunday midnight is cut in two
+				if (end > WEEK) {
+					ranges.add(new int[] { start, WEEK });
+					ranges.add(new int[] { 0, end - WEEK });
+					rates.add(price);
+					rates.add(price);
+					cuts.add(end - WEEK);
+				} else {
+					ranges.add(new int[] { start, end });
+					rates.add(price);
+					cuts.add(end % WEEK);
+				}
+				cuts.add(start);
+				if (d == lastDay) {
+					break;
+				}
+			}
+		}
+
+		// the price of each piece between two cuts is the one of the first
+		// rule covering it; consecutive pieces of the same price are merged
+		ArrayList<Integer> boundaries = new ArrayList<>();
+		ArrayList<Double> prices = new ArrayList<>();
+		for (int cut : cuts) {
+			int r = 0;
+			while (r < ranges.size() && !(ranges.get(r)[0] <= cut && cut < ranges.get(r)[1])) {
+				r++;
+			}
+			if (r == ranges.size()) {
+				throw new IllegalArgumentException("no tariff rule matches " + DAYS[cut / DAY] + " "
+						+ String.format("%02d:%02d", cut % DAY / 3600, cut % 3600 / 60));
+			}
+			if (prices.isEmpty() || prices.get(prices.size() - 1) != rates.get(r).doubleValue()) {
+				boundaries.add(cut);
+				prices.add(rates.get(r));
+			}
+		}
+		return new TariffSchedule(boundaries.stream().mapToInt(Integer::intValue).toArray(),
+				prices.stream().mapToDouble(Double::doubleValue).toArray());
+	}
+
+	/**
+	 * read a schedule from a file of rules.
+	 *
+	 * @param path	path of the file.
+	 * @return		the schedule.
+	 * @throws IOException	if the file cannot be read.
+	 */
+	public static TariffSchedule load(String path) throws IOException {
+		return parse(new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8));
+	}
+
+	protected static int dayOf(String name) {
+		for (int d = 0; d < DAYS.length; d++) {
+			if (DAYS[d].equalsIgnoreCase(name)) {
+				return d;
+			}
+		}
+		throw new IllegalArgumentException("unknown day: " + name);
+	}
+
+	protected static int timeOf(String hhmm) {
+		int colon = hhmm.indexOf(':');
+		if (colon < 0) {
+			throw new IllegalArgumentException("malformed time: " + hhmm);
+		}
+		int time = Integer.parseInt(hhmm.substring(0, colon)) * 3600 + Integer.parseInt(hhmm.substring(colon + 1)) * 60;
+		if (time < 0 || time > DAY) {
+			throw new IllegalArgumentException("time out of the day: " + hhmm);
+		}
+		return time;
+	}
+
+	/**
+	 * return the number of periods of the week.
+	 *
+	 * @return	the number of periods.
+	 */
+	public int getNbPeriods() {
+		return this.boundaries.length;
+	}
+
+	/**
+	 * return the period of a time of the week.
+	 *
+	 * <pre>
+	 * pre	0 &lt;= time &lt; WEEK
+	 * </pre>
+	 *
+	 * @param time	time of the week, in seconds.
+	 * @return		the index of its period.
+	 */
+	public int periodOf(double time) {
+		assert 0 <= time && time < WEEK;
+
+		int i = Arrays.binarySearch(this.boundaries, (int) time);
+		return i >= 0 ? i : -i - 2;
+	}
+
+	/**
+	 * return the time of the week at which a period starts.
+	 *
+	 * @param period	index of the period.
+	 * @return			its start, in seconds.
+	 */
+	public int getStart(int period) {
+		return this.boundaries[period];
+	}
+
+	/**
+	 * return the time of the week at which a period ends, WEEK for the last
+	 * one.
+	 *
+	 * @param period	index of the period.
+	 * @return			its end, in seconds.
+	 */
+	public int getEnd(int period) {
+		return period + 1 < this.boundaries.length ? this.boundaries[period + 1] : WEEK;
+	}
+
+	public double getPrice(int period) {
+		return this.prices[period];
+	}
+
+	/**
+	 * return the price at a time of the week.
+	 *
+	 * @param time	time of the week, in seconds.
+	 * @return		the price per kWh.
+	 */
+	public double priceAt(double time) {
+		return this.prices[this.periodOf(time)];
+	}
+}
@@ -0,0 +1,698 @@
+package simulation.tools.timeseries;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * The class <code>TimeSeries</code> implements an append-only series of
+ * (time, value) readings stored in a memory-mapped file.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * The file is made of blocks of <code>BLOCK_SIZE</code> bytes, each one
+ * holding a header followed by a timestamp column and a value column. The
+ * timestamps, in micro time units, are encoded as variable-length deltas of
+ * deltas and the values as the variable-length XOR of their bits with the
+ * previous value, so regular readings and slowly changing values take a few
+ * bits per point. A block is sealed when one of its columns could not hold
+ * one more point in the worst case, and the next block starts with raw
+ * values. The header of each block keeps the number of points, the bounds
+ * of its times and values and the sum of its values, so that the range
+ * aggregations use whole blocks without decoding them.
+ * </p>
+ *
+ * <p>
+ * The queries decode the points with a decoder held by the series and give
+ * them through primitive callbacks, so scanning does not allocate. A series
+ * has a single writer; its methods are synchronised so that the readers may
+ * be other threads. Reopening an existing file continues its last block,
+ * unless it is truncated to start a new series.
+ * </p>
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		every block before the last one is sealed
+ * </pre>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class TimeSeries {
+	// -------------------------------------------------------------------------
+	// Inner types
+	// -------------------------------------------------------------------------
+
+	/**
+	 * The interface <code>PointConsumer</code> is used to receive the points
+	 * returned by a range query without allocating objects.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	@FunctionalInterface
+	public static interface PointConsumer {
+		public void accept(double time, double value);
+	}
+
+	/**
+	 * The class <code>Aggregate</code> receives the result of a range
+	 * aggregation; it is reused by the caller across queries.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static class Aggregate {
+		public long count;
+		public double min;
+		public double max;
+		public double sum;
+
+		public void reset() {
+			this.count = 0;
+			this.min = Double.POSITIVE_INFINITY;
+			this.max = Double.NEGATIVE_INFINITY;
+			this.sum = 0.0;
+		}
+
+		public void add(double value) {
+			this.count++;
+			this.min = Math.min(this.min, value);
+			this.max = Math.max(this.max, value);
+			this.sum += value;
+		}
+
+		public void merge(long count, double min, double max, double sum) {
+			this.count += count;
+			this.min = Math.min(this.min, min);
+			this.max = Math.max(this.max, max);
+			this.sum += sum;
+		}
+
+		public double getMean() {
+			return this.count == 0 ? Double.NaN : this.sum / this.count;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "Aggregate(count=" + this.count + ", min=" + this.min + ", max=" + this.max + ", mean="
+					+ this.getMean() + ")";
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** size in bytes of a block. */
+	public static final int BLOCK_SIZE = 8192;
+	/** number of blocks held by each mapped region of the file. */
+	public static final int BLOCKS_PER_REGION = 128;
+	/** number of micro time units in a time unit. */
+	public static final double TIME_SCALE = 1e6;
+
+	/** offset of the number of points in the header. */
+	protected static final int COUNT = 0;
+	/** offset of the number of bits of the timestamp column. */
+	protected static final int TIME_BITS = 4;
+	/** offset of the number of bits of the value column. */
+	protected static final int VALUE_BITS = 8;
+	/** offset of the smallest time of the block. */
+	protected static final int MIN_TIME = 16;
+	/** offset of the greatest time of the block. */
+	protected static final int MAX_TIME = 24;
+	/** offset of the smallest value of the block. */
+	protected static final int MIN_VALUE = 32;
+	/** offset of the greatest value of the block. */
+	protected static final int MAX_VALUE = 40;
+	/** offset of the sum of the values of the block. */
+	protected static final int SUM = 48;
+	/** size in bytes of the header of a block. */
+	protected static final int HEADER_SIZE = 64;
+	/** size in bytes of the timestamp column of a block. */
+	protected static final int TIME_COLUMN_SIZE = 2048;
+	/** offset of the value column in a block. */
+	protected static final int VALUE_COLUMN = HEADER_SIZE + TIME_COLUMN_SIZE;
+	/** capacity in bits of the timestamp column. */
+	protected static final int TIME_CAPACITY = TIME_COLUMN_SIZE * 8;
+	/** capacity in bits of the value column. */
+	protected static final int VALUE_CAPACITY = (BLOCK_SIZE - VALUE_COLUMN) * 8;
+	/** greatest number of bits taken by the timestamp of a point. */
+	protected static final int MAX_TIME_BITS = 4 + 64;
+	/** greatest number of bits taken by the value of a point. */
+	protected static final int MAX_VALUE_BITS = 2 + 5 + 6 + 64;
+
+	/** file holding the series. */
+	protected final Path file;
+	/** channel on the file. */
+	protected FileChannel channel;
+	/** mapped regions of the file, in order. */
+	protected final ArrayList<MappedByteBuffer> regions;
+	/** number of blocks holding points. */
+	protected int nbBlocks;
+	/** number of points of the series. */
+	protected long size;
+
+	// state of the encoder of the last block
+
+	/** buffer of the region of the last block. */
+	protected MappedByteBuffer block;
+	/** offset of the last block in its region. */
+	protected int base;
+	/** number of points of the last block. */
+	protected int count;
+	/** number of bits used in the timestamp column of the last block. */
+	protected int timeBits;
+	/** number of bits used in the value column of the last block. */
+	protected int valueBits;
+	/** last timestamp, in micro time units. */
+	protected long previousTime;
+	/** last difference between two timestamps. */
+	protected long previousDelta;
+	/** bits of the last value. */
+	protected long previousValue;
+	/** leading zeros of the meaningful bits of the last XOR, -1 if none. */
+	protected int previousLeading;
+	/** trailing zeros of the meaningful bits of the last XOR. */
+	protected int previousTrailing;
+
+	/** decoder used by the queries. */
+	protected final Decoder decoder;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * open the series stored in the given file, creating it if needed.
+	 *
+	 * @param file			file holding the series.
+	 * @throws IOException	if the file cannot be opened or mapped.
+	 */
+	public TimeSeries(Path file) throws IOException {
+		this(file, false);
+	}
+
+	/**
+	 * open the series stored in the given file, creating it if needed.
+	 *
+	 * @param file			file holding the series.
+	 * @param truncate		true if the points already in the file are dropped.
+	 * @throws IOException	if the file cannot be opened or mapped.
+	 */
+	public TimeSeries(Path file, boolean truncate) throws IOException {
+		this.file = file;
+		this.channel = truncate
+				? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+				: FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE);
+		this.regions = new ArrayList<>();
+		this.decoder = new Decoder();
+
+		long blocksInFile = this.channel.size() / BLOCK_SIZE;
+		while (this.nbBlocks < blocksInFile) {
+			this.mapBlock(this.nbBlocks);
+			MappedByteBuffer r = this.regions.get(this.nbBlocks / BLOCKS_PER_REGION);
+			int c = r.getInt(this.offsetOf(this.nbBlocks) + COUNT);
+			if (c == 0) {
+				break;
+			}
+			this.size += c;
+			this.nbBlocks++;
+		}
+		if (this.nbBlocks == 0) {
+			this.startBlock(0);
+			this.nbBlocks = 1;
+		} else {
+			this.resumeBlock(this.nbBlocks - 1);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	public Path getFile() {
+		return this.file;
+	}
+
+	/**
+	 * return the number of points of the series.
+	 *
+	 * @return	the number of points.
+	 */
+	public synchronized long size() {
+		return this.size;
+	}
+
+	/**
+	 * return the number of bytes of the file used by the points.
+	 *
+	 * @return	the number of used bytes.
+	 */
+	public synchronized long getStoredBytes() {
+		return (long) (this.nbBlocks - 1) * BLOCK_SIZE + VALUE_COLUMN + (this.valueBits + 7) / 8;
+	}
+
+	/**
+	 * append a reading to the series.
+	 *
+	 * <pre>
+	 * pre	size() == 0 || time &gt;= time of the last reading
+	 * </pre>
+	 *
+	 * @param time			time of the reading.
+	 * @param value			value of the reading.
+	 * @throws IOException	if the file cannot be extended.
+	 * @throws IllegalArgumentException	if the reading is older than the last one.
+	 */
+	public synchronized void append(double time, double value) throws IOException {
+		long t = Math.round(time * TIME_SCALE);
+		if (this.size > 0 && t < this.previousTime) {
+			throw new IllegalArgumentException("reading at " + time + " older than the last one at "
+					+ this.previousTime / TIME_SCALE + " in " + this.file);
+		}
+		if (this.count > 0
+				&& (this.timeBits + MAX_TIME_BITS > TIME_CAPACITY || this.valueBits + MAX_VALUE_BITS > VALUE_CAPACITY)) {
+			this.startBlock(this.nbBlocks++);
+		}
+		// the bounds of the block are those of the decoded times
+		time = t / TIME_SCALE;
+		long v = Double.doubleToRawLongBits(value);
+		MappedByteBuffer b = this.block;
+		int tc = this.base + HEADER_SIZE;
+		int vc = this.base + VALUE_COLUMN;
+
+		if (this.count == 0) {
+			this.timeBits = writeBits(b, tc, this.timeBits, t, 64);
+			this.valueBits = writeBits(b, vc, this.valueBits, v, 64);
+			this.previousDelta = 0;
+			this.previousLeading = -1;
+			b.putDouble(this.base + MIN_TIME, time);
+			b.putDouble(this.base + MAX_TIME, time);
+			b.putDouble(this.base + MIN_VALUE, value);
+			b.putDouble(this.base + MAX_VALUE, value);
+			b.putDouble(this.base + SUM, value);
+		} else {
+			long delta = t - this.previousTime;
+			long dod = delta - this.previousDelta;
+			if (dod == 0) {
+				this.timeBits = writeBits(b, tc, this.timeBits, 0, 1);
+			} else if (dod >= -63 && dod <= 64) {
+				this.timeBits = writeBits(b, tc, this.timeBits, 0b10, 2);
+				this.timeBits = writeBits(b, tc, this.timeBits, dod + 63, 7);
+			} else if (dod >= -255 && dod <= 256) {
+				this.timeBits = writeBits(b, tc, this.timeBits, 0b110, 3);
+				this.timeBits = writeBits(b, tc, this.timeBits, dod + 255, 9);
+			} else if (dod >= -2047 && dod <= 2048) {
+				this.timeBits = writeBits(b, tc, this.timeBits, 0b1110, 4);
+				this.timeBits = writeBits(b, tc, this.timeBits, dod + 2047, 12);
+			} else {
+				this.timeBits = writeBits(b, tc, this.timeBits, 0b1111, 4);
+				this.timeBits = writeBits(b, tc, this.timeBits, dod, 64);
+			}
+			this.previousDelta = delta;
+
+			long xor = v ^ this.previousValue;
+			if (xor == 0) {
+				this.valueBits = writeBits(b, vc, this.valueBits, 0, 1);
+			} else {
+				int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+				int trailing = Long.numberOfTrailingZeros(xor);
+				if (this.previousLeading >= 0 && leading >= this.previousLeading
+						&& trailing >= this.previousTrailing) {
+					this.valueBits = writeBits(b, vc, this.valueBits, 0b10, 2);
+					this.valueBits = writeBits(b, vc, this.valueBits, xor >>> this.previousTrailing,
+							64 - this.previousLeading - this.previousTrailing);
+				} else {
+					int meaningful = 64 - leading - trailing;
+					this.valueBits = writeBits(b, vc, this.valueBits, 0b11, 2);
+					this.valueBits = writeBits(b, vc, this.valueBits, leading, 5);
+					this.valueBits = writeBits(b, vc, this.valueBits, meaningful - 1, 6);
+					this.valueBits = writeBits(b, vc, this.valueBits, xor >>> trailing, meaningful);
+					this.previousLeading = leading;
+					this.previousTrailing = trailing;
+				}
+			}
+			if (time < b.getDouble(this.base + MIN_TIME)) {
+				b.putDouble(this.base + MIN_TIME, time);
+			}
+			if (time > b.getDouble(this.base + MAX_TIME)) {
+				b.putDouble(this.base + MAX_TIME, time);
+			}
+			if (value < b.getDouble(this.base + MIN_VALUE)) {
+				b.putDouble(this.base + MIN_VALUE, value);
+			}
+			if (value > b.getDouble(this.base + MAX_VALUE)) {
+				b.putDouble(this.base + MAX_VALUE, value);
+			}
+			b.putDouble(this.base + SUM, b.getDouble(this.base + SUM) + value);
+		}
+		this.previousTime = t;
+		this.previousValue = v;
+		this.count++;
+		this.size++;
+		b.putInt(this.base + TIME_BITS, this.timeBits);
+		b.putInt(this.base + VALUE_BITS, this.valueBits);
+		b.putInt(this.base + COUNT, this.count);
+	}
+
+	/**
+	 * give every point whose time is in [from, to] to the consumer, in the
+	 * order of their appending.
+	 *
+	 * @param from		start of the range.
+	 * @param to		end of the range.
+	 * @param consumer	receiver of the points.
+	 * @return			the number of points given.
+	 */
+	public synchronized long scan(double from, double to, PointConsumer consumer) {
+		long n = 0;
+		for (int k = this.firstBlockEndingAfter(from); k < this.nbBlocks; k++) {
+			MappedByteBuffer r = this.regions.get(k / BLOCKS_PER_REGION);
+			int o = this.offsetOf(k);
+			if (r.getInt(o + COUNT) == 0 || r.getDouble(o + MIN_TIME) > to) {
+				break;
+			}
+			Decoder d = this.decoder;
+			d.start(r, o);
+			while (d.next() && d.time <= to) {
+				if (d.time >= from) {
+					consumer.accept(d.time, d.value);
+					n++;
+				}
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * aggregate the values of the points whose time is in [from, to]; the
+	 * blocks entirely in the range are aggregated from their header.
+	 *
+	 * @param from	start of the range.
+	 * @param to	end of the range.
+	 * @param out	receiver of the aggregation, reset first.
+	 * @return		<code>out</code>.
+	 */
+	public synchronized Aggregate aggregate(double from, double to, Aggregate out) {
+		out.reset();
+		for (int k = this.firstBlockEndingAfter(from); k < this.nbBlocks; k++) {
+			MappedByteBuffer r = this.regions.get(k / BLOCKS_PER_REGION);
+			int o = this.offsetOf(k);
+			int c = r.getInt(o + COUNT);
+			double minTime = r.getDouble(o + MIN_TIME);
+			double maxTime = r.getDouble(o + MAX_TIME);
+			if (c == 0 || minTime > to) {
+				break;
+			}
+			if (minTime >= from && maxTime <= to) {
+				out.merge(c, r.getDouble(o + MIN_VALUE), r.getDouble(o + MAX_VALUE), r.getDouble(o + SUM));
+			} else {
+				Decoder d = this.decoder;
+				d.start(r, o);
+				while (d.next() && d.time <= to) {
+					if (d.time >= from) {
+						out.add(d.value);
+					}
+				}
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * write the mapped regions to the file.
+	 */
+	public synchronized void flush() {
+		for (MappedByteBuffer r : this.regions) {
+			r.force();
+		}
+	}
+
+	/**
+	 * write the mapped regions to the file and close it.
+	 *
+	 * @throws IOException	if the file cannot be closed.
+	 */
+	public synchronized void close() throws IOException {
+		if (this.channel != null) {
+			this.flush();
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Blocks
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return the index of the first block whose greatest time is not before
+	 * the given time, by binary search as the blocks are ordered by time.
+	 *
+	 * @param time	the time.
+	 * @return		the index of the block, <code>nbBlocks</code> if none.
+	 */
+	protected int firstBlockEndingAfter(double time) {
+		int low = 0;
+		int high = this.nbBlocks;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			MappedByteBuffer r = this.regions.get(mid / BLOCKS_PER_REGION);
+			int o = this.offsetOf(mid);
+			if (r.getInt(o + COUNT) > 0 && r.getDouble(o + MAX_TIME) < time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	protected int offsetOf(int blockIndex) {
+		return (blockIndex % BLOCKS_PER_REGION) * BLOCK_SIZE;
+	}
+
+	/**
+	 * map the region holding the given block if it is not mapped yet; mapping
+	 * beyond the end of the file extends it.
+	 *
+	 * @param blockIndex	index of the block.
+	 * @throws IOException	if the region cannot be mapped.
+	 */
+	protected void mapBlock(int blockIndex) throws IOException {
+		int region = blockIndex / BLOCKS_PER_REGION;
+		long regionSize = (long) BLOCKS_PER_REGION * BLOCK_SIZE;
+		while (this.regions.size() <= region) {
+			this.regions.add(
+					this.channel.map(FileChannel.MapMode.READ_WRITE, this.regions.size() * regionSize, regionSize));
+		}
+	}
+
+	/**
+	 * start appending in an empty block.
+	 *
+	 * @param blockIndex	index of the block.
+	 * @throws IOException	if the block cannot be mapped.
+	 */
+	protected void startBlock(int blockIndex) throws IOException {
+		this.mapBlock(blockIndex);
+		this.block = this.regions.get(blockIndex / BLOCKS_PER_REGION);
+		this.base = this.offsetOf(blockIndex);
+		this.count = 0;
+		this.timeBits = 0;
+		this.valueBits = 0;
+	}
+
+	/**
+	 * continue appending in a block of an existing file, restoring the state
+	 * of the encoder by decoding the block.
+	 *
+	 * @param blockIndex	index of the block.
+	 */
+	protected void resumeBlock(int blockIndex) {
+		this.block = this.regions.get(blockIndex / BLOCKS_PER_REGION);
+		this.base = this.offsetOf(blockIndex);
+		Decoder d = this.decoder;
+		d.start(this.block, this.base);
+		while (d.next()) {
+		}
+		this.count = d.count;
+		this.timeBits = d.timePosition;
+		this.valueBits = d.valuePosition;
+		this.previousTime = d.previousTime;
+		this.previousDelta = d.previousDelta;
+		this.previousValue = d.previousValue;
+		this.previousLeading = d.previousLeading;
+		this.previousTrailing = d.previousTrailing;
+	}
+
+	// -------------------------------------------------------------------------
+	// Bits
+	// -------------------------------------------------------------------------
+
+	/**
+	 * write the <code>n</code> low bits of a value, most significant first,
+	 * into a column of zeroed bytes.
+	 *
+	 * @param b			buffer holding the column.
+	 * @param column	offset of the column in the buffer.
+	 * @param position	position in bits of the first bit to write.
+	 * @param value		bits to write.
+	 * @param n			number of bits to write, at most 64.
+	 * @return			the position following the written bits.
+	 */
+	protected static int writeBits(MappedByteBuffer b, int column, int position, long value, int n) {
+		int first = column + (position >>> 3);
+		int shift = position & 7;
+		if (n <= 56 && first + 8 <= b.limit()) {
+			// the bits fit in the eight bytes starting at the first one
+			long mask = (1L << n) - 1;
+			b.putLong(first, b.getLong(first) | ((value & mask) << (64 - shift - n)));
+			return position + n;
+		}
+		while (n > 0) {
+			int i = column + (position >>> 3);
+			int free = 8 - (position & 7);
+			int k = Math.min(free, n);
+			int bits = (int) ((value >>> (n - k)) & ((1 << k) - 1));
+			b.put(i, (byte) (b.get(i) | (bits << (free - k))));
+			position += k;
+			n -= k;
+		}
+		return position;
+	}
+
+	/**
+	 * read <code>n</code> bits of a column, most significant first.
+	 *
+	 * @param b			buffer holding the column.
+	 * @param column	offset of the column in the buffer.
+	 * @param position	position in bits of the first bit to read.
+	 * @param n			number of bits to read, at most 64.
+	 * @return			the bits read.
+	 */
+	protected static long readBits(MappedByteBuffer b, int column, int position, int n) {
+		int first = column + (position >>> 3);
+		if (n <= 56 && first + 8 <= b.limit()) {
+			return (b.getLong(first) << (position & 7)) >>> (64 - n);
+		}
+		long ret = 0;
+		while (n > 0) {
+			int i = column + (position >>> 3);
+			int free = 8 - (position & 7);
+			int k = Math.min(free, n);
+			int bits = ((b.get(i) & 0xFF) >>> (free - k)) & ((1 << k) - 1);
+			ret = (ret << k) | bits;
+			position += k;
+			n -= k;
+		}
+		return ret;
+	}
+
+	/**
+	 * The class <code>Decoder</code> decodes the points of a block one after
+	 * the other; it is reused by all the queries of the series.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	protected static class Decoder {
+		protected MappedByteBuffer buffer;
+		protected int timeColumn;
+		protected int valueColumn;
+		protected int nbPoints;
+		protected int count;
+		protected int timePosition;
+		protected int valuePosition;
+		protected long previousTime;
+		protected long previousDelta;
+		protected long previousValue;
+		protected int previousLeading;
+		protected int previousTrailing;
+		/** time of the last decoded point. */
+		public double time;
+		/** value of the last decoded point. */
+		public double value;
+
+		public void start(MappedByteBuffer b, int base) {
+			this.buffer = b;
+			this.timeColumn = base + HEADER_SIZE;
+			this.valueColumn = base + VALUE_COLUMN;
+			this.nbPoints = b.getInt(base + COUNT);
+			this.count = 0;
+			this.timePosition = 0;
+			this.valuePosition = 0;
+			this.previousLeading = -1;
+		}
+
+		/**
+		 * decode the next point of the block.
+		 *
+		 * @return	false if the block has no more points.
+		 */
+		public boolean next() {
+			if (this.count == this.nbPoints) {
+				return false;
+			}
+			MappedByteBuffer b = this.buffer;
+			if (this.count == 0) {
+				this.previousTime = readBits(b, this.timeColumn, 0, 64);
+				this.previousValue = readBits(b, this.valueColumn, 0, 64);
+				this.timePosition = 64;
+				this.valuePosition = 64;
+				this.previousDelta = 0;
+			} else {
+				long dod;
+				if (readBits(b, this.timeColumn, this.timePosition++, 1) == 0) {
+					dod = 0;
+				} else if (readBits(b, this.timeColumn, this.timePosition++, 1) == 0) {
+					dod = readBits(b, this.timeColumn, this.timePosition, 7) - 63;
+					this.timePosition += 7;
+				} else if (readBits(b, this.timeColumn, this.timePosition++, 1) == 0) {
+					dod = readBits(b, this.timeColumn, this.timePosition, 9) - 255;
+					this.timePosition += 9;
+				} else if (readBits(b, this.timeColumn, this.timePosition++, 1) == 0) {
+					dod = readBits(b, this.timeColumn, this.timePosition, 12) - 2047;
+					this.timePosition += 12;
+				} else {
+					dod = readBits(b, this.timeColumn, this.timePosition, 64);
+					this.timePosition += 64;
+				}
+				this.previousDelta += dod;
+				this.previousTime += this.previousDelta;
+
+				if (readBits(b, this.valueColumn, this.valuePosition++, 1) != 0) {
+					if (readBits(b, this.valueColumn, this.valuePosition++, 1) != 0) {
+						this.previousLeading = (int) readBits(b, this.valueColumn, this.valuePosition, 5);
+						this.previousTrailing = 64 - this.previousLeading
+								- ((int) readBits(b, this.valueColumn, this.valuePosition + 5, 6) + 1);
+						this.valuePosition += 11;
+					}
+					int meaningful = 64 - this.previousLeading - this.previousTrailing;
+					long xor = readBits(b, this.valueColumn, this.valuePosition, meaningful) << this.previousTrailing;
+					this.valuePosition += meaningful;
+					this.previousValue ^= xor;
+				}
+			}
+			this.count++;
+			this.time = this.previousTime / TIME_SCALE;
+			this.value = Double.longBitsToDouble(this.previousValue);
+			return true;
+		}
+	}
+}
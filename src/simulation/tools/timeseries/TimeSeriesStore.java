@@ -0,0 +1,112 @@
+package simulation.tools.timeseries;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+
+/**
+ * The class <code>TimeSeriesStore</code> groups the time series of a
+ * simulation run in a directory, one file per series.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * The series are created, reopened or truncated on their first request by
+ * name, as chosen when the store is opened; the
+ * file of a series is its name, where the characters other than letters,
+ * digits, '-' and '_' are replaced by '_', followed by
+ * <code>FILE_EXTENSION</code>. The store is shared by the models of a run,
+ * which append to their own series.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class TimeSeriesStore {
+	/**
+	 * name of the run parameter giving the directory of the store of a model,
+	 * prefixed by the URI of the model; the model keeps no series without it.
+	 */
+	public static final String DIRECTORY_PARAM_NAME = "time-series-directory";
+	/** extension of the files holding the series. */
+	public static final String FILE_EXTENSION = ".tsc";
+
+	/** directory holding the series. */
+	protected final Path directory;
+	/** true if the existing series are dropped on their first request. */
+	protected final boolean truncate;
+	/** the opened series by name. */
+	protected final HashMap<String, TimeSeries> series;
+
+	/**
+	 * open the store in the given directory, creating it if needed; the
+	 * series already in the directory are continued.
+	 *
+	 * @param directory		directory holding the series.
+	 * @throws IOException	if the directory cannot be created.
+	 */
+	public TimeSeriesStore(String directory) throws IOException {
+		this(directory, false);
+	}
+
+	/**
+	 * open the store in the given directory, creating it if needed.
+	 *
+	 * @param directory		directory holding the series.
+	 * @param truncate		true if the series already in the directory are
+	 * 						dropped on their first request, e.g. at the start
+	 * 						of a new simulation run.
+	 * @throws IOException	if the directory cannot be created.
+	 */
+	public TimeSeriesStore(String directory, boolean truncate) throws IOException {
+		this.directory = Files.createDirectories(Paths.get(directory));
+		this.truncate = truncate;
+		this.series = new HashMap<>();
+	}
+
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * return the series of the given name, creating, reopening or
+	 * truncating it.
+	 *
+	 * @param name			name of the series.
+	 * @return				the series.
+	 * @throws IOException	if the file of the series cannot be opened.
+	 */
+	public synchronized TimeSeries getSeries(String name) throws IOException {
+		TimeSeries ret = this.series.get(name);
+		if (ret == null) {
+			ret = new TimeSeries(this.directory.resolve(name.replaceAll("[^A-Za-z0-9_-]", "_") + FILE_EXTENSION),
+					this.truncate);
+			this.series.put(name, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * write every series to its file.
+	 */
+	public synchronized void flush() {
+		for (TimeSeries s : this.series.values()) {
+			s.flush();
+		}
+	}
+
+	/**
+	 * close every series.
+	 *
+	 * @throws IOException	if a file cannot be closed.
+	 */
+	public synchronized void close() throws IOException {
+		for (TimeSeries s : this.series.values()) {
+			s.close();
+		}
+		this.series.clear();
+	}
+}
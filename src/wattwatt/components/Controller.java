@@ -1,9 +1,17 @@
 package wattwatt.components;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
 
+import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.annotations.OfferedInterfaces;
 import fr.sorbonne_u.components.annotations.RequiredInterfaces;
 import fr.sorbonne_u.components.cyphy.AbstractCyPhyComponent;
@@ -15,24 +23,49 @@ import fr.sorbonne_u.devs_simulation.architectures.SimulationEngineCreationMode;
 import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDescriptor;
 import fr.sorbonne_u.devs_simulation.models.architectures.AtomicModelDescriptor;
 import fr.sorbonne_u.devs_simulation.models.architectures.CoupledModelDescriptor;
+import simulation.events.electricmeter.AnomalyEvent;
 import simulation.models.controller.ControllerModel;
 import simulation.plugins.ControllerSimulatorPlugin;
+import simulation.tools.controller.Decision;
 import simulation.tools.enginegenerator.EngineGeneratorState;
 import simulation.tools.fridge.FridgeConsumption;
 import simulation.tools.washingmachine.WashingMachineState;
 import wattwatt.interfaces.controller.IController;
+import wattwatt.interfaces.controller.IStateInvalidation;
 import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
 import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
 import wattwatt.interfaces.devices.uncontrollable.hairdryer.IHairDryer;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
 import wattwatt.interfaces.electricmeter.IElectricMeter;
 import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
 import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
 import wattwatt.ports.devices.schedulable.washingmachine.WashingMachineOutPort;
 import wattwatt.ports.devices.suspendable.fridge.FridgeOutPort;
 import wattwatt.ports.devices.uncontrollable.hairdryer.HairDryerOutPort;
+import wattwatt.ports.controller.ControllerInPort;
+import wattwatt.ports.controller.StateInvalidationInPort;
+import wattwatt.ports.electricmeter.ConsumptionNotificationInPort;
 import wattwatt.ports.electricmeter.ElectricMeterOutPort;
 import wattwatt.ports.energyproviders.occasional.enginegenerator.EngineGeneratorOutPort;
 import wattwatt.ports.energyproviders.random.windturbine.WindTurbineOutPort;
+import wattwatt.tools.URIS;
+import wattwatt.tools.cache.ReadThroughCache;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+import wattwatt.tools.controller.CommandBatch;
+import wattwatt.tools.controller.ControllerSetting;
+import wattwatt.tools.controller.ControllerStateKey;
+import wattwatt.tools.controller.HouseholdSnapshot;
+import wattwatt.tools.controller.LoadForecaster;
+import wattwatt.tools.controller.ScheduleOptimizer;
+import wattwatt.tools.fridge.FridgeStatus;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.metrics.ControlLoopMetrics;
+import wattwatt.tools.metrics.PortMetrics;
+import wattwatt.tools.metrics.PortMetricsReporter;
+import wattwatt.tools.state.StateTable;
+import wattwatt.tools.washingmachine.WashingMachineSetting;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
+import wattwatt.tools.windturbine.WindTurbineStatus;
 
 //-----------------------------------------------------------------------------
 /**
@@ -58,7 +91,7 @@ import wattwatt.ports.energyproviders.random.windturbine.WindTurbineOutPort;
  */
 // The next annotation requires that the referenced interface is added to
 // the required interfaces of the component.
-@OfferedInterfaces(offered = IController.class)
+@OfferedInterfaces(offered = { IController.class, IConsumptionNotification.class, IStateInvalidation.class })
 @RequiredInterfaces(required = { IElectricMeter.class, IFridge.class, IHairDryer.class, IWindTurbine.class,
 		IWashingMachine.class, IEngineGenerator.class })
 public class Controller extends AbstractCyPhyComponent implements EmbeddingComponentAccessI {
@@ -77,6 +110,13 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 	/** The inbound port of the engine generator */
 	protected String groupein;
 
+	/** the inbound port offering the controller services. */
+	protected ControllerInPort controllerin;
+	/** the inbound port receiving the overall consumption pushed by the electric meter. */
+	protected ConsumptionNotificationInPort consumptionin;
+	/** The inbound port receiving the changes of the states of the devices */
+	protected StateInvalidationInPort invalidationin;
+
 	/** the outbound port used to call the electric meter services. */
 	protected ElectricMeterOutPort cptout;
 	/** the outbound port used to call the fridge services. */
@@ -91,10 +131,38 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 	protected EngineGeneratorOutPort groupeout;
 
 	/** the variable to keep the overall consommation received by the compteur */
-	protected double allCons;
+	protected volatile double allCons;
+	/** true once the electric meter has pushed the overall consumption. */
+	protected volatile boolean consumptionPushed;
+	/** the price of one more kWh pushed by the electric meter, NaN until then. */
+	protected volatile double marginalPrice;
+	/** simulated time (in seconds) of the last decision of the controller model. */
+	protected volatile double simulatedTime;
 
 	/** the simulation plug-in holding the simulation models. */
 	protected ControllerSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<ControllerStateKey> stateTable;
+
+	/** index of the executor service running the asynchronous port calls. */
+	protected int outPortExecutorIndex;
+	/** version of the last snapshot taken. */
+	protected final AtomicLong snapshotVersion;
+
+	/** forecast of the wind production and of the base load. */
+	protected final LoadForecaster forecaster;
+	/** optimizer choosing the starting times of the schedulable devices. */
+	protected final ScheduleOptimizer scheduleOptimizer;
+	/** forecast surplus of each slot of the scheduling horizon. */
+	protected final double[] forecastSurplus;
+	/** time of the next planning of the schedulable devices. */
+	protected double nextScheduling;
+	/** latencies of the control loop, shared with the controller model. */
+	protected final ControlLoopMetrics controlLoopMetrics;
+	/** metrics of the calls made through the outbound ports. */
+	protected final PortMetricsReporter portMetrics;
+	/** caches of the states of the devices, by URI of their inbound port. */
+	protected final Map<String, ReadThroughCache> readCaches;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -135,6 +203,17 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 			String eoIn, String eoOut, String laveIn, String laveOut, String groupeIn, String groupeOut)
 			throws Exception {
 		super(uri, 1, 5);
+		this.stateTable = this.createStateTable();
+		this.snapshotVersion = new AtomicLong();
+		this.marginalPrice = Double.NaN;
+		this.forecaster = new LoadForecaster(ControllerSetting.SCHEDULING_HORIZON, ControllerSetting.SCHEDULING_SLOT,
+				ControllerSetting.FORECAST_SMOOTHING);
+		this.scheduleOptimizer = new ScheduleOptimizer(this.forecaster.getNumberOfSlots(), 1);
+		this.forecastSurplus = new double[this.forecaster.getNumberOfSlots()];
+		this.controlLoopMetrics = new ControlLoopMetrics();
+		this.portMetrics = new PortMetricsReporter();
+		this.readCaches = new HashMap<>();
+		this.nextScheduling = 0.0;
 		this.initialise();
 		this.refrin = refriIn;
 		this.sechin = sechin;
@@ -142,6 +221,15 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 		this.lavein = laveIn;
 		this.groupein = groupeIn;
 
+		this.controllerin = new ControllerInPort(URIS.CONTROLLER_IN_URI, this);
+		this.controllerin.publishPort();
+
+		this.consumptionin = new ConsumptionNotificationInPort(URIS.CONTROLLER_CONSUMPTION_IN_URI, this);
+		this.consumptionin.publishPort();
+
+		this.invalidationin = new StateInvalidationInPort(URIS.CONTROLLER_INVALIDATION_IN_URI, this);
+		this.invalidationin.publishPort();
+
 		this.cptout = new ElectricMeterOutPort(compteurOut, this);
 		this.cptout.publishPort();
 
@@ -160,6 +248,57 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 		this.groupeout = new EngineGeneratorOutPort(groupeOut, this);
 		this.groupeout.publishPort();
 
+		this.outPortExecutorIndex = this.createNewExecutorService(ControllerSetting.OUT_PORT_EXECUTOR_URI,
+				ControllerSetting.OUT_PORT_THREADS, false);
+		Executor outPortExecutor = r -> this.runTask(this.outPortExecutorIndex, new AbstractComponent.AbstractTask() {
+			@Override
+			public void run() {
+				r.run();
+			}
+		});
+		this.cptout.setAsyncExecutor(outPortExecutor);
+		this.refriout.setAsyncExecutor(outPortExecutor);
+		this.eoout.setAsyncExecutor(outPortExecutor);
+		this.laveout.setAsyncExecutor(outPortExecutor);
+		this.groupeout.setAsyncExecutor(outPortExecutor);
+
+		if (ControllerSetting.PORT_METRICS_ENABLED) {
+			this.cptout.setInterceptors(this.interceptorsOf(this.cptout.getPortURI()));
+			this.refriout.setInterceptors(this.interceptorsOf(this.refriout.getPortURI()));
+			this.sechout.setInterceptors(this.interceptorsOf(this.sechout.getPortURI()));
+			this.eoout.setInterceptors(this.interceptorsOf(this.eoout.getPortURI()));
+			this.laveout.setInterceptors(this.interceptorsOf(this.laveout.getPortURI()));
+			this.groupeout.setInterceptors(this.interceptorsOf(this.groupeout.getPortURI()));
+		}
+
+		if (ControllerSetting.READ_CACHE_TTL > 0) {
+			// the on flags only change on the notified events, the statuses
+			// holding the productions, the consumptions and the fuel change at
+			// each step of the models and are kept for a simulated time to live
+			double ttl = ControllerSetting.READ_CACHE_TTL;
+			double sampleTtl = ControllerSetting.READ_SAMPLE_TTL;
+			DoubleSupplier simulatedClock = () -> this.simulatedTime;
+
+			ReadThroughCache fridge = this.readCacheOf(this.refriout.getPortURI(), this.refrin);
+			fridge.setTtl(FridgeOutPort.READ_STATUS, sampleTtl, simulatedClock);
+			this.refriout.setReadCache(fridge);
+
+			ReadThroughCache windTurbine = this.readCacheOf(this.eoout.getPortURI(), this.eoin);
+			windTurbine.setTtl(WindTurbineOutPort.IS_ON, ttl);
+			windTurbine.setTtl(WindTurbineOutPort.GET_ENERGY, sampleTtl, simulatedClock);
+			windTurbine.setTtl(WindTurbineOutPort.READ_STATUS, sampleTtl, simulatedClock);
+			this.eoout.setReadCache(windTurbine);
+
+			ReadThroughCache engineGenerator = this.readCacheOf(this.groupeout.getPortURI(), this.groupein);
+			engineGenerator.setTtl(EngineGeneratorOutPort.IS_ON, ttl);
+			engineGenerator.setTtl(EngineGeneratorOutPort.GET_ENERGY, sampleTtl, simulatedClock);
+			engineGenerator.setTtl(EngineGeneratorOutPort.READ_STATUS, sampleTtl, simulatedClock);
+			engineGenerator.setTtl(EngineGeneratorOutPort.FUEL_QUANTITY, sampleTtl, simulatedClock);
+			engineGenerator.setTtl(EngineGeneratorOutPort.FUEL_IS_EMPTY, sampleTtl, simulatedClock);
+			engineGenerator.setTtl(EngineGeneratorOutPort.FUEL_IS_FULL, sampleTtl, simulatedClock);
+			this.groupeout.setReadCache(engineGenerator);
+		}
+
 		this.tracer.setRelativePosition(0, 0);
 	}
 
@@ -177,6 +316,35 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 
 	}
 
+	/**
+	 * create the interceptors of an outbound port, recording its calls in the
+	 * port metrics.
+	 * 
+	 * @param portURI	URI of the port.
+	 * @return			the chain of interceptors of the port.
+	 */
+	protected PortInterceptorChain interceptorsOf(String portURI) {
+		PortMetrics metrics = new PortMetrics();
+		this.portMetrics.register(portURI, metrics);
+		return PortInterceptorChain.of(metrics);
+	}
+
+	/**
+	 * create the cache of the states read through an outbound port, dropped
+	 * when the device notifies a change, its methods being cached by the
+	 * caller.
+	 * 
+	 * @param portURI				URI of the outbound port.
+	 * @param deviceInboundPortURI	URI of the inbound port of the device.
+	 * @return						the cache, in wall-clock time.
+	 */
+	protected ReadThroughCache readCacheOf(String portURI, String deviceInboundPortURI) {
+		ReadThroughCache cache = new ReadThroughCache(ReadThroughCache.WALL_CLOCK);
+		this.readCaches.put(deviceInboundPortURI, cache);
+		this.portMetrics.register(portURI, cache);
+		return cache;
+	}
+
 	// -------------------------------------------------------------------------
 	// Methods
 	// -------------------------------------------------------------------------
@@ -189,11 +357,55 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 	@Override
 	public void execute() throws Exception {
 		super.execute();
+		// the overall consumption is pushed by the electric meter instead of
+		// being read at each snapshot
+		this.cptout.subscribe(this.consumptionin.getPortURI(), ControllerSetting.CONSUMPTION_DEADBAND);
+		// the cached states of the devices are dropped on their changes
+		if (ControllerSetting.READ_CACHE_TTL > 0) {
+			this.refriout.subscribeInvalidation(this.invalidationin.getPortURI());
+			this.eoout.subscribeInvalidation(this.invalidationin.getPortURI());
+			this.groupeout.subscribeInvalidation(this.invalidationin.getPortURI());
+		}
+		if (ControllerSetting.PORT_METRICS_ENABLED && ControllerSetting.PORT_METRICS_PERIOD > 0) {
+			this.schedulePortMetricsReport();
+		}
+	}
+
+	/**
+	 * schedule the next report of the port metrics, which schedules the
+	 * following one.
+	 */
+	protected void schedulePortMetricsReport() {
+		this.scheduleTask(new AbstractComponent.AbstractTask() {
+			@Override
+			public void run() {
+				((Controller) this.getTaskOwner()).reportPortMetrics();
+				((Controller) this.getTaskOwner()).schedulePortMetricsReport();
+			}
+		}, ControllerSetting.PORT_METRICS_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * log the report of the port metrics and write it to the snapshot file
+	 * when there is one.
+	 */
+	protected void reportPortMetrics() {
+		this.logMessage("port metrics:" + System.lineSeparator() + this.portMetrics.report());
+		if (ControllerSetting.PORT_METRICS_FILE != null) {
+			try {
+				this.portMetrics.writeSnapshot(Paths.get(ControllerSetting.PORT_METRICS_FILE));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
 	}
 
 	@Override
 	public void shutdown() throws ComponentShutdownException {
 		try {
+			this.controllerin.unpublishPort();
+			this.consumptionin.unpublishPort();
+			this.invalidationin.unpublishPort();
 			this.cptout.unpublishPort();
 			this.refriout.unpublishPort();
 			this.sechout.unpublishPort();
@@ -214,58 +426,315 @@ public class Controller extends AbstractCyPhyComponent implements EmbeddingCompo
 
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if (name.equals("consumption")) {
-			return new Double(this.cptout.getAllConso());
-		} else if (name.equals("productionEG")) {
-			return new Double(this.groupeout.getEnergy());
-		} else if (name.equals("productionWT")) {
-			return new Double(this.eoout.getEnergy());
-		} else if (name.equals("stateEG")) {
-			return this.groupeout.isOn()?EngineGeneratorState.ON : EngineGeneratorState.OFF;
-		} else if(name.equals("stateFridge")){
-			boolean on  = this.refriout.isOn();
-			boolean isWorking = this.refriout.isWorking();
-			if(on && isWorking) {
-				return FridgeConsumption.RESUMED;
-			}
-			else {
-				return FridgeConsumption.SUSPENDED;
-			}
-		}else {
-			assert name.equals("stateWM");
-			boolean on  = this.laveout.isOn();
-			boolean isWorking = this.laveout.isWorking();
-			if(on && isWorking) {
-				return WashingMachineState.WORKING;
-			}
-			else {
-				if(on) {
-					return WashingMachineState.ON;
-				}else {
-					return WashingMachineState.OFF;
-				}
-			}
-		}
+		return this.stateTable.getValue(name);
 	}
 
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		if (name.equals("startEngine")) {
-			this.groupeout.on();
-		} else if (name.equals("stopEngine")) {
-			this.groupeout.off();
-		} else if (name.equals("suspendFridge")) {
-			this.refriout.suspend();
-		} else if (name.equals("resumeFridge")) {
-			this.refriout.resume();
-		} 
-		else if (name.equals("startWM")) {
-			this.laveout.On(); 
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the controller used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<ControllerStateKey> createStateTable() {
+		StateTable<ControllerStateKey> ret = new StateTable<>(ControllerStateKey.class);
+		ret.putValue(ControllerStateKey.SNAPSHOT, this::takeSnapshot, null);
+		ret.putValue(ControllerStateKey.CONTROL_LOOP_METRICS, () -> this.controlLoopMetrics, null);
+		ret.putDouble(ControllerStateKey.SIMULATED_TIME, () -> this.simulatedTime, v -> this.simulatedTime = v);
+		ret.putDouble(ControllerStateKey.CONSUMPTION,
+				() -> this.consumptionPushed ? this.allCons : this.cptout.getAllConso(), null);
+		ret.putDouble(ControllerStateKey.PRODUCTION_EG, () -> this.groupeout.readStatus().getProduction(), null);
+		ret.putDouble(ControllerStateKey.PRODUCTION_WT, () -> this.eoout.readStatus().getProduction(), null);
+		ret.putValue(ControllerStateKey.STATE_EG, () -> Controller.engineGeneratorState(this.groupeout.readStatus()),
+				null);
+		ret.putValue(ControllerStateKey.STATE_FRIDGE, () -> Controller.fridgeState(this.refriout.readStatus()), null);
+		ret.putValue(ControllerStateKey.STATE_WM, () -> Controller.washingMachineState(this.laveout.readStatus()),
+				null);
+		ret.putCommand(ControllerStateKey.START_ENGINE, () -> this.groupeout.on());
+		ret.putCommand(ControllerStateKey.STOP_ENGINE, () -> this.groupeout.off());
+		ret.putCommand(ControllerStateKey.SUSPEND_FRIDGE, () -> this.refriout.suspend());
+		ret.putCommand(ControllerStateKey.RESUME_FRIDGE, () -> this.refriout.resume());
+		ret.putCommand(ControllerStateKey.START_WM, () -> this.laveout.On());
+		ret.putCommand(ControllerStateKey.STOP_WM, () -> this.laveout.Off());
+		ret.putValue(ControllerStateKey.SCHEDULE_WM, null, v -> {
+			double[] observation = (double[]) v;
+			this.scheduleWashingMachine(observation[0], observation[1], observation[2]);
+		});
+		ret.putValue(ControllerStateKey.COMMAND_BATCH, null, v -> this.executeCommandBatch((CommandBatch) v));
+		// alert of the electric meter received by the controller model
+		ret.putValue(ControllerStateKey.ANOMALY, null, v -> this.logMessage("anomaly: " + (AnomalyEvent.Alert) v));
+		return ret;
+	}
+
+	/**
+	 * receive the overall consumption pushed by the electric meter; it is
+	 * within the deadband of the subscription from the current consumption.
+	 * 
+	 * @param consumption
+	 *            the overall consumption (in Watt).
+	 */
+	public void consumptionChanged(double consumption) {
+		this.allCons = consumption;
+		this.consumptionPushed = true;
+	}
+
+	/**
+	 * receive the price of one more kWh pushed by the electric meter when
+	 * the period of the time-of-use tariff changes; it is carried by the
+	 * next snapshots so that the decisions can weigh the cost of the energy.
+	 * 
+	 * @param price
+	 *            the price per kWh.
+	 */
+	public void priceChanged(double price) {
+		this.marginalPrice = price;
+	}
+
+	/**
+	 * receive the notification that the state of a device changed, dropping
+	 * the states of the device cached by the controller.
+	 * 
+	 * @param deviceInboundPortURI
+	 *            URI of the inbound port of the device.
+	 */
+	public void stateChanged(String deviceInboundPortURI) {
+		ReadThroughCache cache = this.readCaches.get(deviceInboundPortURI);
+		if (cache != null) {
+			cache.invalidate();
+		}
+	}
+
+	/**
+	 * read the consumption, the productions, the states and the draws of the controlled
+	 * devices, issuing all the remote calls at once; the returned future
+	 * completes when all of them have answered. Once the electric meter has
+	 * pushed the consumption, the pushed value is used instead of a call.
+	 * 
+	 * @return a future giving the new snapshot of the household.
+	 */
+	public CompletableFuture<HouseholdSnapshot> takeSnapshotAsync() {
+		CompletableFuture<Double> consumption = this.consumptionPushed
+				? CompletableFuture.completedFuture(this.allCons)
+				: this.cptout.getAllConsoAsync();
+		// one request per device, reading all the fields it needs at once
+		CompletableFuture<EngineGeneratorStatus> eg = this.groupeout.readStatusAsync();
+		CompletableFuture<WindTurbineStatus> wt = this.eoout.readStatusAsync();
+		CompletableFuture<FridgeStatus> fridge = this.refriout.readStatusAsync();
+		CompletableFuture<WashingMachineStatus> wm = this.laveout.readStatusAsync();
+
+		return CompletableFuture.allOf(consumption, eg, wt, fridge, wm).thenApply(v -> {
+			return new HouseholdSnapshot(this.snapshotVersion.incrementAndGet(), consumption.join(),
+					this.marginalPrice, eg.join().getProduction(), wt.join().getProduction(),
+					Controller.engineGeneratorState(eg.join()), Controller.fridgeState(fridge.join()),
+					Controller.washingMachineState(wm.join()), fridge.join().getConsumption(),
+					wm.join().getConsumption());
+		});
+	}
+
+	/**
+	 * @param status	status read from the engine generator.
+	 * @return			the state of the engine generator.
+	 */
+	protected static EngineGeneratorState engineGeneratorState(EngineGeneratorStatus status) {
+		return status.isOn() ? EngineGeneratorState.ON : EngineGeneratorState.OFF;
+	}
+
+	/**
+	 * @param status	status read from the fridge.
+	 * @return			the state of the fridge, resumed when it is on and working.
+	 */
+	protected static FridgeConsumption fridgeState(FridgeStatus status) {
+		return status.isOn() && status.isWorking() ? FridgeConsumption.RESUMED : FridgeConsumption.SUSPENDED;
+	}
+
+	/**
+	 * @param status	status read from the washing machine.
+	 * @return			the state of the washing machine.
+	 */
+	protected static WashingMachineState washingMachineState(WashingMachineStatus status) {
+		return status.getState();
+	}
+
+	/**
+	 * read the consumption, the productions, the states and the draws of the controlled
+	 * devices in one parallel round and wait for the result.
+	 * 
+	 * @return a new snapshot of the household.
+	 * @throws Exception
+	 *             if one of the calls failed.
+	 */
+	public HouseholdSnapshot takeSnapshot() throws Exception {
+		return Controller.await(this.takeSnapshotAsync());
+	}
+
+	/**
+	 * wait for the future and return its result, rethrowing the exception
+	 * of the call when it failed.
+	 * 
+	 * @param f
+	 *            the future.
+	 * @return the result of the future.
+	 * @throws Exception
+	 *             the exception thrown by the call.
+	 */
+	protected static <T> T await(CompletableFuture<T> f) throws Exception {
+		try {
+			return f.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * record the observed wind production and base load and, at most once
+	 * every <code>ControllerSetting.SCHEDULING_PERIOD</code>, plan the
+	 * starting time of the washing machine over the scheduling horizon; the
+	 * plan is applied by delaying or advancing the washing machine within
+	 * the bounds it accepts. The starting time, the duration and the window
+	 * of the washing machine, in its own time units, are converted to seconds
+	 * of the horizon with <code>ControllerSetting.WASHING_MACHINE_TIME_UNIT</code>
+	 * and the chosen start is converted back. The washing machine never
+	 * starts before the current time of the day; when it cannot end within
+	 * its window any more, the day is left unchanged.
+	 * 
+	 * @param time
+	 *            current time, in seconds.
+	 * @param windProduction
+	 *            observed production of the wind turbine.
+	 * @param baseLoad
+	 *            observed consumption of the household.
+	 * @return the shift applied to the starting time of the washing machine,
+	 *         in its time units.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	public int scheduleWashingMachine(double time, double windProduction, double baseLoad) throws Exception {
+		this.forecaster.observe(time, windProduction, baseLoad);
+		if (time < this.nextScheduling) {
+			return 0;
+		}
+		WashingMachineStatus status = this.laveout.readStatus();
+		if (status.getState() == WashingMachineState.WORKING) {
+			return 0;
+		}
+		this.nextScheduling = time + ControllerSetting.SCHEDULING_PERIOD;
+
+		// times of the washing machine converted to seconds of the horizon
+		double unit = ControllerSetting.WASHING_MACHINE_TIME_UNIT;
+		int slot = ControllerSetting.SCHEDULING_SLOT;
+		double duration = status.getDurationWork() * unit;
+		double now = time % ControllerSetting.SCHEDULING_HORIZON;
+		double earliest = Math.max(now, WashingMachineSetting.START * unit);
+		double latest = WashingMachineSetting.END * unit - duration;
+		int earliestSlot = (int) Math.ceil(earliest / slot);
+		int latestSlot = (int) Math.floor(latest / slot);
+		if (earliestSlot > latestSlot) {
+			return 0;
+		}
+		double power = Math.max(status.getConsumption(), WashingMachineSetting.CONSO_ECO_MODE);
+
+		this.forecaster.forecastSurplus(this.forecastSurplus);
+		this.scheduleOptimizer.clear();
+		int wm = this.scheduleOptimizer.addDevice(Math.max(1, (int) Math.ceil(duration / slot)), power,
+				earliestSlot, latestSlot);
+		this.scheduleOptimizer.optimize(this.forecastSurplus);
+
+		// chosen start converted back to the time units of the washing machine
+		int start = (int) Math.round(this.scheduleOptimizer.getStartSlot(wm) * slot / unit);
+		int shift = start - status.getStartingTime();
+		if (shift > 0 && this.laveout.canDelay(shift)) {
+			this.laveout.late(shift);
+			return shift;
+		} else if (shift < 0 && this.laveout.canAdvance(-shift)) {
+			this.laveout.advance(-shift);
+			return shift;
+		}
+		return 0;
+	}
+
+	/**
+	 * return the latencies of the control loop, from the receipt of an event
+	 * by the controller model to the dispatch of the commands to the
+	 * devices.
+	 * 
+	 * @return the latencies of the control loop.
+	 */
+	public ControlLoopMetrics getControlLoopMetrics() {
+		return this.controlLoopMetrics;
+	}
+
+	/**
+	 * return the metrics of the calls made through the outbound ports, by
+	 * port URI.
+	 * 
+	 * @return the metrics of the outbound ports.
+	 */
+	public PortMetricsReporter getPortMetrics() {
+		return this.portMetrics;
+	}
+
+	/**
+	 * send every command of the batch at once and wait until all of them
+	 * have been accepted; the time each device takes to accept its command is
+	 * recorded in the control loop metrics.
+	 * 
+	 * @param batch
+	 *            the commands to send.
+	 * @return the number of commands sent.
+	 * @throws Exception
+	 *             if one of the commands failed.
+	 */
+	public int executeCommandBatch(CommandBatch batch) throws Exception {
+		CompletableFuture<Void> eg = null;
+		CompletableFuture<Void> fridge = null;
+		CompletableFuture<Void> wm = null;
+		long sent = System.nanoTime();
+		if (batch.getEngineGenerator() != null) {
+			eg = this.timeDispatch(batch.getEngineGenerator() == Decision.START_ENGINE ? this.groupeout.onAsync()
+					: this.groupeout.offAsync(), sent);
+		}
+		if (batch.getFridge() != null) {
+			fridge = this.timeDispatch(batch.getFridge() == Decision.SUSPEND_FRIDGE ? this.refriout.suspendAsync()
+					: this.refriout.resumeAsync(), sent);
 		}
-		else {
-			assert name.equals("stopWM");
-			this.laveout.Off();
+		if (batch.getWashingMachine() != null) {
+			wm = this.timeDispatch(batch.getWashingMachine() == Decision.START_WASHING ? this.laveout.OnAsync()
+					: this.laveout.OffAsync(), sent);
 		}
+		if (eg != null) {
+			Controller.await(eg);
+		}
+		if (fridge != null) {
+			Controller.await(fridge);
+		}
+		if (wm != null) {
+			Controller.await(wm);
+		}
+		return batch.size();
+	}
+
+	/**
+	 * record the wall-clock time elapsed between the sending of a command and
+	 * its acceptance by the device, i.e. its dispatch.
+	 * 
+	 * @param command
+	 *            the future of the command.
+	 * @param sent
+	 *            value of <code>System.nanoTime()</code> when the command was
+	 *            sent.
+	 * @return the future of the command.
+	 */
+	protected CompletableFuture<Void> timeDispatch(CompletableFuture<Void> command, long sent) {
+		command.whenComplete((v, t) -> this.controlLoopMetrics
+				.recordWallClock(ControlLoopMetrics.Hop.DISPATCH, System.nanoTime() - sent));
+		return command;
 	}
 
 	@Override
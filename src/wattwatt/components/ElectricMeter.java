@@ -18,16 +18,25 @@ import fr.sorbonne_u.devs_simulation.models.architectures.AbstractAtomicModelDes
 import fr.sorbonne_u.devs_simulation.models.architectures.CoupledModelDescriptor;
 import simulation.models.electricmeter.ElectricMeterModel;
 import simulation.plugins.ElectricMeterSimulatorPlugin;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
+import simulation.tools.electricmeter.EnergySummary;
 import wattwatt.interfaces.controller.IController;
 import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
 import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
 import wattwatt.interfaces.devices.uncontrollable.hairdryer.IHairDryer;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
 import wattwatt.interfaces.electricmeter.IElectricMeter;
 import wattwatt.ports.devices.schedulable.washingmachine.WashingMachineOutPort;
 import wattwatt.ports.devices.suspendable.fridge.FridgeOutPort;
 import wattwatt.ports.devices.uncontrollable.hairdryer.HairDryerOutPort;
 import wattwatt.ports.electricmeter.ElectricMeterInPort;
+import wattwatt.tools.URIS;
+import wattwatt.tools.electricmeter.ConsumptionPublisher;
+import wattwatt.tools.electricmeter.ConsumptionRegistry;
 import wattwatt.tools.electricmeter.ElectricMeterSetting;
+import wattwatt.tools.electricmeter.ElectricMeterStateKey;
+import wattwatt.tools.state.StateTable;
 
 //-----------------------------------------------------------------------------
 /**
@@ -55,7 +64,8 @@ import wattwatt.tools.electricmeter.ElectricMeterSetting;
 //The next annotation requires that the referenced interface is added to
 //the required interfaces of the component.
 @OfferedInterfaces(offered = IElectricMeter.class)
-@RequiredInterfaces(required = { IController.class, IFridge.class, IHairDryer.class, IWashingMachine.class })
+@RequiredInterfaces(required = { IController.class, IFridge.class, IHairDryer.class, IWashingMachine.class,
+		IConsumptionNotification.class })
 public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingComponentAccessI {
 
 	// -------------------------------------------------------------------------
@@ -75,15 +85,18 @@ public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingCo
 	/** the overall energy consumption */
 	protected double consomation;
 
-	/** the fridge energy consumption */
-	protected double fridgeConsumption;
-	/** the hair dryer energy consumption */
-	protected double hairDryerConsumption;
-	/** the washing machine energy consumption */
-	protected double washingMachineConsumption;
+	/** the energy consumption of every device, with the overall one kept
+	 *  incrementally; devices are registered on their first update */
+	protected final ConsumptionRegistry consumptions;
+
+	/** the subscriptions to the overall energy consumption and to the price
+	 *  of the tariff, pushed by a single thread keeping them in order */
+	protected ConsumptionPublisher publisher;
 
 	/** the simulation plug-in holding the simulation models. */
 	protected ElectricMeterSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<ElectricMeterStateKey> stateTable;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -99,6 +112,8 @@ public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingCo
 	 */
 	protected ElectricMeter(String uri, String compteurIn) throws Exception {
 		super(uri, 2, 1);
+		this.stateTable = this.createStateTable();
+		this.consumptions = new ConsumptionRegistry();
 		this.initialise();
 
 		this.cptin = new ElectricMeterInPort(compteurIn, this);
@@ -120,6 +135,8 @@ public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingCo
 	protected ElectricMeter(String uri, String compteurIn, String refriOut, String sechOut, String laveOut)
 			throws Exception {
 		super(uri, 2, 3);
+		this.stateTable = this.createStateTable();
+		this.consumptions = new ConsumptionRegistry();
 		this.initialise();
 		this.cptin = new ElectricMeterInPort(compteurIn, this);
 		this.cptin.publishPort();
@@ -148,6 +165,8 @@ public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingCo
 		// Install the plug-in on the component, starting its own life-cycle.
 		this.installPlugin(this.asp);
 
+		this.publisher = new ConsumptionPublisher(this,
+				this.createNewExecutorService(ElectricMeterSetting.NOTIFICATION_EXECUTOR_URI, 1, false));
 	}
 
 	// -------------------------------------------------------------------------
@@ -184,38 +203,40 @@ public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingCo
 
 	@Override
 	public void finalise() throws Exception {
+		this.publisher.unsubscribeAll();
 		super.finalise();
 	}
 
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if (name.equals("fridgeConsumption")) {
-			return new Double(this.fridgeConsumption);
-		} else if (name.equals("hairDryerConsumption")) {
-			return new Double(this.hairDryerConsumption);
-		} else if (name.equals("washingMachineConsumption")) {
-			return new Double(this.washingMachineConsumption);
-		} else if (name.equals("totalConsumption")) {
-			return new Double(this.giveConso());
-		} else if (name.equals("setFridgeConsumption")) {
-			this.fridgeConsumption = (double) this.asp.getModelStateValue(ElectricMeterModel.URI, "fridgeConsumption");
-			return null;
-		} else if (name.equals("setHairDryerConsumption")) {
-			this.hairDryerConsumption = (double) this.asp.getModelStateValue(ElectricMeterModel.URI,
-					"hairDryerConsumption");
-			return null;
-		} else if (name.equals("setWashingMachineConsumption")) {
-			this.washingMachineConsumption = (double) this.asp.getModelStateValue(ElectricMeterModel.URI,
-					"washingMachineConsumption");
-			return null;
-		} else {
-			return null;
-		}
+		return this.stateTable.getValue(name);
 	}
 
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		EmbeddingComponentAccessI.super.setEmbeddingComponentStateValue(name, value);
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the electric meter used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<ElectricMeterStateKey> createStateTable() {
+		StateTable<ElectricMeterStateKey> ret = new StateTable<>(ElectricMeterStateKey.class);
+		// the model updates the consumptions directly in the registry
+		ret.putValue(ElectricMeterStateKey.CONSUMPTION_REGISTRY, () -> this.consumptions, null);
+		ret.putDouble(ElectricMeterStateKey.FRIDGE_CONSUMPTION, () -> this.getConsumption(URIS.FRIDGE_URI), null);
+		ret.putDouble(ElectricMeterStateKey.HAIR_DRYER_CONSUMPTION, () -> this.getConsumption(URIS.HAIR_DRYER_URI),
+				null);
+		ret.putDouble(ElectricMeterStateKey.WASHING_MACHINE_CONSUMPTION,
+				() -> this.getConsumption(URIS.WASHING_MACHINE_URI), null);
+		ret.putDouble(ElectricMeterStateKey.TOTAL_CONSUMPTION, this::giveConso, null);
+		// the model has updated the registry
+		ret.putCommand(ElectricMeterStateKey.TOTAL_CONSUMPTION, this::consumptionChanged);
+		ret.putDouble(ElectricMeterStateKey.MARGINAL_PRICE, null, this::priceChanged);
+		return ret;
 	}
 
 	@Override
@@ -238,10 +259,131 @@ public class ElectricMeter extends AbstractCyPhyComponent implements EmbeddingCo
 	 * @throws Exception<i>todo.</i>
 	 */
 	public double giveConso() throws Exception {
-		this.consomation = this.fridgeConsumption + this.washingMachineConsumption + this.hairDryerConsumption;
+		this.consomation = this.consumptions.getTotal();
 		return consomation;
 	}
 
+	/**
+	 * Get the energy consumed since the start of the simulation and over the
+	 * last minute, hour and day, as integrated by the simulation model
+	 * 
+	 * @return the summary of the energy consumed
+	 * @throws Exception<i>todo.</i>
+	 */
+	public EnergySummary getEnergySummary() throws Exception {
+		return (EnergySummary) this.asp.getModelStateValue(ElectricMeterModel.URI, "energySummary");
+	}
+
+	/**
+	 * Get the peak and the 95th and 99th percentiles of the overall energy
+	 * consumption during the current day, as tracked by the simulation model
+	 * 
+	 * @return the statistics of the current day
+	 * @throws Exception<i>todo.</i>
+	 */
+	public DemandStatistics getDemandStatistics() throws Exception {
+		return (DemandStatistics) this.asp.getModelStateValue(ElectricMeterModel.URI, "demandStatistics");
+	}
+
+	/**
+	 * Get the sketch of the overall energy consumption during the current
+	 * day, which can be merged with the sketches of other households
+	 * 
+	 * @return a copy of the sketch of the current day
+	 * @throws Exception<i>todo.</i>
+	 */
+	public DemandSketch getDemandSketch() throws Exception {
+		return (DemandSketch) this.asp.getModelStateValue(ElectricMeterModel.URI, "demandSketch");
+	}
+
+	/**
+	 * Get the cost of the overall energy consumption since the start under
+	 * the time-of-use tariff, as integrated by the simulation model
+	 * 
+	 * @return the accrued cost
+	 * @throws Exception<i>todo.</i>
+	 */
+	public double getAccruedCost() throws Exception {
+		return (Double) this.asp.getModelStateValue(ElectricMeterModel.URI, "accruedCost");
+	}
+
+	/**
+	 * Get the current price of one more kWh under the time-of-use tariff
+	 * 
+	 * @return the price per kWh
+	 * @throws Exception<i>todo.</i>
+	 */
+	public double getMarginalPrice() throws Exception {
+		return (Double) this.asp.getModelStateValue(ElectricMeterModel.URI, "marginalPrice");
+	}
+
+	/**
+	 * Set the energy consumption of a device, registering it on its first
+	 * update
+	 * 
+	 * @param device URI of the device.
+	 * @param power  energy consumption of the device (in Watt).
+	 */
+	public void setConsumption(String device, double power) {
+		this.consumptions.update(device, power);
+		this.consumptionChanged();
+	}
+
+	/**
+	 * Subscribe a component to the overall energy consumption: an outbound
+	 * port is connected to its inbound port and the consumption is pushed at
+	 * once, then each time it moves by more than the deadband; the price of
+	 * the tariff is pushed at once when known, then each time it changes; a
+	 * previous subscription of the same inbound port is replaced
+	 * 
+	 * @param notificationInboundPortURI URI of the inbound port of the subscriber.
+	 * @param deadband                   change of the consumption (in Watt) under which nothing is pushed.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception {
+		this.publisher.subscribe(notificationInboundPortURI, deadband, this.consumptions.getTotal());
+	}
+
+	/**
+	 * Cancel the subscription of a component to the overall energy consumption
+	 * 
+	 * @param notificationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		this.publisher.unsubscribe(notificationInboundPortURI);
+	}
+
+	/**
+	 * Offer the overall energy consumption to every subscription after a
+	 * change of the consumption of a device
+	 */
+	public void consumptionChanged() {
+		if (this.publisher.getNbSubscribers() > 0) {
+			this.publisher.consumptionChanged(this.consumptions.getTotal());
+		}
+	}
+
+	/**
+	 * Push the new price of the tariff to every subscriber
+	 * 
+	 * @param price the price per kWh.
+	 */
+	public void priceChanged(double price) {
+		this.publisher.priceChanged(price);
+	}
+
+	/**
+	 * Get the energy consumption of a device
+	 * 
+	 * @param device URI of the device.
+	 * @return the energy consumption of the device, 0 if it is unknown
+	 */
+	public double getConsumption(String device) {
+		int slot = this.consumptions.slotOf(device);
+		return slot < 0 ? 0.0 : this.consumptions.get(slot);
+	}
+
 	/**
 	 * Update the overall energy consumption randomly
 	 * 
@@ -0,0 +1,321 @@
+package wattwatt.components;
+
+import java.util.Arrays;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.annotations.OfferedInterfaces;
+import fr.sorbonne_u.components.annotations.RequiredInterfaces;
+import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
+import simulation.tools.electricmeter.DemandTracker;
+import wattwatt.connectors.ElectricMeterConnector;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
+import wattwatt.interfaces.electricmeter.IElectricMeter;
+import wattwatt.ports.aggregator.ChildNotificationInPort;
+import wattwatt.ports.aggregator.MeterAggregatorInPort;
+import wattwatt.ports.electricmeter.ElectricMeterOutPort;
+import wattwatt.tools.aggregator.AggregatorSetting;
+import wattwatt.tools.electricmeter.ConsumptionPublisher;
+import wattwatt.tools.electricmeter.ConsumptionRegistry;
+
+//-----------------------------------------------------------------------------
+/**
+ * The class <code>MeterAggregator</code>
+ *
+ * <p>
+ * <strong>Description</strong>
+ * </p>
+ *
+ * This class implements a component rolling up the consumption of several
+ * meters, e.g. the households of a feeder or the feeders of a neighbourhood.
+ * It offers the same interface as the electric meter, so its children are
+ * either electric meters or other aggregators, and aggregators build a tree
+ * of any depth.
+ *
+ * <p>
+ * The aggregator subscribes to each child with a deadband: a child pushes
+ * its consumption only when it moved by more than the deadband, and the
+ * aggregator keeps the consumption of each child in a registry holding
+ * their sum incrementally. The sum is then pushed to the subscribers of the
+ * aggregator when it moved by more than their own deadband, so only the
+ * significant changes go up the tree and no component ever polls thousands
+ * of meters. The statistics of the demand are tracked on this sum, so the
+ * peak is the one of the aggregated load and not the largest peak of a
+ * child, and the cost is the sum of the costs of the children.
+ * </p>
+ *
+ * <p>
+ * Created on : 2020-01-27
+ * </p>
+ *
+ * @author
+ *         <p>
+ *         Bah Thierno, Zheng Pascal
+ *         </p>
+ */
+@OfferedInterfaces(offered = { IElectricMeter.class, IConsumptionNotification.class })
+@RequiredInterfaces(required = { IElectricMeter.class, IConsumptionNotification.class })
+public class MeterAggregator extends AbstractComponent {
+
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** the inbound port offering the aggregated consumption. */
+	protected MeterAggregatorInPort aggregatorin;
+
+	/** URIs of the inbound ports of the children. */
+	protected final String[] childrenURIs;
+	/** the outbound ports used to call the children, by index of child. */
+	protected final ElectricMeterOutPort[] childrenout;
+	/** the inbound ports receiving the consumption pushed by the children. */
+	protected final ChildNotificationInPort[] childrenin;
+	/** change of the consumption of a child under which it does not push it. */
+	protected final double childDeadband;
+
+	/** the consumption of each child, by index of child, and their sum. */
+	protected final ConsumptionRegistry consumptions;
+	/** the price of the tariff pushed by each child, NaN until then. */
+	protected final double[] prices;
+	/** distribution of the aggregated consumption, in wall-clock time. */
+	protected final DemandTracker demand;
+
+	/** the subscriptions to the aggregated consumption. */
+	protected ConsumptionPublisher publisher;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Create a meter aggregator.
+	 *
+	 *
+	 * @param uri           URI of the component.
+	 * @param aggregatorIn  inbound port URI of the aggregator.
+	 * @param childrenIn    inbound port URIs of the children, electric meters or aggregators.
+	 * @param childDeadband change of the consumption (in Watt) of a child under which it does not push it.
+	 * @throws Exception    <i>todo.</i>
+	 */
+	protected MeterAggregator(String uri, String aggregatorIn, String[] childrenIn, double childDeadband)
+			throws Exception {
+		super(uri, 2, 0);
+		assert childrenIn != null && childrenIn.length > 0;
+		assert childDeadband >= 0;
+
+		this.childrenURIs = childrenIn.clone();
+		this.childDeadband = childDeadband;
+		this.consumptions = new ConsumptionRegistry();
+		this.prices = new double[childrenIn.length];
+		Arrays.fill(this.prices, Double.NaN);
+		this.demand = new DemandTracker(AggregatorSetting.DEMAND_DAY_LENGTH);
+		this.demand.start(MeterAggregator.now(), 0.0);
+		this.publisher = new ConsumptionPublisher(this,
+				this.createNewExecutorService(AggregatorSetting.NOTIFICATION_EXECUTOR_URI, 1, false));
+
+		this.aggregatorin = new MeterAggregatorInPort(aggregatorIn, this);
+		this.aggregatorin.publishPort();
+
+		this.childrenout = new ElectricMeterOutPort[childrenIn.length];
+		this.childrenin = new ChildNotificationInPort[childrenIn.length];
+		int childExecutorIndex = this.createNewExecutorService(AggregatorSetting.CHILD_EXECUTOR_URI, 1, false);
+		for (int i = 0; i < childrenIn.length; i++) {
+			// the slot of each child in the registry is its index
+			int slot = this.consumptions.register(childrenIn[i]);
+			assert slot == i : "the children must be distinct";
+			this.childrenout[i] = new ElectricMeterOutPort(aggregatorIn + "-out-" + i, this);
+			this.childrenout[i].publishPort();
+			this.childrenin[i] = new ChildNotificationInPort(aggregatorIn + "-notification-" + i, this, i,
+					childExecutorIndex);
+			this.childrenin[i].publishPort();
+		}
+		this.tracer.setRelativePosition(0, 1);
+	}
+
+	/**
+	 * Create a meter aggregator with the default deadband of the children.
+	 *
+	 *
+	 * @param uri          URI of the component.
+	 * @param aggregatorIn inbound port URI of the aggregator.
+	 * @param childrenIn   inbound port URIs of the children, electric meters or aggregators.
+	 * @throws Exception   <i>todo.</i>
+	 */
+	protected MeterAggregator(String uri, String aggregatorIn, String[] childrenIn) throws Exception {
+		this(uri, aggregatorIn, childrenIn, AggregatorSetting.DEFAULT_CHILD_DEADBAND);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	@Override
+	public void execute() throws Exception {
+		super.execute();
+		// the children are connected here rather than in the CVM, since the
+		// aggregator knows them by the URIs of their inbound ports
+		for (int i = 0; i < this.childrenURIs.length; i++) {
+			this.doPortConnection(this.childrenout[i].getPortURI(), this.childrenURIs[i],
+					ElectricMeterConnector.class.getCanonicalName());
+			this.childrenout[i].subscribe(this.childrenin[i].getPortURI(), this.childDeadband);
+		}
+	}
+
+	@Override
+	public void finalise() throws Exception {
+		this.publisher.unsubscribeAll();
+		for (int i = 0; i < this.childrenURIs.length; i++) {
+			if (this.childrenout[i].connected()) {
+				try {
+					this.childrenout[i].unsubscribe(this.childrenin[i].getPortURI());
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+				this.doPortDisconnection(this.childrenout[i].getPortURI());
+			}
+		}
+		super.finalise();
+	}
+
+	@Override
+	public void shutdown() throws ComponentShutdownException {
+		try {
+			this.aggregatorin.unpublishPort();
+			for (int i = 0; i < this.childrenURIs.length; i++) {
+				this.childrenout[i].unpublishPort();
+				this.childrenin[i].unpublishPort();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+		super.shutdown();
+	}
+
+	/**
+	 * Get the aggregated consumption, kept incrementally
+	 *
+	 * @return the sum of the consumptions pushed by the children
+	 */
+	public double getConsumption() {
+		return this.consumptions.getTotal();
+	}
+
+	/**
+	 * Receive the consumption pushed by a child and push the new sum to the
+	 * subscribers whose deadband it exceeds
+	 *
+	 * @param child       index of the child.
+	 * @param consumption consumption of the child (in Watt).
+	 */
+	public void childConsumptionChanged(int child, double consumption) {
+		this.consumptions.update(child, consumption);
+		this.demand.update(this.consumptions.getTotal(), MeterAggregator.now());
+		if (this.publisher.getNbSubscribers() > 0) {
+			this.publisher.consumptionChanged(this.consumptions.getTotal());
+		}
+	}
+
+	/**
+	 * Receive the price pushed by a child and push the new mean price to the
+	 * subscribers when it changed
+	 *
+	 * @param child index of the child.
+	 * @param price price per kWh of the child.
+	 */
+	public void childPriceChanged(int child, double price) {
+		double mean;
+		synchronized (this.prices) {
+			double old = this.getMarginalPrice();
+			this.prices[child] = price;
+			mean = this.getMarginalPrice();
+			if (mean == old) {
+				return;
+			}
+		}
+		this.publisher.priceChanged(mean);
+	}
+
+	/**
+	 * Get the mean of the prices pushed by the children
+	 *
+	 * @return the price per kWh, NaN if no child pushed one
+	 */
+	public double getMarginalPrice() {
+		synchronized (this.prices) {
+			double sum = 0.0;
+			int n = 0;
+			for (double p : this.prices) {
+				if (!Double.isNaN(p)) {
+					sum += p;
+					n++;
+				}
+			}
+			return n == 0 ? Double.NaN : sum / n;
+		}
+	}
+
+	/**
+	 * Get the current wall-clock time
+	 *
+	 * @return the time in seconds
+	 */
+	protected static double now() {
+		return System.nanoTime() / 1e9;
+	}
+
+	/**
+	 * Get the sketch of the aggregated consumption of the current day
+	 *
+	 * @return a copy of the sketch
+	 */
+	public DemandSketch getDemandSketch() {
+		return this.demand.getSketch(MeterAggregator.now());
+	}
+
+	/**
+	 * Get the peak and percentiles of the aggregated consumption of the
+	 * current day, the days being in wall-clock time
+	 *
+	 * @return the statistics of the current day
+	 */
+	public DemandStatistics getDemandStatistics() {
+		return this.demand.summarise(MeterAggregator.now());
+	}
+
+	/**
+	 * Get the cost of the consumption since the start, summed over the
+	 * children
+	 *
+	 * @return the accrued cost
+	 * @throws Exception<i>todo.</i>
+	 */
+	public double getAccruedCost() throws Exception {
+		double ret = 0.0;
+		for (ElectricMeterOutPort child : this.childrenout) {
+			ret += child.getAccruedCost();
+		}
+		return ret;
+	}
+
+	/**
+	 * Subscribe a component to the aggregated consumption
+	 *
+	 * @param notificationInboundPortURI URI of the inbound port of the subscriber.
+	 * @param deadband                   change of the consumption (in Watt) under which nothing is pushed.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception {
+		this.publisher.subscribe(notificationInboundPortURI, deadband, this.consumptions.getTotal());
+	}
+
+	/**
+	 * Cancel the subscription of a component to the aggregated consumption
+	 *
+	 * @param notificationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		this.publisher.unsubscribe(notificationInboundPortURI);
+	}
+}
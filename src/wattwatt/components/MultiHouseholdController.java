@@ -0,0 +1,454 @@
+package wattwatt.components;
+
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.annotations.RequiredInterfaces;
+import fr.sorbonne_u.components.exceptions.ComponentShutdownException;
+import fr.sorbonne_u.components.exceptions.ComponentStartException;
+import wattwatt.connectors.ElectricMeterConnector;
+import wattwatt.connectors.devices.schedulable.washingmachine.WashingMachineConnector;
+import wattwatt.connectors.devices.suspendables.fridge.FridgeConnector;
+import wattwatt.connectors.energyproviders.occasional.enginegenerator.EngineGeneratorConnector;
+import wattwatt.connectors.energyproviders.random.windturbine.WindTurbineConnector;
+import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
+import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
+import wattwatt.interfaces.electricmeter.IElectricMeter;
+import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
+import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
+import wattwatt.ports.devices.schedulable.washingmachine.WashingMachineOutPort;
+import wattwatt.ports.devices.suspendable.fridge.FridgeOutPort;
+import wattwatt.ports.electricmeter.ElectricMeterOutPort;
+import wattwatt.ports.energyproviders.occasional.enginegenerator.EngineGeneratorOutPort;
+import wattwatt.ports.energyproviders.random.windturbine.WindTurbineOutPort;
+import wattwatt.tools.URIS;
+import wattwatt.tools.controller.ControllerSetting;
+import wattwatt.tools.controller.ControllerShard;
+
+//-----------------------------------------------------------------------------
+/**
+ * The class <code>MultiHouseholdController</code>
+ *
+ * <p>
+ * <strong>Description</strong>
+ * </p>
+ * 
+ * This class implements a controller managing a dynamic set of households,
+ * each one with its electric meter, fridge, washing machine, engine generator
+ * and wind turbine. The households are partitioned by the hash of their URI
+ * across a fixed number of shards; each shard has its own single-threaded
+ * executor service, which is the only one touching the households of the
+ * shard and their decision state. The shards never lock nor share mutable
+ * state, so a control round over all the households scales with the number
+ * of shards up to the number of cores.
+ * 
+ * <p>
+ * The ports of the households given at the creation are published by the
+ * constructor and connected at the start; the ports of the households added
+ * or removed later are handled by the single thread of the default executor
+ * service, so that no two threads publish or connect ports at the same time.
+ * A control round is run periodically once the component executes.
+ * </p>
+ * 
+ * <p>
+ * Created on : 2020-01-27
+ * </p>
+ * 
+ * @author
+ *         <p>
+ * 		Bah Thierno, Zheng Pascal
+ *         </p>
+ */
+@RequiredInterfaces(required = { IElectricMeter.class, IFridge.class, IWindTurbine.class, IWashingMachine.class,
+		IEngineGenerator.class })
+public class MultiHouseholdController extends AbstractComponent {
+	// -------------------------------------------------------------------------
+	// Constants and variables
+	// -------------------------------------------------------------------------
+
+	/** the shards, each one only used by its own executor service. */
+	protected final ControllerShard[] shards;
+	/** index of the executor service of each shard. */
+	protected final int[] shardExecutorIndexes;
+	/** URIs of the households given at the creation and of their devices. */
+	protected final String[][] initialHouseholds;
+	/** households given at the creation, connected at the start. */
+	protected final ControllerShard.Household[] initialPorts;
+	/** households removed from the shards at the finalisation. */
+	protected final ArrayList<ControllerShard.Household> finalised;
+
+	// -------------------------------------------------------------------------
+	// Constructors
+	// -------------------------------------------------------------------------
+
+	/**
+	 * create a multi-household controller with one shard per available core.
+	 * 
+	 * @param uri
+	 *            URI of the component.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	protected MultiHouseholdController(String uri) throws Exception {
+		this(uri, ControllerSetting.DEFAULT_NB_SHARDS, new String[0][]);
+	}
+
+	/**
+	 * create a multi-household controller with one shard per available core,
+	 * managing the given households. This constructor is used in the CVM.
+	 * 
+	 * @param uri
+	 *            URI of the component.
+	 * @param households
+	 *            URIs of each household, then of the inbound ports of its
+	 *            electric meter, fridge, washing machine, engine generator
+	 *            and wind turbine.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	protected MultiHouseholdController(String uri, String[][] households) throws Exception {
+		this(uri, ControllerSetting.DEFAULT_NB_SHARDS, households);
+	}
+
+	/**
+	 * create a multi-household controller.
+	 * 
+	 * @param uri
+	 *            URI of the component.
+	 * @param nbShards
+	 *            number of shards, i.e. of worker threads.
+	 * @param households
+	 *            URIs of each household, then of the inbound ports of its
+	 *            electric meter, fridge, washing machine, engine generator
+	 *            and wind turbine.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	protected MultiHouseholdController(String uri, int nbShards, String[][] households) throws Exception {
+		super(uri, 1, 1);
+		assert nbShards > 0;
+		assert households != null;
+
+		this.shards = new ControllerShard[nbShards];
+		this.shardExecutorIndexes = new int[nbShards];
+		for (int i = 0; i < nbShards; i++) {
+			this.shards[i] = new ControllerShard(i);
+			this.shardExecutorIndexes[i] = this.createNewExecutorService(ControllerSetting.SHARD_EXECUTOR_URI + i, 1,
+					false);
+		}
+
+		// the shards are filled before their executor services run any task
+		this.initialHouseholds = households.clone();
+		this.initialPorts = new ControllerShard.Household[households.length];
+		for (int i = 0; i < households.length; i++) {
+			assert households[i].length == 6;
+			this.initialPorts[i] = this.createHousehold(households[i][0]);
+			this.shards[this.shardOf(households[i][0])].add(this.initialPorts[i]);
+		}
+		this.finalised = new ArrayList<>();
+
+		this.tracer.setRelativePosition(0, 0);
+	}
+
+	// -------------------------------------------------------------------------
+	// Methods
+	// -------------------------------------------------------------------------
+
+	@Override
+	public void start() throws ComponentStartException {
+		super.start();
+		try {
+			for (int i = 0; i < this.initialPorts.length; i++) {
+				String[] uris = this.initialHouseholds[i];
+				this.connectHousehold(this.initialPorts[i], uris[1], uris[2], uris[3], uris[4], uris[5]);
+			}
+		} catch (Exception e) {
+			throw new ComponentStartException(e);
+		}
+	}
+
+	@Override
+	public void execute() throws Exception {
+		super.execute();
+		if (ControllerSetting.MULTI_HOUSEHOLD_CONTROL_PERIOD > 0) {
+			this.scheduleControlRound();
+		}
+	}
+
+	/**
+	 * schedule the next control round over all the households, which
+	 * schedules the following one.
+	 */
+	protected void scheduleControlRound() {
+		this.scheduleTask(new AbstractComponent.AbstractTask() {
+			@Override
+			public void run() {
+				MultiHouseholdController c = (MultiHouseholdController) this.getTaskOwner();
+				try {
+					int sent = c.controlAllHouseholds();
+					c.logMessage("control round over " + c.getNumberOfHouseholds() + " households: " + sent
+							+ " commands");
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+				c.scheduleControlRound();
+			}
+		}, ControllerSetting.MULTI_HOUSEHOLD_CONTROL_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void finalise() throws Exception {
+		for (int i = 0; i < this.shards.length; i++) {
+			final ControllerShard shard = this.shards[i];
+			this.finalised.addAll(
+					this.handleRequestSync(this.shardExecutorIndexes[i],
+							new AbstractComponent.AbstractService<ArrayList<ControllerShard.Household>>() {
+								@Override
+								public ArrayList<ControllerShard.Household> call() throws Exception {
+									return shard.clear();
+								}
+							}));
+		}
+		for (ControllerShard.Household h : this.finalised) {
+			this.disconnectHousehold(h);
+		}
+		super.finalise();
+	}
+
+	@Override
+	public void shutdown() throws ComponentShutdownException {
+		try {
+			for (ControllerShard.Household h : this.finalised) {
+				h.unpublishPorts();
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+
+		super.shutdown();
+	}
+
+	/**
+	 * create and publish the outbound ports of a household.
+	 * 
+	 * @param householdURI
+	 *            URI of the household.
+	 * @return the household, not yet connected.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	protected ControllerShard.Household createHousehold(String householdURI) throws Exception {
+		String prefix = householdURI + ":";
+
+		ElectricMeterOutPort meter = new ElectricMeterOutPort(prefix + URIS.ELECTRIC_METER_OUT_URI, this);
+		meter.publishPort();
+		FridgeOutPort fridge = new FridgeOutPort(prefix + URIS.FRIDGE_OUT_URI, this);
+		fridge.publishPort();
+		WashingMachineOutPort washingMachine = new WashingMachineOutPort(prefix + URIS.WASHING_MACHINE_OUT_URI, this);
+		washingMachine.publishPort();
+		EngineGeneratorOutPort engineGenerator = new EngineGeneratorOutPort(prefix + URIS.ENGINE_GENERATOR_OUT_URI,
+				this);
+		engineGenerator.publishPort();
+		WindTurbineOutPort windTurbine = new WindTurbineOutPort(prefix + URIS.WIND_TURBINE_OUT_URI, this);
+		windTurbine.publishPort();
+
+		return new ControllerShard.Household(householdURI, meter, fridge, washingMachine, engineGenerator,
+				windTurbine);
+	}
+
+	/**
+	 * connect the outbound ports of a household to its devices.
+	 * 
+	 * @param h
+	 *            the household.
+	 * @param meterIn
+	 *            inbound port URI of the electric meter of the household.
+	 * @param fridgeIn
+	 *            inbound port URI of the fridge of the household.
+	 * @param washingMachineIn
+	 *            inbound port URI of the washing machine of the household.
+	 * @param engineGeneratorIn
+	 *            inbound port URI of the engine generator of the household.
+	 * @param windTurbineIn
+	 *            inbound port URI of the wind turbine of the household.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	protected void connectHousehold(ControllerShard.Household h, String meterIn, String fridgeIn,
+			String washingMachineIn, String engineGeneratorIn, String windTurbineIn) throws Exception {
+		this.doPortConnection(h.meter.getPortURI(), meterIn, ElectricMeterConnector.class.getCanonicalName());
+		this.doPortConnection(h.fridge.getPortURI(), fridgeIn, FridgeConnector.class.getCanonicalName());
+		this.doPortConnection(h.washingMachine.getPortURI(), washingMachineIn,
+				WashingMachineConnector.class.getCanonicalName());
+		this.doPortConnection(h.engineGenerator.getPortURI(), engineGeneratorIn,
+				EngineGeneratorConnector.class.getCanonicalName());
+		this.doPortConnection(h.windTurbine.getPortURI(), windTurbineIn,
+				WindTurbineConnector.class.getCanonicalName());
+	}
+
+	/**
+	 * disconnect the outbound ports of a household from its devices.
+	 * 
+	 * @param h
+	 *            the household.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	protected void disconnectHousehold(ControllerShard.Household h) throws Exception {
+		this.doPortDisconnection(h.meter.getPortURI());
+		this.doPortDisconnection(h.fridge.getPortURI());
+		this.doPortDisconnection(h.washingMachine.getPortURI());
+		this.doPortDisconnection(h.engineGenerator.getPortURI());
+		this.doPortDisconnection(h.windTurbine.getPortURI());
+	}
+
+	/**
+	 * return the shard of a household.
+	 * 
+	 * @param householdURI
+	 *            URI of the household.
+	 * @return the index of the shard managing the household.
+	 */
+	public int shardOf(String householdURI) {
+		return Math.floorMod(householdURI.hashCode(), this.shards.length);
+	}
+
+	public int getNumberOfShards() {
+		return this.shards.length;
+	}
+
+	/**
+	 * return the number of managed households; the count is exact once the
+	 * pending additions and removals are done.
+	 * 
+	 * @return the number of managed households.
+	 */
+	public int getNumberOfHouseholds() {
+		int n = 0;
+		for (ControllerShard s : this.shards) {
+			n += s.size();
+		}
+		return n;
+	}
+
+	/**
+	 * add a household, creating and connecting its outbound ports in the
+	 * default executor service, then adding it in the executor service of its
+	 * shard.
+	 * 
+	 * @param householdURI
+	 *            URI of the household, unique among the managed households.
+	 * @param meterIn
+	 *            inbound port URI of the electric meter of the household.
+	 * @param fridgeIn
+	 *            inbound port URI of the fridge of the household.
+	 * @param washingMachineIn
+	 *            inbound port URI of the washing machine of the household.
+	 * @param engineGeneratorIn
+	 *            inbound port URI of the engine generator of the household.
+	 * @param windTurbineIn
+	 *            inbound port URI of the wind turbine of the household.
+	 * @return a future completed when the household is added.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	public Future<Void> addHousehold(String householdURI, String meterIn, String fridgeIn, String washingMachineIn,
+			String engineGeneratorIn, String windTurbineIn) throws Exception {
+		final int s = this.shardOf(householdURI);
+		final ControllerShard shard = this.shards[s];
+		return this.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+			@Override
+			public Void call() throws Exception {
+				MultiHouseholdController c = MultiHouseholdController.this;
+				final ControllerShard.Household h = c.createHousehold(householdURI);
+				c.connectHousehold(h, meterIn, fridgeIn, washingMachineIn, engineGeneratorIn, windTurbineIn);
+				c.handleRequestSync(c.shardExecutorIndexes[s], new AbstractComponent.AbstractService<Void>() {
+					@Override
+					public Void call() throws Exception {
+						shard.add(h);
+						return null;
+					}
+				});
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * remove a household from the executor service of its shard, then
+	 * disconnect and unpublish its outbound ports in the default executor
+	 * service.
+	 * 
+	 * @param householdURI
+	 *            URI of the household.
+	 * @return a future giving true if the household was managed.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	public Future<Boolean> removeHousehold(String householdURI) throws Exception {
+		final int s = this.shardOf(householdURI);
+		final ControllerShard shard = this.shards[s];
+		return this.handleRequestAsync(new AbstractComponent.AbstractService<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				MultiHouseholdController c = MultiHouseholdController.this;
+				ControllerShard.Household h = c.handleRequestSync(c.shardExecutorIndexes[s],
+						new AbstractComponent.AbstractService<ControllerShard.Household>() {
+							@Override
+							public ControllerShard.Household call() throws Exception {
+								return shard.remove(householdURI);
+							}
+						});
+				if (h == null) {
+					return false;
+				}
+				c.disconnectHousehold(h);
+				h.unpublishPorts();
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * run one control round over every household, all the shards working in
+	 * parallel, and wait for its end.
+	 * 
+	 * @return the number of commands sent to the devices.
+	 * @throws Exception
+	 *             <i>todo.</i>
+	 */
+	public int controlAllHouseholds() throws Exception {
+		ArrayList<Future<Integer>> rounds = new ArrayList<>(this.shards.length);
+		for (int i = 0; i < this.shards.length; i++) {
+			final ControllerShard shard = this.shards[i];
+			rounds.add(this.handleRequestAsync(this.shardExecutorIndexes[i],
+					new AbstractComponent.AbstractService<Integer>() {
+						@Override
+						public Integer call() throws Exception {
+							return shard.controlRound();
+						}
+					}));
+		}
+		int sent = 0;
+		for (Future<Integer> r : rounds) {
+			sent += r.get();
+		}
+		return sent;
+	}
+
+	/**
+	 * return the number of commands sent to the devices since the creation
+	 * of the controller.
+	 * 
+	 * @return the number of commands sent.
+	 */
+	public long getCommandsSent() {
+		long n = 0;
+		for (ControllerShard s : this.shards) {
+			n += s.getCommandsSent();
+		}
+		return n;
+	}
+}
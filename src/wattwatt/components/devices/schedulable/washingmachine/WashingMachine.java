@@ -15,8 +15,12 @@ import simulation.tools.washingmachine.WashingMachineState;
 import wattwatt.interfaces.controller.IController;
 import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
 import wattwatt.ports.devices.schedulable.washingmachine.WashingMachineInPort;
+import wattwatt.tools.state.StateTable;
+import wattwatt.tools.washingmachine.WashingMachineMailbox;
 import wattwatt.tools.washingmachine.WashingMachineMode;
 import wattwatt.tools.washingmachine.WashingMachineSetting;
+import wattwatt.tools.washingmachine.WashingMachineStateKey;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
 
 //-----------------------------------------------------------------------------
 /**
@@ -68,6 +72,8 @@ public class WashingMachine extends AbstractCyPhyComponent implements EmbeddingC
 
 	/** the simulation plug-in holding the simulation models. */
 	protected WashingMachineSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<WashingMachineStateKey> stateTable;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -83,8 +89,10 @@ public class WashingMachine extends AbstractCyPhyComponent implements EmbeddingC
 	 */
 	protected WashingMachine(String uri, String laveIn) throws Exception {
 		super(uri, 2, 1);
+		this.stateTable = this.createStateTable();
 		this.initialise();
-		this.lavein = new WashingMachineInPort(laveIn, this);
+		this.lavein = new WashingMachineInPort(laveIn, this,
+				this.createNewExecutorService(WashingMachineSetting.MAILBOX_EXECUTOR_URI, 1, false));
 		this.lavein.publishPort();
 		
 		
@@ -147,34 +155,30 @@ public class WashingMachine extends AbstractCyPhyComponent implements EmbeddingC
 
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if (name.equals("consumption")) {
-			return new Double(this.conso);
-		} else if (name.equals("mode")) {
-			return this.mode;
-		} else {
-			
-			assert name.equals("state");
-
-			return this.state;
-		}
+		return this.stateTable.getValue(name);
 	}
 	
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		if (name.equals("consumption")) {
-			this.conso = (double) value;
-		
-		}else if (name.equals("start")) {
-			this.On(); 
-		} 
-		else if (name.equals("stop")) {
-			this.Off();
-		}else if (name.equals("premiumMode")) {
-			this.premiumLavage();
-		} else {
-			assert name.equals("ecoMode");
-			this.ecoLavage();
-		}
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the washing machine used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<WashingMachineStateKey> createStateTable() {
+		StateTable<WashingMachineStateKey> ret = new StateTable<>(WashingMachineStateKey.class);
+		ret.putDouble(WashingMachineStateKey.CONSUMPTION, () -> this.conso, v -> this.conso = v);
+		ret.putValue(WashingMachineStateKey.MODE, () -> this.mode, null);
+		ret.putValue(WashingMachineStateKey.STATE, () -> this.state, null);
+		ret.putCommand(WashingMachineStateKey.START, this::On);
+		ret.putCommand(WashingMachineStateKey.STOP, this::Off);
+		ret.putCommand(WashingMachineStateKey.PREMIUM_MODE, this::premiumLavage);
+		ret.putCommand(WashingMachineStateKey.ECO_MODE, this::ecoLavage);
+		return ret;
 	}
 	
 
@@ -294,4 +298,38 @@ public class WashingMachine extends AbstractCyPhyComponent implements EmbeddingC
 
 	
 
+	/**
+	 * Apply the commands merged by the mailbox of the inbound port: the mode,
+	 * then the starting time and its shift, then the state
+	 * 
+	 * @param batch the merged commands
+	 */
+	public void applyCommands(WashingMachineMailbox.Batch batch) {
+		if (batch.getMode() == WashingMachineMode.ECO) {
+			this.ecoLavage();
+		} else if (batch.getMode() == WashingMachineMode.PREMIUM) {
+			this.premiumLavage();
+		}
+		if (batch.isStartingTimeSet()) {
+			this.endBefore(batch.getStartingTime());
+		}
+		if (batch.getShift() > 0) {
+			this.late(batch.getShift());
+		} else if (batch.getShift() < 0) {
+			this.advance(-batch.getShift());
+		}
+		if (batch.getState() != null) {
+			this.state = batch.getState();
+		}
+	}
+
+	/**
+	 * Read the fields of the washing machine read by the controller, in one request
+	 * 
+	 * @return an immutable status of the washing machine
+	 */
+	public WashingMachineStatus readStatus() {
+		return new WashingMachineStatus(this.state, this.mode, this.giveConso(), this.startingTime, this.durationWork);
+	}
+
 }
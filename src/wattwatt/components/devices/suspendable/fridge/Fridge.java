@@ -12,9 +12,14 @@ import simulation.plugins.FridgeSimulatorPlugin;
 import simulation.tools.fridge.FridgeConsumption;
 import simulation.tools.fridge.FridgeDoor;
 import wattwatt.interfaces.controller.IController;
+import wattwatt.interfaces.controller.IStateInvalidation;
 import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
 import wattwatt.ports.devices.suspendable.fridge.FridgeInPort;
+import wattwatt.tools.cache.StateInvalidationPublisher;
 import wattwatt.tools.fridge.FridgeSetting;
+import wattwatt.tools.fridge.FridgeStateKey;
+import wattwatt.tools.fridge.FridgeStatus;
+import wattwatt.tools.state.StateTable;
 
 //-----------------------------------------------------------------------------
 /**
@@ -41,7 +46,7 @@ import wattwatt.tools.fridge.FridgeSetting;
 //The next annotation requires that the referenced interface is added to
 //the required interfaces of the component.
 @OfferedInterfaces(offered = IFridge.class)
-@RequiredInterfaces(required = IController.class)
+@RequiredInterfaces(required = { IController.class, IStateInvalidation.class })
 public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponentAccessI {
 
 	// -------------------------------------------------------------------------
@@ -77,6 +82,10 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 
 	/** the simulation plug-in holding the simulation models. */
 	protected FridgeSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<FridgeStateKey> stateTable;
+	/** the notifications of the changes of the state to the components caching it. */
+	protected StateInvalidationPublisher invalidations;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -92,9 +101,12 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 	 */
 	protected Fridge(String uri, String refriIn) throws Exception {
 		super(uri, 2, 1);
+		this.stateTable = this.createStateTable();
 		this.initialise();
 		this.refrin = new FridgeInPort(refriIn, this);
 		this.refrin.publishPort();
+		this.invalidations = new StateInvalidationPublisher(this,
+				this.createNewExecutorService(FridgeSetting.INVALIDATION_EXECUTOR_URI, 1, false), refriIn);
 
 		this.tempH = FridgeSetting.TEMP_H_INIT;
 		this.tempB = FridgeSetting.TEMP_L_INIT;
@@ -155,6 +167,7 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 
 	@Override
 	public void finalise() throws Exception {
+		this.invalidations.unsubscribeAll();
 		super.finalise();
 	}
 
@@ -175,34 +188,31 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 	 */
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if (name.equals("door")) {
-			return this.currentDoorState;
-		} else if (name.equals("consumption")) {
-			return new Double(this.conso);
-		} else if (name.equals("temperature")) {
-			return new Double(this.temperature);
-		} else {
-			assert name.equals("state");
-			return this.consumptionState;
-		}
+		return this.stateTable.getValue(name);
 	}
 	
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		if (name.equals("close")) {
-			this.currentDoorState = FridgeDoor.CLOSED;
-		} else if (name.equals("open")) {
-			this.currentDoorState = FridgeDoor.OPENED;
-		} else if (name.equals("suspend")) {
-			this.suspend();
-		} else if (name.equals("temperature")) {
-			this.temperature = (double) value;
-		} else if (name.equals("consumption")) {
-			this.conso = (double) value;
-		} else {
-			assert name.equals("resume");
-			this.resume();
-		}
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the fridge used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<FridgeStateKey> createStateTable() {
+		StateTable<FridgeStateKey> ret = new StateTable<>(FridgeStateKey.class);
+		ret.putValue(FridgeStateKey.DOOR, () -> this.currentDoorState, null);
+		ret.putValue(FridgeStateKey.STATE, () -> this.consumptionState, null);
+		ret.putDouble(FridgeStateKey.TEMPERATURE, () -> this.temperature, v -> this.temperature = v);
+		ret.putDouble(FridgeStateKey.CONSUMPTION, () -> this.conso, v -> this.conso = v);
+		ret.putCommand(FridgeStateKey.OPEN, () -> this.currentDoorState = FridgeDoor.OPENED);
+		ret.putCommand(FridgeStateKey.CLOSE, () -> this.currentDoorState = FridgeDoor.CLOSED);
+		ret.putCommand(FridgeStateKey.SUSPEND, this::suspend);
+		ret.putCommand(FridgeStateKey.RESUME, this::resume);
+		return ret;
 	}
 	
 	public double getTempHaut() {
@@ -216,6 +226,7 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 	public void suspend() {
 		this.consumptionState = FridgeConsumption.SUSPENDED;
 		this.isWorking = false;
+		this.invalidations.stateChanged();
 	}
 
 	public void resume() {
@@ -225,17 +236,19 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 		} else {
 			this.isWorking = false;
 		}
-
+		this.invalidations.stateChanged();
 	}
 
 	public void on() {
 		this.isOn = true;
 		this.isWorking = true;
+		this.invalidations.stateChanged();
 	}
 
 	public void off() {
 		this.isOn = false;
 		this.isWorking = false;
+		this.invalidations.stateChanged();
 	}
 
 	public boolean isWorking() {
@@ -306,4 +319,35 @@ public class Fridge extends AbstractCyPhyComponent implements EmbeddingComponent
 	}
 
 	
+
+	/**
+	 * Read the fields of the fridge read by the controller, in one request
+	 * 
+	 * @return an immutable status of the fridge
+	 */
+	public FridgeStatus readStatus() {
+		return new FridgeStatus(this.isOn, this.isWorking, this.conso, this.tempH, this.tempB);
+	}
+
+	/**
+	 * Subscribe a component to the changes of the state of the fridge read
+	 * by its cached requests
+	 * 
+	 * @param invalidationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.invalidations.subscribe(invalidationInboundPortURI);
+	}
+
+	/**
+	 * Cancel the subscription of a component to the changes of the state of
+	 * the fridge
+	 * 
+	 * @param invalidationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.invalidations.unsubscribe(invalidationInboundPortURI);
+	}
 }
@@ -18,6 +18,9 @@ import wattwatt.interfaces.devices.uncontrollable.hairdryer.IHairDryer;
 import wattwatt.ports.devices.uncontrollable.hairdryer.HairDryerInPort;
 import wattwatt.tools.hairdryer.HairDryerMode;
 import wattwatt.tools.hairdryer.HairDryerSetting;
+import wattwatt.tools.hairdryer.HairDryerStateKey;
+import wattwatt.tools.hairdryer.HairDryerStatus;
+import wattwatt.tools.state.StateTable;
 
 //-----------------------------------------------------------------------------
 /**
@@ -66,6 +69,8 @@ public class HairDryer extends AbstractCyPhyComponent implements EmbeddingCompon
 
 	/** the simulation plug-in holding the simulation models. */
 	protected HairDryerSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<HairDryerStateKey> stateTable;
 
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -82,6 +87,7 @@ public class HairDryer extends AbstractCyPhyComponent implements EmbeddingCompon
 	 */
 	protected HairDryer(String uri, String sechin) throws Exception {
 		super(uri, 2, 1);
+		this.stateTable = this.createStateTable();
 		this.initialise();
 		this.sechin = new HairDryerInPort(sechin, this);
 		this.sechin.publishPort();
@@ -163,32 +169,32 @@ public class HairDryer extends AbstractCyPhyComponent implements EmbeddingCompon
 	 */
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if (name.equals("mode")) {
-			return this.mode;
-		} else if (name.equals("isOn")) {
-			return this.isOn;
-		} else if (name.equals("powerLevel")) {
-			return this.powerLvl;
-		} else {
-			assert name.equals("consumption");
-			return new Double(this.conso);
-		}
+		return this.stateTable.getValue(name);
 	}
 	
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		if (name.equals("switchOn")) {
-			this.on();
-		} else if (name.equals("switchOff")) {
-			this.off();
-		} else if (name.equals("increasePower")) {
-			this.increasePower();
-		} else if (name.equals("decreasePower")) {
-			this.decreasePower();
-		} else{
-			assert name.equals("switchMode");
-			this.switchMode();
-		}
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the hair dryer used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<HairDryerStateKey> createStateTable() {
+		StateTable<HairDryerStateKey> ret = new StateTable<>(HairDryerStateKey.class);
+		ret.putValue(HairDryerStateKey.MODE, () -> this.mode, null);
+		ret.putValue(HairDryerStateKey.IS_ON, () -> this.isOn, null);
+		ret.putValue(HairDryerStateKey.POWER_LEVEL, () -> this.powerLvl, null);
+		ret.putDouble(HairDryerStateKey.CONSUMPTION, () -> this.conso, null);
+		ret.putCommand(HairDryerStateKey.SWITCH_ON, this::on);
+		ret.putCommand(HairDryerStateKey.SWITCH_OFF, this::off);
+		ret.putCommand(HairDryerStateKey.INCREASE_POWER, this::increasePower);
+		ret.putCommand(HairDryerStateKey.DECREASE_POWER, this::decreasePower);
+		ret.putCommand(HairDryerStateKey.SWITCH_MODE, this::switchMode);
+		return ret;
 	}
 	
 	public void behave(Random rand) {
@@ -272,4 +278,13 @@ public class HairDryer extends AbstractCyPhyComponent implements EmbeddingCompon
 		this.powerLvl = powerLeveLValue;
 
 	}
+
+	/**
+	 * Read the fields of the hair dryer read by the controller, in one request
+	 * 
+	 * @return an immutable status of the hair dryer
+	 */
+	public HairDryerStatus readStatus() {
+		return new HairDryerStatus(this.isOn(), this.conso, this.mode, this.powerLvl);
+	}
 }
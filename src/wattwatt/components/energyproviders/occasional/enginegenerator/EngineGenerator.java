@@ -11,9 +11,14 @@ import simulation.models.enginegenerator.EngineGeneratorCoupledModel;
 import simulation.plugins.EngineGeneratorSimulatorPlugin;
 import simulation.tools.enginegenerator.EngineGeneratorState;
 import wattwatt.interfaces.controller.IController;
+import wattwatt.interfaces.controller.IStateInvalidation;
 import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
 import wattwatt.ports.energyproviders.occasional.enginegenerator.EngineGeneratorInPort;
 import wattwatt.tools.EngineGenerator.EngineGeneratorSetting;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStateKey;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+import wattwatt.tools.cache.StateInvalidationPublisher;
+import wattwatt.tools.state.StateTable;
 
 //-----------------------------------------------------------------------------
 /**
@@ -40,7 +45,7 @@ import wattwatt.tools.EngineGenerator.EngineGeneratorSetting;
 //The next annotation requires that the referenced interface is added to
 //the required interfaces of the component.
 @OfferedInterfaces(offered = IEngineGenerator.class)
-@RequiredInterfaces(required = IController.class)
+@RequiredInterfaces(required = { IController.class, IStateInvalidation.class })
 public class EngineGenerator  extends AbstractCyPhyComponent implements EmbeddingComponentAccessI {
 
 	// -------------------------------------------------------------------------
@@ -62,6 +67,10 @@ public class EngineGenerator  extends AbstractCyPhyComponent implements Embeddin
 	
 	/** the simulation plug-in holding the simulation models. */
 	protected EngineGeneratorSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<EngineGeneratorStateKey> stateTable;
+	/** the notifications of the changes of the state to the components caching it. */
+	protected StateInvalidationPublisher invalidations;
 	
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -77,9 +86,12 @@ public class EngineGenerator  extends AbstractCyPhyComponent implements Embeddin
 	 */
 	protected EngineGenerator(String uri, String groupeIn) throws Exception {
 		super(uri, 2, 1);
+		this.stateTable = this.createStateTable();
 		this.initialise();
 		this.groupein = new EngineGeneratorInPort(groupeIn, this);
 		this.groupein.publishPort();
+		this.invalidations = new StateInvalidationPublisher(this,
+				this.createNewExecutorService(EngineGeneratorSetting.INVALIDATION_EXECUTOR_URI, 1, false), groupeIn);
 		
 		this.isOn = false;
 		this.production = 0.0;
@@ -137,41 +149,46 @@ public class EngineGenerator  extends AbstractCyPhyComponent implements Embeddin
 		super.shutdown();
 	}
 
+	@Override
+	public void finalise() throws Exception {
+		this.invalidations.unsubscribeAll();
+		super.finalise();
+	}
+
 	@Override
 	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if(name.equals("state")) {
-			return this.isOn?EngineGeneratorState.ON:EngineGeneratorState.OFF;
-		}
-		else if(name.equals("capacity")) {
-			return new Double(this.fuelQuantity);
-		}
-		else {
-			assert name.equals("production");
-			return new Double(this.production);
-		}
+		return this.stateTable.getValue(name);
 	}
 	
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		if(name.equals("production")) {
-			this.production = (double) value;
-		}
-		else if(name.equals("state")) {
-			this.isOn = (EngineGeneratorState) value == EngineGeneratorState.ON?true:false;
-		}
-		else if(name.equals("capacity")) {
-			this.fuelQuantity = (double) value;
-		}
-		else if(name.equals("start")) {
-			this.on();
-		}
-		else if(name.equals("stop")) {
-			this.off();
-		}else {
-			assert name.equals("refill");
-			this.fuelQuantity = EngineGeneratorSetting.FUEL_CAPACITY;
-		}
-		
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the engine generator used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<EngineGeneratorStateKey> createStateTable() {
+		StateTable<EngineGeneratorStateKey> ret = new StateTable<>(EngineGeneratorStateKey.class);
+		ret.putValue(EngineGeneratorStateKey.STATE, () -> this.isOn ? EngineGeneratorState.ON : EngineGeneratorState.OFF,
+				v -> {
+					// the model sets the state at each step, only its changes are notified
+					boolean on = (EngineGeneratorState) v == EngineGeneratorState.ON;
+					if (on != this.isOn) {
+						this.isOn = on;
+						this.invalidations.stateChanged();
+					}
+				});
+		// the fuel and the production change at each step, they are not notified
+		ret.putDouble(EngineGeneratorStateKey.CAPACITY, () -> this.fuelQuantity, v -> this.fuelQuantity = v);
+		ret.putDouble(EngineGeneratorStateKey.PRODUCTION, () -> this.production, v -> this.production = v);
+		ret.putCommand(EngineGeneratorStateKey.START, this::on);
+		ret.putCommand(EngineGeneratorStateKey.STOP, this::off);
+		ret.putCommand(EngineGeneratorStateKey.REFILL, () -> this.fuelQuantity = EngineGeneratorSetting.FUEL_CAPACITY);
+		return ret;
 	}
 
 	@Override
@@ -197,10 +214,12 @@ public class EngineGenerator  extends AbstractCyPhyComponent implements Embeddin
 
 	public void on() throws Exception {
 		this.isOn = true;
+		this.invalidations.stateChanged();
 	}
 
 	public void off() throws Exception {
 		this.isOn = false;
+		this.invalidations.stateChanged();
 	}
 
 	public void addFuel(int quantity) throws Exception {
@@ -224,9 +243,40 @@ public class EngineGenerator  extends AbstractCyPhyComponent implements Embeddin
 			} else {
 				this.fuelQuantity -= EngineGeneratorSetting.PROD_THR;
 			}
-		} else {
+		} else if (this.isOn) {
 			this.off();
 		}
 	}
 
+	/**
+	 * Read the fields of the engine generator read by the controller, in one request
+	 * 
+	 * @return an immutable status of the engine generator
+	 */
+	public EngineGeneratorStatus readStatus() {
+		return new EngineGeneratorStatus(this.isOn, this.production, this.fuelQuantity);
+	}
+
+	/**
+	 * Subscribe a component to the changes of the state of the engine generator read
+	 * by its cached requests
+	 * 
+	 * @param invalidationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.invalidations.subscribe(invalidationInboundPortURI);
+	}
+
+	/**
+	 * Cancel the subscription of a component to the changes of the state of
+	 * the engine generator
+	 * 
+	 * @param invalidationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.invalidations.unsubscribe(invalidationInboundPortURI);
+	}
+
 }
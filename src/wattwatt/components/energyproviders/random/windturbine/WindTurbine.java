@@ -11,9 +11,14 @@ import simulation.models.windturbine.WindTurbineCoupledModel;
 import simulation.plugins.WindTurbineSimulatorPlugin;
 import simulation.tools.windturbine.WindTurbineState;
 import wattwatt.interfaces.controller.IController;
+import wattwatt.interfaces.controller.IStateInvalidation;
 import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
 import wattwatt.ports.energyproviders.random.windturbine.WindTurbineInPort;
+import wattwatt.tools.cache.StateInvalidationPublisher;
+import wattwatt.tools.state.StateTable;
 import wattwatt.tools.windturbine.WindTurbineSetting;
+import wattwatt.tools.windturbine.WindTurbineStateKey;
+import wattwatt.tools.windturbine.WindTurbineStatus;
 
 //-----------------------------------------------------------------------------
 /**
@@ -40,7 +45,7 @@ import wattwatt.tools.windturbine.WindTurbineSetting;
 //The next annotation requires that the referenced interface is added to
 //the required interfaces of the component.
 @OfferedInterfaces(offered = IWindTurbine.class)
-@RequiredInterfaces(required = IController.class)
+@RequiredInterfaces(required = { IController.class, IStateInvalidation.class })
 public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComponentAccessI {
 
 	// -------------------------------------------------------------------------
@@ -57,6 +62,10 @@ public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComp
 	
 	/** the simulation plug-in holding the simulation models. */
 	protected WindTurbineSimulatorPlugin asp;
+	/** the accessors to the state of the component used by the models. */
+	protected final StateTable<WindTurbineStateKey> stateTable;
+	/** the notifications of the changes of the state to the components caching it. */
+	protected StateInvalidationPublisher invalidations;
 	
 	// -------------------------------------------------------------------------
 	// Constructors
@@ -72,6 +81,7 @@ public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComp
 	 */
 	protected WindTurbine(String uri, String eoIn) throws Exception {
 		super(uri, 2, 1);
+		this.stateTable = this.createStateTable();
 		this.initialise();
 		
 		this.isOn = true;
@@ -79,6 +89,8 @@ public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComp
 
 		this.eoin = new WindTurbineInPort(eoIn, this);
 		this.eoin.publishPort();
+		this.invalidations = new StateInvalidationPublisher(this,
+				this.createNewExecutorService(WindTurbineSetting.INVALIDATION_EXECUTOR_URI, 1, false), eoIn);
 
 		this.tracer.setRelativePosition(2, 0);
 	}
@@ -131,30 +143,34 @@ public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComp
 	}
 
 	@Override
-	public Object getEmbeddingComponentStateValue(String name) throws Exception {
-		if(name.equals("production")) {
+	public void finalise() throws Exception {
+		this.invalidations.unsubscribeAll();
+		super.finalise();
+	}
 
-			return new Double(this.production);
-		}
-		else {
-			assert name.equals("state");
-			return this.isOn()?WindTurbineState.ON:WindTurbineState.OFF;
-				
-		}
+	@Override
+	public Object getEmbeddingComponentStateValue(String name) throws Exception {
+		return this.stateTable.getValue(name);
 	}
 	
 	@Override
 	public void setEmbeddingComponentStateValue(String name, Object value) throws Exception {
-		if(name.equals("production")) {
-			this.setProduction((double)value);
-		}
-		else if(name.equals("start")) {
-			this.On();
-		}
-		else{
-			assert name.equals("stop");
-			this.Off();
-		}
+		this.stateTable.setValue(name, value);
+	}
+
+	/**
+	 * Create the table of the accessors to the state of the wind turbine used by
+	 * its models
+	 *
+	 * @return the table
+	 */
+	protected StateTable<WindTurbineStateKey> createStateTable() {
+		StateTable<WindTurbineStateKey> ret = new StateTable<>(WindTurbineStateKey.class);
+		ret.putDouble(WindTurbineStateKey.PRODUCTION, () -> this.production, this::setProduction);
+		ret.putValue(WindTurbineStateKey.STATE, () -> this.isOn() ? WindTurbineState.ON : WindTurbineState.OFF, null);
+		ret.putCommand(WindTurbineStateKey.START, this::On);
+		ret.putCommand(WindTurbineStateKey.STOP, this::Off);
+		return ret;
 	}
 
 	@Override
@@ -184,10 +200,12 @@ public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComp
 
 	public void On() {
 		this.isOn = true;
+		this.invalidations.stateChanged();
 	}
 
 	public void Off() {
 		this.isOn = false;
+		this.invalidations.stateChanged();
 	}
 
 	public boolean isOn() {
@@ -211,5 +229,35 @@ public class WindTurbine extends AbstractCyPhyComponent implements EmbeddingComp
 		
 	}
 
+	/**
+	 * Read the fields of the wind turbine read by the controller, in one request
+	 * 
+	 * @return an immutable status of the wind turbine
+	 */
+	public WindTurbineStatus readStatus() {
+		return new WindTurbineStatus(this.isOn, this.production);
+	}
+
+	/**
+	 * Subscribe a component to the changes of the state of the wind turbine read
+	 * by its cached requests
+	 * 
+	 * @param invalidationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.invalidations.subscribe(invalidationInboundPortURI);
+	}
+
+	/**
+	 * Cancel the subscription of a component to the changes of the state of
+	 * the wind turbine
+	 * 
+	 * @param invalidationInboundPortURI URI of the inbound port of the subscriber.
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.invalidations.unsubscribe(invalidationInboundPortURI);
+	}
 
 }
@@ -0,0 +1,34 @@
+package wattwatt.connectors;
+
+import fr.sorbonne_u.components.connectors.AbstractConnector;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
+
+/**
+ * The class <code>ConsumptionNotificationConnector</code> implements a
+ * connector between the electric meter and a component subscribed to the
+ * overall consumption, both through the
+ * <code>IConsumptionNotification</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * It implements the required interface <code>IConsumptionNotification</code>
+ * and in the methods it calls the corresponding offered method
+ * <code>IConsumptionNotification</code>.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ConsumptionNotificationConnector extends AbstractConnector implements IConsumptionNotification {
+
+	@Override
+	public void consumptionChanged(double consumption) throws Exception {
+		((IConsumptionNotification) this.offering).consumptionChanged(consumption);
+	}
+
+	@Override
+	public void priceChanged(double price) throws Exception {
+		((IConsumptionNotification) this.offering).priceChanged(price);
+	}
+
+}
@@ -0,0 +1,29 @@
+package wattwatt.connectors;
+
+import fr.sorbonne_u.components.connectors.AbstractConnector;
+import wattwatt.interfaces.controller.IController;
+import wattwatt.tools.controller.HouseholdSnapshot;
+
+/**
+ * The class <code>ControllerConnector</code> implements a connector between
+ * a component requiring and the controller offering the
+ * <code>IController</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * It implements the required interface <code>IController</code> and in the
+ * methods it calls the corresponding offered method
+ * <code>IController</code>.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ControllerConnector extends AbstractConnector implements IController {
+
+	@Override
+	public HouseholdSnapshot getHouseholdSnapshot() throws Exception {
+		return ((IController) this.offering).getHouseholdSnapshot();
+	}
+
+}
@@ -1,6 +1,8 @@
 package wattwatt.connectors;
 
 import fr.sorbonne_u.components.connectors.AbstractConnector;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
 import wattwatt.interfaces.electricmeter.IElectricMeter;
 
 /**
@@ -24,4 +26,34 @@ public class ElectricMeterConnector extends AbstractConnector implements IElectr
 		return ((IElectricMeter) this.offering).getAllConso();
 	}
 
+	@Override
+	public DemandStatistics getDemandStatistics() throws Exception {
+		return ((IElectricMeter) this.offering).getDemandStatistics();
+	}
+
+	@Override
+	public DemandSketch getDemandSketch() throws Exception {
+		return ((IElectricMeter) this.offering).getDemandSketch();
+	}
+
+	@Override
+	public double getAccruedCost() throws Exception {
+		return ((IElectricMeter) this.offering).getAccruedCost();
+	}
+
+	@Override
+	public double getMarginalPrice() throws Exception {
+		return ((IElectricMeter) this.offering).getMarginalPrice();
+	}
+
+	@Override
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception {
+		((IElectricMeter) this.offering).subscribe(notificationInboundPortURI, deadband);
+	}
+
+	@Override
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		((IElectricMeter) this.offering).unsubscribe(notificationInboundPortURI);
+	}
+
 }
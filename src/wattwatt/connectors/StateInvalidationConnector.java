@@ -0,0 +1,28 @@
+package wattwatt.connectors;
+
+import fr.sorbonne_u.components.connectors.AbstractConnector;
+import wattwatt.interfaces.controller.IStateInvalidation;
+
+/**
+ * The class <code>StateInvalidationConnector</code> implements a connector
+ * between a device and a component caching its state, both through the
+ * <code>IStateInvalidation</code> interface.
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * It implements the required interface <code>IStateInvalidation</code>
+ * and in the methods it calls the corresponding offered method
+ * <code>IStateInvalidation</code>.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class StateInvalidationConnector extends AbstractConnector implements IStateInvalidation {
+
+	@Override
+	public void stateChanged(String deviceInboundPortURI) throws Exception {
+		((IStateInvalidation) this.offering).stateChanged(deviceInboundPortURI);
+	}
+
+}
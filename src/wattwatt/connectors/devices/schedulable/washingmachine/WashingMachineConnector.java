@@ -2,6 +2,7 @@ package wattwatt.connectors.devices.schedulable.washingmachine;
 
 import wattwatt.connectors.devices.schedulable.SchedulableConnector;
 import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
 
 /**
  * The class <code>WashingMachineConnector</code> implements a connector between
@@ -36,4 +37,9 @@ public class WashingMachineConnector extends SchedulableConnector implements IWa
 		return ((IWashingMachine) this.offering).isWorking();
 	}
 
+	@Override
+	public WashingMachineStatus readStatus() throws Exception {
+		return ((IWashingMachine) this.offering).readStatus();
+	}
+
 }
@@ -16,6 +16,7 @@ package wattwatt.connectors.devices.suspendables.fridge;
  */
 import wattwatt.connectors.devices.suspendables.SuspendableConnector;
 import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
+import wattwatt.tools.fridge.FridgeStatus;
 
 public class FridgeConnector extends SuspendableConnector implements IFridge {
 
@@ -28,4 +29,19 @@ public class FridgeConnector extends SuspendableConnector implements IFridge {
 	public double getTempB() throws Exception {
 		return ((IFridge) this.offering).getTempB();
 	}
+
+	@Override
+	public FridgeStatus readStatus() throws Exception {
+		return ((IFridge) this.offering).readStatus();
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		((IFridge) this.offering).subscribeInvalidation(invalidationInboundPortURI);
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		((IFridge) this.offering).unsubscribeInvalidation(invalidationInboundPortURI);
+	}
 }
@@ -2,6 +2,7 @@ package wattwatt.connectors.devices.uncontrollable.hairdryer;
 
 import wattwatt.connectors.devices.DeviceConnector;
 import wattwatt.interfaces.devices.uncontrollable.hairdryer.IHairDryer;
+import wattwatt.tools.hairdryer.HairDryerStatus;
 
 /**
  * The class <code>HairDryerConnector</code> implements a connector between
@@ -37,4 +38,9 @@ public class HairDryerConnector extends DeviceConnector implements IHairDryer {
 
 	}
 
+	@Override
+	public HairDryerStatus readStatus() throws Exception {
+		return ((IHairDryer) this.offering).readStatus();
+	}
+
 }
@@ -2,6 +2,7 @@ package wattwatt.connectors.energyproviders.occasional.enginegenerator;
 
 import wattwatt.connectors.energyproviders.EnergyProviderConnector;
 import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
 
 
 /**
@@ -57,4 +58,19 @@ public class EngineGeneratorConnector extends EnergyProviderConnector implements
 		return ((IEngineGenerator) this.offering).isOn();
 	}
 
+	@Override
+	public EngineGeneratorStatus readStatus() throws Exception {
+		return ((IEngineGenerator) this.offering).readStatus();
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		((IEngineGenerator) this.offering).subscribeInvalidation(invalidationInboundPortURI);
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		((IEngineGenerator) this.offering).unsubscribeInvalidation(invalidationInboundPortURI);
+	}
+
 }
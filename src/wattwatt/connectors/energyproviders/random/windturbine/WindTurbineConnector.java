@@ -2,6 +2,7 @@ package wattwatt.connectors.energyproviders.random.windturbine;
 
 import wattwatt.connectors.energyproviders.EnergyProviderConnector;
 import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
+import wattwatt.tools.windturbine.WindTurbineStatus;
 
 
 /**
@@ -37,4 +38,19 @@ public class WindTurbineConnector extends EnergyProviderConnector implements IWi
 		return ((IWindTurbine) this.offering).isOn();
 	}
 
+	@Override
+	public WindTurbineStatus readStatus() throws Exception {
+		return ((IWindTurbine) this.offering).readStatus();
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		((IWindTurbine) this.offering).subscribeInvalidation(invalidationInboundPortURI);
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		((IWindTurbine) this.offering).unsubscribeInvalidation(invalidationInboundPortURI);
+	}
+
 }
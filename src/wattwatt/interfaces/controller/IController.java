@@ -2,6 +2,7 @@ package wattwatt.interfaces.controller;
 
 import fr.sorbonne_u.components.interfaces.OfferedI;
 import fr.sorbonne_u.components.interfaces.RequiredI;
+import wattwatt.tools.controller.HouseholdSnapshot;
 
 /**
  * The interface <code>IController</code> 
@@ -18,5 +19,12 @@ import fr.sorbonne_u.components.interfaces.RequiredI;
  */
 public interface IController extends OfferedI, RequiredI {
 	
+	/**
+	 * Take a snapshot of the household: overall consumption, productions and
+	 * states of the controlled devices, all read in one parallel round
+	 * @return	the new snapshot
+	 * @throws Exception<i>todo.</i>
+	 */
+	public HouseholdSnapshot getHouseholdSnapshot() throws Exception;
 
 }
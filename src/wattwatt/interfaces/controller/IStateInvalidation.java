@@ -0,0 +1,28 @@
+package wattwatt.interfaces.controller;
+
+import fr.sorbonne_u.components.interfaces.OfferedI;
+import fr.sorbonne_u.components.interfaces.RequiredI;
+
+/**
+ * The interface <code>IStateInvalidation</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Defines the interface offered by the components caching the state of a
+ * device; the device notifies them through it when the state read by its
+ * cached requests changes on an event, switching it on or off or suspending
+ * it; the values changing at each step of its models are not notified.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IStateInvalidation extends OfferedI, RequiredI {
+
+	/**
+	 * Receive the notification that the state of a device changed
+	 * @param deviceInboundPortURI	URI of the inbound port of the device
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void stateChanged(String deviceInboundPortURI) throws Exception;
+}
@@ -0,0 +1,30 @@
+package wattwatt.interfaces.controller;
+
+/**
+ * The interface <code>IStateInvalidationSource</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Defines the requests of the devices through which a component caching
+ * their state subscribes to the notifications of its changes.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IStateInvalidationSource {
+
+	/**
+	 * Subscribe to the changes of the state of the device
+	 * @param invalidationInboundPortURI	URI of the <code>IStateInvalidation</code> inbound port of the subscriber
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception;
+
+	/**
+	 * Cancel a subscription to the changes of the state of the device
+	 * @param invalidationInboundPortURI	URI of the <code>IStateInvalidation</code> inbound port of the subscriber
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception;
+}
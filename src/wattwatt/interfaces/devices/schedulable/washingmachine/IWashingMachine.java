@@ -1,6 +1,7 @@
 package wattwatt.interfaces.devices.schedulable.washingmachine;
 
 import wattwatt.interfaces.devices.schedulable.ISchedulable;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
 
 /**
  * The interface <code>IWashingMachine</code> 
@@ -32,4 +33,11 @@ public interface IWashingMachine extends ISchedulable{
 	public void premiumWashing() throws Exception;
 	
 
+	/**
+	 * Read the fields of the washing machine in one request
+	 * @return	the status of the washing machine
+	 * @throws Exception<i>todo.</i>
+	 */
+	public WashingMachineStatus readStatus() throws Exception;
+
 }
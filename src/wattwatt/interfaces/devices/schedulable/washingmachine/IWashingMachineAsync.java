@@ -0,0 +1,80 @@
+package wattwatt.interfaces.devices.schedulable.washingmachine;
+
+import java.util.concurrent.CompletableFuture;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
+
+/**
+ * The interface <code>IWashingMachineAsync</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Non blocking variant of <code>IWashingMachine</code>, offered locally by
+ * the outbound ports to the component owning them.
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IWashingMachineAsync {
+
+	/**
+	 * Turn on the washing machine
+	 * @return	a future completed once the washing machine is on
+	 */
+	public CompletableFuture<Void> OnAsync();
+
+	/**
+	 * Turn off the washing machine
+	 * @return	a future completed once the washing machine is off
+	 */
+	public CompletableFuture<Void> OffAsync();
+
+	/**
+	 * Check if the washing machine is on
+	 * @return	a future giving true if the washing machine is on
+	 */
+	public CompletableFuture<Boolean> isOnAsync();
+
+	/**
+	 * Check if the washing machine is working
+	 * @return	a future giving true if the washing machine is working
+	 */
+	public CompletableFuture<Boolean> isWorkingAsync();
+
+	/**
+	 * Get the consommation of the washing machine
+	 * @return	a future giving the consommation
+	 */
+	public CompletableFuture<Double> getConsoAsync();
+
+	/**
+	 * Get the duration of the work of the washing machine
+	 * @return	a future giving the duration of work
+	 */
+	public CompletableFuture<Integer> durationWorkAsync();
+
+	/**
+	 * Get the starting time of the work of the washing machine
+	 * @return	a future giving the starting time
+	 */
+	public CompletableFuture<Integer> startingTimeAsync();
+
+	/**
+	 * Delay the starting time of the washing machine
+	 * @param delay		time delay
+	 * @return	a future completed once the starting time is delayed
+	 */
+	public CompletableFuture<Void> lateAsync(int delay);
+
+	/**
+	 * Advance the starting time of the washing machine
+	 * @param advance	time advance
+	 * @return	a future completed once the starting time is advanced
+	 */
+	public CompletableFuture<Void> advanceAsync(int advance);
+
+	/**
+	 * Read the fields of the washing machine in one request
+	 * @return	a future giving the status of the washing machine
+	 */
+	public CompletableFuture<WashingMachineStatus> readStatusAsync();
+}
@@ -1,6 +1,8 @@
 package wattwatt.interfaces.devices.suspendable.fridge;
 
+import wattwatt.interfaces.controller.IStateInvalidationSource;
 import wattwatt.interfaces.devices.suspendable.ISuspendable;
+import wattwatt.tools.fridge.FridgeStatus;
 
 /**
  * The interface <code>IFridge</code> 
@@ -16,7 +18,7 @@ import wattwatt.interfaces.devices.suspendable.ISuspendable;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public interface IFridge extends ISuspendable {
+public interface IFridge extends ISuspendable, IStateInvalidationSource {
 	
 	/**
 	 * Check the temperature of the upper compartement
@@ -32,4 +34,11 @@ public interface IFridge extends ISuspendable {
 	 */
 	public double getTempB() throws Exception;
 
+	/**
+	 * Read the fields of the fridge in one request
+	 * @return	the status of the fridge
+	 * @throws Exception<i>todo.</i>
+	 */
+	public FridgeStatus readStatus() throws Exception;
+
 }
@@ -0,0 +1,66 @@
+package wattwatt.interfaces.devices.suspendable.fridge;
+
+import java.util.concurrent.CompletableFuture;
+import wattwatt.tools.fridge.FridgeStatus;
+
+/**
+ * The interface <code>IFridgeAsync</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Non blocking variant of <code>IFridge</code>, offered locally by the
+ * outbound ports to the component owning them.
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IFridgeAsync {
+
+	/**
+	 * Suspend the fridge
+	 * @return	a future completed once the fridge is suspended
+	 */
+	public CompletableFuture<Void> suspendAsync();
+
+	/**
+	 * Resume the fridge
+	 * @return	a future completed once the fridge is resumed
+	 */
+	public CompletableFuture<Void> resumeAsync();
+
+	/**
+	 * Check if the fridge is on
+	 * @return	a future giving true if the fridge is on
+	 */
+	public CompletableFuture<Boolean> isOnAsync();
+
+	/**
+	 * Check if the fridge is working
+	 * @return	a future giving true if the fridge is working
+	 */
+	public CompletableFuture<Boolean> isWorkingAsync();
+
+	/**
+	 * Get the consommation of the fridge
+	 * @return	a future giving the consommation
+	 */
+	public CompletableFuture<Double> getConsoAsync();
+
+	/**
+	 * Check the temperature of the upper compartement
+	 * @return	a future giving the temperature of the upper compartement
+	 */
+	public CompletableFuture<Double> getTempHAsync();
+
+	/**
+	 * Check the temperature of the lower compartement
+	 * @return	a future giving the temperature of the lower compartement
+	 */
+	public CompletableFuture<Double> getTempBAsync();
+
+	/**
+	 * Read the fields of the fridge in one request
+	 * @return	a future giving the status of the fridge
+	 */
+	public CompletableFuture<FridgeStatus> readStatusAsync();
+}
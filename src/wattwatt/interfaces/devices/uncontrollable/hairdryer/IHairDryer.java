@@ -1,6 +1,7 @@
 package wattwatt.interfaces.devices.uncontrollable.hairdryer;
 
 import wattwatt.interfaces.devices.IDevices;
+import wattwatt.tools.hairdryer.HairDryerStatus;
 
 /**
  * The interface <code>IHairDryer</code> 
@@ -40,4 +41,11 @@ public interface IHairDryer extends IDevices {
 	public void decreasePower() throws Exception;
 	
 
+	/**
+	 * Read the fields of the hair dryer in one request
+	 * @return	the status of the hair dryer
+	 * @throws Exception<i>todo.</i>
+	 */
+	public HairDryerStatus readStatus() throws Exception;
+
 }
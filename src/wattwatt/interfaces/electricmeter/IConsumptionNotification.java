@@ -0,0 +1,35 @@
+package wattwatt.interfaces.electricmeter;
+
+import fr.sorbonne_u.components.interfaces.OfferedI;
+import fr.sorbonne_u.components.interfaces.RequiredI;
+
+/**
+ * The interface <code>IConsumptionNotification</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Defines the interface offered by the components subscribed to the overall
+ * electric consumption; the electric meter pushes the consumption through it
+ * when it moves beyond the deadband of the subscription, and the price of the
+ * time-of-use tariff when it changes.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IConsumptionNotification extends OfferedI, RequiredI {
+
+	/**
+	 * Receive the new overall electric consumption
+	 * @param consumption	overall electric consumption (in Watt)
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void consumptionChanged(double consumption) throws Exception;
+
+	/**
+	 * Receive the new price of one more kWh under the time-of-use tariff
+	 * @param price	price per kWh
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void priceChanged(double price) throws Exception;
+}
@@ -2,6 +2,8 @@ package wattwatt.interfaces.electricmeter;
 
 import fr.sorbonne_u.components.interfaces.OfferedI;
 import fr.sorbonne_u.components.interfaces.RequiredI;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
 
 /**
  * The interface <code>IElectricMeter</code> 
@@ -23,4 +25,54 @@ public interface IElectricMeter extends OfferedI, RequiredI{
 	 * @throws Exception<i>todo.</i>
 	 */
 	public double getAllConso() throws Exception;
+
+	/**
+	 * Get the peak and the 95th and 99th percentiles of the overall electric
+	 * consumption during the current day
+	 * @return	the statistics of the current day
+	 * @throws Exception<i>todo.</i>
+	 */
+	public DemandStatistics getDemandStatistics() throws Exception;
+
+	/**
+	 * Get the sketch of the overall electric consumption during the current
+	 * day; sketches of several households merge into the sketch of their
+	 * overall consumption
+	 * @return	a copy of the sketch of the current day
+	 * @throws Exception<i>todo.</i>
+	 */
+	public DemandSketch getDemandSketch() throws Exception;
+
+	/**
+	 * Get the cost of the electric consumption since the start under the
+	 * time-of-use tariff
+	 * @return	the accrued cost
+	 * @throws Exception<i>todo.</i>
+	 */
+	public double getAccruedCost() throws Exception;
+
+	/**
+	 * Get the current price of one more kWh under the time-of-use tariff;
+	 * the subscribers also get it pushed when it changes
+	 * @return	the price per kWh
+	 * @throws Exception<i>todo.</i>
+	 */
+	public double getMarginalPrice() throws Exception;
+
+	/**
+	 * Subscribe to the overall electric consumption: the meter pushes it at
+	 * once, then each time it moves by more than the deadband since the last
+	 * push
+	 * @param notificationInboundPortURI	URI of the inbound port of the subscriber offering <code>IConsumptionNotification</code>
+	 * @param deadband						change of the consumption (in Watt) under which nothing is pushed
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception;
+
+	/**
+	 * Cancel a subscription to the overall electric consumption
+	 * @param notificationInboundPortURI	URI of the inbound port given at the subscription
+	 * @throws Exception<i>todo.</i>
+	 */
+	public void unsubscribe(String notificationInboundPortURI) throws Exception;
 }
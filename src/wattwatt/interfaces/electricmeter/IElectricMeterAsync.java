@@ -0,0 +1,23 @@
+package wattwatt.interfaces.electricmeter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The interface <code>IElectricMeterAsync</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Non blocking variant of <code>IElectricMeter</code>, offered locally by the
+ * outbound ports to the component owning them.
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IElectricMeterAsync {
+
+	/**
+	 * Get the overall electric consumption
+	 * @return	a future giving the overall electric comsuption
+	 */
+	public CompletableFuture<Double> getAllConsoAsync();
+}
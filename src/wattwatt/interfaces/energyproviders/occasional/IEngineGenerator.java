@@ -1,6 +1,8 @@
 package wattwatt.interfaces.energyproviders.occasional;
 
+import wattwatt.interfaces.controller.IStateInvalidationSource;
 import wattwatt.interfaces.energyproviders.IEnergyProviders;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
 
 /**
  * The interface <code>IEngineGenerator</code> 
@@ -15,7 +17,7 @@ import wattwatt.interfaces.energyproviders.IEnergyProviders;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public interface IEngineGenerator extends IEnergyProviders {
+public interface IEngineGenerator extends IEnergyProviders, IStateInvalidationSource {
 
 	/**
 	 * Check if there is no fuel
@@ -67,4 +69,11 @@ public interface IEngineGenerator extends IEnergyProviders {
 	 */
 	public boolean isOn() throws Exception;
 
+	/**
+	 * Read the fields of the engine generator in one request
+	 * @return	the status of the engine generator
+	 * @throws Exception<i>todo.</i>
+	 */
+	public EngineGeneratorStatus readStatus() throws Exception;
+
 }
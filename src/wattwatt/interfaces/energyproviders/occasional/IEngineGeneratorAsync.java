@@ -0,0 +1,54 @@
+package wattwatt.interfaces.energyproviders.occasional;
+
+import java.util.concurrent.CompletableFuture;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+
+/**
+ * The interface <code>IEngineGeneratorAsync</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Non blocking variant of <code>IEngineGenerator</code>, offered locally by
+ * the outbound ports to the component owning them.
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IEngineGeneratorAsync {
+
+	/**
+	 * Get the energy production of the engine generator
+	 * @return	a future giving the quantity of energy provided
+	 */
+	public CompletableFuture<Double> getEnergyAsync();
+
+	/**
+	 * Get the quantity of fuel in the engine generator
+	 * @return	a future giving the quantity of fuel
+	 */
+	public CompletableFuture<Double> fuelQuantityAsync();
+
+	/**
+	 * Turn on the engine generator
+	 * @return	a future completed once the engine generator is on
+	 */
+	public CompletableFuture<Void> onAsync();
+
+	/**
+	 * Turn off the engine generator
+	 * @return	a future completed once the engine generator is off
+	 */
+	public CompletableFuture<Void> offAsync();
+
+	/**
+	 * Check if the engine generator is on
+	 * @return	a future giving true if the engine generator is on
+	 */
+	public CompletableFuture<Boolean> isOnAsync();
+
+	/**
+	 * Read the fields of the engine generator in one request
+	 * @return	a future giving the status of the engine generator
+	 */
+	public CompletableFuture<EngineGeneratorStatus> readStatusAsync();
+}
@@ -1,6 +1,8 @@
 package wattwatt.interfaces.energyproviders.random.windturbine;
 
+import wattwatt.interfaces.controller.IStateInvalidationSource;
 import wattwatt.interfaces.energyproviders.IEnergyProviders;
+import wattwatt.tools.windturbine.WindTurbineStatus;
 
 /**
  * The interface <code>IWindTurbine</code> 
@@ -15,7 +17,7 @@ import wattwatt.interfaces.energyproviders.IEnergyProviders;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public interface IWindTurbine extends IEnergyProviders {
+public interface IWindTurbine extends IEnergyProviders, IStateInvalidationSource {
 
 	/**
 	 * Turn on the wind turbine
@@ -38,4 +40,11 @@ public interface IWindTurbine extends IEnergyProviders {
 	 */
 	public boolean isOn() throws Exception;
 
+	/**
+	 * Read the fields of the wind turbine in one request
+	 * @return	the status of the wind turbine
+	 * @throws Exception<i>todo.</i>
+	 */
+	public WindTurbineStatus readStatus() throws Exception;
+
 }
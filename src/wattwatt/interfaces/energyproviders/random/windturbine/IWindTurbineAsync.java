@@ -0,0 +1,36 @@
+package wattwatt.interfaces.energyproviders.random.windturbine;
+
+import java.util.concurrent.CompletableFuture;
+import wattwatt.tools.windturbine.WindTurbineStatus;
+
+/**
+ * The interface <code>IWindTurbineAsync</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Non blocking variant of <code>IWindTurbine</code>, offered locally by the
+ * outbound ports to the component owning them.
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IWindTurbineAsync {
+
+	/**
+	 * Get the energy production of the wind turbine
+	 * @return	a future giving the quantity of energy provided
+	 */
+	public CompletableFuture<Double> getEnergyAsync();
+
+	/**
+	 * Check if the wind turbine is on
+	 * @return	a future giving true if the wind turbine is on
+	 */
+	public CompletableFuture<Boolean> isOnAsync();
+
+	/**
+	 * Read the fields of the wind turbine in one request
+	 * @return	a future giving the status of the wind turbine
+	 */
+	public CompletableFuture<WindTurbineStatus> readStatusAsync();
+}
@@ -0,0 +1,110 @@
+package wattwatt.main;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.cvm.AbstractCVM;
+import wattwatt.components.ElectricMeter;
+import wattwatt.components.MultiHouseholdController;
+import wattwatt.components.devices.schedulable.washingmachine.WashingMachine;
+import wattwatt.components.devices.suspendable.fridge.Fridge;
+import wattwatt.components.energyproviders.occasional.enginegenerator.EngineGenerator;
+import wattwatt.components.energyproviders.random.windturbine.WindTurbine;
+import wattwatt.tools.URIS;
+
+//------------------------------------------------------------------------------
+/**
+* The class <code>MultiHouseholdCVM</code> implements a single JVM deployment
+* of several households managed by one multi-household controller
+*
+* <p><strong>Description</strong></p>
+*
+* Each household has its own electric meter, fridge, washing machine, engine
+* generator and wind turbine, whose URIs are suffixed by the number of the
+* household. The controller connects itself to the devices of every household
+* at its start and runs its control rounds periodically.
+*
+* <p><strong>Invariant</strong></p>
+*
+* <pre>
+* invariant		true
+* </pre>
+*
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class MultiHouseholdCVM extends AbstractCVM {
+	/** The number of households deployed*/
+	public static final int NB_HOUSEHOLDS = 4;
+
+	/** The URI of the multi-household controller*/
+	protected String controleurUri;
+
+	public MultiHouseholdCVM() throws Exception {
+		super();
+	}
+
+	/**
+	 * @see fr.sorbonne_u.components.cvm.AbstractCVM#deploy()
+	 */
+	@Override
+	public void deploy() throws Exception {
+		assert !this.deploymentDone();
+
+		String[][] households = new String[NB_HOUSEHOLDS][];
+		for (int i = 0; i < NB_HOUSEHOLDS; i++) {
+			String suffix = "-" + i;
+
+			String compteurUri = AbstractComponent.createComponent(ElectricMeter.class.getCanonicalName(),
+					new Object[] { URIS.ELECTRIC_METER_URI + suffix, URIS.ELECTRIC_METER_IN_URI + suffix });
+			assert this.isDeployedComponent(compteurUri);
+
+			String refriUri = AbstractComponent.createComponent(Fridge.class.getCanonicalName(),
+					new Object[] { URIS.FRIDGE_URI + suffix, URIS.FRIDGE_IN_URI + suffix });
+			assert this.isDeployedComponent(refriUri);
+
+			String laveUri = AbstractComponent.createComponent(WashingMachine.class.getCanonicalName(),
+					new Object[] { URIS.WASHING_MACHINE_URI + suffix, URIS.WASHING_MACHINE_IN_URI + suffix });
+			assert this.isDeployedComponent(laveUri);
+
+			String groupeUri = AbstractComponent.createComponent(EngineGenerator.class.getCanonicalName(),
+					new Object[] { URIS.ENGINE_GENERATOR_URI + suffix, URIS.ENGINE_GENERATOR_IN_URI + suffix });
+			assert this.isDeployedComponent(groupeUri);
+
+			String eolUri = AbstractComponent.createComponent(WindTurbine.class.getCanonicalName(),
+					new Object[] { URIS.WIND_TURBINE_URI + suffix, URIS.WIND_TURBINE_IN_URI + suffix });
+			assert this.isDeployedComponent(eolUri);
+
+			households[i] = new String[] { "household" + suffix, URIS.ELECTRIC_METER_IN_URI + suffix,
+					URIS.FRIDGE_IN_URI + suffix, URIS.WASHING_MACHINE_IN_URI + suffix,
+					URIS.ENGINE_GENERATOR_IN_URI + suffix, URIS.WIND_TURBINE_IN_URI + suffix };
+		}
+
+		// the controller publishes the ports of the households at its creation
+		// and connects them at its start
+		this.controleurUri = AbstractComponent.createComponent(MultiHouseholdController.class.getCanonicalName(),
+				new Object[] { URIS.MULTI_HOUSEHOLD_CONTROLLER_URI, households });
+		assert this.isDeployedComponent(this.controleurUri);
+		this.toggleTracing(this.controleurUri);
+		this.toggleLogging(this.controleurUri);
+
+		super.deploy();
+		assert this.deploymentDone();
+	}
+
+	@Override
+	public void shutdown() throws Exception {
+		assert this.allFinalised();
+		super.shutdown();
+	}
+
+	public static void main(String[] args) {
+		try {
+			MultiHouseholdCVM vm = new MultiHouseholdCVM();
+			vm.startStandardLifeCycle(20000L);
+			System.out.println("ending...");
+			System.exit(0);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
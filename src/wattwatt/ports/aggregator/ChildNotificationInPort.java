@@ -0,0 +1,77 @@
+package wattwatt.ports.aggregator;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import wattwatt.components.MeterAggregator;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
+
+/**
+ * The class <code>ChildNotificationInPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The InBound port through which a meter aggregator receives the consumption
+ *  pushed by one of its children; the aggregator has one such port per child
+ *  so that it knows which child pushed. The pushes are applied on an executor
+ *  service of one thread, so that an older consumption of a child never
+ *  overwrites a newer one
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ChildNotificationInPort extends AbstractInboundPort implements IConsumptionNotification {
+
+	private static final long serialVersionUID = 1L;
+
+	/** index of the child connected to this port */
+	protected final int child;
+	/** index of the executor service of one thread applying the pushes */
+	protected final int childExecutorIndex;
+
+	/**
+	 * create the port receiving the pushes of a child.
+	 * 
+	 * @param uri					URI of the port.
+	 * @param owner					the aggregator.
+	 * @param child					index of the child.
+	 * @param childExecutorIndex	index of the executor service of one thread of
+	 * 								the owner applying the pushes.
+	 * @throws Exception			<i>todo.</i>
+	 */
+	public ChildNotificationInPort(String uri, ComponentI owner, int child, int childExecutorIndex)
+			throws Exception {
+		super(uri, IConsumptionNotification.class, owner);
+		this.child = child;
+		this.childExecutorIndex = childExecutorIndex;
+	}
+
+	public int getChild() {
+		return this.child;
+	}
+
+	@Override
+	public void consumptionChanged(double consumption) throws Exception {
+		this.owner.handleRequestAsync(this.childExecutorIndex,
+				new AbstractComponent.AbstractService<Void>() {
+					@Override
+					public Void call() throws Exception {
+						((MeterAggregator)this.getServiceOwner()).childConsumptionChanged(child, consumption) ;
+						return null;
+					}
+				}) ;
+	}
+
+	@Override
+	public void priceChanged(double price) throws Exception {
+		this.owner.handleRequestAsync(this.childExecutorIndex,
+				new AbstractComponent.AbstractService<Void>() {
+					@Override
+					public Void call() throws Exception {
+						((MeterAggregator)this.getServiceOwner()).childPriceChanged(child, price) ;
+						return null;
+					}
+				}) ;
+	}
+
+}
@@ -0,0 +1,71 @@
+package wattwatt.ports.aggregator;
+
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
+import wattwatt.components.MeterAggregator;
+import wattwatt.interfaces.electricmeter.IElectricMeter;
+
+/**
+ * The class <code>MeterAggregatorInPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The InBound port of the meter aggregator component; it offers the same
+ *  interface as the electric meter, so that an aggregator can be the child
+ *  of another one
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class MeterAggregatorInPort extends AbstractInboundPort implements IElectricMeter {
+
+	private static final long serialVersionUID = 1L;
+
+	public MeterAggregatorInPort(String uri, ComponentI owner) throws Exception {
+		super(uri, IElectricMeter.class, owner);
+	}
+
+	@Override
+	public double getAllConso() throws Exception {
+		return this.getOwner().handleRequestSync(owner -> ((MeterAggregator) owner).getConsumption());
+	}
+
+	@Override
+	public DemandStatistics getDemandStatistics() throws Exception {
+		return this.getOwner().handleRequestSync(owner -> ((MeterAggregator) owner).getDemandStatistics());
+	}
+
+	@Override
+	public DemandSketch getDemandSketch() throws Exception {
+		return this.getOwner().handleRequestSync(owner -> ((MeterAggregator) owner).getDemandSketch());
+	}
+
+	@Override
+	public double getAccruedCost() throws Exception {
+		return this.getOwner().handleRequestSync(owner -> ((MeterAggregator) owner).getAccruedCost());
+	}
+
+	@Override
+	public double getMarginalPrice() throws Exception {
+		return this.getOwner().handleRequestSync(owner -> ((MeterAggregator) owner).getMarginalPrice());
+	}
+
+	@Override
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception {
+		this.getOwner().handleRequestSync(owner -> {
+			((MeterAggregator) owner).subscribe(notificationInboundPortURI, deadband);
+			return null;
+		});
+	}
+
+	@Override
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		this.getOwner().handleRequestSync(owner -> {
+			((MeterAggregator) owner).unsubscribe(notificationInboundPortURI);
+			return null;
+		});
+	}
+
+}
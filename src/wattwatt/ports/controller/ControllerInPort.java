@@ -0,0 +1,32 @@
+package wattwatt.ports.controller;
+
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import wattwatt.components.Controller;
+import wattwatt.interfaces.controller.IController;
+import wattwatt.tools.controller.HouseholdSnapshot;
+
+/**
+ * The class <code>ControllerInPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The InBound port of the controller component
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ControllerInPort extends AbstractInboundPort implements IController {
+
+	private static final long serialVersionUID = 1L;
+
+	public ControllerInPort(String uri, ComponentI owner) throws Exception {
+		super(uri, IController.class, owner);
+	}
+
+	@Override
+	public HouseholdSnapshot getHouseholdSnapshot() throws Exception {
+		return this.getOwner().handleRequestSync(owner -> ((Controller) owner).takeSnapshot());
+	}
+
+}
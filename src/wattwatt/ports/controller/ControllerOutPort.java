@@ -3,6 +3,7 @@ package wattwatt.ports.controller;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import wattwatt.interfaces.controller.IController;
+import wattwatt.tools.controller.HouseholdSnapshot;
 
 /**
  * The class <code>ControllerOutPort</code>
@@ -22,6 +23,9 @@ public class ControllerOutPort extends AbstractOutboundPort implements IControll
 		super(uri, IController.class, owner);
 	}
 
-	
+	@Override
+	public HouseholdSnapshot getHouseholdSnapshot() throws Exception {
+		return ((IController) this.connector).getHouseholdSnapshot();
+	}
 
 }
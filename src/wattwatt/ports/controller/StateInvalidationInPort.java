@@ -0,0 +1,40 @@
+package wattwatt.ports.controller;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import wattwatt.components.Controller;
+import wattwatt.interfaces.controller.IStateInvalidation;
+
+/**
+ * The class <code>StateInvalidationInPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The InBound port through which the controller receives the changes of
+ *  the state of the devices it caches
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class StateInvalidationInPort extends AbstractInboundPort implements IStateInvalidation {
+
+	private static final long serialVersionUID = 1L;
+
+	public StateInvalidationInPort(String uri, ComponentI owner) throws Exception {
+		super(uri, IStateInvalidation.class, owner);
+	}
+
+	@Override
+	public void stateChanged(String deviceInboundPortURI) throws Exception {
+		this.owner.handleRequestAsync(
+				new AbstractComponent.AbstractService<Void>() {
+					@Override
+					public Void call() throws Exception {
+						((Controller)this.getServiceOwner()).stateChanged(deviceInboundPortURI) ;
+						return null;
+					}
+				}) ;
+	}
+
+}
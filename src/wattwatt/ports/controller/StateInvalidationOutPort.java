@@ -0,0 +1,31 @@
+package wattwatt.ports.controller;
+
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import wattwatt.interfaces.controller.IStateInvalidation;
+
+/**
+ * The class <code>StateInvalidationOutPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The OutBound port through which a device notifies the changes of its
+ *  state to a subscriber; the device creates one per subscription
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class StateInvalidationOutPort extends AbstractOutboundPort implements IStateInvalidation {
+
+	private static final long serialVersionUID = 1L;
+
+	public StateInvalidationOutPort(ComponentI owner) throws Exception {
+		super(IStateInvalidation.class, owner);
+	}
+
+	@Override
+	public void stateChanged(String deviceInboundPortURI) throws Exception {
+		((IStateInvalidation) this.connector).stateChanged(deviceInboundPortURI);
+	}
+
+}
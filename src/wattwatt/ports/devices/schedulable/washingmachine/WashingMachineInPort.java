@@ -3,14 +3,23 @@ package wattwatt.ports.devices.schedulable.washingmachine;
 import fr.sorbonne_u.components.AbstractComponent;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import simulation.tools.washingmachine.WashingMachineState;
 import wattwatt.components.devices.schedulable.washingmachine.WashingMachine;
 import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.washingmachine.WashingMachineMailbox;
+import wattwatt.tools.washingmachine.WashingMachineMode;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
 
 /**
  * The class <code>WashingMachineInPort</code>
  *
  * <p><strong>Description</strong></p>
- *  The InBound port of the electric meter component
+ *  The InBound port of the washing machine component; the commands are
+ *  merged in a mailbox, taken by one task of the component at a time, so
+ *  that a burst of commands costs one task and only its net effect is
+ *  applied. The tasks run on an executor service of one thread, so that a
+ *  batch is applied after the ones taken before it
  * 
  * <p>Created on : 2020-01-27</p>
  * 
@@ -23,143 +32,187 @@ public class WashingMachineInPort extends AbstractInboundPort implements IWashin
 	 */
 	private static final long serialVersionUID = 1L;
 
-	public WashingMachineInPort(String uri, ComponentI owner) throws Exception {
+	/** the commands waiting for the component. */
+	protected final WashingMachineMailbox mailbox;
+	/** index of the executor service of one thread applying the commands. */
+	protected final int mailboxExecutorIndex;
+
+	/** interceptors of the requests made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
+	/**
+	 * create the inbound port of the washing machine.
+	 * 
+	 * @param uri					URI of the port.
+	 * @param owner					the washing machine.
+	 * @param mailboxExecutorIndex	index of the executor service of one thread of
+	 * 								the owner applying the commands.
+	 * @throws Exception			<i>todo.</i>
+	 */
+	public WashingMachineInPort(String uri, ComponentI owner, int mailboxExecutorIndex) throws Exception {
 		super(uri, IWashingMachine.class, owner);
+		this.mailbox = new WashingMachineMailbox();
+		this.mailboxExecutorIndex = mailboxExecutorIndex;
+	}
+
+	public WashingMachineMailbox getMailbox() {
+		return this.mailbox;
+	}
+
+	/**
+	 * submit the task applying the commands of the mailbox, taken when the
+	 * task runs, on the executor service of one thread.
+	 * 
+	 * @throws Exception	<i>todo.</i>
+	 */
+	protected void drainMailbox() throws Exception {
+		this.owner.handleRequestAsync(this.mailboxExecutorIndex, new AbstractComponent.AbstractService<Void>() {
+			@Override
+			public Void call() throws Exception {
+				((WashingMachine) this.getServiceOwner()).applyCommands(mailbox.take());
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * set the interceptors of the requests made through this port to its
+	 * owner.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
 	}
 
 	@Override
 	public boolean isWorking() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).isWorking());
+		return this.interceptors.call(WashingMachineOutPort.IS_WORKING,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).isWorking()));
 	}
 
 	@Override
 	public boolean canDelay(int delay) throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).canDelay(delay));
+		return this.interceptors.call(WashingMachineOutPort.CAN_DELAY,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).canDelay(delay)));
 	}
 
 	@Override
 	public boolean canAdvance(int advance) throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).canAdvance(advance));
+		return this.interceptors.call(WashingMachineOutPort.CAN_ADVANCE,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).canAdvance(advance)));
 	}
 
 	@Override
 	public int durationWork() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).durationWork());
+		return this.interceptors.call(WashingMachineOutPort.DURATION_WORK,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).durationWork()));
 	}
 
 	@Override
 	public int startingTime() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).startingTime());
+		return this.interceptors.call(WashingMachineOutPort.STARTING_TIME,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).startingTime()));
 	}
 
 	@Override
 	public int endingTime() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).endingTime());
+		return this.interceptors.call(WashingMachineOutPort.ENDING_TIME,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).endingTime()));
 	}
 
 	@Override
 	public double getConso() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).giveConso());
+		return this.interceptors.call(WashingMachineOutPort.GET_CONSO,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).giveConso()));
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).isOn());
+		return this.interceptors.call(WashingMachineOutPort.IS_ON,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).isOn()));
 	}
 
 	@Override
 	public void endBefore(int end) throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).endBefore(end);
-				return null;
+		this.interceptors.run(WashingMachineOutPort.END_BEFORE, () -> {
+			if (this.mailbox.postStartingTime(end, false)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void startAt(int debut) throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).startAt(debut);
-				return null;
+		this.interceptors.run(WashingMachineOutPort.START_AT, () -> {
+			if (this.mailbox.postStartingTime(debut, true)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void late(int delay) throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).late(delay);
-				return null;
+		this.interceptors.run(WashingMachineOutPort.LATE, () -> {
+			if (this.mailbox.postShift(delay)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void advance(int advance) throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).advance(advance);
-				return null;
+		this.interceptors.run(WashingMachineOutPort.ADVANCE, () -> {
+			if (this.mailbox.postShift(-advance)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void On() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).On();
-				return null;
+		this.interceptors.run(WashingMachineOutPort.ON, () -> {
+			if (this.mailbox.postState(WashingMachineState.ON)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void Off() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).Off();
-				return null;
+		this.interceptors.run(WashingMachineOutPort.OFF, () -> {
+			if (this.mailbox.postState(WashingMachineState.OFF)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void ecoWashing() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).ecoLavage();
-				return null;
+		this.interceptors.run(WashingMachineOutPort.ECO_WASHING, () -> {
+			if (this.mailbox.postMode(WashingMachineMode.ECO)) {
+				this.drainMailbox();
 			}
 		});
-
 	}
 
 	@Override
 	public void premiumWashing() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
-			@Override
-			public Void call() throws Exception {
-				((WashingMachine) this.getServiceOwner()).premiumLavage();
-				return null;
+		this.interceptors.run(WashingMachineOutPort.PREMIUM_WASHING, () -> {
+			if (this.mailbox.postMode(WashingMachineMode.PREMIUM)) {
+				this.drainMailbox();
 			}
 		});
+	}
 
+	@Override
+	public WashingMachineStatus readStatus() throws Exception {
+		return this.interceptors.call(WashingMachineOutPort.READ_STATUS,
+				() -> this.getOwner().handleRequestSync(owner -> ((WashingMachine) owner).readStatus()));
 	}
 }
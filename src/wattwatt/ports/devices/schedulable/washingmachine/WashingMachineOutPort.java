@@ -1,8 +1,16 @@
 package wattwatt.ports.devices.schedulable.washingmachine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
+import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachineAsync;
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
 
 /**
  * The class <code>WashingMachineOutPort</code>
@@ -14,102 +22,220 @@ import wattwatt.interfaces.devices.schedulable.washingmachine.IWashingMachine;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public class WashingMachineOutPort extends AbstractOutboundPort implements IWashingMachine {
+public class WashingMachineOutPort extends AbstractOutboundPort implements IWashingMachine, IWashingMachineAsync {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** the method <code>isWorking</code>, seen by the interceptors */
+	public static final PortMethod IS_WORKING = new PortMethod("isWorking");
+	/** the method <code>canDelay</code>, seen by the interceptors */
+	public static final PortMethod CAN_DELAY = new PortMethod("canDelay");
+	/** the method <code>canAdvance</code>, seen by the interceptors */
+	public static final PortMethod CAN_ADVANCE = new PortMethod("canAdvance");
+	/** the method <code>durationWork</code>, seen by the interceptors */
+	public static final PortMethod DURATION_WORK = new PortMethod("durationWork");
+	/** the method <code>startingTime</code>, seen by the interceptors */
+	public static final PortMethod STARTING_TIME = new PortMethod("startingTime");
+	/** the method <code>endingTime</code>, seen by the interceptors */
+	public static final PortMethod ENDING_TIME = new PortMethod("endingTime");
+	/** the method <code>endBefore</code>, seen by the interceptors */
+	public static final PortMethod END_BEFORE = new PortMethod("endBefore");
+	/** the method <code>startAt</code>, seen by the interceptors */
+	public static final PortMethod START_AT = new PortMethod("startAt");
+	/** the method <code>late</code>, seen by the interceptors */
+	public static final PortMethod LATE = new PortMethod("late");
+	/** the method <code>advance</code>, seen by the interceptors */
+	public static final PortMethod ADVANCE = new PortMethod("advance");
+	/** the method <code>On</code>, seen by the interceptors */
+	public static final PortMethod ON = new PortMethod("On");
+	/** the method <code>Off</code>, seen by the interceptors */
+	public static final PortMethod OFF = new PortMethod("Off");
+	/** the method <code>getConso</code>, seen by the interceptors */
+	public static final PortMethod GET_CONSO = new PortMethod("getConso");
+	/** the method <code>isOn</code>, seen by the interceptors */
+	public static final PortMethod IS_ON = new PortMethod("isOn");
+	/** the method <code>ecoWashing</code>, seen by the interceptors */
+	public static final PortMethod ECO_WASHING = new PortMethod("ecoWashing");
+	/** the method <code>premiumWashing</code>, seen by the interceptors */
+	public static final PortMethod PREMIUM_WASHING = new PortMethod("premiumWashing");
+	/** the method <code>readStatus</code>, seen by the interceptors */
+	public static final PortMethod READ_STATUS = new PortMethod("readStatus");
+
+	/** executor running the asynchronous calls, the caller thread by default. */
+	protected transient Executor asyncExecutor = AsyncCalls.CALLER_THREAD;
+	/** interceptors of the calls made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public WashingMachineOutPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IWashingMachine.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the calls made through this port.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	public boolean isWorking() throws Exception {
-		return ((IWashingMachine) this.connector).isWorking();
+		return this.interceptors.call(IS_WORKING, () -> ((IWashingMachine) this.connector).isWorking());
 	}
 
 	@Override
 	public boolean canDelay(int delay) throws Exception {
-		return ((IWashingMachine) this.connector).canDelay(delay);
+		return this.interceptors.call(CAN_DELAY, () -> ((IWashingMachine) this.connector).canDelay(delay));
 	}
 
 	@Override
 	public boolean canAdvance(int advance) throws Exception {
-		return ((IWashingMachine) this.connector).canAdvance(advance);
+		return this.interceptors.call(CAN_ADVANCE, () -> ((IWashingMachine) this.connector).canAdvance(advance));
 	}
 
 	@Override
 	public int durationWork() throws Exception {
-		return ((IWashingMachine) this.connector).durationWork();
+		return this.interceptors.call(DURATION_WORK, () -> ((IWashingMachine) this.connector).durationWork());
 	}
 
 	@Override
 	public int startingTime() throws Exception {
-		return ((IWashingMachine) this.connector).startingTime();
+		return this.interceptors.call(STARTING_TIME, () -> ((IWashingMachine) this.connector).startingTime());
 	}
 
 	@Override
 	public int endingTime() throws Exception {
-		return ((IWashingMachine) this.connector).endingTime();
+		return this.interceptors.call(ENDING_TIME, () -> ((IWashingMachine) this.connector).endingTime());
 	}
 
 	@Override
 	public void endBefore(int end) throws Exception {
-		((IWashingMachine) this.connector).endBefore(end);
+		this.interceptors.run(END_BEFORE, () -> ((IWashingMachine) this.connector).endBefore(end));
 
 	}
 
 	@Override
 	public void startAt(int debut) throws Exception {
-		((IWashingMachine) this.connector).startAt(debut);
+		this.interceptors.run(START_AT, () -> ((IWashingMachine) this.connector).startAt(debut));
 
 	}
 
 	@Override
 	public void late(int delay) throws Exception {
-		((IWashingMachine) this.connector).late(delay);
+		this.interceptors.run(LATE, () -> ((IWashingMachine) this.connector).late(delay));
 
 	}
 
 	@Override
 	public void advance(int advance) throws Exception {
-		((IWashingMachine) this.connector).advance(advance);
+		this.interceptors.run(ADVANCE, () -> ((IWashingMachine) this.connector).advance(advance));
 
 	}
 
 	@Override
 	public void On() throws Exception {
-		((IWashingMachine) this.connector).On();
+		this.interceptors.run(ON, () -> ((IWashingMachine) this.connector).On());
 
 	}
 
 	@Override
 	public void Off() throws Exception {
-		((IWashingMachine) this.connector).Off();
+		this.interceptors.run(OFF, () -> ((IWashingMachine) this.connector).Off());
 
 	}
 
 	@Override
 	public double getConso() throws Exception {
-		return ((IWashingMachine) this.connector).getConso();
+		return this.interceptors.call(GET_CONSO, () -> ((IWashingMachine) this.connector).getConso());
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return ((IWashingMachine) this.connector).isOn();
+		return this.interceptors.call(IS_ON, () -> ((IWashingMachine) this.connector).isOn());
 	}
 
 	@Override
 	public void ecoWashing() throws Exception {
-		((IWashingMachine) this.connector).ecoWashing();
+		this.interceptors.run(ECO_WASHING, () -> ((IWashingMachine) this.connector).ecoWashing());
 
 	}
 
 	@Override
 	public void premiumWashing() throws Exception {
-		((IWashingMachine) this.connector).premiumWashing();
+		this.interceptors.run(PREMIUM_WASHING, () -> ((IWashingMachine) this.connector).premiumWashing());
+
+	}
+
+	/**
+	 * set the executor running the asynchronous calls made through this port.
+	 * 
+	 * @param executor	the executor running the asynchronous calls.
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		this.asyncExecutor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Void> OnAsync() {
+		return AsyncCalls.run(this::On, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Void> OffAsync() {
+		return AsyncCalls.run(this::Off, this.asyncExecutor);
+	}
 
+	@Override
+	public CompletableFuture<Boolean> isOnAsync() {
+		return AsyncCalls.supply(this::isOn, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isWorkingAsync() {
+		return AsyncCalls.supply(this::isWorking, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Double> getConsoAsync() {
+		return AsyncCalls.supply(this::getConso, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Integer> durationWorkAsync() {
+		return AsyncCalls.supply(this::durationWork, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Integer> startingTimeAsync() {
+		return AsyncCalls.supply(this::startingTime, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Void> lateAsync(int delay) {
+		return AsyncCalls.run(() -> this.late(delay), this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Void> advanceAsync(int advance) {
+		return AsyncCalls.run(() -> this.advance(advance), this.asyncExecutor);
+	}
+
+	@Override
+	public WashingMachineStatus readStatus() throws Exception {
+		return this.interceptors.call(READ_STATUS, () -> ((IWashingMachine) this.connector).readStatus());
+	}
+
+	@Override
+	public CompletableFuture<WashingMachineStatus> readStatusAsync() {
+		return AsyncCalls.supply(this::readStatus, this.asyncExecutor);
 	}
 
 }
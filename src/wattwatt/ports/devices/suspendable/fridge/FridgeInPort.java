@@ -5,6 +5,8 @@ import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
 import wattwatt.components.devices.suspendable.fridge.Fridge;
 import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
+import wattwatt.tools.fridge.FridgeStatus;
+import wattwatt.tools.interceptor.PortInterceptorChain;
 
 /**
  * The class <code>FridgeInPort</code>
@@ -23,81 +25,130 @@ public class FridgeInPort extends AbstractInboundPort implements IFridge {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** interceptors of the requests made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public FridgeInPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IFridge.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the requests made through this port to its
+	 * owner.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public void suspend() throws Exception {
-		this.owner.handleRequestAsync(
-				new AbstractComponent.AbstractService<Void>() {
-					@Override
-					public Void call() throws Exception {
-						((Fridge)this.getServiceOwner()).suspend() ;
-						return null;
-					}
-				}) ;
+		this.interceptors.run(FridgeOutPort.SUSPEND,
+				() -> this.owner.handleRequestAsync(
+					new AbstractComponent.AbstractService<Void>() {
+						@Override
+						public Void call() throws Exception {
+							((Fridge)this.getServiceOwner()).suspend() ;
+							return null;
+						}
+					}));
 	}
 
 	@Override
 	public void resume() throws Exception {
-		this.owner.handleRequestAsync(
-				new AbstractComponent.AbstractService<Void>() {
-					@Override
-					public Void call() throws Exception {
-						((Fridge)this.getServiceOwner()).resume() ;
-						return null;
-					}
-				}) ;
+		this.interceptors.run(FridgeOutPort.RESUME,
+				() -> this.owner.handleRequestAsync(
+					new AbstractComponent.AbstractService<Void>() {
+						@Override
+						public Void call() throws Exception {
+							((Fridge)this.getServiceOwner()).resume() ;
+							return null;
+						}
+					}));
 	}
 
 	@Override
 	public void On() throws Exception {
-		this.owner.handleRequestAsync(
-				new AbstractComponent.AbstractService<Void>() {
-					@Override
-					public Void call() throws Exception {
-						((Fridge)this.getServiceOwner()).on() ;
-						return null;
-					}
-				}) ;
+		this.interceptors.run(FridgeOutPort.ON,
+				() -> this.owner.handleRequestAsync(
+					new AbstractComponent.AbstractService<Void>() {
+						@Override
+						public Void call() throws Exception {
+							((Fridge)this.getServiceOwner()).on() ;
+							return null;
+						}
+					}));
 	}
 
 	@Override
 	public void Off() throws Exception {
-		this.owner.handleRequestAsync(
-				new AbstractComponent.AbstractService<Void>() {
-					@Override
-					public Void call() throws Exception {
-						((Fridge)this.getServiceOwner()).off() ;
-						return null;
-					}
-				}) ;
+		this.interceptors.run(FridgeOutPort.OFF,
+				() -> this.owner.handleRequestAsync(
+					new AbstractComponent.AbstractService<Void>() {
+						@Override
+						public Void call() throws Exception {
+							((Fridge)this.getServiceOwner()).off() ;
+							return null;
+						}
+					}));
 	}
 
 	@Override
 	public double getConso() throws Exception {
-		return this.getOwner().handleRequestSync(owner ->((Fridge)owner).giveConso());
+		return this.interceptors.call(FridgeOutPort.GET_CONSO,
+				() -> this.getOwner().handleRequestSync(owner ->((Fridge)owner).giveConso()));
 	}
 
 	@Override
 	public double getTempH() throws Exception {
-		return this.getOwner().handleRequestSync(owner ->((Fridge)owner).getTempHaut());
+		return this.interceptors.call(FridgeOutPort.GET_TEMP_H,
+				() -> this.getOwner().handleRequestSync(owner ->((Fridge)owner).getTempHaut()));
 	}
 
 	@Override
 	public double getTempB() throws Exception {
-		return this.getOwner().handleRequestSync(owner ->((Fridge)owner).getTempBas());
+		return this.interceptors.call(FridgeOutPort.GET_TEMP_B,
+				() -> this.getOwner().handleRequestSync(owner ->((Fridge)owner).getTempBas()));
 	}
 
 	@Override
 	public boolean isWorking() throws Exception {
-		return  this.getOwner().handleRequestSync(owner ->((Fridge)owner).isWorking());
+		return this.interceptors.call(FridgeOutPort.IS_WORKING,
+				() -> this.getOwner().handleRequestSync(owner ->((Fridge)owner).isWorking()));
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return this.getOwner().handleRequestSync(owner ->((Fridge)owner).isOn());
+		return this.interceptors.call(FridgeOutPort.IS_ON,
+				() -> this.getOwner().handleRequestSync(owner ->((Fridge)owner).isOn()));
+	}
+
+	@Override
+	public FridgeStatus readStatus() throws Exception {
+		return this.interceptors.call(FridgeOutPort.READ_STATUS,
+				() -> this.getOwner().handleRequestSync(owner -> ((Fridge) owner).readStatus()));
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(FridgeOutPort.SUBSCRIBE_INVALIDATION, () -> this.getOwner().handleRequestSync(owner -> {
+			((Fridge) owner).subscribeInvalidation(invalidationInboundPortURI);
+			return null;
+		}));
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(FridgeOutPort.UNSUBSCRIBE_INVALIDATION, () -> this.getOwner().handleRequestSync(owner -> {
+			((Fridge) owner).unsubscribeInvalidation(invalidationInboundPortURI);
+			return null;
+		}));
 	}
 
 }
@@ -1,8 +1,17 @@
 package wattwatt.ports.devices.suspendable.fridge;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
+import wattwatt.interfaces.devices.suspendable.fridge.IFridgeAsync;
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.cache.ReadThroughCache;
+import wattwatt.tools.fridge.FridgeStatus;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
 
 /**
  * The class <code>FridgeOutPort</code>
@@ -14,64 +23,200 @@ import wattwatt.interfaces.devices.suspendable.fridge.IFridge;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public class FridgeOutPort extends AbstractOutboundPort implements IFridge {
+public class FridgeOutPort extends AbstractOutboundPort implements IFridge, IFridgeAsync {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** the method <code>suspend</code>, seen by the interceptors */
+	public static final PortMethod SUSPEND = new PortMethod("suspend");
+	/** the method <code>resume</code>, seen by the interceptors */
+	public static final PortMethod RESUME = new PortMethod("resume");
+	/** the method <code>On</code>, seen by the interceptors */
+	public static final PortMethod ON = new PortMethod("On");
+	/** the method <code>Off</code>, seen by the interceptors */
+	public static final PortMethod OFF = new PortMethod("Off");
+	/** the method <code>getConso</code>, seen by the interceptors */
+	public static final PortMethod GET_CONSO = new PortMethod("getConso");
+	/** the method <code>getTempH</code>, seen by the interceptors */
+	public static final PortMethod GET_TEMP_H = new PortMethod("getTempH");
+	/** the method <code>getTempB</code>, seen by the interceptors */
+	public static final PortMethod GET_TEMP_B = new PortMethod("getTempB");
+	/** the method <code>isWorking</code>, seen by the interceptors */
+	public static final PortMethod IS_WORKING = new PortMethod("isWorking");
+	/** the method <code>isOn</code>, seen by the interceptors */
+	public static final PortMethod IS_ON = new PortMethod("isOn");
+	/** the method <code>readStatus</code>, seen by the interceptors */
+	public static final PortMethod READ_STATUS = new PortMethod("readStatus");
+	/** the method <code>subscribeInvalidation</code>, seen by the interceptors */
+	public static final PortMethod SUBSCRIBE_INVALIDATION = new PortMethod("subscribeInvalidation");
+	/** the method <code>unsubscribeInvalidation</code>, seen by the interceptors */
+	public static final PortMethod UNSUBSCRIBE_INVALIDATION = new PortMethod("unsubscribeInvalidation");
+
+	/** executor running the asynchronous calls, the caller thread by default. */
+	protected transient Executor asyncExecutor = AsyncCalls.CALLER_THREAD;
+	/** interceptors of the calls made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+	/** cache of the requests made through this port, caching nothing by default. */
+	protected transient ReadThroughCache cache = ReadThroughCache.NONE;
+
 	public FridgeOutPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IFridge.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the calls made through this port.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
+	/**
+	 * set the cache of the requests made through this port.
+	 * 
+	 * @param cache	the cache.
+	 */
+	public void setReadCache(ReadThroughCache cache) {
+		assert cache != null;
+		this.cache = cache;
+	}
+
+	public ReadThroughCache getReadCache() {
+		return this.cache;
+	}
+
 	@Override
 	public void suspend() throws Exception {
-		((IFridge)this.connector).suspend();
+		this.interceptors.run(SUSPEND, () -> ((IFridge)this.connector).suspend());
+		this.cache.invalidate();
 		
 	}
 
 	@Override
 	public void resume() throws Exception {
-		((IFridge)this.connector).resume();
+		this.interceptors.run(RESUME, () -> ((IFridge)this.connector).resume());
+		this.cache.invalidate();
 		
 	}
 
 	@Override
 	public void On() throws Exception {
-		((IFridge)this.connector).On();
+		this.interceptors.run(ON, () -> ((IFridge)this.connector).On());
+		this.cache.invalidate();
 		
 	}
 
 	@Override
 	public void Off() throws Exception {
-		((IFridge)this.connector).Off();
+		this.interceptors.run(OFF, () -> ((IFridge)this.connector).Off());
+		this.cache.invalidate();
 		
 	}
 
 	@Override
 	public double getConso() throws Exception {
-		return ((IFridge)this.connector).getConso();
+		return this.cache.read(GET_CONSO,
+				() -> this.interceptors.call(GET_CONSO, () -> ((IFridge)this.connector).getConso()));
 	}
 
 	@Override
 	public double getTempH() throws Exception {
-		return ((IFridge)this.connector).getTempH();
+		return this.cache.read(GET_TEMP_H,
+				() -> this.interceptors.call(GET_TEMP_H, () -> ((IFridge)this.connector).getTempH()));
 	}
 
 	@Override
 	public double getTempB() throws Exception {
-		return ((IFridge)this.connector).getTempB();
+		return this.cache.read(GET_TEMP_B,
+				() -> this.interceptors.call(GET_TEMP_B, () -> ((IFridge)this.connector).getTempB()));
 	}
 
 	@Override
 	public boolean isWorking() throws Exception {
-		return ((IFridge)this.connector).isWorking();
+		return this.cache.read(IS_WORKING,
+				() -> this.interceptors.call(IS_WORKING, () -> ((IFridge)this.connector).isWorking()));
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return ((IFridge)this.connector).isOn();
+		return this.cache.read(IS_ON,
+				() -> this.interceptors.call(IS_ON, () -> ((IFridge)this.connector).isOn()));
+	}
+
+	/**
+	 * set the executor running the asynchronous calls made through this port.
+	 * 
+	 * @param executor	the executor running the asynchronous calls.
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		this.asyncExecutor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Void> suspendAsync() {
+		return AsyncCalls.run(this::suspend, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Void> resumeAsync() {
+		return AsyncCalls.run(this::resume, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isOnAsync() {
+		return AsyncCalls.supply(this::isOn, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isWorkingAsync() {
+		return AsyncCalls.supply(this::isWorking, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Double> getConsoAsync() {
+		return AsyncCalls.supply(this::getConso, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Double> getTempHAsync() {
+		return AsyncCalls.supply(this::getTempH, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Double> getTempBAsync() {
+		return AsyncCalls.supply(this::getTempB, this.asyncExecutor);
+	}
+
+	@Override
+	public FridgeStatus readStatus() throws Exception {
+		return this.cache.read(READ_STATUS,
+				() -> this.interceptors.call(READ_STATUS, () -> ((IFridge) this.connector).readStatus()));
+	}
+
+	@Override
+	public CompletableFuture<FridgeStatus> readStatusAsync() {
+		return AsyncCalls.supply(this::readStatus, this.asyncExecutor);
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(SUBSCRIBE_INVALIDATION,
+				() -> ((IFridge) this.connector).subscribeInvalidation(invalidationInboundPortURI));
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(UNSUBSCRIBE_INVALIDATION,
+				() -> ((IFridge) this.connector).unsubscribeInvalidation(invalidationInboundPortURI));
 	}
 
 }
@@ -5,6 +5,8 @@ import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
 import wattwatt.components.devices.uncontrollable.hairdryer.HairDryer;
 import wattwatt.interfaces.devices.uncontrollable.hairdryer.IHairDryer;
+import wattwatt.tools.hairdryer.HairDryerStatus;
+import wattwatt.tools.interceptor.PortInterceptorChain;
 
 /**
  * The class <code>HairDryerInPort</code>
@@ -23,79 +25,99 @@ public class HairDryerInPort extends AbstractInboundPort implements IHairDryer {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** interceptors of the requests made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public HairDryerInPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IHairDryer.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the requests made through this port to its
+	 * owner.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public void On() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(HairDryerOutPort.ON, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((HairDryer) this.getServiceOwner()).on();
 				return null;
 			}
-		});
+		}));
 	}
 
 	@Override
 	public void Off() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(HairDryerOutPort.OFF, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((HairDryer) this.getServiceOwner()).off();
 				return null;
 			}
-		});
-
+		}));
 	}
 
 	@Override
 	public double getConso() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((HairDryer) owner).giveConso());
-
+		return this.interceptors.call(HairDryerOutPort.GET_CONSO,
+				() -> this.getOwner().handleRequestSync(owner -> ((HairDryer) owner).giveConso()));
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((HairDryer) owner).isOn());
-
+		return this.interceptors.call(HairDryerOutPort.IS_ON,
+				() -> this.getOwner().handleRequestSync(owner -> ((HairDryer) owner).isOn()));
 	}
 
 	@Override
 	public void switchMode() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(HairDryerOutPort.SWITCH_MODE, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((HairDryer) this.getServiceOwner()).switchMode();
 				return null;
 			}
-		});
-
+		}));
 	}
 
 	@Override
 	public void increasePower() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(HairDryerOutPort.INCREASE_POWER, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((HairDryer) this.getServiceOwner()).increasePower();
 				return null;
 			}
-		});
-
+		}));
 	}
 
 	@Override
 	public void decreasePower() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(HairDryerOutPort.DECREASE_POWER, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((HairDryer) this.getServiceOwner()).decreasePower();
 				return null;
 			}
-		});
+		}));
+	}
 
+	@Override
+	public HairDryerStatus readStatus() throws Exception {
+		return this.interceptors.call(HairDryerOutPort.READ_STATUS,
+				() -> this.getOwner().handleRequestSync(owner -> ((HairDryer) owner).readStatus()));
 	}
 
 }
@@ -3,6 +3,9 @@ package wattwatt.ports.devices.uncontrollable.hairdryer;
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import wattwatt.interfaces.devices.uncontrollable.hairdryer.IHairDryer;
+import wattwatt.tools.hairdryer.HairDryerStatus;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
 
 /**
  * The class <code>HairDryerOutPort</code>
@@ -21,49 +24,88 @@ public class HairDryerOutPort extends AbstractOutboundPort implements IHairDryer
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** the method <code>On</code>, seen by the interceptors */
+	public static final PortMethod ON = new PortMethod("On");
+	/** the method <code>Off</code>, seen by the interceptors */
+	public static final PortMethod OFF = new PortMethod("Off");
+	/** the method <code>getConso</code>, seen by the interceptors */
+	public static final PortMethod GET_CONSO = new PortMethod("getConso");
+	/** the method <code>isOn</code>, seen by the interceptors */
+	public static final PortMethod IS_ON = new PortMethod("isOn");
+	/** the method <code>switchMode</code>, seen by the interceptors */
+	public static final PortMethod SWITCH_MODE = new PortMethod("switchMode");
+	/** the method <code>increasePower</code>, seen by the interceptors */
+	public static final PortMethod INCREASE_POWER = new PortMethod("increasePower");
+	/** the method <code>decreasePower</code>, seen by the interceptors */
+	public static final PortMethod DECREASE_POWER = new PortMethod("decreasePower");
+	/** the method <code>readStatus</code>, seen by the interceptors */
+	public static final PortMethod READ_STATUS = new PortMethod("readStatus");
+
+	/** interceptors of the calls made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public HairDryerOutPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IHairDryer.class, owner);
 		
 	}
 
+	/**
+	 * set the interceptors of the calls made through this port.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public void On() throws Exception {
-		((IHairDryer)this.connector).On();
+		this.interceptors.run(ON, () -> ((IHairDryer)this.connector).On());
 		
 	}
 
 	@Override
 	public void Off() throws Exception {
-		((IHairDryer)this.connector).Off();
+		this.interceptors.run(OFF, () -> ((IHairDryer)this.connector).Off());
 		
 	}
 
 	@Override
 	public double getConso() throws Exception {
-		return ((IHairDryer)this.connector).getConso();
+		return this.interceptors.call(GET_CONSO, () -> ((IHairDryer)this.connector).getConso());
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return ((IHairDryer)this.connector).isOn();
+		return this.interceptors.call(IS_ON, () -> ((IHairDryer)this.connector).isOn());
 	}
 
 	@Override
 	public void switchMode() throws Exception {
-		((IHairDryer)this.connector).switchMode();
+		this.interceptors.run(SWITCH_MODE, () -> ((IHairDryer)this.connector).switchMode());
 		
 	}
 
 	@Override
 	public void increasePower() throws Exception {
-		((IHairDryer)this.connector).increasePower();
+		this.interceptors.run(INCREASE_POWER, () -> ((IHairDryer)this.connector).increasePower());
 		
 	}
 
 	@Override
 	public void decreasePower() throws Exception {
-		((IHairDryer)this.connector).decreasePower();
+		this.interceptors.run(DECREASE_POWER, () -> ((IHairDryer)this.connector).decreasePower());
 		
 	}
 
+	@Override
+	public HairDryerStatus readStatus() throws Exception {
+		return this.interceptors.call(READ_STATUS, () -> ((IHairDryer) this.connector).readStatus());
+	}
+
 }
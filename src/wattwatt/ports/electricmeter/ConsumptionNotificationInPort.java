@@ -0,0 +1,52 @@
+package wattwatt.ports.electricmeter;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import wattwatt.components.Controller;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
+
+/**
+ * The class <code>ConsumptionNotificationInPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The InBound port through which the controller receives the overall
+ *  consumption and the tariff price pushed by the electric meter
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ConsumptionNotificationInPort extends AbstractInboundPort implements IConsumptionNotification {
+
+	private static final long serialVersionUID = 1L;
+
+	public ConsumptionNotificationInPort(String uri, ComponentI owner) throws Exception {
+		super(uri, IConsumptionNotification.class, owner);
+	}
+
+	@Override
+	public void consumptionChanged(double consumption) throws Exception {
+		this.owner.handleRequestAsync(
+				new AbstractComponent.AbstractService<Void>() {
+					@Override
+					public Void call() throws Exception {
+						((Controller)this.getServiceOwner()).consumptionChanged(consumption) ;
+						return null;
+					}
+				}) ;
+	}
+
+	@Override
+	public void priceChanged(double price) throws Exception {
+		this.owner.handleRequestAsync(
+				new AbstractComponent.AbstractService<Void>() {
+					@Override
+					public Void call() throws Exception {
+						((Controller)this.getServiceOwner()).priceChanged(price) ;
+						return null;
+					}
+				}) ;
+	}
+
+}
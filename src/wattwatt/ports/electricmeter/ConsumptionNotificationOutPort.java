@@ -0,0 +1,36 @@
+package wattwatt.ports.electricmeter;
+
+import fr.sorbonne_u.components.ComponentI;
+import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import wattwatt.interfaces.electricmeter.IConsumptionNotification;
+
+/**
+ * The class <code>ConsumptionNotificationOutPort</code>
+ *
+ * <p><strong>Description</strong></p>
+ *  The OutBound port through which the electric meter pushes the overall
+ *  consumption to a subscriber; the meter creates one per subscription
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ConsumptionNotificationOutPort extends AbstractOutboundPort implements IConsumptionNotification {
+
+	private static final long serialVersionUID = 1L;
+
+	public ConsumptionNotificationOutPort(ComponentI owner) throws Exception {
+		super(IConsumptionNotification.class, owner);
+	}
+
+	@Override
+	public void consumptionChanged(double consumption) throws Exception {
+		((IConsumptionNotification) this.connector).consumptionChanged(consumption);
+	}
+
+	@Override
+	public void priceChanged(double price) throws Exception {
+		((IConsumptionNotification) this.connector).priceChanged(price);
+	}
+
+}
@@ -2,8 +2,11 @@ package wattwatt.ports.electricmeter;
 
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
 import wattwatt.components.ElectricMeter;
 import wattwatt.interfaces.electricmeter.IElectricMeter;
+import wattwatt.tools.interceptor.PortInterceptorChain;
 
 /**
  * The class <code>ElectricMeterInPort</code>
@@ -22,14 +25,73 @@ public class ElectricMeterInPort extends AbstractInboundPort implements IElectri
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** interceptors of the requests made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public ElectricMeterInPort(String uri, ComponentI owner) throws Exception {
 		super(uri,IElectricMeter.class, owner);
 		
 	}
 
+	/**
+	 * set the interceptors of the requests made through this port to its
+	 * owner.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public double getAllConso() throws Exception {
-		return this.getOwner().handleRequestSync(owner ->((ElectricMeter)owner).giveConso());
+		return this.interceptors.call(ElectricMeterOutPort.GET_ALL_CONSO,
+				() -> this.getOwner().handleRequestSync(owner ->((ElectricMeter)owner).giveConso()));
+	}
+
+	@Override
+	public DemandStatistics getDemandStatistics() throws Exception {
+		return this.interceptors.call(ElectricMeterOutPort.GET_DEMAND_STATISTICS,
+				() -> this.getOwner().handleRequestSync(owner -> ((ElectricMeter) owner).getDemandStatistics()));
+	}
+
+	@Override
+	public DemandSketch getDemandSketch() throws Exception {
+		return this.interceptors.call(ElectricMeterOutPort.GET_DEMAND_SKETCH,
+				() -> this.getOwner().handleRequestSync(owner -> ((ElectricMeter) owner).getDemandSketch()));
+	}
+
+	@Override
+	public double getAccruedCost() throws Exception {
+		return this.interceptors.call(ElectricMeterOutPort.GET_ACCRUED_COST,
+				() -> this.getOwner().handleRequestSync(owner -> ((ElectricMeter) owner).getAccruedCost()));
+	}
+
+	@Override
+	public double getMarginalPrice() throws Exception {
+		return this.interceptors.call(ElectricMeterOutPort.GET_MARGINAL_PRICE,
+				() -> this.getOwner().handleRequestSync(owner -> ((ElectricMeter) owner).getMarginalPrice()));
+	}
+
+	@Override
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception {
+		this.interceptors.run(ElectricMeterOutPort.SUBSCRIBE, () -> this.getOwner().handleRequestSync(owner -> {
+			((ElectricMeter) owner).subscribe(notificationInboundPortURI, deadband);
+			return null;
+		}));
+	}
+
+	@Override
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		this.interceptors.run(ElectricMeterOutPort.UNSUBSCRIBE, () -> this.getOwner().handleRequestSync(owner -> {
+			((ElectricMeter) owner).unsubscribe(notificationInboundPortURI);
+			return null;
+		}));
 	}
 
 }
@@ -1,8 +1,17 @@
 package wattwatt.ports.electricmeter;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
+import simulation.tools.electricmeter.DemandSketch;
+import simulation.tools.electricmeter.DemandStatistics;
 import wattwatt.interfaces.electricmeter.IElectricMeter;
+import wattwatt.interfaces.electricmeter.IElectricMeterAsync;
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
 
 /**
  * The class <code>ElectricMeterOutPort</code>
@@ -14,22 +23,98 @@ import wattwatt.interfaces.electricmeter.IElectricMeter;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public class ElectricMeterOutPort extends AbstractOutboundPort implements IElectricMeter {
+public class ElectricMeterOutPort extends AbstractOutboundPort implements IElectricMeter, IElectricMeterAsync {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** the method <code>getAllConso</code>, seen by the interceptors */
+	public static final PortMethod GET_ALL_CONSO = new PortMethod("getAllConso");
+	/** the method <code>getDemandStatistics</code>, seen by the interceptors */
+	public static final PortMethod GET_DEMAND_STATISTICS = new PortMethod("getDemandStatistics");
+	/** the method <code>getDemandSketch</code>, seen by the interceptors */
+	public static final PortMethod GET_DEMAND_SKETCH = new PortMethod("getDemandSketch");
+	/** the method <code>getAccruedCost</code>, seen by the interceptors */
+	public static final PortMethod GET_ACCRUED_COST = new PortMethod("getAccruedCost");
+	/** the method <code>getMarginalPrice</code>, seen by the interceptors */
+	public static final PortMethod GET_MARGINAL_PRICE = new PortMethod("getMarginalPrice");
+	/** the method <code>subscribe</code>, seen by the interceptors */
+	public static final PortMethod SUBSCRIBE = new PortMethod("subscribe");
+	/** the method <code>unsubscribe</code>, seen by the interceptors */
+	public static final PortMethod UNSUBSCRIBE = new PortMethod("unsubscribe");
+
+	/** executor running the asynchronous calls, the caller thread by default. */
+	protected transient Executor asyncExecutor = AsyncCalls.CALLER_THREAD;
+	/** interceptors of the calls made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public ElectricMeterOutPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IElectricMeter.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the calls made through this port.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public double getAllConso() throws Exception {
-		return ((IElectricMeter)this.connector).getAllConso();
+		return this.interceptors.call(GET_ALL_CONSO, () -> ((IElectricMeter)this.connector).getAllConso());
+	}
+
+	@Override
+	public DemandStatistics getDemandStatistics() throws Exception {
+		return this.interceptors.call(GET_DEMAND_STATISTICS, () -> ((IElectricMeter)this.connector).getDemandStatistics());
+	}
+
+	@Override
+	public DemandSketch getDemandSketch() throws Exception {
+		return this.interceptors.call(GET_DEMAND_SKETCH, () -> ((IElectricMeter)this.connector).getDemandSketch());
+	}
+
+	@Override
+	public double getAccruedCost() throws Exception {
+		return this.interceptors.call(GET_ACCRUED_COST, () -> ((IElectricMeter)this.connector).getAccruedCost());
 	}
 
+	@Override
+	public double getMarginalPrice() throws Exception {
+		return this.interceptors.call(GET_MARGINAL_PRICE, () -> ((IElectricMeter)this.connector).getMarginalPrice());
+	}
 
+	@Override
+	public void subscribe(String notificationInboundPortURI, double deadband) throws Exception {
+		this.interceptors.run(SUBSCRIBE, () -> ((IElectricMeter)this.connector).subscribe(notificationInboundPortURI, deadband));
+	}
+
+	@Override
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		this.interceptors.run(UNSUBSCRIBE, () -> ((IElectricMeter)this.connector).unsubscribe(notificationInboundPortURI));
+	}
+
+	/**
+	 * set the executor running the asynchronous calls made through this port.
+	 * 
+	 * @param executor	the executor running the asynchronous calls.
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		this.asyncExecutor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Double> getAllConsoAsync() {
+		return AsyncCalls.supply(this::getAllConso, this.asyncExecutor);
+	}
 
 }
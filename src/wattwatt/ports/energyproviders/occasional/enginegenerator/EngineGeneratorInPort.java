@@ -5,6 +5,8 @@ import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
 import wattwatt.components.energyproviders.occasional.enginegenerator.EngineGenerator;
 import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+import wattwatt.tools.interceptor.PortInterceptorChain;
 
 /**
  * The class <code>EngineGeneratorInPort</code>
@@ -23,67 +25,111 @@ public class EngineGeneratorInPort extends AbstractInboundPort implements IEngin
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** interceptors of the requests made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public EngineGeneratorInPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IEngineGenerator.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the requests made through this port to its
+	 * owner.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public double getEnergy() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).getEnergie());
+		return this.interceptors.call(EngineGeneratorOutPort.GET_ENERGY,
+				() -> this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).getEnergie()));
 	}
 
 	@Override
 	public boolean fuelIsEmpty() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).fuelIsEmpty());
+		return this.interceptors.call(EngineGeneratorOutPort.FUEL_IS_EMPTY,
+				() -> this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).fuelIsEmpty()));
 	}
 
 	@Override
 	public boolean fuelIsFull() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).fuelIsFull());
+		return this.interceptors.call(EngineGeneratorOutPort.FUEL_IS_FULL,
+				() -> this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).fuelIsFull()));
 	}
 
 	@Override
 	public double fuelQuantity() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).fuelQuantity());
+		return this.interceptors.call(EngineGeneratorOutPort.FUEL_QUANTITY,
+				() -> this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).fuelQuantity()));
 	}
 
 	@Override
 	public void on() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(EngineGeneratorOutPort.ON, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((EngineGenerator) this.getServiceOwner()).on();
 				return null;
 			}
-		});
+		}));
 	}
 
 	@Override
 	public void off() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(EngineGeneratorOutPort.OFF, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((EngineGenerator) this.getServiceOwner()).off();
 				return null;
 			}
-		});
-
+		}));
 	}
 
 	@Override
 	public void addFuel(int quantity) throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(EngineGeneratorOutPort.ADD_FUEL, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((EngineGenerator) this.getServiceOwner()).addFuel(quantity);
 				return null;
 			}
-		});
+		}));
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).isOn());
+		return this.interceptors.call(EngineGeneratorOutPort.IS_ON,
+				() -> this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).isOn()));
+	}
+
+	@Override
+	public EngineGeneratorStatus readStatus() throws Exception {
+		return this.interceptors.call(EngineGeneratorOutPort.READ_STATUS,
+				() -> this.getOwner().handleRequestSync(owner -> ((EngineGenerator) owner).readStatus()));
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(EngineGeneratorOutPort.SUBSCRIBE_INVALIDATION, () -> this.getOwner().handleRequestSync(owner -> {
+			((EngineGenerator) owner).subscribeInvalidation(invalidationInboundPortURI);
+			return null;
+		}));
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(EngineGeneratorOutPort.UNSUBSCRIBE_INVALIDATION, () -> this.getOwner().handleRequestSync(owner -> {
+			((EngineGenerator) owner).unsubscribeInvalidation(invalidationInboundPortURI);
+			return null;
+		}));
 	}
 
 }
@@ -1,8 +1,17 @@
 package wattwatt.ports.energyproviders.occasional.enginegenerator;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
+import wattwatt.interfaces.energyproviders.occasional.IEngineGeneratorAsync;
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+import wattwatt.tools.cache.ReadThroughCache;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
 
 /**
  * The class <code>EngineGeneratorOutPort</code>
@@ -14,58 +23,181 @@ import wattwatt.interfaces.energyproviders.occasional.IEngineGenerator;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public class EngineGeneratorOutPort extends AbstractOutboundPort implements IEngineGenerator {
+public class EngineGeneratorOutPort extends AbstractOutboundPort implements IEngineGenerator, IEngineGeneratorAsync {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** the method <code>getEnergy</code>, seen by the interceptors */
+	public static final PortMethod GET_ENERGY = new PortMethod("getEnergy");
+	/** the method <code>fuelIsEmpty</code>, seen by the interceptors */
+	public static final PortMethod FUEL_IS_EMPTY = new PortMethod("fuelIsEmpty");
+	/** the method <code>fuelIsFull</code>, seen by the interceptors */
+	public static final PortMethod FUEL_IS_FULL = new PortMethod("fuelIsFull");
+	/** the method <code>fuelQuantity</code>, seen by the interceptors */
+	public static final PortMethod FUEL_QUANTITY = new PortMethod("fuelQuantity");
+	/** the method <code>on</code>, seen by the interceptors */
+	public static final PortMethod ON = new PortMethod("on");
+	/** the method <code>off</code>, seen by the interceptors */
+	public static final PortMethod OFF = new PortMethod("off");
+	/** the method <code>addFuel</code>, seen by the interceptors */
+	public static final PortMethod ADD_FUEL = new PortMethod("addFuel");
+	/** the method <code>isOn</code>, seen by the interceptors */
+	public static final PortMethod IS_ON = new PortMethod("isOn");
+	/** the method <code>readStatus</code>, seen by the interceptors */
+	public static final PortMethod READ_STATUS = new PortMethod("readStatus");
+	/** the method <code>subscribeInvalidation</code>, seen by the interceptors */
+	public static final PortMethod SUBSCRIBE_INVALIDATION = new PortMethod("subscribeInvalidation");
+	/** the method <code>unsubscribeInvalidation</code>, seen by the interceptors */
+	public static final PortMethod UNSUBSCRIBE_INVALIDATION = new PortMethod("unsubscribeInvalidation");
+
+	/** executor running the asynchronous calls, the caller thread by default. */
+	protected transient Executor asyncExecutor = AsyncCalls.CALLER_THREAD;
+	/** interceptors of the calls made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+	/** cache of the requests made through this port, caching nothing by default. */
+	protected transient ReadThroughCache cache = ReadThroughCache.NONE;
+
 	public EngineGeneratorOutPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IEngineGenerator.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the calls made through this port.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
+	/**
+	 * set the cache of the requests made through this port.
+	 * 
+	 * @param cache	the cache.
+	 */
+	public void setReadCache(ReadThroughCache cache) {
+		assert cache != null;
+		this.cache = cache;
+	}
+
+	public ReadThroughCache getReadCache() {
+		return this.cache;
+	}
+
 	@Override
 	public double getEnergy() throws Exception {
-		return ((IEngineGenerator) this.connector).getEnergy();
+		return this.cache.read(GET_ENERGY,
+				() -> this.interceptors.call(GET_ENERGY, () -> ((IEngineGenerator) this.connector).getEnergy()));
 	}
 
 	@Override
 	public boolean fuelIsEmpty() throws Exception {
-		return ((IEngineGenerator) this.connector).fuelIsEmpty();
+		return this.cache.read(FUEL_IS_EMPTY,
+				() -> this.interceptors.call(FUEL_IS_EMPTY, () -> ((IEngineGenerator) this.connector).fuelIsEmpty()));
 	}
 
 	@Override
 	public boolean fuelIsFull() throws Exception {
-		return ((IEngineGenerator) this.connector).fuelIsFull();
+		return this.cache.read(FUEL_IS_FULL,
+				() -> this.interceptors.call(FUEL_IS_FULL, () -> ((IEngineGenerator) this.connector).fuelIsFull()));
 	}
 
 	@Override
 	public double fuelQuantity() throws Exception {
-		return ((IEngineGenerator) this.connector).fuelQuantity();
+		return this.cache.read(FUEL_QUANTITY,
+				() -> this.interceptors.call(FUEL_QUANTITY, () -> ((IEngineGenerator) this.connector).fuelQuantity()));
 	}
 
 	@Override
 	public void on() throws Exception {
-		((IEngineGenerator) this.connector).on();
+		this.interceptors.run(ON, () -> ((IEngineGenerator) this.connector).on());
+		this.cache.invalidate();
 
 	}
 
 	@Override
 	public void off() throws Exception {
-		((IEngineGenerator) this.connector).off();
+		this.interceptors.run(OFF, () -> ((IEngineGenerator) this.connector).off());
+		this.cache.invalidate();
 
 	}
 
 	@Override
 	public void addFuel(int quantity) throws Exception {
-		((IEngineGenerator) this.connector).addFuel(quantity);
+		this.interceptors.run(ADD_FUEL, () -> ((IEngineGenerator) this.connector).addFuel(quantity));
+		this.cache.invalidate();
 
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return ((IEngineGenerator) this.connector).isOn();
+		return this.cache.read(IS_ON,
+				() -> this.interceptors.call(IS_ON, () -> ((IEngineGenerator) this.connector).isOn()));
+	}
+
+	/**
+	 * set the executor running the asynchronous calls made through this port.
+	 * 
+	 * @param executor	the executor running the asynchronous calls.
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		this.asyncExecutor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Double> getEnergyAsync() {
+		return AsyncCalls.supply(this::getEnergy, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Double> fuelQuantityAsync() {
+		return AsyncCalls.supply(this::fuelQuantity, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Void> onAsync() {
+		return AsyncCalls.run(this::on, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Void> offAsync() {
+		return AsyncCalls.run(this::off, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isOnAsync() {
+		return AsyncCalls.supply(this::isOn, this.asyncExecutor);
+	}
+
+	@Override
+	public EngineGeneratorStatus readStatus() throws Exception {
+		return this.cache.read(READ_STATUS,
+				() -> this.interceptors.call(READ_STATUS, () -> ((IEngineGenerator) this.connector).readStatus()));
+	}
+
+	@Override
+	public CompletableFuture<EngineGeneratorStatus> readStatusAsync() {
+		return AsyncCalls.supply(this::readStatus, this.asyncExecutor);
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(SUBSCRIBE_INVALIDATION,
+				() -> ((IEngineGenerator) this.connector).subscribeInvalidation(invalidationInboundPortURI));
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(UNSUBSCRIBE_INVALIDATION,
+				() -> ((IEngineGenerator) this.connector).unsubscribeInvalidation(invalidationInboundPortURI));
 	}
 
 }
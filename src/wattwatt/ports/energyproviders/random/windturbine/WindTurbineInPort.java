@@ -5,6 +5,8 @@ import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractInboundPort;
 import wattwatt.components.energyproviders.random.windturbine.WindTurbine;
 import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.windturbine.WindTurbineStatus;
 
 /**
  * The class <code>WindTurbineInPort</code>
@@ -23,42 +25,82 @@ public class WindTurbineInPort extends AbstractInboundPort implements IWindTurbi
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** interceptors of the requests made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+
 	public WindTurbineInPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IWindTurbine.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the requests made through this port to its
+	 * owner.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
 	@Override
 	public double getEnergy() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WindTurbine) owner).getEnergie());
+		return this.interceptors.call(WindTurbineOutPort.GET_ENERGY,
+				() -> this.getOwner().handleRequestSync(owner -> ((WindTurbine) owner).getEnergie()));
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return this.getOwner().handleRequestSync(owner -> ((WindTurbine) owner).isOn());
+		return this.interceptors.call(WindTurbineOutPort.IS_ON,
+				() -> this.getOwner().handleRequestSync(owner -> ((WindTurbine) owner).isOn()));
 	}
 
 	@Override
 	public void On() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(WindTurbineOutPort.ON, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((WindTurbine) this.getServiceOwner()).On();
 				return null;
 			}
-		});
-
+		}));
 	}
 
 	@Override
 	public void Off() throws Exception {
-		this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
+		this.interceptors.run(WindTurbineOutPort.OFF, () -> this.owner.handleRequestAsync(new AbstractComponent.AbstractService<Void>() {
 			@Override
 			public Void call() throws Exception {
 				((WindTurbine) this.getServiceOwner()).Off();
 				return null;
 			}
-		});
+		}));
+	}
+
+	@Override
+	public WindTurbineStatus readStatus() throws Exception {
+		return this.interceptors.call(WindTurbineOutPort.READ_STATUS,
+				() -> this.getOwner().handleRequestSync(owner -> ((WindTurbine) owner).readStatus()));
+	}
 
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(WindTurbineOutPort.SUBSCRIBE_INVALIDATION, () -> this.getOwner().handleRequestSync(owner -> {
+			((WindTurbine) owner).subscribeInvalidation(invalidationInboundPortURI);
+			return null;
+		}));
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(WindTurbineOutPort.UNSUBSCRIBE_INVALIDATION, () -> this.getOwner().handleRequestSync(owner -> {
+			((WindTurbine) owner).unsubscribeInvalidation(invalidationInboundPortURI);
+			return null;
+		}));
 	}
 
 }
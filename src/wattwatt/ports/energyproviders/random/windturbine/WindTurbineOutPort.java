@@ -1,8 +1,17 @@
 package wattwatt.ports.energyproviders.random.windturbine;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import fr.sorbonne_u.components.ComponentI;
 import fr.sorbonne_u.components.ports.AbstractOutboundPort;
 import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
+import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbineAsync;
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.cache.ReadThroughCache;
+import wattwatt.tools.interceptor.PortInterceptorChain;
+import wattwatt.tools.interceptor.PortMethod;
+import wattwatt.tools.windturbine.WindTurbineStatus;
 
 /**
  * The class <code>WindTurbineOutPort</code>
@@ -14,37 +23,133 @@ import wattwatt.interfaces.energyproviders.random.windturbine.IWindTurbine;
  * 
  * @author	<p>Bah Thierno, Zheng Pascal</p>
  */
-public class WindTurbineOutPort extends AbstractOutboundPort implements IWindTurbine{
+public class WindTurbineOutPort extends AbstractOutboundPort implements IWindTurbine, IWindTurbineAsync {
 
 	/**
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** the method <code>getEnergy</code>, seen by the interceptors */
+	public static final PortMethod GET_ENERGY = new PortMethod("getEnergy");
+	/** the method <code>On</code>, seen by the interceptors */
+	public static final PortMethod ON = new PortMethod("On");
+	/** the method <code>Off</code>, seen by the interceptors */
+	public static final PortMethod OFF = new PortMethod("Off");
+	/** the method <code>isOn</code>, seen by the interceptors */
+	public static final PortMethod IS_ON = new PortMethod("isOn");
+	/** the method <code>readStatus</code>, seen by the interceptors */
+	public static final PortMethod READ_STATUS = new PortMethod("readStatus");
+	/** the method <code>subscribeInvalidation</code>, seen by the interceptors */
+	public static final PortMethod SUBSCRIBE_INVALIDATION = new PortMethod("subscribeInvalidation");
+	/** the method <code>unsubscribeInvalidation</code>, seen by the interceptors */
+	public static final PortMethod UNSUBSCRIBE_INVALIDATION = new PortMethod("unsubscribeInvalidation");
+
+	/** executor running the asynchronous calls, the caller thread by default. */
+	protected transient Executor asyncExecutor = AsyncCalls.CALLER_THREAD;
+	/** interceptors of the calls made through this port, none by default. */
+	protected transient PortInterceptorChain interceptors = PortInterceptorChain.NONE;
+	/** cache of the requests made through this port, caching nothing by default. */
+	protected transient ReadThroughCache cache = ReadThroughCache.NONE;
+
 	public WindTurbineOutPort(String uri, ComponentI owner) throws Exception {
 		super(uri, IWindTurbine.class, owner);
 	}
 
+	/**
+	 * set the interceptors of the calls made through this port.
+	 * 
+	 * @param interceptors	the chain of interceptors.
+	 */
+	public void setInterceptors(PortInterceptorChain interceptors) {
+		assert interceptors != null;
+		this.interceptors = interceptors;
+	}
+
+	public PortInterceptorChain getInterceptors() {
+		return this.interceptors;
+	}
+
+	/**
+	 * set the cache of the requests made through this port.
+	 * 
+	 * @param cache	the cache.
+	 */
+	public void setReadCache(ReadThroughCache cache) {
+		assert cache != null;
+		this.cache = cache;
+	}
+
+	public ReadThroughCache getReadCache() {
+		return this.cache;
+	}
+
 	@Override
 	public double getEnergy() throws Exception {
-		return ((IWindTurbine)this.connector).getEnergy();
+		return this.cache.read(GET_ENERGY,
+				() -> this.interceptors.call(GET_ENERGY, () -> ((IWindTurbine)this.connector).getEnergy()));
 	}
 
 	@Override
 	public void On() throws Exception {
-		((IWindTurbine)this.connector).On();
+		this.interceptors.run(ON, () -> ((IWindTurbine)this.connector).On());
+		this.cache.invalidate();
 		
 	}
 
 	@Override
 	public void Off() throws Exception {
-		((IWindTurbine)this.connector).Off();
+		this.interceptors.run(OFF, () -> ((IWindTurbine)this.connector).Off());
+		this.cache.invalidate();
 		
 	}
 
 	@Override
 	public boolean isOn() throws Exception {
-		return ((IWindTurbine)this.connector).isOn();
+		return this.cache.read(IS_ON,
+				() -> this.interceptors.call(IS_ON, () -> ((IWindTurbine)this.connector).isOn()));
+	}
+
+	/**
+	 * set the executor running the asynchronous calls made through this port.
+	 * 
+	 * @param executor	the executor running the asynchronous calls.
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		this.asyncExecutor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Double> getEnergyAsync() {
+		return AsyncCalls.supply(this::getEnergy, this.asyncExecutor);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> isOnAsync() {
+		return AsyncCalls.supply(this::isOn, this.asyncExecutor);
+	}
+
+	@Override
+	public WindTurbineStatus readStatus() throws Exception {
+		return this.cache.read(READ_STATUS,
+				() -> this.interceptors.call(READ_STATUS, () -> ((IWindTurbine) this.connector).readStatus()));
+	}
+
+	@Override
+	public CompletableFuture<WindTurbineStatus> readStatusAsync() {
+		return AsyncCalls.supply(this::readStatus, this.asyncExecutor);
+	}
+
+	@Override
+	public void subscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(SUBSCRIBE_INVALIDATION,
+				() -> ((IWindTurbine) this.connector).subscribeInvalidation(invalidationInboundPortURI));
+	}
+
+	@Override
+	public void unsubscribeInvalidation(String invalidationInboundPortURI) throws Exception {
+		this.interceptors.run(UNSUBSCRIBE_INVALIDATION,
+				() -> ((IWindTurbine) this.connector).unsubscribeInvalidation(invalidationInboundPortURI));
 	}
 
 }
@@ -0,0 +1,74 @@
+package wattwatt.tools;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The class <code>AsyncCalls</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Turn the blocking calls made through the outbound ports into
+ * <code>CompletableFuture</code>s: the call runs on the given executor and
+ * the future completes with its result, or exceptionally with the exception
+ * it threw.
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class AsyncCalls {
+
+	/**
+	 * A blocking call returning a result.
+	 */
+	@FunctionalInterface
+	public static interface Call<T> {
+		public T call() throws Exception;
+	}
+
+	/**
+	 * A blocking call returning nothing.
+	 */
+	@FunctionalInterface
+	public static interface Command {
+		public void run() throws Exception;
+	}
+
+	/**
+	 * Executor running the calls in the thread asking for them; the returned
+	 * futures are then already completed.
+	 */
+	public static final Executor CALLER_THREAD = Runnable::run;
+
+	/**
+	 * Run a call on the executor.
+	 * @param c			the call.
+	 * @param executor	the executor running the call.
+	 * @return	a future completed with the result of the call.
+	 */
+	public static <T> CompletableFuture<T> supply(Call<T> c, Executor executor) {
+		CompletableFuture<T> f = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				f.complete(c.call());
+			} catch (Throwable t) {
+				f.completeExceptionally(t);
+			}
+		});
+		return f;
+	}
+
+	/**
+	 * Run a command on the executor.
+	 * @param c			the command.
+	 * @param executor	the executor running the command.
+	 * @return	a future completed when the command is done.
+	 */
+	public static CompletableFuture<Void> run(Command c, Executor executor) {
+		return supply(() -> {
+			c.run();
+			return null;
+		}, executor);
+	}
+}
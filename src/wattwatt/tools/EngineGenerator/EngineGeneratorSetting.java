@@ -28,4 +28,10 @@ public class EngineGeneratorSetting {
 	 * The Rate at wich the engine generator will send his production.
 	 */
 	public static final int UPDATE_RATE = 1000;
+
+	/**
+	 * URI of the executor service notifying the changes of the state of the
+	 * engine generator to the components caching it.
+	 */
+	public static final String INVALIDATION_EXECUTOR_URI = "engine-generator-invalidations";
 }
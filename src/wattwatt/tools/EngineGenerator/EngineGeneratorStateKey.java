@@ -0,0 +1,36 @@
+package wattwatt.tools.EngineGenerator;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>EngineGeneratorStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the engine generator component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum EngineGeneratorStateKey implements IStateKey {
+
+	STATE("state"),
+	CAPACITY("capacity"),
+	PRODUCTION("production"),
+	START("start"),
+	STOP("stop"),
+	REFILL("refill");
+
+	private final String name;
+
+	private EngineGeneratorStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
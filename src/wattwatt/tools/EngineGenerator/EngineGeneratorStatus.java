@@ -0,0 +1,53 @@
+package wattwatt.tools.EngineGenerator;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>EngineGeneratorStatus</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable view of the fields of the engine generator read together by one
+ * request on its inbound port, instead of one request per field.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class EngineGeneratorStatus implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the engine generator is on */
+	protected final boolean on;
+	/** production of the engine generator */
+	protected final double production;
+	/** quantity of fuel left */
+	protected final double fuelQuantity;
+
+	public EngineGeneratorStatus(boolean on, double production, double fuelQuantity) {
+		this.on = on;
+		this.production = production;
+		this.fuelQuantity = fuelQuantity;
+	}
+
+	public boolean isOn() {
+		return this.on;
+	}
+
+	public double getProduction() {
+		return this.production;
+	}
+
+	public double getFuelQuantity() {
+		return this.fuelQuantity;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "EngineGeneratorStatus(" + this.on + ", " + this.production + ", " + this.fuelQuantity + ")";
+	}
+}
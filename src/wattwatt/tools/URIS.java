@@ -14,6 +14,10 @@ package wattwatt.tools;
 public class URIS {
 
 	public static final String CONTROLLER_URI = "controleur";
+	public static final String CONTROLLER_IN_URI = "controleurIn";
+	public static final String CONTROLLER_CONSUMPTION_IN_URI = "controleurConsoIn";
+	public static final String CONTROLLER_INVALIDATION_IN_URI = "controleurInvalidationIn";
+	public static final String MULTI_HOUSEHOLD_CONTROLLER_URI = "multiControleur";
 	
 	public static final String ELECTRIC_METER_URI = "compteur";
 	public static final String FRIDGE_URI = "refri";
@@ -0,0 +1,44 @@
+package wattwatt.tools.aggregator;
+
+/**
+ * The class <code>AggregatorSetting</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Define somme variable used to set up the meter aggregator component.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class AggregatorSetting {
+
+	/**
+	 * URI of the executor service pushing the aggregated consumption to the
+	 * subscribers of the aggregator.
+	 */
+	public static final String NOTIFICATION_EXECUTOR_URI = "aggregator-notifications";
+
+	/**
+	 * URI of the executor service applying the consumptions pushed by the
+	 * children, with one thread so that the pushes of a child are applied in
+	 * the order they were sent.
+	 */
+	public static final String CHILD_EXECUTOR_URI = "aggregator-children";
+
+	/**
+	 * Length (in seconds of wall-clock time) of the days of the statistics of
+	 * the aggregated consumption; the aggregator is not simulated, so it
+	 * times the changes of the sum of its children with the wall clock.
+	 */
+	public static final double DEMAND_DAY_LENGTH = 86400.0;
+
+	/**
+	 * Default change (in Watt) of the consumption of a child under which it
+	 * does not push it to the aggregator; at each level, the error on the
+	 * aggregated consumption is at most the number of children times this
+	 * deadband.
+	 */
+	public static final double DEFAULT_CHILD_DEADBAND = 10.0;
+
+}
@@ -0,0 +1,235 @@
+package wattwatt.tools.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import wattwatt.tools.AsyncCalls;
+import wattwatt.tools.interceptor.PortMethod;
+
+/**
+ * The class <code>ReadThroughCache</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Cache of the results of the requests without parameter made through an
+ * outbound port. Each cached method has a time to live in the time of its
+ * clock, the clock of the cache by default; the other methods are not
+ * cached. A result is served from the cache until its time to live elapses
+ * or the cache is invalidated, either because the device notified a change
+ * of its state or because a command was sent to it through the port.
+ *
+ * <p>
+ * The results changing only on the events notified by the device are given
+ * a long time to live in wall-clock time, the ones changing at each step of
+ * the models of the device a short time to live in simulated time, since the
+ * device does not notify these changes.
+ * </p>
+ *
+ * <p>
+ * Each invalidation starts a new generation of the cache and a result is
+ * stored with the generation in which its request started, so a result
+ * read before an invalidation and received after it is never served.
+ * The data of a method are found by the id of its handle in an array.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ReadThroughCache {
+
+	/**
+	 * The class <code>MethodSnapshot</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Immutable counters of a cached method at a given instant.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static class MethodSnapshot implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		public final String method;
+		public final double ttl;
+		public final long hits;
+		public final long misses;
+
+		public MethodSnapshot(String method, double ttl, long hits, long misses) {
+			this.method = method;
+			this.ttl = ttl;
+			this.hits = hits;
+			this.misses = misses;
+		}
+
+		public double getHitRatio() {
+			long n = this.hits + this.misses;
+			return n == 0 ? 0.0 : this.hits / (double) n;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s ttl=%s hits=%d misses=%d hit-ratio=%.3f", this.method, this.ttl, this.hits,
+					this.misses, this.getHitRatio());
+		}
+	}
+
+	/**
+	 * A cached result.
+	 */
+	protected static class Entry {
+		protected final Object value;
+		protected final long generation;
+		protected final double expiry;
+
+		protected Entry(Object value, long generation, double expiry) {
+			this.value = value;
+			this.generation = generation;
+			this.expiry = expiry;
+		}
+	}
+
+	/**
+	 * A cached method.
+	 */
+	protected static class CachedMethod {
+		protected final PortMethod method;
+		protected final double ttl;
+		protected final DoubleSupplier clock;
+		protected final LongAdder hits;
+		protected final LongAdder misses;
+		protected volatile Entry entry;
+
+		protected CachedMethod(PortMethod method, double ttl, DoubleSupplier clock) {
+			this.method = method;
+			this.ttl = ttl;
+			this.clock = clock;
+			this.hits = new LongAdder();
+			this.misses = new LongAdder();
+		}
+	}
+
+	/** clock giving the wall-clock time in seconds */
+	public static final DoubleSupplier WALL_CLOCK = () -> System.nanoTime() / 1e9;
+
+	/** the cache caching nothing */
+	public static final ReadThroughCache NONE = new ReadThroughCache(WALL_CLOCK);
+
+	/** clock giving the time of the methods cached without their own clock */
+	protected final DoubleSupplier clock;
+	/** generation of the cache, incremented by each invalidation */
+	protected final AtomicLong generation;
+	/** cached methods, at the id of their handle */
+	protected volatile CachedMethod[] methods;
+
+	/**
+	 * create a cache caching nothing until methods are given a time to live.
+	 *
+	 * @param clock	clock giving the time of the methods cached without their own clock.
+	 */
+	public ReadThroughCache(DoubleSupplier clock) {
+		assert clock != null;
+		this.clock = clock;
+		this.generation = new AtomicLong();
+		this.methods = new CachedMethod[0];
+	}
+
+	/**
+	 * cache a method, its time to live being in the time of the clock of the
+	 * cache.
+	 *
+	 * <pre>
+	 * pre	this != NONE
+	 * pre	ttl &gt; 0
+	 * </pre>
+	 *
+	 * @param method	the method, a request without parameter.
+	 * @param ttl		its time to live, in the time of the clock of the cache.
+	 */
+	public void setTtl(PortMethod method, double ttl) {
+		this.setTtl(method, ttl, this.clock);
+	}
+
+	/**
+	 * cache a method, its time to live being in the time of the given clock.
+	 *
+	 * <pre>
+	 * pre	this != NONE
+	 * pre	ttl &gt; 0
+	 * pre	clock != null
+	 * </pre>
+	 *
+	 * @param method	the method, a request without parameter.
+	 * @param ttl		its time to live, in the time of the clock.
+	 * @param clock		clock giving the time of the method.
+	 */
+	public synchronized void setTtl(PortMethod method, double ttl, DoubleSupplier clock) {
+		assert this != NONE;
+		assert ttl > 0;
+		assert clock != null;
+		CachedMethod[] all = Arrays.copyOf(this.methods, Math.max(this.methods.length, method.getId() + 1));
+		all[method.getId()] = new CachedMethod(method, ttl, clock);
+		this.methods = all;
+	}
+
+	/**
+	 * read the result of a request, from the cache when it holds a valid one.
+	 *
+	 * @param <T>		type of the result.
+	 * @param method	the requested method.
+	 * @param c			the request.
+	 * @return			the result of the request.
+	 * @throws Exception	the exception thrown by the request.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T read(PortMethod method, AsyncCalls.Call<T> c) throws Exception {
+		CachedMethod[] all = this.methods;
+		int id = method.getId();
+		if (id >= all.length || all[id] == null) {
+			return c.call();
+		}
+		CachedMethod m = all[id];
+		long generation = this.generation.get();
+		Entry e = m.entry;
+		if (e != null && e.generation == generation && m.clock.getAsDouble() < e.expiry) {
+			m.hits.increment();
+			return (T) e.value;
+		}
+		m.misses.increment();
+		T ret = c.call();
+		m.entry = new Entry(ret, generation, m.clock.getAsDouble() + m.ttl);
+		return ret;
+	}
+
+	/**
+	 * make every cached result stale.
+	 */
+	public void invalidate() {
+		this.generation.incrementAndGet();
+	}
+
+	/**
+	 * return the counters of the cached methods.
+	 *
+	 * @return	the counters of the cached methods.
+	 */
+	public List<MethodSnapshot> snapshot() {
+		List<MethodSnapshot> ret = new ArrayList<>();
+		for (CachedMethod m : this.methods) {
+			if (m != null) {
+				ret.add(new MethodSnapshot(m.method.getName(), m.ttl, m.hits.sum(), m.misses.sum()));
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,143 @@
+package wattwatt.tools.cache;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import wattwatt.connectors.StateInvalidationConnector;
+import wattwatt.ports.controller.StateInvalidationOutPort;
+
+/**
+ * The class <code>StateInvalidationPublisher</code> notifies the changes of
+ * the state of a device to the components caching it.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * Each subscriber gets an outbound port of the device, connected to its
+ * <code>IStateInvalidation</code> inbound port. The notifications run on a
+ * single-threaded executor of the device and a notification still pending
+ * absorbs the following ones, so a burst of changes costs one request per
+ * subscriber; the subscriber only has to know that its cache is stale.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class StateInvalidationPublisher {
+
+	/**
+	 * A subscription: the outbound port to the subscriber and whether a
+	 * notification is pending.
+	 */
+	protected static class Subscription {
+		protected final StateInvalidationOutPort port;
+		protected final AtomicBoolean pending;
+
+		protected Subscription(StateInvalidationOutPort port) {
+			this.port = port;
+			this.pending = new AtomicBoolean();
+		}
+	}
+
+	/** component owning the outbound ports. */
+	protected final AbstractComponent owner;
+	/** index of the executor service of the owner running the notifications. */
+	protected final int executorIndex;
+	/** URI of the inbound port of the device, identifying it to the subscribers. */
+	protected final String deviceInboundPortURI;
+	/** the subscriptions, by URI of the inbound port of the subscriber. */
+	protected final Map<String, Subscription> subscriptions;
+
+	/**
+	 * create a publisher.
+	 *
+	 * <pre>
+	 * pre	owner != null &amp;&amp; deviceInboundPortURI != null
+	 * </pre>
+	 *
+	 * @param owner					component owning the outbound ports.
+	 * @param executorIndex			index of a single-threaded executor service of the owner.
+	 * @param deviceInboundPortURI	URI of the inbound port of the device.
+	 */
+	public StateInvalidationPublisher(AbstractComponent owner, int executorIndex, String deviceInboundPortURI) {
+		assert owner != null && deviceInboundPortURI != null;
+
+		this.owner = owner;
+		this.executorIndex = executorIndex;
+		this.deviceInboundPortURI = deviceInboundPortURI;
+		this.subscriptions = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * subscribe a component: an outbound port is connected to its inbound
+	 * port; a previous subscription of the same inbound port is replaced.
+	 *
+	 * @param invalidationInboundPortURI	URI of the inbound port of the subscriber.
+	 * @throws Exception					<i>todo.</i>
+	 */
+	public void subscribe(String invalidationInboundPortURI) throws Exception {
+		this.unsubscribe(invalidationInboundPortURI);
+		StateInvalidationOutPort port = new StateInvalidationOutPort(this.owner);
+		port.publishPort();
+		this.owner.doPortConnection(port.getPortURI(), invalidationInboundPortURI,
+				StateInvalidationConnector.class.getCanonicalName());
+		this.subscriptions.put(invalidationInboundPortURI, new Subscription(port));
+	}
+
+	/**
+	 * cancel the subscription of a component.
+	 *
+	 * @param invalidationInboundPortURI	URI of the inbound port of the subscriber.
+	 * @throws Exception					<i>todo.</i>
+	 */
+	public void unsubscribe(String invalidationInboundPortURI) throws Exception {
+		Subscription subscription = this.subscriptions.remove(invalidationInboundPortURI);
+		if (subscription != null) {
+			this.owner.doPortDisconnection(subscription.port.getPortURI());
+			subscription.port.unpublishPort();
+		}
+	}
+
+	/**
+	 * cancel all the subscriptions.
+	 *
+	 * @throws Exception	<i>todo.</i>
+	 */
+	public void unsubscribeAll() throws Exception {
+		for (String subscriber : new ArrayList<>(this.subscriptions.keySet())) {
+			this.unsubscribe(subscriber);
+		}
+	}
+
+	/**
+	 * notify every subscriber having no notification pending that the state
+	 * of the device changed.
+	 */
+	public void stateChanged() {
+		if (this.subscriptions.isEmpty()) {
+			return;
+		}
+		for (Subscription subscription : this.subscriptions.values()) {
+			if (subscription.pending.compareAndSet(false, true)) {
+				this.owner.runTask(this.executorIndex, new AbstractComponent.AbstractTask() {
+					@Override
+					public void run() {
+						// a change after this point sends a new notification
+						subscription.pending.set(false);
+						try {
+							if (subscription.port.connected()) {
+								subscription.port.stateChanged(deviceInboundPortURI);
+							}
+						} catch (Exception e) {
+							e.printStackTrace();
+						}
+					}
+				});
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package wattwatt.tools.controller;
+
+import simulation.tools.controller.Decision;
+
+/**
+ * The class <code>CommandBatch</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Gather the decisions taken by the controller model during one transition,
+ * at most one per controlled device, so that the controller component can
+ * send them all at once. A null decision means that the device keeps its
+ * current order.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class CommandBatch {
+
+	/** decision for the engine generator or null if unchanged */
+	protected final Decision engineGenerator;
+	/** decision for the fridge or null if unchanged */
+	protected final Decision fridge;
+	/** decision for the washing machine or null if unchanged */
+	protected final Decision washingMachine;
+
+	/**
+	 * create a batch of commands.
+	 *
+	 * <pre>
+	 * pre	engineGenerator == null || engineGenerator == Decision.START_ENGINE || engineGenerator == Decision.STOP_ENGINE
+	 * pre	fridge == null || fridge == Decision.SUSPEND_FRIDGE || fridge == Decision.RESUME_FRIDGE
+	 * pre	washingMachine == null || washingMachine == Decision.START_WASHING || washingMachine == Decision.STOP_WASHING
+	 * </pre>
+	 *
+	 * @param engineGenerator	decision for the engine generator or null.
+	 * @param fridge			decision for the fridge or null.
+	 * @param washingMachine	decision for the washing machine or null.
+	 */
+	public CommandBatch(Decision engineGenerator, Decision fridge, Decision washingMachine) {
+		assert engineGenerator == null || engineGenerator == Decision.START_ENGINE
+				|| engineGenerator == Decision.STOP_ENGINE;
+		assert fridge == null || fridge == Decision.SUSPEND_FRIDGE || fridge == Decision.RESUME_FRIDGE;
+		assert washingMachine == null || washingMachine == Decision.START_WASHING
+				|| washingMachine == Decision.STOP_WASHING;
+
+		this.engineGenerator = engineGenerator;
+		this.fridge = fridge;
+		this.washingMachine = washingMachine;
+	}
+
+	public Decision getEngineGenerator() {
+		return this.engineGenerator;
+	}
+
+	public Decision getFridge() {
+		return this.fridge;
+	}
+
+	public Decision getWashingMachine() {
+		return this.washingMachine;
+	}
+
+	/**
+	 * return the number of commands in the batch.
+	 *
+	 * @return the number of commands in the batch.
+	 */
+	public int size() {
+		return (this.engineGenerator == null ? 0 : 1) + (this.fridge == null ? 0 : 1)
+				+ (this.washingMachine == null ? 0 : 1);
+	}
+
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CommandBatch(" + this.engineGenerator + ", " + this.fridge + ", " + this.washingMachine + ")";
+	}
+}
@@ -17,4 +17,151 @@ public class ControllerSetting {
 	 * The Rate at wich the Controller will send order to other component.
 	 */
 	public static final int UPDATE_RATE = 1000;
+
+	/**
+	 * URI of the executor service running the asynchronous calls made through
+	 * the outbound ports of the controller.
+	 */
+	public static final String OUT_PORT_EXECUTOR_URI = "controller-out-ports";
+
+	/**
+	 * Number of threads running the asynchronous calls, enough to read the
+	 * whole household in one parallel round.
+	 */
+	public static final int OUT_PORT_THREADS = 8;
+
+	/**
+	 * Whether the calls made through the outbound ports of the controller are
+	 * recorded in its port metrics.
+	 */
+	public static final boolean PORT_METRICS_ENABLED = true;
+
+	/**
+	 * Period (in milliseconds) of the report of the port metrics, none when
+	 * not positive.
+	 */
+	public static final long PORT_METRICS_PERIOD = 10000;
+
+	/**
+	 * File replaced by each report of the port metrics, null to only log the
+	 * reports.
+	 */
+	public static final String PORT_METRICS_FILE = null;
+
+	/**
+	 * Time to live (in seconds of wall-clock time) of the states of the
+	 * devices cached by the controller, which also drops them when the devices
+	 * notify a change; no state is cached when not positive.
+	 */
+	public static final double READ_CACHE_TTL = 5.0;
+
+	/**
+	 * Time to live (in seconds of simulated time) of the productions, fuel and
+	 * statuses of the devices cached by the controller, which change at each
+	 * step of the models of the devices without being notified; two steps of
+	 * one second, so a value read is at most one step old.
+	 */
+	public static final double READ_SAMPLE_TTL = 2.0;
+
+	/**
+	 * Horizon (in seconds) over which the schedulable devices are planned.
+	 */
+	public static final int SCHEDULING_HORIZON = 86400;
+
+	/**
+	 * Width (in seconds) of the slots of the scheduling horizon.
+	 */
+	public static final int SCHEDULING_SLOT = 60;
+
+	/**
+	 * Seconds of the scheduling horizon per time unit of the washing machine,
+	 * the unit of its starting time, of its washing durations and of the
+	 * window <code>WashingMachineSetting.START</code> -
+	 * <code>WashingMachineSetting.END</code> in which it starts: the window
+	 * covers 3000 s to 75000 s of the day.
+	 */
+	public static final double WASHING_MACHINE_TIME_UNIT = 3.0;
+
+	/**
+	 * Time (in seconds) between two plannings of the schedulable devices.
+	 */
+	public static final double SCHEDULING_PERIOD = 900;
+
+	/**
+	 * Weight of a new observation in the production and load forecasts.
+	 */
+	public static final double FORECAST_SMOOTHING = 0.3;
+
+	/**
+	 * Change (in Watt) of the overall consumption under which the electric
+	 * meter does not push it to the controller; smaller than the deadbands of
+	 * the decisions so that they are taken on a fresh enough consumption.
+	 */
+	public static final double CONSUMPTION_DEADBAND = 5.0;
+
+	/**
+	 * Prefix of the URIs of the executor services running the shards of the
+	 * multi-household controller; the index of the shard is appended.
+	 */
+	public static final String SHARD_EXECUTOR_URI = "controller-shard-";
+
+	/**
+	 * Default number of shards of the multi-household controller, one per
+	 * available core.
+	 */
+	public static final int DEFAULT_NB_SHARDS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Period (in milliseconds) of the control rounds of the multi-household
+	 * controller over all its households, none when not positive.
+	 */
+	public static final long MULTI_HOUSEHOLD_CONTROL_PERIOD = 1000;
+
+	/**
+	 * Deficit (in Watt) above which the engine generator of a household is
+	 * started by the multi-household controller.
+	 */
+	public static final double ENGINE_START_DEFICIT = 20.0;
+
+	/**
+	 * Surplus (in Watt) above which the washing machine of a household is
+	 * started by the multi-household controller.
+	 */
+	public static final double WASHING_START_SURPLUS = 20.0;
+
+	/**
+	 * Deficit (in Watt) from which the devices of a household are shed, by
+	 * default by the controller model and by the multi-household controller;
+	 * a zero deficit sheds as soon as the consumption reaches the production.
+	 */
+	public static final double SHEDDING_DEFICIT = 0.0;
+
+	/**
+	 * Surplus (in Watt) kept when the shed devices of a household are
+	 * restored, by default by the controller model and by the multi-household
+	 * controller.
+	 */
+	public static final double RESTORING_SURPLUS = 10.0;
+
+	/**
+	 * User priority of the fridge in the load shedding, the lowest being shed
+	 * first.
+	 */
+	public static final int FRIDGE_SHEDDING_PRIORITY = 1;
+
+	/**
+	 * Comfort cost of shedding the fridge.
+	 */
+	public static final double FRIDGE_COMFORT_COST = 1.0;
+
+	/**
+	 * User priority of the washing machine in the load shedding, the lowest
+	 * being shed first.
+	 */
+	public static final int WASHING_MACHINE_SHEDDING_PRIORITY = 0;
+
+	/**
+	 * Comfort cost of shedding the washing machine.
+	 */
+	public static final double WASHING_MACHINE_COMFORT_COST = 0.5;
 }
@@ -0,0 +1,257 @@
+package wattwatt.tools.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import simulation.models.controller.ControllerModel;
+import simulation.tools.controller.Decision;
+import simulation.tools.controller.DecisionPolicy;
+import simulation.tools.enginegenerator.EngineGeneratorState;
+import simulation.tools.fridge.FridgeConsumption;
+import simulation.tools.washingmachine.WashingMachineState;
+import wattwatt.ports.devices.schedulable.washingmachine.WashingMachineOutPort;
+import wattwatt.ports.devices.suspendable.fridge.FridgeOutPort;
+import wattwatt.ports.electricmeter.ElectricMeterOutPort;
+import wattwatt.ports.energyproviders.occasional.enginegenerator.EngineGeneratorOutPort;
+import wattwatt.ports.energyproviders.random.windturbine.WindTurbineOutPort;
+import wattwatt.tools.EngineGenerator.EngineGeneratorStatus;
+import wattwatt.tools.fridge.FridgeStatus;
+import wattwatt.tools.washingmachine.WashingMachineStatus;
+import wattwatt.tools.windturbine.WindTurbineStatus;
+
+/**
+ * The class <code>ControllerShard</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Part of the households managed by a multi-household controller, with
+ * their outbound ports and their own compiled decision policy. A shard is
+ * only ever used by the single thread of its executor service, so it holds
+ * no lock and shares no mutable state with the other shards; only the number
+ * of households is published for the other threads.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ControllerShard {
+
+	/**
+	 * The class <code>Household</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Outbound ports and decision state of one household.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static class Household {
+		public final String uri;
+		public final ElectricMeterOutPort meter;
+		public final FridgeOutPort fridge;
+		public final WashingMachineOutPort washingMachine;
+		public final EngineGeneratorOutPort engineGenerator;
+		public final WindTurbineOutPort windTurbine;
+		/** decision rules of the household, holding the state of its devices */
+		protected final DecisionPolicy policy;
+		/** choice of the devices of the household to shed and to restore */
+		protected final LoadSheddingEngine loadShedding;
+
+		public Household(String uri, ElectricMeterOutPort meter, FridgeOutPort fridge,
+				WashingMachineOutPort washingMachine, EngineGeneratorOutPort engineGenerator,
+				WindTurbineOutPort windTurbine) {
+			this.uri = uri;
+			this.meter = meter;
+			this.fridge = fridge;
+			this.washingMachine = washingMachine;
+			this.engineGenerator = engineGenerator;
+			this.windTurbine = windTurbine;
+			this.policy = ControllerModel.compileDecisionPolicy(ControllerSetting.ENGINE_START_DEFICIT,
+					ControllerSetting.WASHING_START_SURPLUS);
+			this.loadShedding = ControllerModel.createLoadSheddingEngine();
+		}
+
+		/**
+		 * unpublish the outbound ports of the household.
+		 * 
+		 * @throws Exception	<i>todo.</i>
+		 */
+		public void unpublishPorts() throws Exception {
+			this.meter.unpublishPort();
+			this.fridge.unpublishPort();
+			this.washingMachine.unpublishPort();
+			this.engineGenerator.unpublishPort();
+			this.windTurbine.unpublishPort();
+		}
+	}
+
+	/** index of the shard */
+	protected final int index;
+	/** households of the shard, in the order of their registration */
+	protected final ArrayList<Household> households;
+	/** position of each household in <code>households</code> */
+	protected final Map<String, Integer> positions;
+	/** number of households, published for the other threads */
+	protected volatile int size;
+	/** number of commands sent since the creation of the shard */
+	protected volatile long commandsSent;
+
+	public ControllerShard(int index) {
+		this.index = index;
+		this.households = new ArrayList<>();
+		this.positions = new HashMap<>();
+	}
+
+	public int getIndex() {
+		return this.index;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public long getCommandsSent() {
+		return this.commandsSent;
+	}
+
+	public boolean contains(String householdURI) {
+		return this.positions.containsKey(householdURI);
+	}
+
+	/**
+	 * add a household to the shard.
+	 *
+	 * <pre>
+	 * pre	!contains(h.uri)
+	 * </pre>
+	 *
+	 * @param h	the household.
+	 */
+	public void add(Household h) {
+		assert !this.positions.containsKey(h.uri);
+
+		this.positions.put(h.uri, this.households.size());
+		this.households.add(h);
+		this.size = this.households.size();
+	}
+
+	/**
+	 * remove a household from the shard in constant time, the last household
+	 * taking its place.
+	 *
+	 * @param householdURI	URI of the household.
+	 * @return				the removed household or null if absent.
+	 */
+	public Household remove(String householdURI) {
+		Integer pos = this.positions.remove(householdURI);
+		if (pos == null) {
+			return null;
+		}
+		Household h = this.households.get(pos);
+		Household last = this.households.remove(this.households.size() - 1);
+		if (last != h) {
+			this.households.set(pos, last);
+			this.positions.put(last.uri, pos);
+		}
+		this.size = this.households.size();
+		return h;
+	}
+
+	/**
+	 * remove all the households of the shard and return them.
+	 *
+	 * @return	the removed households.
+	 */
+	public ArrayList<Household> clear() {
+		ArrayList<Household> ret = new ArrayList<>(this.households);
+		this.households.clear();
+		this.positions.clear();
+		this.size = 0;
+		return ret;
+	}
+
+	/**
+	 * read the state of every household of the shard, evaluate its decision
+	 * rules and send the resulting commands; a failing household is reported
+	 * and skipped so that it does not stop the others.
+	 *
+	 * @return	the number of commands sent.
+	 */
+	public int controlRound() {
+		int sent = 0;
+		for (int i = 0; i < this.households.size(); i++) {
+			try {
+				sent += this.control(this.households.get(i));
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+		this.commandsSent += sent;
+		return sent;
+	}
+
+	/**
+	 * read the state of a household, evaluate its decision rules, shed or
+	 * restore its devices and send the resulting commands.
+	 *
+	 * @param h	the household.
+	 * @return	the number of commands sent.
+	 * @throws Exception	if a call to one of the devices failed.
+	 */
+	protected int control(Household h) throws Exception {
+		// one request per device, reading all the fields it needs at once
+		double consumption = h.meter.getAllConso();
+		EngineGeneratorStatus eg = h.engineGenerator.readStatus();
+		WindTurbineStatus wt = h.windTurbine.readStatus();
+		FridgeStatus fridge = h.fridge.readStatus();
+		WashingMachineStatus wm = h.washingMachine.readStatus();
+		double production = eg.getProduction() + wt.getProduction();
+
+		DecisionPolicy p = h.policy;
+		p.setState(ControllerModel.ENGINE_GENERATOR_INDEX,
+				(eg.isOn() ? EngineGeneratorState.ON : EngineGeneratorState.OFF).ordinal());
+		p.setState(ControllerModel.FRIDGE_INDEX,
+				(fridge.isOn() && fridge.isWorking() ? FridgeConsumption.RESUMED : FridgeConsumption.SUSPENDED)
+						.ordinal());
+		p.setState(ControllerModel.WASHING_MACHINE_INDEX, wm.getState().ordinal());
+
+		// the decisions of the load shedding are fired in the policy and sent
+		// with the ones of the rules
+		p.evaluate(production, consumption);
+		ControllerModel.observeShedding(h.loadShedding, p,
+				ControllerModel.isOn(p, ControllerModel.FRIDGE_INDEX) ? fridge.getConsumption() : 0.0,
+				wm.getState() != WashingMachineState.OFF ? wm.getConsumption() : 0.0);
+		h.loadShedding.balance(production - consumption, ControllerSetting.SHEDDING_DEFICIT,
+				ControllerSetting.RESTORING_SURPLUS, (i, restore) -> ControllerModel.fireShedding(p, i, restore));
+
+		int sent = 0;
+		if (p.hasFired(ControllerModel.ENGINE_GENERATOR_INDEX)) {
+			if (p.getTriggeredDecision(ControllerModel.ENGINE_GENERATOR_INDEX) == Decision.START_ENGINE) {
+				h.engineGenerator.on();
+			} else {
+				h.engineGenerator.off();
+			}
+			sent++;
+		}
+		if (p.hasFired(ControllerModel.FRIDGE_INDEX)) {
+			if (p.getTriggeredDecision(ControllerModel.FRIDGE_INDEX) == Decision.SUSPEND_FRIDGE) {
+				h.fridge.suspend();
+			} else {
+				h.fridge.resume();
+			}
+			sent++;
+		}
+		if (p.hasFired(ControllerModel.WASHING_MACHINE_INDEX)) {
+			if (p.getTriggeredDecision(ControllerModel.WASHING_MACHINE_INDEX) == Decision.START_WASHING) {
+				h.washingMachine.On();
+			} else {
+				h.washingMachine.Off();
+			}
+			sent++;
+		}
+		return sent;
+	}
+}
@@ -0,0 +1,48 @@
+package wattwatt.tools.controller;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>ControllerStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the controller component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum ControllerStateKey implements IStateKey {
+
+	SNAPSHOT("snapshot"),
+	CONTROL_LOOP_METRICS("controlLoopMetrics"),
+	SIMULATED_TIME("simulatedTime"),
+	CONSUMPTION("consumption"),
+	PRODUCTION_EG("productionEG"),
+	PRODUCTION_WT("productionWT"),
+	STATE_EG("stateEG"),
+	STATE_FRIDGE("stateFridge"),
+	STATE_WM("stateWM"),
+	START_ENGINE("startEngine"),
+	STOP_ENGINE("stopEngine"),
+	SUSPEND_FRIDGE("suspendFridge"),
+	RESUME_FRIDGE("resumeFridge"),
+	START_WM("startWM"),
+	STOP_WM("stopWM"),
+	SCHEDULE_WM("scheduleWM"),
+	COMMAND_BATCH("commandBatch"),
+	ANOMALY("anomaly");
+
+	private final String name;
+
+	private ControllerStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
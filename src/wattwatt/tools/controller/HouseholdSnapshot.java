@@ -0,0 +1,126 @@
+package wattwatt.tools.controller;
+
+import java.io.Serializable;
+
+import simulation.tools.enginegenerator.EngineGeneratorState;
+import simulation.tools.fridge.FridgeConsumption;
+import simulation.tools.washingmachine.WashingMachineState;
+
+/**
+ * The class <code>HouseholdSnapshot</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable view of the household taken by the controller at a given
+ * instant: overall consumption and its price, productions of the energy providers,
+ * states and draws of the controlled devices. Snapshots are numbered by increasing
+ * versions so that a newer snapshot can be told from an older one.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class HouseholdSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** version of the snapshot, increasing with each new snapshot */
+	protected final long version;
+	/** overall consumption given by the electric meter */
+	protected final double consumption;
+	/** price of one more kWh under the tariff, NaN when unknown */
+	protected final double marginalPrice;
+	/** production of the engine generator */
+	protected final double productionEngineGenerator;
+	/** production of the wind turbine */
+	protected final double productionWindTurbine;
+	/** state of the engine generator */
+	protected final EngineGeneratorState engineGeneratorState;
+	/** state of the fridge */
+	protected final FridgeConsumption fridgeState;
+	/** state of the washing machine */
+	protected final WashingMachineState washingMachineState;
+	/** consumption of the fridge */
+	protected final double consumptionFridge;
+	/** consumption of the washing machine */
+	protected final double consumptionWashingMachine;
+
+	public HouseholdSnapshot(long version, double consumption, double marginalPrice, double productionEngineGenerator,
+			double productionWindTurbine, EngineGeneratorState engineGeneratorState, FridgeConsumption fridgeState,
+			WashingMachineState washingMachineState, double consumptionFridge, double consumptionWashingMachine) {
+		assert engineGeneratorState != null;
+		assert fridgeState != null;
+		assert washingMachineState != null;
+
+		this.version = version;
+		this.consumption = consumption;
+		this.marginalPrice = marginalPrice;
+		this.productionEngineGenerator = productionEngineGenerator;
+		this.productionWindTurbine = productionWindTurbine;
+		this.engineGeneratorState = engineGeneratorState;
+		this.fridgeState = fridgeState;
+		this.washingMachineState = washingMachineState;
+		this.consumptionFridge = consumptionFridge;
+		this.consumptionWashingMachine = consumptionWashingMachine;
+	}
+
+	public long getVersion() {
+		return this.version;
+	}
+
+	public double getConsumption() {
+		return this.consumption;
+	}
+
+	public double getMarginalPrice() {
+		return this.marginalPrice;
+	}
+
+	public double getProductionEngineGenerator() {
+		return this.productionEngineGenerator;
+	}
+
+	public double getProductionWindTurbine() {
+		return this.productionWindTurbine;
+	}
+
+	/**
+	 * return the overall production of the household.
+	 *
+	 * @return the production of the engine generator and the wind turbine.
+	 */
+	public double getProduction() {
+		return this.productionEngineGenerator + this.productionWindTurbine;
+	}
+
+	public EngineGeneratorState getEngineGeneratorState() {
+		return this.engineGeneratorState;
+	}
+
+	public FridgeConsumption getFridgeState() {
+		return this.fridgeState;
+	}
+
+	public WashingMachineState getWashingMachineState() {
+		return this.washingMachineState;
+	}
+
+	public double getConsumptionFridge() {
+		return this.consumptionFridge;
+	}
+
+	public double getConsumptionWashingMachine() {
+		return this.consumptionWashingMachine;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "HouseholdSnapshot(" + this.version + ", " + this.consumption + ", " + this.marginalPrice + ", "
+				+ this.productionEngineGenerator + ", " + this.productionWindTurbine + ", " + this.engineGeneratorState
+				+ ", " + this.fridgeState + ", " + this.washingMachineState + ", " + this.consumptionFridge + ", "
+				+ this.consumptionWashingMachine + ")";
+	}
+}
@@ -0,0 +1,135 @@
+package wattwatt.tools.controller;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>LoadForecaster</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Forecast the wind production and the base load of the household over a
+ * cycle (typically a day) cut into slots of equal width. For each slot, the
+ * forecaster keeps an exponentially weighted average of the values observed
+ * in that slot during the previous cycles; slots never observed take the
+ * value of the closest observed slot before them.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class LoadForecaster {
+
+	/** length of the cycle */
+	protected final double cycle;
+	/** width of a slot */
+	protected final double slotWidth;
+	/** weight of a new observation in the averages */
+	protected final double smoothing;
+
+	/** average wind production of each slot */
+	protected final double[] wind;
+	/** average base load of each slot */
+	protected final double[] load;
+	/** true for the slots having received at least one observation */
+	protected final boolean[] observed;
+	/** last observed wind production */
+	protected double lastWind;
+	/** last observed base load */
+	protected double lastLoad;
+
+	/**
+	 * create a forecaster.
+	 *
+	 * <pre>
+	 * pre	cycle &gt; 0 &amp;&amp; slotWidth &gt; 0
+	 * pre	smoothing &gt; 0 &amp;&amp; smoothing &lt;= 1
+	 * </pre>
+	 *
+	 * @param cycle		length of the cycle.
+	 * @param slotWidth	width of a slot, in the same unit as the cycle.
+	 * @param smoothing	weight of a new observation in the averages.
+	 */
+	public LoadForecaster(double cycle, double slotWidth, double smoothing) {
+		assert cycle > 0 && slotWidth > 0;
+		assert smoothing > 0 && smoothing <= 1;
+
+		this.cycle = cycle;
+		this.slotWidth = slotWidth;
+		this.smoothing = smoothing;
+		int nbSlots = (int) Math.ceil(cycle / slotWidth);
+		this.wind = new double[nbSlots];
+		this.load = new double[nbSlots];
+		this.observed = new boolean[nbSlots];
+	}
+
+	public int getNumberOfSlots() {
+		return this.wind.length;
+	}
+
+	/**
+	 * return the slot of the cycle containing the given time.
+	 *
+	 * @param time	a time, in the unit of the cycle.
+	 * @return		the slot containing the time.
+	 */
+	public int slotOf(double time) {
+		double t = time % this.cycle;
+		if (t < 0) {
+			t += this.cycle;
+		}
+		return Math.min((int) (t / this.slotWidth), this.wind.length - 1);
+	}
+
+	/**
+	 * record the wind production and the base load observed at the given
+	 * time.
+	 *
+	 * @param time			time of the observation.
+	 * @param windProduction	observed wind production.
+	 * @param baseLoad		observed base load.
+	 */
+	public void observe(double time, double windProduction, double baseLoad) {
+		int s = this.slotOf(time);
+		if (this.observed[s]) {
+			this.wind[s] += this.smoothing * (windProduction - this.wind[s]);
+			this.load[s] += this.smoothing * (baseLoad - this.load[s]);
+		} else {
+			this.wind[s] = windProduction;
+			this.load[s] = baseLoad;
+			this.observed[s] = true;
+		}
+		this.lastWind = windProduction;
+		this.lastLoad = baseLoad;
+	}
+
+	/**
+	 * fill <code>surplus</code> with the forecast wind production minus the
+	 * forecast base load of every slot of the cycle.
+	 *
+	 * <pre>
+	 * pre	surplus.length == getNumberOfSlots()
+	 * </pre>
+	 *
+	 * @param surplus	array receiving the forecast surplus of each slot.
+	 */
+	public void forecastSurplus(double[] surplus) {
+		assert surplus.length == this.wind.length;
+
+		// slots before the first observed one take the last observation
+		double w = this.lastWind;
+		double l = this.lastLoad;
+		for (int s = 0; s < surplus.length; s++) {
+			if (this.observed[s]) {
+				w = this.wind[s];
+				l = this.load[s];
+			}
+			surplus[s] = w - l;
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(this.observed, false);
+		this.lastWind = 0.0;
+		this.lastLoad = 0.0;
+	}
+}
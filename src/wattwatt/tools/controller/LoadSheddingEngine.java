@@ -0,0 +1,417 @@
+package wattwatt.tools.controller;
+
+import java.util.Arrays;
+
+/**
+ * The class <code>LoadSheddingEngine</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Choose which controllable devices to shed when the production does not
+ * cover the consumption, and which ones to restore when a surplus comes
+ * back. The devices drawing energy are kept in an indexed binary heap, the
+ * first one being the next to shed: lowest user priority first, then lowest
+ * comfort cost, then highest draw so that fewer devices close the deficit.
+ * Shedding k devices costs O(k log n); the shed devices are stacked and
+ * restored in the reverse order, as long as the surplus covers their draw.
+ * A suspendable device is shed by suspending it, a schedulable one by turning
+ * it off.
+ *
+ * <p>
+ * The engine only chooses the devices: the commands are given to an
+ * <code>Actuator</code>, which sends them through the decision path of the
+ * controller and may refuse them, e.g. when a dwell time is not over. A
+ * device whose shedding is refused stays a candidate and the next one is
+ * tried; a refused restoring stops the restoring, so that the devices are
+ * always restored in the reverse order of their shedding.
+ * </p>
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		a device is either in the heap, on the shed stack or idle
+ * </pre>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class LoadSheddingEngine {
+
+	/**
+	 * The interface <code>Actuator</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Sends the commands chosen by the engine.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	@FunctionalInterface
+	public static interface Actuator {
+		/**
+		 * send the command shedding or restoring a device.
+		 *
+		 * @param device	index of the device in the engine.
+		 * @param restore	true to restore the device, false to shed it.
+		 * @return			true if the command is sent, false if it is refused.
+		 */
+		public boolean actuate(int device, boolean restore);
+	}
+
+	/** position of a device that is not in the heap */
+	protected static final int ABSENT = -1;
+
+	/** number of declared devices */
+	protected int nbDevices;
+	/** true for the suspendable devices, false for the schedulable ones */
+	protected boolean[] suspendable;
+	/** user priority of each device, the lowest being shed first */
+	protected int[] priority;
+	/** comfort cost of shedding each device */
+	protected double[] comfortCost;
+	/** current draw of each device, or its draw when it was shed */
+	protected double[] draw;
+	/** true for the shed devices */
+	protected boolean[] shed;
+
+	/** indexes of the devices that can be shed, as a binary heap */
+	protected int[] heap;
+	/** number of devices in the heap */
+	protected int heapSize;
+	/** position of each device in the heap or <code>ABSENT</code> */
+	protected int[] position;
+
+	/** shed devices, the last shed on top */
+	protected int[] shedStack;
+	/** number of shed devices */
+	protected int shedCount;
+
+	/** devices whose shedding was refused during the current shedding */
+	protected int[] refused;
+
+	public LoadSheddingEngine() {
+		this.suspendable = new boolean[8];
+		this.priority = new int[8];
+		this.comfortCost = new double[8];
+		this.draw = new double[8];
+		this.shed = new boolean[8];
+		this.heap = new int[8];
+		this.position = new int[8];
+		this.shedStack = new int[8];
+		this.refused = new int[8];
+	}
+
+	// -------------------------------------------------------------------------
+	// Declaration of the devices
+	// -------------------------------------------------------------------------
+
+	/**
+	 * declare a suspendable device, shed by suspending it.
+	 *
+	 * @param priority		user priority, the lowest being shed first.
+	 * @param comfortCost	cost of shedding the device, the lowest being shed first.
+	 * @return				the index of the device.
+	 */
+	public int addSuspendable(int priority, double comfortCost) {
+		return this.add(true, priority, comfortCost);
+	}
+
+	/**
+	 * declare a schedulable device, shed by turning it off.
+	 *
+	 * @param priority		user priority, the lowest being shed first.
+	 * @param comfortCost	cost of shedding the device, the lowest being shed first.
+	 * @return				the index of the device.
+	 */
+	public int addSchedulable(int priority, double comfortCost) {
+		return this.add(false, priority, comfortCost);
+	}
+
+	protected int add(boolean isSuspendable, int priority, double comfortCost) {
+		if (this.nbDevices == this.suspendable.length) {
+			int n = 2 * this.nbDevices;
+			this.suspendable = Arrays.copyOf(this.suspendable, n);
+			this.priority = Arrays.copyOf(this.priority, n);
+			this.comfortCost = Arrays.copyOf(this.comfortCost, n);
+			this.draw = Arrays.copyOf(this.draw, n);
+			this.shed = Arrays.copyOf(this.shed, n);
+			this.heap = Arrays.copyOf(this.heap, n);
+			this.position = Arrays.copyOf(this.position, n);
+			this.shedStack = Arrays.copyOf(this.shedStack, n);
+			this.refused = Arrays.copyOf(this.refused, n);
+		}
+		int d = this.nbDevices++;
+		this.suspendable[d] = isSuspendable;
+		this.priority[d] = priority;
+		this.comfortCost[d] = comfortCost;
+		this.draw[d] = 0.0;
+		this.shed[d] = false;
+		this.position[d] = ABSENT;
+		return d;
+	}
+
+	/**
+	 * set the current draw of a device; a device drawing energy and not shed
+	 * becomes a candidate for shedding. The draw of a shed device is kept as
+	 * the one it had when it was shed.
+	 *
+	 * @param device	index of the device.
+	 * @param power		current draw of the device (in Watt).
+	 */
+	public void updateDraw(int device, double power) {
+		if (this.shed[device]) {
+			return;
+		}
+		double old = this.draw[device];
+		this.draw[device] = power;
+		if (power <= 0.0) {
+			this.removeFromHeap(device);
+		} else if (this.position[device] == ABSENT) {
+			this.insert(device);
+		} else if (power > old) {
+			this.siftUp(this.position[device]);
+		} else {
+			this.siftDown(this.position[device]);
+		}
+	}
+
+	/**
+	 * change the user priority and the comfort cost of a device.
+	 *
+	 * @param device		index of the device.
+	 * @param priority		user priority, the lowest being shed first.
+	 * @param comfortCost	cost of shedding the device.
+	 */
+	public void setPriority(int device, int priority, double comfortCost) {
+		this.priority[device] = priority;
+		this.comfortCost[device] = comfortCost;
+		int p = this.position[device];
+		if (p != ABSENT) {
+			this.siftUp(p);
+			this.siftDown(this.position[device]);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Shedding and restoring
+	// -------------------------------------------------------------------------
+
+	/**
+	 * shed devices, first in the order of the heap, until their draw covers
+	 * the deficit or no device is left; the devices whose shedding is refused
+	 * by the actuator stay candidates. At least one device is shed, even for
+	 * a zero deficit, so that a consumption equal to the production sheds as
+	 * the rules suspending the fridge when the production is at most the
+	 * consumption did.
+	 *
+	 * @param deficit	energy missing (in Watt).
+	 * @param actuator	actuator sending the commands.
+	 * @return			the draw removed by the shed devices.
+	 */
+	public double shed(double deficit, Actuator actuator) {
+		double covered = 0.0;
+		int nbShed = 0;
+		int nbRefused = 0;
+		while ((covered < deficit || nbShed == 0) && this.heapSize > 0) {
+			int d = this.heap[0];
+			this.removeFromHeap(d);
+			if (actuator.actuate(d, false)) {
+				this.shed[d] = true;
+				this.shedStack[this.shedCount++] = d;
+				covered += this.draw[d];
+				nbShed++;
+			} else {
+				this.refused[nbRefused++] = d;
+			}
+		}
+		for (int i = 0; i < nbRefused; i++) {
+			this.insert(this.refused[i]);
+		}
+		return covered;
+	}
+
+	/**
+	 * restore the shed devices in the reverse order of their shedding, as
+	 * long as the surplus covers their draw and the actuator sends the
+	 * commands.
+	 *
+	 * @param surplus	energy available (in Watt).
+	 * @param actuator	actuator sending the commands.
+	 * @return			the draw given back to the restored devices.
+	 */
+	public double restore(double surplus, Actuator actuator) {
+		double used = 0.0;
+		while (this.shedCount > 0) {
+			int d = this.shedStack[this.shedCount - 1];
+			if (used + this.draw[d] > surplus || !actuator.actuate(d, true)) {
+				break;
+			}
+			this.shedCount--;
+			this.shed[d] = false;
+			used += this.draw[d];
+			this.insert(d);
+		}
+		return used;
+	}
+
+	/**
+	 * shed devices when the margin is a deficit larger than
+	 * <code>sheddingDeficit</code>, or restore the shed devices when it is a
+	 * surplus larger than <code>restoringSurplus</code>, keeping at least
+	 * this surplus.
+	 *
+	 * @param margin			production minus consumption (in Watt).
+	 * @param sheddingDeficit	deficit from which devices are shed.
+	 * @param restoringSurplus	surplus kept when restoring devices.
+	 * @param actuator			actuator sending the commands.
+	 * @return					the draw removed (positive) or given back (negative).
+	 */
+	public double balance(double margin, double sheddingDeficit, double restoringSurplus, Actuator actuator) {
+		if (margin <= -sheddingDeficit) {
+			return this.shed(-margin, actuator);
+		} else if (margin > restoringSurplus) {
+			return -this.restore(margin - restoringSurplus, actuator);
+		}
+		return 0.0;
+	}
+
+	/**
+	 * record that a shed device is working again, switched on by another
+	 * decision or by its user; it leaves the shed devices and becomes a
+	 * candidate again.
+	 *
+	 * @param device	index of the device.
+	 */
+	public void release(int device) {
+		if (!this.shed[device]) {
+			return;
+		}
+		int i = this.shedCount - 1;
+		while (this.shedStack[i] != device) {
+			i--;
+		}
+		System.arraycopy(this.shedStack, i + 1, this.shedStack, i, this.shedCount - i - 1);
+		this.shedCount--;
+		this.shed[device] = false;
+		this.insert(device);
+	}
+
+	// -------------------------------------------------------------------------
+	// Accessors
+	// -------------------------------------------------------------------------
+
+	public int getNumberOfDevices() {
+		return this.nbDevices;
+	}
+
+	public int getShedCount() {
+		return this.shedCount;
+	}
+
+	public boolean isSuspendable(int device) {
+		return this.suspendable[device];
+	}
+
+	public boolean isShed(int device) {
+		return this.shed[device];
+	}
+
+	public double getDraw(int device) {
+		return this.draw[device];
+	}
+
+	/**
+	 * return the device that would be shed first.
+	 *
+	 * @return	the index of the device or -1 if none can be shed.
+	 */
+	public int peek() {
+		return this.heapSize == 0 ? -1 : this.heap[0];
+	}
+
+	// -------------------------------------------------------------------------
+	// Indexed heap
+	// -------------------------------------------------------------------------
+
+	/**
+	 * return true if device <code>a</code> must be shed before device
+	 * <code>b</code>.
+	 *
+	 * @param a	index of a device.
+	 * @param b	index of a device.
+	 * @return	true if <code>a</code> comes first.
+	 */
+	protected boolean before(int a, int b) {
+		if (this.priority[a] != this.priority[b]) {
+			return this.priority[a] < this.priority[b];
+		}
+		if (this.comfortCost[a] != this.comfortCost[b]) {
+			return this.comfortCost[a] < this.comfortCost[b];
+		}
+		return this.draw[a] > this.draw[b];
+	}
+
+	protected void insert(int device) {
+		if (this.draw[device] <= 0.0) {
+			return;
+		}
+		this.heap[this.heapSize] = device;
+		this.position[device] = this.heapSize;
+		this.siftUp(this.heapSize++);
+	}
+
+	protected void removeFromHeap(int device) {
+		int p = this.position[device];
+		if (p == ABSENT) {
+			return;
+		}
+		this.position[device] = ABSENT;
+		int last = this.heap[--this.heapSize];
+		if (p < this.heapSize) {
+			this.heap[p] = last;
+			this.position[last] = p;
+			this.siftUp(p);
+			this.siftDown(this.position[last]);
+		}
+	}
+
+	protected void siftUp(int p) {
+		int d = this.heap[p];
+		while (p > 0) {
+			int parent = (p - 1) >>> 1;
+			int q = this.heap[parent];
+			if (!this.before(d, q)) {
+				break;
+			}
+			this.heap[p] = q;
+			this.position[q] = p;
+			p = parent;
+		}
+		this.heap[p] = d;
+		this.position[d] = p;
+	}
+
+	protected void siftDown(int p) {
+		int d = this.heap[p];
+		int half = this.heapSize >>> 1;
+		while (p < half) {
+			int child = 2 * p + 1;
+			int right = child + 1;
+			if (right < this.heapSize && this.before(this.heap[right], this.heap[child])) {
+				child = right;
+			}
+			int c = this.heap[child];
+			if (!this.before(c, d)) {
+				break;
+			}
+			this.heap[p] = c;
+			this.position[c] = p;
+			p = child;
+		}
+		this.heap[p] = d;
+		this.position[d] = p;
+	}
+}
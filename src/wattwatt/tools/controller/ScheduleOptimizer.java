@@ -0,0 +1,173 @@
+package wattwatt.tools.controller;
+
+/**
+ * The class <code>ScheduleOptimizer</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Choose the starting slots of schedulable devices over a horizon cut into
+ * slots, given the forecast surplus (production minus base load) of each
+ * slot. A device running during a slot costs the part of its draw that the
+ * remaining surplus cannot cover. Devices are placed greedily, the most
+ * energy consuming first: for each one, the cost of every allowed start is
+ * computed with a sliding window in a single pass over the horizon, the
+ * cheapest (earliest on ties) is kept and its draw is removed from the
+ * surplus before placing the next device. Placing k devices over n slots
+ * costs O(k n) and allocates nothing once the optimizer is created.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ScheduleOptimizer {
+
+	/** surplus left in each slot while placing the devices */
+	protected final double[] residual;
+	/** cost of running one device during each slot */
+	protected final double[] slotCost;
+
+	/** number of declared devices */
+	protected int nbDevices;
+	/** number of slots during which each device works */
+	protected int[] duration;
+	/** draw of each device */
+	protected double[] power;
+	/** first allowed starting slot of each device */
+	protected int[] earliest;
+	/** last allowed starting slot of each device */
+	protected int[] latest;
+	/** chosen starting slot of each device */
+	protected int[] start;
+	/** uncovered energy of each device at its chosen start */
+	protected double[] deficit;
+	/** indexes of the devices in placement order */
+	protected int[] order;
+
+	/**
+	 * create an optimizer for a horizon of <code>nbSlots</code> slots.
+	 *
+	 * @param nbSlots		number of slots of the horizon.
+	 * @param maxDevices	maximum number of devices to place.
+	 */
+	public ScheduleOptimizer(int nbSlots, int maxDevices) {
+		assert nbSlots > 0 && maxDevices > 0;
+
+		this.residual = new double[nbSlots];
+		this.slotCost = new double[nbSlots];
+		this.duration = new int[maxDevices];
+		this.power = new double[maxDevices];
+		this.earliest = new int[maxDevices];
+		this.latest = new int[maxDevices];
+		this.start = new int[maxDevices];
+		this.deficit = new double[maxDevices];
+		this.order = new int[maxDevices];
+	}
+
+	public int getNumberOfSlots() {
+		return this.residual.length;
+	}
+
+	/**
+	 * remove all the declared devices.
+	 */
+	public void clear() {
+		this.nbDevices = 0;
+	}
+
+	/**
+	 * declare a device to place; its allowed starting slots are clipped so
+	 * that it finishes within the horizon.
+	 *
+	 * <pre>
+	 * pre	durationSlots &gt; 0 &amp;&amp; durationSlots &lt;= getNumberOfSlots()
+	 * pre	earliestSlot &lt;= latestSlot
+	 * </pre>
+	 *
+	 * @param durationSlots	number of slots during which the device works.
+	 * @param power			draw of the device while working.
+	 * @param earliestSlot	first allowed starting slot.
+	 * @param latestSlot	last allowed starting slot.
+	 * @return				the index of the device.
+	 */
+	public int addDevice(int durationSlots, double power, int earliestSlot, int latestSlot) {
+		assert durationSlots > 0 && durationSlots <= this.residual.length;
+		assert earliestSlot <= latestSlot;
+		assert this.nbDevices < this.duration.length;
+
+		int d = this.nbDevices++;
+		this.duration[d] = durationSlots;
+		this.power[d] = power;
+		this.earliest[d] = Math.max(0, earliestSlot);
+		this.latest[d] = Math.max(this.earliest[d], Math.min(latestSlot, this.residual.length - durationSlots));
+		return d;
+	}
+
+	/**
+	 * place every declared device given the forecast surplus of each slot.
+	 *
+	 * <pre>
+	 * pre	surplus.length == getNumberOfSlots()
+	 * </pre>
+	 *
+	 * @param surplus	forecast production minus base load of each slot.
+	 * @return			the total uncovered energy of the placement.
+	 */
+	public double optimize(double[] surplus) {
+		assert surplus.length == this.residual.length;
+
+		System.arraycopy(surplus, 0, this.residual, 0, surplus.length);
+
+		// most energy consuming devices first (insertion sort, few devices)
+		for (int i = 0; i < this.nbDevices; i++) {
+			int j = i;
+			double e = this.duration[i] * this.power[i];
+			while (j > 0 && this.duration[this.order[j - 1]] * this.power[this.order[j - 1]] < e) {
+				this.order[j] = this.order[j - 1];
+				j--;
+			}
+			this.order[j] = i;
+		}
+
+		double total = 0.0;
+		for (int k = 0; k < this.nbDevices; k++) {
+			int d = this.order[k];
+			int len = this.duration[d];
+			double p = this.power[d];
+			int first = this.earliest[d];
+			int last = this.latest[d] + len;
+			for (int s = first; s < last; s++) {
+				this.slotCost[s] = Math.max(0.0, p - Math.max(0.0, this.residual[s]));
+			}
+
+			double window = 0.0;
+			for (int s = first; s < first + len; s++) {
+				window += this.slotCost[s];
+			}
+			int best = first;
+			double bestCost = window;
+			for (int s = first + 1; s <= this.latest[d]; s++) {
+				window += this.slotCost[s + len - 1] - this.slotCost[s - 1];
+				if (window < bestCost - 1e-9) {
+					bestCost = window;
+					best = s;
+				}
+			}
+
+			this.start[d] = best;
+			this.deficit[d] = bestCost;
+			total += bestCost;
+			for (int s = best; s < best + len; s++) {
+				this.residual[s] -= p;
+			}
+		}
+		return total;
+	}
+
+	public int getStartSlot(int device) {
+		return this.start[device];
+	}
+
+	public double getDeficit(int device) {
+		return this.deficit[device];
+	}
+}
@@ -0,0 +1,181 @@
+package wattwatt.tools.electricmeter;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.sorbonne_u.components.AbstractComponent;
+import wattwatt.connectors.ConsumptionNotificationConnector;
+import wattwatt.ports.electricmeter.ConsumptionNotificationOutPort;
+
+/**
+ * The class <code>ConsumptionPublisher</code> pushes an overall consumption
+ * and the price of the tariff to the components subscribed to them.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * Each subscriber gets an outbound port of the publishing component,
+ * connected to its <code>IConsumptionNotification</code> inbound port, and
+ * a <code>ConsumptionSubscription</code> filtering the consumption by its
+ * deadband. The pushes run on a single-threaded executor of the component,
+ * so each subscriber receives them in order. It is used by the electric
+ * meter and by the meter aggregators.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ConsumptionPublisher {
+	/** component owning the outbound ports. */
+	protected final AbstractComponent owner;
+	/** index of the executor service of the owner running the pushes. */
+	protected final int executorIndex;
+	/** the subscriptions, by URI of the inbound port of the subscriber. */
+	protected final Map<String, ConsumptionSubscription> subscriptions;
+	/** last price published, NaN until then. */
+	protected volatile double price;
+
+	/**
+	 * create a publisher.
+	 *
+	 * <pre>
+	 * pre	owner != null
+	 * </pre>
+	 *
+	 * @param owner			component owning the outbound ports.
+	 * @param executorIndex	index of a single-threaded executor service of the owner.
+	 */
+	public ConsumptionPublisher(AbstractComponent owner, int executorIndex) {
+		assert owner != null;
+
+		this.owner = owner;
+		this.executorIndex = executorIndex;
+		this.subscriptions = new ConcurrentHashMap<>();
+		this.price = Double.NaN;
+	}
+
+	/**
+	 * subscribe a component: an outbound port is connected to its inbound
+	 * port and the consumption is pushed at once, as is the price when
+	 * known; a previous subscription of the same inbound port is replaced.
+	 *
+	 * @param notificationInboundPortURI	URI of the inbound port of the subscriber.
+	 * @param deadband						change of the consumption (in Watt) under which nothing is pushed.
+	 * @param consumption					current overall consumption.
+	 * @throws Exception					<i>todo.</i>
+	 */
+	public void subscribe(String notificationInboundPortURI, double deadband, double consumption) throws Exception {
+		this.unsubscribe(notificationInboundPortURI);
+		ConsumptionNotificationOutPort port = new ConsumptionNotificationOutPort(this.owner);
+		port.publishPort();
+		this.owner.doPortConnection(port.getPortURI(), notificationInboundPortURI,
+				ConsumptionNotificationConnector.class.getCanonicalName());
+		ConsumptionSubscription subscription = new ConsumptionSubscription(port, deadband);
+		this.subscriptions.put(notificationInboundPortURI, subscription);
+		this.push(subscription, consumption);
+		double price = this.price;
+		if (!Double.isNaN(price)) {
+			this.pushPrice(subscription, price);
+		}
+	}
+
+	/**
+	 * cancel the subscription of a component.
+	 *
+	 * @param notificationInboundPortURI	URI of the inbound port of the subscriber.
+	 * @throws Exception					<i>todo.</i>
+	 */
+	public void unsubscribe(String notificationInboundPortURI) throws Exception {
+		ConsumptionSubscription subscription = this.subscriptions.remove(notificationInboundPortURI);
+		if (subscription != null) {
+			this.owner.doPortDisconnection(subscription.getPort().getPortURI());
+			subscription.getPort().unpublishPort();
+		}
+	}
+
+	/**
+	 * cancel all the subscriptions.
+	 *
+	 * @throws Exception	<i>todo.</i>
+	 */
+	public void unsubscribeAll() throws Exception {
+		for (String subscriber : new ArrayList<>(this.subscriptions.keySet())) {
+			this.unsubscribe(subscriber);
+		}
+	}
+
+	public int getNbSubscribers() {
+		return this.subscriptions.size();
+	}
+
+	/**
+	 * offer a new overall consumption to every subscription.
+	 *
+	 * @param consumption	the overall consumption (in Watt).
+	 */
+	public void consumptionChanged(double consumption) {
+		for (ConsumptionSubscription subscription : this.subscriptions.values()) {
+			this.push(subscription, consumption);
+		}
+	}
+
+	/**
+	 * push a new price to every subscriber.
+	 *
+	 * @param price	the price per kWh.
+	 */
+	public void priceChanged(double price) {
+		this.price = price;
+		for (ConsumptionSubscription subscription : this.subscriptions.values()) {
+			this.pushPrice(subscription, price);
+		}
+	}
+
+	/**
+	 * push the consumption to a subscriber if it moved beyond the deadband of
+	 * the subscription and no push is already pending.
+	 *
+	 * @param subscription	the subscription.
+	 * @param consumption	the overall consumption.
+	 */
+	protected void push(ConsumptionSubscription subscription, double consumption) {
+		if (subscription.offer(consumption)) {
+			this.owner.runTask(this.executorIndex, new AbstractComponent.AbstractTask() {
+				@Override
+				public void run() {
+					double consumption = subscription.take();
+					try {
+						if (subscription.getPort().connected()) {
+							subscription.getPort().consumptionChanged(consumption);
+						}
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * push the price to a subscriber, after the consumptions pushed before.
+	 *
+	 * @param subscription	the subscription.
+	 * @param price			the price per kWh.
+	 */
+	protected void pushPrice(ConsumptionSubscription subscription, double price) {
+		this.owner.runTask(this.executorIndex, new AbstractComponent.AbstractTask() {
+			@Override
+			public void run() {
+				try {
+					if (subscription.getPort().connected()) {
+						subscription.getPort().priceChanged(price);
+					}
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+		});
+	}
+}
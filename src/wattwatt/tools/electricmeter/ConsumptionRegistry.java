@@ -0,0 +1,167 @@
+package wattwatt.tools.electricmeter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class <code>ConsumptionRegistry</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Registry of the consuming devices of an electric meter. Each device gets
+ * an integer slot at its registration; its consumption is stored in fixed
+ * point (micro-Watt) in its own cache line of an atomic array, so devices
+ * updated from different threads do not contend. The arrays are chunks of
+ * fixed size that never move, so registering a device never blocks nor
+ * loses a concurrent update. The overall consumption is
+ * kept incrementally in a striped accumulator receiving the difference of
+ * each update, which makes reading it independent of the number of devices
+ * and exact, since no rounding error accumulates on integers.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ConsumptionRegistry {
+
+	/** number of micro-Watt in a Watt */
+	protected static final double SCALE = 1e6;
+	/** distance between two slots in the array, one cache line of longs */
+	protected static final int STRIDE = 8;
+	/** log2 of the number of slots of a chunk */
+	protected static final int CHUNK_BITS = 6;
+	/** number of slots of a chunk */
+	protected static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	/** slot of each registered device */
+	protected final ConcurrentHashMap<String, Integer> slots;
+	/** names of the devices, indexed by slot */
+	protected volatile String[] names;
+	/** consumption of each device in micro-Watt, at
+	 *  <code>(slot % CHUNK_SIZE) * STRIDE</code> of chunk
+	 *  <code>slot / CHUNK_SIZE</code> */
+	protected volatile AtomicLongArray[] chunks;
+	/** number of registered devices */
+	protected volatile int size;
+	/** overall consumption in micro-Watt */
+	protected final LongAdder total;
+
+	public ConsumptionRegistry() {
+		this.slots = new ConcurrentHashMap<>();
+		this.names = new String[CHUNK_SIZE];
+		this.chunks = new AtomicLongArray[] { new AtomicLongArray(CHUNK_SIZE * STRIDE) };
+		this.total = new LongAdder();
+	}
+
+	/**
+	 * return the slot of a device, registering it on its first use.
+	 *
+	 * @param device	name of the device.
+	 * @return			the slot of the device.
+	 */
+	public int register(String device) {
+		Integer slot = this.slots.get(device);
+		if (slot != null) {
+			return slot;
+		}
+		synchronized (this) {
+			slot = this.slots.get(device);
+			if (slot != null) {
+				return slot;
+			}
+			int s = this.size;
+			if (s == this.names.length) {
+				int n = this.chunks.length;
+				AtomicLongArray[] chunks = new AtomicLongArray[n + 1];
+				System.arraycopy(this.chunks, 0, chunks, 0, n);
+				chunks[n] = new AtomicLongArray(CHUNK_SIZE * STRIDE);
+				String[] names = new String[(n + 1) * CHUNK_SIZE];
+				System.arraycopy(this.names, 0, names, 0, s);
+				this.chunks = chunks;
+				this.names = names;
+			}
+			this.names[s] = device;
+			this.size = s + 1;
+			this.slots.put(device, s);
+			return s;
+		}
+	}
+
+	/**
+	 * return the slot of a device.
+	 *
+	 * @param device	name of the device.
+	 * @return			the slot of the device or -1 if it is not registered.
+	 */
+	public int slotOf(String device) {
+		Integer slot = this.slots.get(device);
+		return slot == null ? -1 : slot;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public String getName(int slot) {
+		return this.names[slot];
+	}
+
+	/**
+	 * set the consumption of a device and update the overall consumption.
+	 *
+	 * <pre>
+	 * pre	slot &gt;= 0 &amp;&amp; slot &lt; size()
+	 * </pre>
+	 *
+	 * @param slot	slot of the device.
+	 * @param power	consumption of the device (in Watt).
+	 */
+	public void update(int slot, double power) {
+		assert slot >= 0 && slot < this.size;
+
+		long v = Math.round(power * SCALE);
+		long old = this.chunks[slot >>> CHUNK_BITS].getAndSet((slot & (CHUNK_SIZE - 1)) * STRIDE, v);
+		if (v != old) {
+			this.total.add(v - old);
+		}
+	}
+
+	/**
+	 * set the consumption of a device, registering it on its first use.
+	 *
+	 * @param device	name of the device.
+	 * @param power		consumption of the device (in Watt).
+	 */
+	public void update(String device, double power) {
+		this.update(this.register(device), power);
+	}
+
+	/**
+	 * return the consumption of a device.
+	 *
+	 * @param slot	slot of the device.
+	 * @return		the consumption of the device (in Watt).
+	 */
+	public double get(int slot) {
+		return this.chunks[slot >>> CHUNK_BITS].get((slot & (CHUNK_SIZE - 1)) * STRIDE) / SCALE;
+	}
+
+	/**
+	 * return the overall consumption of the registered devices.
+	 *
+	 * @return	the overall consumption (in Watt).
+	 */
+	public double getTotal() {
+		return this.total.sum() / SCALE;
+	}
+
+	/**
+	 * set the consumption of every device to zero, keeping their slots.
+	 */
+	public synchronized void reset() {
+		for (int i = 0; i < this.size; i++) {
+			this.update(i, 0.0);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package wattwatt.tools.electricmeter;
+
+import wattwatt.ports.electricmeter.ConsumptionNotificationOutPort;
+
+/**
+ * The class <code>ConsumptionSubscription</code> keeps the state of a
+ * subscription to the overall consumption of the electric meter or of a
+ * meter aggregator.
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * <p>
+ * Each update of the overall consumption is offered to the subscription; it
+ * is retained only when it moves by more than the deadband from the last
+ * retained value, the first update being always retained. A retained value
+ * asks for a push unless a push is already pending, in which case the
+ * pending push sends the latest retained value when it runs: pushes are thus
+ * coalesced and the subscriber always ends up with the latest value.
+ * </p>
+ *
+ * <p><strong>Invariant</strong></p>
+ *
+ * <pre>
+ * invariant		deadband &gt;= 0
+ * </pre>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ConsumptionSubscription {
+	/** port through which the consumption is pushed to the subscriber. */
+	protected final ConsumptionNotificationOutPort port;
+	/** change of the consumption under which nothing is pushed. */
+	protected final double deadband;
+	/** last retained consumption, NaN before the first update. */
+	protected double retained;
+	/** true when a push is waiting to be run. */
+	protected boolean pending;
+	/** number of pushes run. */
+	protected long pushed;
+	/** number of updates filtered by the deadband. */
+	protected long filtered;
+
+	/**
+	 * create a subscription.
+	 *
+	 * <pre>
+	 * pre	deadband &gt;= 0
+	 * </pre>
+	 *
+	 * @param port		port connected to the subscriber.
+	 * @param deadband	change of the consumption under which nothing is pushed.
+	 */
+	public ConsumptionSubscription(ConsumptionNotificationOutPort port, double deadband) {
+		assert deadband >= 0;
+
+		this.port = port;
+		this.deadband = deadband;
+		this.retained = Double.NaN;
+	}
+
+	public ConsumptionNotificationOutPort getPort() {
+		return this.port;
+	}
+
+	public double getDeadband() {
+		return this.deadband;
+	}
+
+	/**
+	 * offer a new overall consumption to the subscription.
+	 *
+	 * @param consumption	new overall consumption.
+	 * @return				true if a push must be run, false if the value is
+	 * 						filtered or a pending push will send it.
+	 */
+	public synchronized boolean offer(double consumption) {
+		if (!Double.isNaN(this.retained) && Math.abs(consumption - this.retained) <= this.deadband) {
+			this.filtered++;
+			return false;
+		}
+		this.retained = consumption;
+		if (this.pending) {
+			return false;
+		}
+		this.pending = true;
+		return true;
+	}
+
+	/**
+	 * take the value to push when the pending push runs.
+	 *
+	 * @return	the latest retained consumption.
+	 */
+	public synchronized double take() {
+		this.pending = false;
+		this.pushed++;
+		return this.retained;
+	}
+
+	public synchronized long getPushedCount() {
+		return this.pushed;
+	}
+
+	public synchronized long getFilteredCount() {
+		return this.filtered;
+	}
+}
@@ -24,4 +24,9 @@ public class ElectricMeterSetting {
 	 */
 	public static final int UPDATE_RATE = 1000; //ms
 
+	/**
+	 * URI of the executor service pushing the overall energy consumption to the subscribers.
+	 */
+	public static final String NOTIFICATION_EXECUTOR_URI = "electric-meter-notifications";
+
 }
@@ -0,0 +1,36 @@
+package wattwatt.tools.electricmeter;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>ElectricMeterStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the electric meter component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum ElectricMeterStateKey implements IStateKey {
+
+	CONSUMPTION_REGISTRY("consumptionRegistry"),
+	FRIDGE_CONSUMPTION("fridgeConsumption"),
+	HAIR_DRYER_CONSUMPTION("hairDryerConsumption"),
+	WASHING_MACHINE_CONSUMPTION("washingMachineConsumption"),
+	TOTAL_CONSUMPTION("totalConsumption"),
+	MARGINAL_PRICE("marginalPrice");
+
+	private final String name;
+
+	private ElectricMeterStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
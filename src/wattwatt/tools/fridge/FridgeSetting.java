@@ -58,6 +58,12 @@ public class FridgeSetting {
 	 * The Rate at wich the fridge will send his energy consumption.
 	 */
 	public static final int UPDATE_RATE = 500; //ms
+
+	/**
+	 * URI of the executor service notifying the changes of the state of the
+	 * fridge to the components caching it.
+	 */
+	public static final String INVALIDATION_EXECUTOR_URI = "fridge-invalidations";
 	
 	
 	
@@ -0,0 +1,38 @@
+package wattwatt.tools.fridge;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>FridgeStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the fridge component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum FridgeStateKey implements IStateKey {
+
+	DOOR("door"),
+	STATE("state"),
+	TEMPERATURE("temperature"),
+	CONSUMPTION("consumption"),
+	OPEN("open"),
+	CLOSE("close"),
+	SUSPEND("suspend"),
+	RESUME("resume");
+
+	private final String name;
+
+	private FridgeStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
@@ -0,0 +1,68 @@
+package wattwatt.tools.fridge;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>FridgeStatus</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable view of the fields of the fridge read together by one request on
+ * its inbound port, instead of one request per field.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class FridgeStatus implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the fridge is on */
+	protected final boolean on;
+	/** the fridge is working, i.e. on and not suspended */
+	protected final boolean working;
+	/** consumption of the fridge */
+	protected final double consumption;
+	/** temperature of the upper compartment */
+	protected final double tempH;
+	/** temperature of the lower compartment */
+	protected final double tempB;
+
+	public FridgeStatus(boolean on, boolean working, double consumption, double tempH, double tempB) {
+		this.on = on;
+		this.working = working;
+		this.consumption = consumption;
+		this.tempH = tempH;
+		this.tempB = tempB;
+	}
+
+	public boolean isOn() {
+		return this.on;
+	}
+
+	public boolean isWorking() {
+		return this.working;
+	}
+
+	public double getConsumption() {
+		return this.consumption;
+	}
+
+	public double getTempH() {
+		return this.tempH;
+	}
+
+	public double getTempB() {
+		return this.tempB;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "FridgeStatus(" + this.on + ", " + this.working + ", " + this.consumption + ", " + this.tempH + ", "
+				+ this.tempB + ")";
+	}
+}
@@ -0,0 +1,39 @@
+package wattwatt.tools.hairdryer;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>HairDryerStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the hair dryer component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum HairDryerStateKey implements IStateKey {
+
+	MODE("mode"),
+	IS_ON("isOn"),
+	POWER_LEVEL("powerLevel"),
+	CONSUMPTION("consumption"),
+	SWITCH_ON("switchOn"),
+	SWITCH_OFF("switchOff"),
+	INCREASE_POWER("increasePower"),
+	DECREASE_POWER("decreasePower"),
+	SWITCH_MODE("switchMode");
+
+	private final String name;
+
+	private HairDryerStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
@@ -0,0 +1,65 @@
+package wattwatt.tools.hairdryer;
+
+import java.io.Serializable;
+
+import simulation.tools.hairdryer.HairDryerPowerLevel;
+
+/**
+ * The class <code>HairDryerStatus</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable view of the fields of the hair dryer read together by one
+ * request on its inbound port, instead of one request per field.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class HairDryerStatus implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the hair dryer is on */
+	protected final boolean on;
+	/** consumption of the hair dryer */
+	protected final double consumption;
+	/** mode of the hair dryer */
+	protected final HairDryerMode mode;
+	/** power level of the hair dryer */
+	protected final HairDryerPowerLevel powerLevel;
+
+	public HairDryerStatus(boolean on, double consumption, HairDryerMode mode, HairDryerPowerLevel powerLevel) {
+		assert mode != null;
+		assert powerLevel != null;
+
+		this.on = on;
+		this.consumption = consumption;
+		this.mode = mode;
+		this.powerLevel = powerLevel;
+	}
+
+	public boolean isOn() {
+		return this.on;
+	}
+
+	public double getConsumption() {
+		return this.consumption;
+	}
+
+	public HairDryerMode getMode() {
+		return this.mode;
+	}
+
+	public HairDryerPowerLevel getPowerLevel() {
+		return this.powerLevel;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "HairDryerStatus(" + this.on + ", " + this.consumption + ", " + this.mode + ", " + this.powerLevel + ")";
+	}
+}
@@ -0,0 +1,35 @@
+package wattwatt.tools.interceptor;
+
+/**
+ * The interface <code>PortInterceptor</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Interceptor of the calls made through a port. It is called before and
+ * after each call; the value returned by <code>before</code> is given back
+ * to <code>after</code>, so that an interceptor can, e.g., time the call
+ * without allocating anything.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface PortInterceptor {
+
+	/**
+	 * called before a call.
+	 *
+	 * @param method	the called method.
+	 * @return			a value given back to <code>after</code>.
+	 */
+	public long before(PortMethod method);
+
+	/**
+	 * called after a call, whether it returned or threw.
+	 *
+	 * @param method	the called method.
+	 * @param context	the value returned by <code>before</code>.
+	 * @param error		the exception thrown by the call, null if it returned.
+	 */
+	public void after(PortMethod method, long context, Throwable error);
+}
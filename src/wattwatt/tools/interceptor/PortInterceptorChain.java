@@ -0,0 +1,128 @@
+package wattwatt.tools.interceptor;
+
+import java.util.Arrays;
+
+import wattwatt.tools.AsyncCalls;
+
+/**
+ * The class <code>PortInterceptorChain</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable chain of interceptors through which a port makes its calls. The
+ * first interceptor of the chain is the outermost one: it sees the call
+ * first and its end last. A port holds the empty chain <code>NONE</code>
+ * by default, with which a call costs one test on the length of the chain.
+ *
+ * <p>
+ * The chain does not depend on the kind of port: an outbound port wraps its
+ * calls to the connector, an inbound port its requests to its owner.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public final class PortInterceptorChain {
+
+	/** the chain without interceptor */
+	public static final PortInterceptorChain NONE = new PortInterceptorChain(new PortInterceptor[0]);
+
+	protected final PortInterceptor[] interceptors;
+
+	protected PortInterceptorChain(PortInterceptor[] interceptors) {
+		this.interceptors = interceptors;
+	}
+
+	/**
+	 * return a chain made of the given interceptors.
+	 *
+	 * @param interceptors	the interceptors, the outermost first.
+	 * @return				the chain.
+	 */
+	public static PortInterceptorChain of(PortInterceptor... interceptors) {
+		assert interceptors != null;
+		if (interceptors.length == 0) {
+			return NONE;
+		}
+		return new PortInterceptorChain(interceptors.clone());
+	}
+
+	/**
+	 * return a new chain ending with the given interceptor.
+	 *
+	 * @param interceptor	the interceptor.
+	 * @return				the new chain.
+	 */
+	public PortInterceptorChain with(PortInterceptor interceptor) {
+		assert interceptor != null;
+		PortInterceptor[] ret = Arrays.copyOf(this.interceptors, this.interceptors.length + 1);
+		ret[this.interceptors.length] = interceptor;
+		return new PortInterceptorChain(ret);
+	}
+
+	public boolean isEmpty() {
+		return this.interceptors.length == 0;
+	}
+
+	/**
+	 * make a call through the chain.
+	 *
+	 * @param <T>		type of the result.
+	 * @param method	the called method.
+	 * @param c			the call.
+	 * @return			the result of the call.
+	 * @throws Exception	the exception thrown by the call.
+	 */
+	public <T> T call(PortMethod method, AsyncCalls.Call<T> c) throws Exception {
+		if (this.interceptors.length == 0) {
+			return c.call();
+		}
+		return this.proceed(0, method, c);
+	}
+
+	/**
+	 * make a call returning nothing through the chain.
+	 *
+	 * @param method	the called method.
+	 * @param c			the call.
+	 * @throws Exception	the exception thrown by the call.
+	 */
+	public void run(PortMethod method, AsyncCalls.Command c) throws Exception {
+		if (this.interceptors.length == 0) {
+			c.run();
+		} else {
+			this.proceed(0, method, () -> {
+				c.run();
+				return null;
+			});
+		}
+	}
+
+	/**
+	 * make a call through the interceptors from the given one.
+	 *
+	 * @param <T>		type of the result.
+	 * @param i			index of the interceptor.
+	 * @param method	the called method.
+	 * @param c			the call.
+	 * @return			the result of the call.
+	 * @throws Exception	the exception thrown by the call.
+	 */
+	protected <T> T proceed(int i, PortMethod method, AsyncCalls.Call<T> c) throws Exception {
+		if (i == this.interceptors.length) {
+			return c.call();
+		}
+		PortInterceptor interceptor = this.interceptors[i];
+		long context = interceptor.before(method);
+		T ret;
+		try {
+			ret = this.proceed(i + 1, method, c);
+		} catch (Throwable t) {
+			interceptor.after(method, context, t);
+			throw t;
+		}
+		interceptor.after(method, context, null);
+		return ret;
+	}
+}
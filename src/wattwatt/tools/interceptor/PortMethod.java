@@ -0,0 +1,48 @@
+package wattwatt.tools.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class <code>PortMethod</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Handle of a method of a port seen by the interceptors. The ports create
+ * their handles once, as constants, and give them to their interceptor
+ * chain at each call; each handle has a small unique id so that the
+ * interceptors can keep their data per method in arrays instead of maps.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public final class PortMethod {
+
+	/** next id given to a handle */
+	protected static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	protected final int id;
+	protected final String name;
+
+	public PortMethod(String name) {
+		assert name != null;
+		this.id = NEXT_ID.getAndIncrement();
+		this.name = name;
+	}
+
+	public int getId() {
+		return this.id;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.name;
+	}
+}
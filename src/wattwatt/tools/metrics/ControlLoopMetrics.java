@@ -0,0 +1,115 @@
+package wattwatt.tools.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class <code>ControlLoopMetrics</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Latencies of the control loop of the controller, from the receipt of an
+ * event by the controller model to the dispatch of the resulting commands
+ * to the devices. Each hop has a histogram of wall-clock latencies (in
+ * nanoseconds) and a histogram of simulated latencies (in microseconds of
+ * simulated time).
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class ControlLoopMetrics {
+
+	/**
+	 * The enumeration <code>Hop</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Steps of the control loop.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static enum Hop {
+		/** from the occurrence of an event to the end of the reading of the
+		 *  household state by the controller model */
+		RECEIPT,
+		/** evaluation of the decision rules and of the actuation governor */
+		DECISION,
+		/** from the decision to the commands sent through the ports */
+		PORT_CALL,
+		/** from the sending of a command to its acceptance by the device,
+		 *  which applies it later on its own executor service */
+		DISPATCH
+	}
+
+	/** wall-clock latencies of each hop, in nanoseconds */
+	protected final LatencyHistogram[] wallClock;
+	/** simulated latencies of each hop, in microseconds of simulated time */
+	protected final LatencyHistogram[] simulated;
+
+	public ControlLoopMetrics() {
+		Hop[] hops = Hop.values();
+		this.wallClock = new LatencyHistogram[hops.length];
+		this.simulated = new LatencyHistogram[hops.length];
+		for (int i = 0; i < hops.length; i++) {
+			this.wallClock[i] = new LatencyHistogram();
+			this.simulated[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * record a wall-clock latency.
+	 *
+	 * @param hop		the step of the control loop.
+	 * @param nanos		the latency in nanoseconds.
+	 */
+	public void recordWallClock(Hop hop, long nanos) {
+		this.wallClock[hop.ordinal()].record(nanos);
+	}
+
+	/**
+	 * record a simulated latency.
+	 *
+	 * @param hop		the step of the control loop.
+	 * @param duration	the latency in simulated time units.
+	 */
+	public void recordSimulated(Hop hop, double duration) {
+		this.simulated[hop.ordinal()].record(Math.round(duration * 1e6));
+	}
+
+	public LatencyHistogram getWallClock(Hop hop) {
+		return this.wallClock[hop.ordinal()];
+	}
+
+	public LatencyHistogram getSimulated(Hop hop) {
+		return this.simulated[hop.ordinal()];
+	}
+
+	/**
+	 * return the summaries of the histograms having recorded values, keyed by
+	 * "wall-clock:HOP" and "simulated:HOP".
+	 *
+	 * @return	the summaries of the histograms.
+	 */
+	public Map<String, LatencyHistogram.Summary> summarise() {
+		Map<String, LatencyHistogram.Summary> ret = new LinkedHashMap<>();
+		for (Hop h : Hop.values()) {
+			if (this.wallClock[h.ordinal()].getCount() > 0) {
+				ret.put("wall-clock:" + h, this.wallClock[h.ordinal()].summarise());
+			}
+			if (this.simulated[h.ordinal()].getCount() > 0) {
+				ret.put("simulated:" + h, this.simulated[h.ordinal()].summarise());
+			}
+		}
+		return ret;
+	}
+
+	public void reset() {
+		for (int i = 0; i < this.wallClock.length; i++) {
+			this.wallClock[i].reset();
+			this.simulated[i].reset();
+		}
+	}
+}
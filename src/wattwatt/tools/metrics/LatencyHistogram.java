@@ -0,0 +1,212 @@
+package wattwatt.tools.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class <code>LatencyHistogram</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Lock-free histogram of non negative values (typically latencies in
+ * nanoseconds) with a fixed set of buckets. Values below 8 have their own
+ * bucket; above, each power of two is cut into 8 buckets of equal width, so
+ * a value is known within 12.5%. Recording a value is a few atomic
+ * increments and never allocates, so any number of threads can record
+ * concurrently while another one reads the histogram.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The class <code>Summary</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Immutable summary of a histogram, small enough to be put in
+	 * simulation reports or sent to another component.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static class Summary implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		public final long count;
+		public final double mean;
+		public final long p50;
+		public final long p95;
+		public final long p99;
+		public final long max;
+
+		public Summary(long count, double mean, long p50, long p95, long p99, long max) {
+			this.count = count;
+			this.mean = mean;
+			this.p50 = p50;
+			this.p95 = p95;
+			this.p99 = p99;
+			this.max = max;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("count=%d mean=%.1f p50=%d p95=%d p99=%d max=%d", this.count, this.mean, this.p50,
+					this.p95, this.p99, this.max);
+		}
+	}
+
+	/** number of bits giving the bucket within a power of two */
+	protected static final int SUB_BUCKET_BITS = 3;
+	/** number of buckets within a power of two */
+	protected static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** total number of buckets, enough for any positive long */
+	public static final int NB_BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+
+	/** number of values recorded in each bucket */
+	protected final AtomicLongArray counts;
+	/** number of recorded values */
+	protected final LongAdder count;
+	/** sum of the recorded values */
+	protected final LongAdder sum;
+	/** greatest recorded value */
+	protected final AtomicLong max;
+
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(NB_BUCKETS);
+		this.count = new LongAdder();
+		this.sum = new LongAdder();
+		this.max = new AtomicLong();
+	}
+
+	/**
+	 * return the bucket of a value.
+	 *
+	 * @param v	a non negative value.
+	 * @return	the index of its bucket.
+	 */
+	public static int bucketOf(long v) {
+		if (v < SUB_BUCKETS) {
+			return (int) v;
+		}
+		int exp = 63 - Long.numberOfLeadingZeros(v);
+		return ((exp - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS)
+				+ (int) ((v >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * return the greatest value falling in a bucket.
+	 *
+	 * @param bucket	index of the bucket.
+	 * @return			the greatest value of the bucket.
+	 */
+	public static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exp = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+		long lower = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << (exp - SUB_BUCKET_BITS);
+		return lower + (1L << (exp - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * record a value; negative values are recorded as 0.
+	 *
+	 * @param v	the value.
+	 */
+	public void record(long v) {
+		if (v < 0) {
+			v = 0;
+		}
+		this.counts.incrementAndGet(bucketOf(v));
+		this.count.increment();
+		this.sum.add(v);
+		long m = this.max.get();
+		while (v > m && !this.max.compareAndSet(m, v)) {
+			m = this.max.get();
+		}
+	}
+
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	public double getMean() {
+		long n = this.count.sum();
+		return n == 0 ? 0.0 : this.sum.sum() / (double) n;
+	}
+
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * return an upper bound of the value below which the given percentage of
+	 * the recorded values fall.
+	 *
+	 * <pre>
+	 * pre	percentile &gt;= 0 &amp;&amp; percentile &lt;= 100
+	 * </pre>
+	 *
+	 * @param percentile	percentage of the values.
+	 * @return				the value at the percentile, 0 if nothing recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		assert percentile >= 0 && percentile <= 100;
+
+		long n = 0;
+		for (int b = 0; b < NB_BUCKETS; b++) {
+			n += this.counts.get(b);
+		}
+		if (n == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+		long seen = 0;
+		for (int b = 0; b < NB_BUCKETS; b++) {
+			seen += this.counts.get(b);
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(b), this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	/**
+	 * return an immutable summary of the histogram.
+	 *
+	 * @return	the summary of the histogram.
+	 */
+	public Summary summarise() {
+		return new Summary(this.getCount(), this.getMean(), this.getValueAtPercentile(50),
+				this.getValueAtPercentile(95), this.getValueAtPercentile(99), this.getMax());
+	}
+
+	/**
+	 * forget all the recorded values.
+	 */
+	public void reset() {
+		for (int b = 0; b < NB_BUCKETS; b++) {
+			this.counts.set(b, 0);
+		}
+		this.count.reset();
+		this.sum.reset();
+		this.max.set(0);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.summarise().toString();
+	}
+}
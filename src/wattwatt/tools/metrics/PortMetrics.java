@@ -0,0 +1,215 @@
+package wattwatt.tools.metrics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import wattwatt.tools.interceptor.PortInterceptor;
+import wattwatt.tools.interceptor.PortMethod;
+
+/**
+ * The class <code>PortMetrics</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Interceptor recording, for each method of the port it is put on, the
+ * number of calls, the number of calls having thrown an exception, the
+ * number of calls in progress and the latencies of the calls in
+ * nanoseconds. The data of a method are found by the id of its handle in
+ * an array.
+ *
+ * <p>
+ * Reading the clock costs more than the rest of the recording, so only one
+ * call out of <code>samplingPeriod</code> is timed; the counts are exact.
+ * With the default period, recording a call is two increments plus, on
+ * average, a small fraction of a timed call, so the metrics can stay
+ * enabled on the ports of a running simulation.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class PortMetrics implements PortInterceptor {
+
+	/**
+	 * The class <code>MethodSnapshot</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Immutable metrics of a method at a given instant.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static class MethodSnapshot implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		public final String method;
+		public final long calls;
+		public final long errors;
+		public final long inFlight;
+		/** latencies in nanoseconds of the timed calls */
+		public final LatencyHistogram.Summary latency;
+
+		public MethodSnapshot(String method, long calls, long errors, long inFlight,
+				LatencyHistogram.Summary latency) {
+			this.method = method;
+			this.calls = calls;
+			this.errors = errors;
+			this.inFlight = inFlight;
+			this.latency = latency;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return this.method + " calls=" + this.calls + " errors=" + this.errors + " in-flight=" + this.inFlight
+					+ " latency[ns] " + this.latency;
+		}
+	}
+
+	/**
+	 * The metrics of one method.
+	 */
+	protected static class MethodMetrics {
+		protected final PortMethod method;
+		protected final AtomicLong started;
+		protected final AtomicLong ended;
+		protected final LongAdder errors;
+		protected final LatencyHistogram latency;
+
+		protected MethodMetrics(PortMethod method) {
+			this.method = method;
+			this.started = new AtomicLong();
+			this.ended = new AtomicLong();
+			this.errors = new LongAdder();
+			this.latency = new LatencyHistogram();
+		}
+	}
+
+	/** default number of calls per timed call */
+	public static final int DEFAULT_SAMPLING_PERIOD = 16;
+	/** context of a call which is not timed */
+	protected static final long NOT_TIMED = Long.MIN_VALUE;
+
+	/** mask giving the rank of a call within its sampling period */
+	protected final long samplingMask;
+	/** metrics of the methods, at the id of their handle */
+	protected volatile MethodMetrics[] methods;
+
+	public PortMetrics() {
+		this(DEFAULT_SAMPLING_PERIOD);
+	}
+
+	/**
+	 * create the metrics of a port.
+	 *
+	 * <pre>
+	 * pre	samplingPeriod &gt; 0 &amp;&amp; Integer.bitCount(samplingPeriod) == 1
+	 * </pre>
+	 *
+	 * @param samplingPeriod	number of calls per timed call, a power of two.
+	 */
+	public PortMetrics(int samplingPeriod) {
+		assert samplingPeriod > 0 && Integer.bitCount(samplingPeriod) == 1;
+		this.samplingMask = samplingPeriod - 1;
+		this.methods = new MethodMetrics[0];
+	}
+
+	public int getSamplingPeriod() {
+		return (int) this.samplingMask + 1;
+	}
+
+	/**
+	 * return the metrics of a method, creating them at its first call.
+	 *
+	 * @param method	the method.
+	 * @return			its metrics.
+	 */
+	protected MethodMetrics metricsOf(PortMethod method) {
+		MethodMetrics[] all = this.methods;
+		int id = method.getId();
+		if (id < all.length && all[id] != null) {
+			return all[id];
+		}
+		synchronized (this) {
+			all = this.methods;
+			if (id >= all.length) {
+				all = Arrays.copyOf(all, id + 1);
+			} else if (all[id] == null) {
+				all = all.clone();
+			} else {
+				return all[id];
+			}
+			all[id] = new MethodMetrics(method);
+			this.methods = all;
+			return all[id];
+		}
+	}
+
+	/**
+	 * @see wattwatt.tools.interceptor.PortInterceptor#before(wattwatt.tools.interceptor.PortMethod)
+	 */
+	@Override
+	public long before(PortMethod method) {
+		long rank = this.metricsOf(method).started.getAndIncrement();
+		return (rank & this.samplingMask) == 0 ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * @see wattwatt.tools.interceptor.PortInterceptor#after(wattwatt.tools.interceptor.PortMethod, long, java.lang.Throwable)
+	 */
+	@Override
+	public void after(PortMethod method, long context, Throwable error) {
+		MethodMetrics m = this.metricsOf(method);
+		if (context != NOT_TIMED) {
+			m.latency.record(System.nanoTime() - context);
+		}
+		m.ended.incrementAndGet();
+		if (error != null) {
+			m.errors.increment();
+		}
+	}
+
+	/**
+	 * return the metrics of the methods called at least once, in the order
+	 * of the creation of their handles.
+	 *
+	 * @return	the metrics of the methods.
+	 */
+	public List<MethodSnapshot> snapshot() {
+		List<MethodSnapshot> ret = new ArrayList<>();
+		for (MethodMetrics m : this.methods) {
+			if (m != null) {
+				// read the ended calls first so that none is in progress twice
+				long ended = m.ended.get();
+				long started = m.started.get();
+				ret.add(new MethodSnapshot(m.method.getName(), ended, m.errors.sum(), started - ended,
+						m.latency.summarise()));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * forget the ended calls; the calls in progress are still counted.
+	 */
+	public void reset() {
+		for (MethodMetrics m : this.methods) {
+			if (m != null) {
+				long ended = m.ended.get();
+				m.ended.addAndGet(-ended);
+				m.started.addAndGet(-ended);
+				m.errors.reset();
+				m.latency.reset();
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package wattwatt.tools.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import wattwatt.tools.cache.ReadThroughCache;
+
+/**
+ * The class <code>PortMetricsReporter</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Export of the metrics of a set of ports, each known by its URI, and of
+ * the counters of their read caches. The report has one line per called
+ * method of each port and one per cached method; it is meant to be
+ * produced periodically by the component owning the ports, logged or
+ * written to a snapshot file replaced at each report, so that the file
+ * always holds a complete report.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class PortMetricsReporter {
+
+	/** metrics of the ports by their URI */
+	protected final Map<String, PortMetrics> ports;
+	/** read caches of the ports by their URI */
+	protected final Map<String, ReadThroughCache> caches;
+
+	public PortMetricsReporter() {
+		this.ports = new LinkedHashMap<>();
+		this.caches = new LinkedHashMap<>();
+	}
+
+	/**
+	 * add a port to the report.
+	 *
+	 * @param portURI	URI of the port.
+	 * @param metrics	the metrics put on the port.
+	 */
+	public synchronized void register(String portURI, PortMetrics metrics) {
+		assert portURI != null && metrics != null;
+		this.ports.put(portURI, metrics);
+	}
+
+	/**
+	 * add the read cache of a port to the report.
+	 *
+	 * @param portURI	URI of the port.
+	 * @param cache		the read cache of the port.
+	 */
+	public synchronized void register(String portURI, ReadThroughCache cache) {
+		assert portURI != null && cache != null;
+		this.caches.put(portURI, cache);
+	}
+
+	public synchronized PortMetrics getMetrics(String portURI) {
+		return this.ports.get(portURI);
+	}
+
+	public synchronized ReadThroughCache getReadCache(String portURI) {
+		return this.caches.get(portURI);
+	}
+
+	/**
+	 * return the report of the metrics of the ports.
+	 *
+	 * @return	the report, one line per called method of each port and one
+	 * 			per cached method.
+	 */
+	public synchronized String report() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, PortMetrics> e : this.ports.entrySet()) {
+			for (PortMetrics.MethodSnapshot m : e.getValue().snapshot()) {
+				sb.append(e.getKey()).append(' ').append(m).append(System.lineSeparator());
+			}
+		}
+		for (Map.Entry<String, ReadThroughCache> e : this.caches.entrySet()) {
+			for (ReadThroughCache.MethodSnapshot m : e.getValue().snapshot()) {
+				sb.append(e.getKey()).append(" cache ").append(m).append(System.lineSeparator());
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * write the report to a file, replacing its previous content at once.
+	 *
+	 * @param file	the snapshot file.
+	 * @throws IOException	if the file cannot be written.
+	 */
+	public void writeSnapshot(Path file) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.write(tmp, this.report().getBytes(StandardCharsets.UTF_8));
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
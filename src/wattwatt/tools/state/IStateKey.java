@@ -0,0 +1,22 @@
+package wattwatt.tools.state;
+
+/**
+ * The interface <code>IStateKey</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Implemented by the enumerations of the keys of a <code>StateTable</code>;
+ * the name of a key is the one used by the string-keyed access of
+ * <code>EmbeddingComponentAccessI</code>.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public interface IStateKey {
+
+	/**
+	 * @return the name of the key in the string-keyed access.
+	 */
+	public String getName();
+}
@@ -0,0 +1,218 @@
+package wattwatt.tools.state;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import fr.sorbonne_u.components.cyphy.interfaces.EmbeddingComponentAccessI;
+
+/**
+ * The class <code>StateTable</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Table of the accessors to the state of a component, used by the models
+ * it embeds instead of the string-keyed methods of
+ * <code>EmbeddingComponentAccessI</code>. The keys are the constants of an
+ * enumeration, and the accessors of a key are lambdas stored at its
+ * ordinal, so an access is an array lookup and a call. The doubles have
+ * their own getters and setters, so <code>getDouble</code> and
+ * <code>setDouble</code> box nothing.
+ *
+ * <p>
+ * The component builds its table once, in its constructor, and the models
+ * get it at the start of a run with <code>of</code>. The string-keyed
+ * methods of the component delegate to <code>getValue(String)</code> and
+ * <code>setValue(String, Object)</code>, which find the key by name.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class StateTable<K extends Enum<K> & IStateKey> {
+
+	/** name of the state value of a component giving its table */
+	public static final String STATE_VALUE_NAME = "stateTable";
+
+	@FunctionalInterface
+	public static interface DoubleGetter {
+		public double get() throws Exception;
+	}
+
+	@FunctionalInterface
+	public static interface DoubleSetter {
+		public void set(double value) throws Exception;
+	}
+
+	@FunctionalInterface
+	public static interface ValueGetter {
+		public Object get() throws Exception;
+	}
+
+	@FunctionalInterface
+	public static interface ValueSetter {
+		public void set(Object value) throws Exception;
+	}
+
+	@FunctionalInterface
+	public static interface Command {
+		public void run() throws Exception;
+	}
+
+	/** the enumeration of the keys */
+	protected final Class<K> keys;
+	/** the keys by name */
+	protected final Map<String, K> names;
+
+	protected final DoubleGetter[] doubleGetters;
+	protected final DoubleSetter[] doubleSetters;
+	protected final ValueGetter[] valueGetters;
+	protected final ValueSetter[] valueSetters;
+	protected final Command[] commands;
+
+	public StateTable(Class<K> keys) {
+		K[] all = keys.getEnumConstants();
+		this.keys = keys;
+		this.names = new HashMap<>();
+		for (K k : all) {
+			this.names.put(k.getName(), k);
+		}
+		this.doubleGetters = new DoubleGetter[all.length];
+		this.doubleSetters = new DoubleSetter[all.length];
+		this.valueGetters = new ValueGetter[all.length];
+		this.valueSetters = new ValueSetter[all.length];
+		this.commands = new Command[all.length];
+	}
+
+	/**
+	 * get the table of a component.
+	 *
+	 * @param <K>		type of the keys.
+	 * @param component	the component embedding the model.
+	 * @param keys		the enumeration of the keys of its table.
+	 * @return			the table of the component.
+	 * @throws Exception	<i>todo.</i>
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K extends Enum<K> & IStateKey> StateTable<K> of(EmbeddingComponentAccessI component,
+			Class<K> keys) throws Exception {
+		StateTable<?> ret = (StateTable<?>) component.getEmbeddingComponentStateValue(STATE_VALUE_NAME);
+		assert ret.keys == keys;
+		return (StateTable<K>) ret;
+	}
+
+	public Class<K> getKeys() {
+		return this.keys;
+	}
+
+	// -------------------------------------------------------------------------
+	// Building the table
+	// -------------------------------------------------------------------------
+
+	/**
+	 * set the accessors of a double.
+	 *
+	 * @param key		the key.
+	 * @param getter	its getter, or null.
+	 * @param setter	its setter, or null.
+	 */
+	public void putDouble(K key, DoubleGetter getter, DoubleSetter setter) {
+		this.doubleGetters[key.ordinal()] = getter;
+		this.doubleSetters[key.ordinal()] = setter;
+	}
+
+	/**
+	 * set the accessors of a value, e.g. an enumeration or an object shared
+	 * with the model.
+	 *
+	 * @param key		the key.
+	 * @param getter	its getter, or null.
+	 * @param setter	its setter, or null.
+	 */
+	public void putValue(K key, ValueGetter getter, ValueSetter setter) {
+		this.valueGetters[key.ordinal()] = getter;
+		this.valueSetters[key.ordinal()] = setter;
+	}
+
+	/**
+	 * set the command run on a key; a key with a command ignores the value
+	 * given to it by the string-keyed access.
+	 *
+	 * @param key		the key.
+	 * @param command	the command.
+	 */
+	public void putCommand(K key, Command command) {
+		this.commands[key.ordinal()] = command;
+	}
+
+	// -------------------------------------------------------------------------
+	// Typed access
+	// -------------------------------------------------------------------------
+
+	public double getDouble(K key) throws Exception {
+		return this.doubleGetters[key.ordinal()].get();
+	}
+
+	public void setDouble(K key, double value) throws Exception {
+		this.doubleSetters[key.ordinal()].set(value);
+	}
+
+	public Object getValue(K key) throws Exception {
+		return this.valueGetters[key.ordinal()].get();
+	}
+
+	public void setValue(K key, Object value) throws Exception {
+		this.valueSetters[key.ordinal()].set(value);
+	}
+
+	public void run(K key) throws Exception {
+		this.commands[key.ordinal()].run();
+	}
+
+	// -------------------------------------------------------------------------
+	// String-keyed access
+	// -------------------------------------------------------------------------
+
+	/**
+	 * get a state value by name, the doubles being boxed.
+	 *
+	 * @param name	name of the key, or <code>STATE_VALUE_NAME</code>.
+	 * @return		the value.
+	 * @throws Exception	<i>todo.</i>
+	 */
+	public Object getValue(String name) throws Exception {
+		if (name.equals(STATE_VALUE_NAME)) {
+			return this;
+		}
+		K key = this.names.get(name);
+		assert key != null : name;
+		int i = key.ordinal();
+		if (this.doubleGetters[i] != null) {
+			return this.doubleGetters[i].get();
+		} else {
+			assert this.valueGetters[i] != null : name;
+			return this.valueGetters[i].get();
+		}
+	}
+
+	/**
+	 * set a state value or run a command by name.
+	 *
+	 * @param name	name of the key.
+	 * @param value	the value, ignored by the commands.
+	 * @throws Exception	<i>todo.</i>
+	 */
+	public void setValue(String name, Object value) throws Exception {
+		K key = this.names.get(name);
+		assert key != null : name;
+		int i = key.ordinal();
+		if (this.commands[i] != null) {
+			this.commands[i].run();
+		} else if (this.doubleSetters[i] != null) {
+			this.doubleSetters[i].set(((Number) value).doubleValue());
+		} else {
+			assert this.valueSetters[i] != null : name;
+			this.valueSetters[i].set(value);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package wattwatt.tools.washingmachine;
+
+import simulation.tools.washingmachine.WashingMachineState;
+
+/**
+ * The class <code>WashingMachineMailbox</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Mailbox of the commands sent to a washing machine, merged while they wait
+ * for the component. The commands fall into three families, each keeping
+ * only what its last command leaves:
+ * <ul>
+ * <li>the state, written by <code>On</code>, <code>Off</code>,
+ * <code>startAt</code> and the washing modes;</li>
+ * <li>the washing mode, written by <code>ecoWashing</code> and
+ * <code>premiumWashing</code>;</li>
+ * <li>the starting time, set by <code>startAt</code> and
+ * <code>endBefore</code> and shifted by <code>late</code> and
+ * <code>advance</code>, whose deltas are summed; setting the starting
+ * time drops the shift posted before.</li>
+ * </ul>
+ * The component applies a batch by setting the mode, then the starting
+ * time and its shift, then the state, which gives the result of the
+ * commands run one by one except that the net shift is checked once by
+ * <code>canDelay</code> or <code>canAdvance</code> instead of each delta.
+ *
+ * <p>
+ * A post returns true when the mailbox was empty: the caller then submits
+ * one task taking the batch, and the commands posted until the task takes
+ * it are merged into it.
+ * </p>
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class WashingMachineMailbox {
+
+	/**
+	 * The class <code>Batch</code>
+	 *
+	 * <p><strong>Description</strong></p>
+	 *
+	 * Immutable merge of the commands taken from the mailbox at once.
+	 *
+	 * <p>Created on : 2020-01-27</p>
+	 *
+	 * @author	<p>Bah Thierno, Zheng Pascal</p>
+	 */
+	public static class Batch {
+		/** last state written, null if none */
+		protected final WashingMachineState state;
+		/** last washing mode chosen, null if none */
+		protected final WashingMachineMode mode;
+		/** whether the starting time was set */
+		protected final boolean startingTimeSet;
+		/** starting time set, meaningful when set */
+		protected final int startingTime;
+		/** sum of the delays minus the advances posted after it */
+		protected final int shift;
+
+		public Batch(WashingMachineState state, WashingMachineMode mode, boolean startingTimeSet, int startingTime,
+				int shift) {
+			this.state = state;
+			this.mode = mode;
+			this.startingTimeSet = startingTimeSet;
+			this.startingTime = startingTime;
+			this.shift = shift;
+		}
+
+		public WashingMachineState getState() {
+			return this.state;
+		}
+
+		public WashingMachineMode getMode() {
+			return this.mode;
+		}
+
+		public boolean isStartingTimeSet() {
+			return this.startingTimeSet;
+		}
+
+		public int getStartingTime() {
+			return this.startingTime;
+		}
+
+		public int getShift() {
+			return this.shift;
+		}
+	}
+
+	protected WashingMachineState state;
+	protected WashingMachineMode mode;
+	protected boolean startingTimeSet;
+	protected int startingTime;
+	protected int shift;
+	/** whether commands wait to be taken */
+	protected boolean pending;
+
+	/** number of commands posted */
+	protected long posted;
+	/** number of batches taken */
+	protected long taken;
+
+	public WashingMachineMailbox() {
+		this.clear();
+	}
+
+	protected void clear() {
+		this.state = null;
+		this.mode = null;
+		this.startingTimeSet = false;
+		this.startingTime = 0;
+		this.shift = 0;
+		this.pending = false;
+	}
+
+	/**
+	 * count a posted command.
+	 *
+	 * @return	true if the mailbox was empty.
+	 */
+	protected boolean post() {
+		this.posted++;
+		boolean wasEmpty = !this.pending;
+		this.pending = true;
+		return wasEmpty;
+	}
+
+	/**
+	 * post <code>On</code> or <code>Off</code>.
+	 *
+	 * @param state	the state written.
+	 * @return		true if the mailbox was empty.
+	 */
+	public synchronized boolean postState(WashingMachineState state) {
+		assert state != null;
+		this.state = state;
+		return this.post();
+	}
+
+	/**
+	 * post <code>ecoWashing</code> or <code>premiumWashing</code>, which also
+	 * turn the washing machine off.
+	 *
+	 * @param mode	the washing mode.
+	 * @return		true if the mailbox was empty.
+	 */
+	public synchronized boolean postMode(WashingMachineMode mode) {
+		assert mode != null;
+		this.mode = mode;
+		this.state = WashingMachineState.OFF;
+		return this.post();
+	}
+
+	/**
+	 * post <code>endBefore</code>, or <code>startAt</code> when the washing
+	 * machine starts working.
+	 *
+	 * @param startingTime	the starting time.
+	 * @param working		true for <code>startAt</code>.
+	 * @return				true if the mailbox was empty.
+	 */
+	public synchronized boolean postStartingTime(int startingTime, boolean working) {
+		this.startingTimeSet = true;
+		this.startingTime = startingTime;
+		this.shift = 0;
+		if (working) {
+			this.state = WashingMachineState.WORKING;
+		}
+		return this.post();
+	}
+
+	/**
+	 * post <code>late</code>, with a positive delta, or <code>advance</code>,
+	 * with a negative one.
+	 *
+	 * @param delta	the shift of the starting time.
+	 * @return		true if the mailbox was empty.
+	 */
+	public synchronized boolean postShift(int delta) {
+		this.shift += delta;
+		return this.post();
+	}
+
+	/**
+	 * take the merged commands, emptying the mailbox.
+	 *
+	 * @return	the batch of the merged commands.
+	 */
+	public synchronized Batch take() {
+		Batch ret = new Batch(this.state, this.mode, this.startingTimeSet, this.startingTime, this.shift);
+		this.taken++;
+		this.clear();
+		return ret;
+	}
+
+	public synchronized long getPosted() {
+		return this.posted;
+	}
+
+	public synchronized long getTaken() {
+		return this.taken;
+	}
+}
@@ -37,6 +37,13 @@ public class WashingMachineSetting {
 	 * The Rate at wich the Washing machine will send his energy consumption.
 	 */
 	public static final int UPDATE_RATE = 1000; 
+
+	/**
+	 * URI of the executor service applying the commands taken from the
+	 * mailbox of the washing machine, with one thread so that the batches
+	 * are applied one at a time in the order they were taken.
+	 */
+	public static final String MAILBOX_EXECUTOR_URI = "washing-machine-mailbox";
 	
 	/**
 	 * Energy consumption on eco mode in the simulation
@@ -54,12 +61,12 @@ public class WashingMachineSetting {
 	public static final double UPDATE_RATE_SIM = 1000;
 	
 	/**
-	 * End before time
+	 * End before time, in time units of the washing machine
 	 */
 	public static final int END = 25000; // finis avant ca 
 	
 	/**
-	 * Start at time
+	 * Start at time, in time units of the washing machine
 	 */
 	public static final int START = 1000;
 	
@@ -0,0 +1,37 @@
+package wattwatt.tools.washingmachine;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>WashingMachineStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the washing machine component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum WashingMachineStateKey implements IStateKey {
+
+	CONSUMPTION("consumption"),
+	MODE("mode"),
+	STATE("state"),
+	START("start"),
+	STOP("stop"),
+	PREMIUM_MODE("premiumMode"),
+	ECO_MODE("ecoMode");
+
+	private final String name;
+
+	private WashingMachineStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
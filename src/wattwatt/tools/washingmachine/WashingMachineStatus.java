@@ -0,0 +1,74 @@
+package wattwatt.tools.washingmachine;
+
+import java.io.Serializable;
+
+import simulation.tools.washingmachine.WashingMachineState;
+
+/**
+ * The class <code>WashingMachineStatus</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable view of the fields of the washing machine read together by one
+ * request on its inbound port, instead of one request per field.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class WashingMachineStatus implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** state of the washing machine */
+	protected final WashingMachineState state;
+	/** washing mode */
+	protected final WashingMachineMode mode;
+	/** consumption of the washing machine, 0 when it is off */
+	protected final double consumption;
+	/** starting time of the washing */
+	protected final int startingTime;
+	/** duration of the washing */
+	protected final int durationWork;
+
+	public WashingMachineStatus(WashingMachineState state, WashingMachineMode mode, double consumption,
+			int startingTime, int durationWork) {
+		assert state != null;
+		assert mode != null;
+
+		this.state = state;
+		this.mode = mode;
+		this.consumption = consumption;
+		this.startingTime = startingTime;
+		this.durationWork = durationWork;
+	}
+
+	public WashingMachineState getState() {
+		return this.state;
+	}
+
+	public WashingMachineMode getMode() {
+		return this.mode;
+	}
+
+	public double getConsumption() {
+		return this.consumption;
+	}
+
+	public int getStartingTime() {
+		return this.startingTime;
+	}
+
+	public int getDurationWork() {
+		return this.durationWork;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "WashingMachineStatus(" + this.state + ", " + this.mode + ", " + this.consumption + ", "
+				+ this.startingTime + ", " + this.durationWork + ")";
+	}
+}
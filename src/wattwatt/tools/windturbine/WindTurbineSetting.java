@@ -22,4 +22,10 @@ public class WindTurbineSetting {
 	 * The Rate at wich the Wind turbine will send his energy production.
 	 */
 	public static final int REGUL_RATE = 1000;
+
+	/**
+	 * URI of the executor service notifying the changes of the state of the
+	 * wind turbine to the components caching it.
+	 */
+	public static final String INVALIDATION_EXECUTOR_URI = "wind-turbine-invalidations";
 }
@@ -0,0 +1,34 @@
+package wattwatt.tools.windturbine;
+
+import wattwatt.tools.state.IStateKey;
+
+/**
+ * The enumeration <code>WindTurbineStateKey</code> 
+ *
+ * <p><strong>Description</strong></p>
+ * 
+ * Define the keys of the state of the wind turbine component accessed by its
+ * models through its <code>StateTable</code>
+ * 
+ * <p>Created on : 2020-01-27</p>
+ * 
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public enum WindTurbineStateKey implements IStateKey {
+
+	PRODUCTION("production"),
+	STATE("state"),
+	START("start"),
+	STOP("stop");
+
+	private final String name;
+
+	private WindTurbineStateKey(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+}
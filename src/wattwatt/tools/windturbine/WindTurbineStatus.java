@@ -0,0 +1,46 @@
+package wattwatt.tools.windturbine;
+
+import java.io.Serializable;
+
+/**
+ * The class <code>WindTurbineStatus</code>
+ *
+ * <p><strong>Description</strong></p>
+ *
+ * Immutable view of the fields of the wind turbine read together by one
+ * request on its inbound port, instead of one request per field.
+ *
+ * <p>Created on : 2020-01-27</p>
+ *
+ * @author	<p>Bah Thierno, Zheng Pascal</p>
+ */
+public class WindTurbineStatus implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** the wind turbine is on */
+	protected final boolean on;
+	/** production of the wind turbine */
+	protected final double production;
+
+	public WindTurbineStatus(boolean on, double production) {
+		this.on = on;
+		this.production = production;
+	}
+
+	public boolean isOn() {
+		return this.on;
+	}
+
+	public double getProduction() {
+		return this.production;
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "WindTurbineStatus(" + this.on + ", " + this.production + ")";
+	}
+}